@@ -0,0 +1,189 @@
+package sistemasolar;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 🏠 Anfitrión: ejecuta el sistema solar completo dentro de un único proceso.
+ *
+ * Arranca el Sol, la Tierra, los tres planetas originales y tantos planetas generados como se pidan,
+ * todos sobre hilos virtuales. Cada nodo pasa de ocupar una JVM entera a unos pocos KB, lo que permite
+ * probar miles de planetas en una sola máquina. Salvo que se indique -Dtierra.destinos, la Tierra
+ * reenvía a todos los planetas del proceso (ver Tierra.Salida).
+ *
+ * El apagado es ordenado: al terminar la duración indicada (o al pulsar Ctrl+C) se cierra cada
+ * componente, lo que cierra sus canales y despierta a los hilos bloqueados en receive/select,
+ * y se espera a que todos terminen.
+ *
+ * Con -Dmetricas.puerto expone las métricas de todos los nodos en un único endpoint (ver ServidorMetricas).
+ *
+ * Uso: java sistemasolar.Anfitrion planetas=1000 puerto=8000 duracion=60 periodo=5000 presets=si hilos=virtuales
+ */
+public class Anfitrion {
+
+    // Tiempo máximo de espera para que terminen los hilos al apagar
+    private static final long ESPERA_APAGADO_MS = 5000;
+
+    private final int planetas;
+    private final int puertoBase;
+    private final boolean presets;
+    private final long periodoSolMs;
+    private final ThreadFactory fabrica;
+
+    private final List<Planeta> instancias = new ArrayList<>();
+    private Sol sol;
+    private Tierra tierra;
+    private Thread hiloSol;
+
+    // Métricas de todos los nodos del proceso, expuestas con -Dmetricas.puerto
+    private final RegistroMetricas registro = new RegistroMetricas();
+    private ServidorMetricas servidorMetricas;
+
+    public Anfitrion(int planetas, int puertoBase, boolean presets, long periodoSolMs, boolean virtuales) {
+        if (planetas < 0) throw new IllegalArgumentException("El número de planetas no puede ser negativo");
+        this.planetas = planetas;
+        this.puertoBase = puertoBase;
+        this.presets = presets;
+        this.periodoSolMs = periodoSolMs;
+        this.fabrica = virtuales ? Thread.ofVirtual().factory() : Thread.ofPlatform().factory();
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int planetas = 0;
+        int puertoBase = 8000;
+        int duracion = 0;
+        long periodo = 5000;
+        boolean presets = true;
+        boolean virtuales = true;
+
+        for (String arg : args) {
+            int igual = arg.indexOf('=');
+            if (igual < 0) throw new IllegalArgumentException("Se esperaba clave=valor: " + arg);
+            String clave = arg.substring(0, igual);
+            String valor = arg.substring(igual + 1);
+            switch (clave) {
+                case "planetas" -> planetas = Integer.parseInt(valor);
+                case "puerto" -> puertoBase = Integer.parseInt(valor);
+                case "duracion" -> duracion = Integer.parseInt(valor);
+                case "periodo" -> periodo = Long.parseLong(valor);
+                case "presets" -> presets = valor.equalsIgnoreCase("si");
+                case "hilos" -> virtuales = !valor.equalsIgnoreCase("plataforma");
+                default -> throw new IllegalArgumentException("Parámetro desconocido: " + clave);
+            }
+        }
+
+        Anfitrion anfitrion = new Anfitrion(planetas, puertoBase, presets, periodo, virtuales);
+        CountDownLatch fin = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            anfitrion.detener();
+            fin.countDown();
+        }, "anfitrion-cierre"));
+
+        anfitrion.iniciar();
+        if (duracion > 0) {
+            // Sin duración se ejecuta hasta Ctrl+C; con ella el apagado lo hace este hilo
+            fin.await(duracion, TimeUnit.SECONDS);
+            anfitrion.detener();
+            System.exit(0);
+        }
+    }
+
+    /**
+     * Arranca los planetas, la Tierra y, por último, el Sol.
+     */
+    public synchronized void iniciar() {
+        if (presets) {
+            instancias.add(new Planeta(ConfiguracionPlaneta.MARTE));
+            instancias.add(new Planeta(ConfiguracionPlaneta.MERCURIO));
+            instancias.add(new Planeta(ConfiguracionPlaneta.URANO));
+        }
+        for (int i = 0; i < planetas; i++) {
+            instancias.add(new Planeta(ConfiguracionPlaneta.generado(i, puertoBase)));
+        }
+        registro.registrarJvm();
+        RuedaTemporizadores.compartida().registrarMetricas(registro);
+        for (Planeta planeta : instancias) {
+            planeta.registrarMetricas(registro);
+            planeta.iniciar(fabrica);
+        }
+
+        tierra = new Tierra(Tierra.Salida.configuradas(salidas()));
+        tierra.registrarMetricas(registro);
+        tierra.iniciar(fabrica);
+
+        sol = new Sol(periodoSolMs);
+        sol.registrarMetricas(registro);
+        hiloSol = fabrica.newThread(sol::ejecutar);
+        hiloSol.setName("sol");
+        hiloSol.start();
+
+        Consola.info("🏠 Anfitrión: Sol, Tierra y " + instancias.size() + " planetas en ejecución ("
+                + memoriaUsadaMb() + " MB de heap en uso)");
+        servidorMetricas = ServidorMetricas.iniciarSiConfigurado(registro);
+    }
+
+    /**
+     * Cierra todos los componentes y espera a que terminen sus hilos. Puede llamarse más de una vez.
+     */
+    public synchronized void detener() {
+        if (sol == null) return;
+
+        long inicio = System.nanoTime();
+        if (servidorMetricas != null) servidorMetricas.close();
+        sol.close();
+        tierra.close();
+        for (Planeta planeta : instancias) {
+            planeta.close();
+        }
+
+        long limite = inicio + TimeUnit.MILLISECONDS.toNanos(ESPERA_APAGADO_MS);
+        boolean completo = esperarHilos(limite);
+
+        int explotados = 0;
+        for (Planeta planeta : instancias) {
+            if (planeta.getEstado().haExplotado()) explotados++;
+        }
+        Consola.info("🏠 Anfitrión detenido en " + (System.nanoTime() - inicio) / 1_000_000 + " ms"
+                + (completo ? "" : " (quedaron hilos sin terminar)")
+                + " | planetas: " + instancias.size() + ", explotados: " + explotados);
+        Consola.vaciar();
+        sol = null;
+    }
+
+    private boolean esperarHilos(long limite) {
+        try {
+            if (!hiloSol.join(Duration.ofNanos(Math.max(1, limite - System.nanoTime())))) return false;
+            if (!tierra.esperar(limite)) return false;
+            for (Planeta planeta : instancias) {
+                if (!planeta.esperar(limite)) return false;
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    // Los tres de siempre, en el orden de sus pesos por defecto, y los generados; sin ninguno en el
+    // proceso, los tres de siempre por si se ejecutan aparte
+    private List<Tierra.Salida> salidas() {
+        List<Tierra.Salida> salidas = new ArrayList<>();
+        if (presets || planetas == 0) salidas.addAll(Tierra.Salida.PRESETS);
+        for (Planeta planeta : instancias) {
+            ConfiguracionPlaneta config = planeta.getConfiguracion();
+            if (config.nodo() >= ConfiguracionPlaneta.NODO_PRIMER_GENERADO) {
+                salidas.add(new Tierra.Salida(config.nombre(), config.puertoTcp()));
+            }
+        }
+        return salidas;
+    }
+
+    private static long memoriaUsadaMb() {
+        Runtime runtime = Runtime.getRuntime();
+        return (runtime.totalMemory() - runtime.freeMemory()) / (1024 * 1024);
+    }
+}
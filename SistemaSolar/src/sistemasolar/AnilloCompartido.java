@@ -0,0 +1,221 @@
+package sistemasolar;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 🧠 Anillo de mensajes en memoria compartida, para nodos que se ejecutan en la misma máquina.
+ *
+ * Es un fichero proyectado en memoria (idealmente en /dev/shm) que hace de buffer circular con un solo
+ * productor y varios consumidores, todos en procesos (o hilos) distintos. Un mensaje publicado llega
+ * a los consumidores sin llamadas al sistema ni paso por la pila de red: basta con que lean la memoria.
+ *
+ * Distribución del fichero (enteros en el orden nativo):
+ *
+ *   0       cabecera: magia, versión, capacidad (huecos) y tamaño de hueco
+ *   64      cursor del productor: secuencia del último mensaje publicado (en su propia línea de caché)
+ *   128     cursores de los consumidores: MAX_LECTORES líneas de 64 bytes [pid dueño][siguiente secuencia]
+ *   4096    datos: 'capacidad' huecos de 64 bytes [sello][mensaje de CodecMensaje.TAMANO bytes]
+ *
+ * La secuencia n se guarda en el hueco n mod capacidad. El productor marca el hueco como en escritura
+ * (sello -n), escribe el mensaje y lo sella con n; después publica el cursor. Un consumidor copia el
+ * mensaje y comprueba que el sello no cambió durante la copia, así que nunca ve un mensaje a medias.
+ *
+ * El productor nunca espera: como en multicast, un consumidor que se queda más de 'capacidad' mensajes
+ * atrás pierde los más antiguos (y los cuenta). Los cursores de los consumidores solo sirven para ver
+ * desde fuera cuánto van retrasados.
+ *
+ * Quien abre primero el fichero lo inicializa; un productor que se reinicia continúa desde el cursor
+ * guardado, de modo que los consumidores no notan el cambio.
+ */
+public final class AnilloCompartido implements Publicador, Enlace {
+
+    private static final int MAGIA = 0x534F4C31; // "SOL1"
+    private static final int VERSION = 1;
+
+    static final int TAMANO_HUECO = 64;
+    static final int MAX_LECTORES = 32;
+
+    private static final int OFFSET_CAPACIDAD = 8;
+    private static final int OFFSET_TAMANO_HUECO = 12;
+    static final int OFFSET_CURSOR = 64;
+    static final int OFFSET_LECTORES = 128;
+    static final int OFFSET_DATOS = 4096;
+
+    // Acceso atómico (con barreras) a los long de la región proyectada
+    static final VarHandle LARGO = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    // Los bloqueos de fichero son por proceso: dentro de uno, las aperturas simultáneas se ordenan aquí
+    private static final ReentrantLock APERTURA = new ReentrantLock();
+
+    private final Path ruta;
+    private final MappedByteBuffer mapa;
+    private final int capacidad;
+    private final int mascara;
+
+    // Estado del productor (solo lo usa el hilo que publica)
+    private long publicados = -1;
+    private final ByteBuffer trama = ByteBuffer.allocate(CodecMensaje.TAMANO);
+
+    private AnilloCompartido(Path ruta, MappedByteBuffer mapa, int capacidad) {
+        this.ruta = ruta;
+        this.mapa = mapa;
+        this.capacidad = capacidad;
+        this.mascara = capacidad - 1;
+    }
+
+    /**
+     * Abre (y si hace falta crea) el anillo del fichero indicado.
+     *
+     * @param capacidad huecos del anillo si hay que crearlo (potencia de dos); si ya existe se usa la suya
+     */
+    public static AnilloCompartido abrir(Path ruta, int capacidad) throws IOException {
+        if (capacidad <= 0 || Integer.bitCount(capacidad) != 1) {
+            throw new IllegalArgumentException("La capacidad del anillo debe ser una potencia de dos: " + capacidad);
+        }
+        Files.createDirectories(ruta.toAbsolutePath().getParent());
+        APERTURA.lock();
+        try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            FileLock bloqueo = canal.lock();
+            try {
+                // Con el fichero bloqueado, solo uno de los procesos que lo abren a la vez lo inicializa
+                ByteBuffer cabecera = ByteBuffer.allocate(16).order(ByteOrder.nativeOrder());
+                canal.read(cabecera, 0);
+                cabecera.flip();
+                boolean valido = cabecera.remaining() == 16 && cabecera.getInt(0) == MAGIA
+                        && cabecera.getInt(4) == VERSION && cabecera.getInt(OFFSET_TAMANO_HUECO) == TAMANO_HUECO;
+                if (valido) {
+                    capacidad = cabecera.getInt(OFFSET_CAPACIDAD);
+                } else {
+                    // Al volver a crecer, el fichero queda a ceros sin tener que escribirlo entero
+                    canal.truncate(0);
+                }
+
+                long tamano = OFFSET_DATOS + (long) capacidad * TAMANO_HUECO;
+                MappedByteBuffer mapa = canal.map(FileChannel.MapMode.READ_WRITE, 0, tamano);
+                mapa.order(ByteOrder.nativeOrder());
+                if (!valido) {
+                    mapa.putInt(OFFSET_CAPACIDAD, capacidad);
+                    mapa.putInt(OFFSET_TAMANO_HUECO, TAMANO_HUECO);
+                    mapa.putInt(4, VERSION);
+                    // La magia va al final: hasta entonces otro proceso no da el anillo por válido
+                    mapa.putInt(0, MAGIA);
+                    mapa.force();
+                }
+                return new AnilloCompartido(ruta, mapa, capacidad);
+            } finally {
+                bloqueo.release();
+            }
+        } finally {
+            APERTURA.unlock();
+        }
+    }
+
+    /**
+     * Publica un mensaje. Solo puede haber un hilo productor por anillo.
+     */
+    public void publicar(Mensaje mensaje) {
+        if (publicados < 0) publicados = (long) LARGO.getAcquire(mapa, OFFSET_CURSOR);
+        long secuencia = publicados + 1;
+        int hueco = OFFSET_DATOS + (int) (secuencia & mascara) * TAMANO_HUECO;
+
+        trama.clear();
+        CodecMensaje.codificar(mensaje, trama);
+
+        // Sello negativo mientras se escribe: un consumidor que lea el hueco a la vez lo descartará
+        LARGO.setOpaque(mapa, hueco, -secuencia);
+        VarHandle.storeStoreFence();
+        mapa.put(hueco + Long.BYTES, trama, 0, CodecMensaje.TAMANO);
+        LARGO.setRelease(mapa, hueco, secuencia);
+        LARGO.setRelease(mapa, OFFSET_CURSOR, secuencia);
+        publicados = secuencia;
+    }
+
+    /**
+     * Crea un consumidor que empieza por el próximo mensaje que se publique.
+     */
+    public LectorAnillo lector() {
+        return lector(new LongAdder());
+    }
+
+    /**
+     * Como lector(), pero sumando sus pérdidas al contador indicado, que pueden compartir varios lectores.
+     */
+    public LectorAnillo lector(LongAdder perdidos) {
+        return new LectorAnillo(this, perdidos);
+    }
+
+    MappedByteBuffer getMapa() {
+        return mapa;
+    }
+
+    int getCapacidad() {
+        return capacidad;
+    }
+
+    int getMascara() {
+        return mascara;
+    }
+
+    /**
+     * Secuencia del último mensaje publicado.
+     */
+    public long getCursor() {
+        return (long) LARGO.getAcquire(mapa, OFFSET_CURSOR);
+    }
+
+    public Path getRuta() {
+        return ruta;
+    }
+
+    // Como Publicador (Sol): cada mensaje se publica al añadirlo, sin lotes
+
+    @Override
+    public void anadir(Mensaje mensaje) {
+        publicar(mensaje);
+    }
+
+    @Override
+    public void vencer(long ahora) {
+        // Nada pendiente
+    }
+
+    @Override
+    public long vencimiento() {
+        return Long.MAX_VALUE;
+    }
+
+    // Como Enlace (Tierra → planeta): siempre disponible, aunque nadie lea todavía
+
+    @Override
+    public boolean enviar(Mensaje mensaje) {
+        publicar(mensaje);
+        return true;
+    }
+
+    /**
+     * No hay nada que cerrar: la proyección se libera cuando deja de usarse y el fichero se conserva
+     * para los demás procesos.
+     */
+    @Override
+    public void close() {
+        // Nada que liberar explícitamente
+    }
+
+    @Override
+    public String toString() {
+        return ruta + " (" + capacidad + " huecos, cursor " + getCursor() + ")";
+    }
+}
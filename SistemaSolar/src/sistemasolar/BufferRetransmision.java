@@ -0,0 +1,94 @@
+package sistemasolar;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 🔁 Últimos mensajes emitidos por el Sol, para atender los NACK de los receptores.
+ *
+ * Es un anillo indexado por número de secuencia: guardar un mensaje sustituye al que ocupaba su hueco
+ * hace 'capacidad' secuencias, así que la memoria es fija y una petición de algo más antiguo se cuenta
+ * como no disponible.
+ *
+ * Con muchos receptores, una misma pérdida en la red puede provocar un NACK de cada uno. Como la
+ * reparación se envía por multicast a todos, cada secuencia se retransmite como mucho una vez por
+ * SUPRESION; el resto de peticiones dentro de ese plazo se ignoran.
+ *
+ * Seguro entre hilos: el hilo emisor guarda y el hilo de NACK reclama.
+ */
+public class BufferRetransmision {
+
+    // Plazo durante el que se ignoran nuevas peticiones de una secuencia recién retransmitida
+    static final long SUPRESION_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+
+    private final Mensaje[] mensajes;
+    private final long[] ultimoReenvio;
+    private final boolean[] reenviado;
+    private final int mascara;
+
+    private final LongAdder retransmitidos = new LongAdder();
+    private final LongAdder noDisponibles = new LongAdder();
+    private final LongAdder suprimidos = new LongAdder();
+
+    /**
+     * @param capacidad mensajes recordados; se redondea a la siguiente potencia de dos
+     */
+    public BufferRetransmision(int capacidad) {
+        if (capacidad <= 0) throw new IllegalArgumentException("La capacidad debe ser positiva");
+        int huecos = Integer.highestOneBit(Math.max(2, capacidad) * 2 - 1);
+        this.mensajes = new Mensaje[huecos];
+        this.ultimoReenvio = new long[huecos];
+        this.reenviado = new boolean[huecos];
+        this.mascara = huecos - 1;
+    }
+
+    /**
+     * Guarda un mensaje recién emitido.
+     */
+    public synchronized void guardar(Mensaje mensaje) {
+        int hueco = (int) (mensaje.getSecuencia() & mascara);
+        mensajes[hueco] = mensaje;
+        reenviado[hueco] = false;
+    }
+
+    /**
+     * Devuelve el mensaje con esa secuencia si hay que retransmitirlo, o null si ya no está guardado
+     * o se retransmitió hace menos de SUPRESION.
+     *
+     * @param ahora instante actual según System.nanoTime
+     */
+    public synchronized Mensaje reclamar(long secuencia, long ahora) {
+        int hueco = (int) (secuencia & mascara);
+        Mensaje mensaje = mensajes[hueco];
+        if (mensaje == null || mensaje.getSecuencia() != secuencia) {
+            noDisponibles.increment();
+            return null;
+        }
+        if (reenviado[hueco] && ahora - ultimoReenvio[hueco] < SUPRESION_NANOS) {
+            suprimidos.increment();
+            return null;
+        }
+        reenviado[hueco] = true;
+        ultimoReenvio[hueco] = ahora;
+        retransmitidos.increment();
+        return mensaje;
+    }
+
+    public long getRetransmitidos() {
+        return retransmitidos.sum();
+    }
+
+    public long getNoDisponibles() {
+        return noDisponibles.sum();
+    }
+
+    public long getSuprimidos() {
+        return suprimidos.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "retransmitidos=" + getRetransmitidos() + ", no disponibles=" + getNoDisponibles()
+                + ", suprimidos=" + getSuprimidos();
+    }
+}
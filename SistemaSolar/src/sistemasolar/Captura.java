@@ -0,0 +1,408 @@
+package sistemasolar;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 🎞️ Fichero de captura de tráfico: lo que el Grabador ve pasar por la red y el Reproductor vuelve a inyectar.
+ *
+ * Es un fichero binario de solo añadir. Empieza con una cabecera y la tabla de canales capturados:
+ *
+ *   [int MAGIA "CAPT"][byte VERSION][byte canales][short 0][long inicio (ns desde la época Unix)]
+ *   por canal: [byte tipo (MULTICAST o TCP)][4 bytes dirección IPv4][int puerto]
+ *
+ * La dirección de un canal multicast es el grupo de su tema del Sol (ver TemasSol), y la de un canal TCP
+ * la del planeta.
+ *
+ * y sigue con un registro por datagrama multicast o trama TCP, en el orden en que llegaron:
+ *
+ *   [varlong ns desde el registro anterior][byte canal][varint longitud][longitud bytes de carga]
+ *
+ * La carga es el datagrama tal cual (un lote de mensajes de CodecMensaje) o la trama TCP sin su
+ * prefijo de longitud. Con enteros de longitud variable cada registro de un mensaje ocupa unos 48
+ * bytes. Un registro a medio escribir al final (el grabador murió de golpe) se ignora al leer.
+ */
+public final class Captura {
+
+    public static final int MAGIA = 0x43415054; // "CAPT"
+    public static final byte VERSION = 1;
+
+    // Cabecera fija sin la tabla de canales
+    private static final int TAMANO_CABECERA = 16;
+    private static final int TAMANO_CANAL = 9;
+
+    // Cabecera más larga posible de un registro: varlong (10) + canal (1) + varint (5)
+    private static final int MAX_CABECERA_REGISTRO = 16;
+
+    // Buffer de escritura y de lectura
+    private static final int TAMANO_BUFFER = 1 << 20;
+
+    /**
+     * Origen del tráfico capturado.
+     */
+    public enum Tipo {MULTICAST, TCP}
+
+    /**
+     * Un canal capturado: el grupo multicast de un tema del Sol o un puerto TCP de planeta.
+     *
+     * @param ip dirección IPv4 a la que iba el tráfico, en texto
+     */
+    public record Canal(Tipo tipo, String ip, int puerto) {
+
+        /**
+         * Canal del grupo multicast de un tema del Sol.
+         */
+        public static Canal multicast(TemasSol.Tema tema) {
+            return new Canal(Tipo.MULTICAST, tema.ip(), tema.puerto());
+        }
+
+        /**
+         * Canal de un puerto TCP de planeta, en esta máquina.
+         */
+        public static Canal tcp(int puerto) {
+            return new Canal(Tipo.TCP, InetAddress.getLoopbackAddress().getHostAddress(), puerto);
+        }
+
+        @Override
+        public String toString() {
+            return tipo == Tipo.MULTICAST ? "multicast:" + ip + ":" + puerto : "tcp:" + puerto;
+        }
+    }
+
+    private Captura() {
+    }
+
+    /**
+     * Escribe una captura. Lo pueden usar varios hilos a la vez (uno por canal): cada registro se
+     * anota con su instante bajo el mismo cerrojo, así que los instantes del fichero nunca retroceden.
+     */
+    public static final class Escritor implements Closeable {
+        private final FileChannel fichero;
+        private final List<Canal> canales;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(TAMANO_BUFFER);
+
+        // ReentrantLock y no synchronized: escriben hilos virtuales (ver ServidorTcpVirtual)
+        private final ReentrantLock cerrojo = new ReentrantLock();
+
+        private final long inicio = System.nanoTime();
+        private long anterior = inicio;
+        private long registros = 0;
+        private long bytes;
+        private final long[] porCanal;
+        private boolean cerrado = false;
+
+        private Escritor(FileChannel fichero, List<Canal> canales) throws IOException {
+            this.fichero = fichero;
+            this.canales = List.copyOf(canales);
+            this.porCanal = new long[canales.size()];
+            buffer.putInt(MAGIA).put(VERSION).put((byte) canales.size()).putShort((short) 0).putLong(Reloj.ahoraNanos());
+            for (Canal canal : canales) {
+                buffer.put((byte) canal.tipo().ordinal()).put(direccion(canal)).putInt(canal.puerto());
+            }
+            bytes = buffer.position();
+            volcar();
+        }
+
+        private static byte[] direccion(Canal canal) throws IOException {
+            byte[] direccion = InetAddress.getByName(canal.ip()).getAddress();
+            if (direccion.length != 4) throw new IllegalArgumentException("Solo se graban canales IPv4: " + canal);
+            return direccion;
+        }
+
+        /**
+         * Crea (o sustituye) el fichero de captura con los canales indicados.
+         */
+        public static Escritor crear(Path ruta, List<Canal> canales) throws IOException {
+            if (canales.isEmpty() || canales.size() > 255) {
+                throw new IllegalArgumentException("Una captura necesita entre 1 y 255 canales");
+            }
+            FileChannel fichero = FileChannel.open(ruta, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            try {
+                return new Escritor(fichero, canales);
+            } catch (IOException | RuntimeException e) {
+                fichero.close();
+                throw e;
+            }
+        }
+
+        /**
+         * Anota la carga (de la posición al límite, sin moverla) como recibida ahora por el canal indicado.
+         */
+        public void anotar(int canal, ByteBuffer carga) throws IOException {
+            int longitud = carga.remaining();
+            if (longitud > TAMANO_BUFFER - MAX_CABECERA_REGISTRO) {
+                throw new IllegalArgumentException("Carga demasiado grande para la captura: " + longitud + " bytes");
+            }
+            cerrojo.lock();
+            try {
+                if (cerrado) return;
+                if (buffer.remaining() < MAX_CABECERA_REGISTRO + longitud) volcar();
+
+                long ahora = System.nanoTime();
+                int antes = buffer.position();
+                escribirVarLong(buffer, ahora - anterior);
+                buffer.put((byte) canal);
+                escribirVarLong(buffer, longitud);
+                buffer.put(buffer.position(), carga, carga.position(), longitud);
+                buffer.position(buffer.position() + longitud);
+                anterior = ahora;
+                registros++;
+                porCanal[canal]++;
+                bytes += buffer.position() - antes;
+            } finally {
+                cerrojo.unlock();
+            }
+        }
+
+        /**
+         * Escribe en el fichero lo que quede en el buffer.
+         */
+        public void vaciar() throws IOException {
+            cerrojo.lock();
+            try {
+                if (!cerrado) volcar();
+            } finally {
+                cerrojo.unlock();
+            }
+        }
+
+        private void volcar() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) fichero.write(buffer);
+            buffer.clear();
+        }
+
+        public List<Canal> getCanales() {
+            return canales;
+        }
+
+        public long getRegistros() {
+            cerrojo.lock();
+            try {
+                return registros;
+            } finally {
+                cerrojo.unlock();
+            }
+        }
+
+        public long getBytes() {
+            cerrojo.lock();
+            try {
+                return bytes;
+            } finally {
+                cerrojo.unlock();
+            }
+        }
+
+        /**
+         * Tiempo transcurrido desde que se abrió la captura.
+         */
+        public long getDuracionNanos() {
+            return System.nanoTime() - inicio;
+        }
+
+        @Override
+        public String toString() {
+            cerrojo.lock();
+            try {
+                StringBuilder texto = new StringBuilder().append(registros).append(" registros, ")
+                        .append(bytes / 1024).append(" KB");
+                for (int i = 0; i < canales.size(); i++) {
+                    texto.append(" | ").append(canales.get(i)).append(": ").append(porCanal[i]);
+                }
+                return texto.toString();
+            } finally {
+                cerrojo.unlock();
+            }
+        }
+
+        /**
+         * Vacía el buffer y cierra el fichero; lo que se anote después se descarta.
+         */
+        @Override
+        public void close() throws IOException {
+            cerrojo.lock();
+            try {
+                if (cerrado) return;
+                try {
+                    volcar();
+                    fichero.force(false);
+                } finally {
+                    cerrado = true;
+                    fichero.close();
+                }
+            } finally {
+                cerrojo.unlock();
+            }
+        }
+    }
+
+    /**
+     * Lee una captura registro a registro, reutilizando el mismo buffer. No es seguro entre hilos.
+     */
+    public static final class Lector implements Closeable {
+        private final FileChannel fichero;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(TAMANO_BUFFER);
+
+        // Vista reutilizada sobre la carga del registro actual, para no crear un objeto por registro
+        private final ByteBuffer carga = buffer.duplicate();
+
+        private final List<Canal> canales;
+        private final long inicioEpochNanos;
+        private boolean finFichero = false;
+
+        // Registro actual
+        private long instante = 0;
+        private int canal;
+
+        private Lector(FileChannel fichero) throws IOException {
+            this.fichero = fichero;
+            buffer.flip();
+            if (!asegurar(TAMANO_CABECERA)) throw new IOException("Captura sin cabecera");
+            if (buffer.getInt() != MAGIA) throw new IOException("No es un fichero de captura");
+            byte version = buffer.get();
+            if (version != VERSION) throw new IOException("Versión de captura no soportada: " + version);
+            int numCanales = Byte.toUnsignedInt(buffer.get());
+            buffer.getShort();
+            inicioEpochNanos = buffer.getLong();
+
+            if (!asegurar(numCanales * TAMANO_CANAL)) {
+                throw new IOException("Tabla de canales incompleta");
+            }
+            List<Canal> leidos = new ArrayList<>(numCanales);
+            Tipo[] tipos = Tipo.values();
+            byte[] direccion = new byte[4];
+            for (int i = 0; i < numCanales; i++) {
+                int tipo = buffer.get();
+                if (tipo < 0 || tipo >= tipos.length) throw new IOException("Tipo de canal desconocido: " + tipo);
+                buffer.get(direccion);
+                leidos.add(new Canal(tipos[tipo], InetAddress.getByAddress(direccion).getHostAddress(), buffer.getInt()));
+            }
+            canales = List.copyOf(leidos);
+        }
+
+        public static Lector abrir(Path ruta) throws IOException {
+            FileChannel fichero = FileChannel.open(ruta, StandardOpenOption.READ);
+            try {
+                return new Lector(fichero);
+            } catch (IOException | RuntimeException e) {
+                fichero.close();
+                throw e;
+            }
+        }
+
+        /**
+         * Avanza al siguiente registro.
+         *
+         * @return false al llegar al final (o a un registro incompleto al final del fichero)
+         * @throws IOException si un registro apunta a un canal que no existe
+         */
+        public boolean siguiente() throws IOException {
+            if (!asegurar(MAX_CABECERA_REGISTRO) && !buffer.hasRemaining()) return false;
+            int marca = buffer.position();
+            try {
+                long delta = leerVarLong(buffer);
+                int leido = Byte.toUnsignedInt(buffer.get());
+                int longitud = (int) leerVarLong(buffer);
+                if (leido >= canales.size()) throw new IOException("Registro de un canal desconocido: " + leido);
+                if (longitud < 0 || longitud > TAMANO_BUFFER - MAX_CABECERA_REGISTRO) {
+                    throw new IOException("Longitud de registro inválida: " + longitud);
+                }
+                if (buffer.remaining() < longitud) {
+                    buffer.position(marca);
+                    if (!asegurar(MAX_CABECERA_REGISTRO + longitud)) return false;
+                    return siguiente();
+                }
+                instante += delta;
+                canal = leido;
+                int inicioCarga = buffer.position();
+                carga.clear().position(inicioCarga).limit(inicioCarga + longitud);
+                buffer.position(inicioCarga + longitud);
+                return true;
+            } catch (EOFException | BufferUnderflowException e) {
+                // Cabecera del último registro cortada: se trata como el final
+                return false;
+            }
+        }
+
+        // Garantiza al menos n bytes en el buffer si el fichero los tiene; false si no llegan
+        private boolean asegurar(int n) throws IOException {
+            if (buffer.remaining() >= n) return true;
+            if (finFichero) return false;
+            buffer.compact();
+            while (buffer.position() < n) {
+                if (fichero.read(buffer) < 0) {
+                    finFichero = true;
+                    break;
+                }
+            }
+            buffer.flip();
+            return buffer.remaining() >= n;
+        }
+
+        public List<Canal> getCanales() {
+            return canales;
+        }
+
+        /**
+         * Instante en que empezó la captura, en nanosegundos desde la época Unix.
+         */
+        public long getInicioEpochNanos() {
+            return inicioEpochNanos;
+        }
+
+        /**
+         * Nanosegundos desde el inicio de la captura hasta el registro actual.
+         */
+        public long getInstante() {
+            return instante;
+        }
+
+        public int getCanal() {
+            return canal;
+        }
+
+        /**
+         * Carga del registro actual; la vista solo es válida hasta la siguiente llamada a siguiente().
+         */
+        public ByteBuffer getCarga() {
+            return carga;
+        }
+
+        @Override
+        public void close() throws IOException {
+            fichero.close();
+        }
+    }
+
+    // Entero sin signo en grupos de 7 bits, del menos significativo al más (como en protobuf)
+    static void escribirVarLong(ByteBuffer destino, long valor) {
+        while ((valor & ~0x7FL) != 0) {
+            destino.put((byte) ((valor & 0x7F) | 0x80));
+            valor >>>= 7;
+        }
+        destino.put((byte) valor);
+    }
+
+    static long leerVarLong(ByteBuffer origen) throws EOFException {
+        long valor = 0;
+        for (int desplazamiento = 0; desplazamiento < 64; desplazamiento += 7) {
+            if (!origen.hasRemaining()) throw new EOFException();
+            byte b = origen.get();
+            valor |= (long) (b & 0x7F) << desplazamiento;
+            if (b >= 0) return valor;
+        }
+        throw new EOFException();
+    }
+}
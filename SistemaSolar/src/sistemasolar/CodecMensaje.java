@@ -0,0 +1,238 @@
+package sistemasolar;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 📦 Codificador binario de mensajes.
+ *
+ * Sustituye a la serialización estándar de Java por un formato fijo y versionado de 48 bytes:
+ *
+ *   offset  tamaño  campo
+ *   0       1       versión del formato
+ *   1       1       ordinal de la instrucción
+ *   2       2       identificador numérico del nodo origen
+ *   4       8       UUID (bits más significativos)
+ *   12      8       UUID (bits menos significativos)
+ *   20      8       número de secuencia
+ *   28      8       marca de tiempo de este envío (nanosegundos desde la época Unix)
+ *   36      8       marca de tiempo de la emisión original en el Sol (igual a la anterior si lo emite el Sol)
+ *   44      4       época del emisor: distinta en cada arranque del proceso que numera la secuencia
+ *
+ * Con las dos marcas, quien recibe un reenvío de la Tierra puede medir tanto el último salto como
+ * la latencia de extremo a extremo desde el Sol (ver MetricasLatencia). Con la época, un receptor distingue
+ * un Sol que ha vuelto a arrancar (y vuelve a numerar desde 1) de una retransmisión atrasada (ver DetectorHuecos).
+ *
+ * Codifica y decodifica directamente sobre un ByteBuffer proporcionado por el llamador,
+ * de modo que emisores y receptores pueden reutilizar sus buffers entre mensajes.
+ * Los receptores que no necesitan el objeto Mensaje pueden validar la trama y leer sus campos
+ * en el sitio con los accesores estáticos, sin crear ningún objeto.
+ *
+ * Un datagrama multicast puede llevar un lote de varios mensajes seguidos (ver EmisorLotes): al tener
+ * todos el mismo tamaño, basta con recorrerlo de TAMANO en TAMANO bytes.
+ */
+public final class CodecMensaje {
+
+    // Versión actual del formato binario
+    public static final byte VERSION = 3;
+
+    // Tamaño exacto en bytes de un mensaje codificado
+    public static final int TAMANO = 48;
+
+    // Desplazamientos de cada campo dentro de la trama
+    private static final int OFFSET_INSTRUCCION = 1;
+    private static final int OFFSET_ORIGEN = 2;
+    private static final int OFFSET_ID_MSB = 4;
+    private static final int OFFSET_ID_LSB = 12;
+    private static final int OFFSET_SECUENCIA = 20;
+    private static final int OFFSET_MARCA_TIEMPO = 28;
+    private static final int OFFSET_MARCA_ORIGEN = 36;
+    private static final int OFFSET_EPOCA = 44;
+
+    // Instrucciones indexadas por ordinal (evita el clonado de Instruccion.values() en cada decodificación)
+    private static final Instruccion[] INSTRUCCIONES = Instruccion.values();
+
+    private CodecMensaje() {
+    }
+
+    /**
+     * Escribe el mensaje en el buffer a partir de su posición actual y la avanza TAMANO bytes.
+     *
+     * @throws java.nio.BufferOverflowException si no quedan TAMANO bytes libres
+     */
+    public static void codificar(Mensaje mensaje, ByteBuffer destino) {
+        destino.put(VERSION);
+        destino.put((byte) mensaje.getInstruccion().ordinal());
+        destino.putShort((short) mensaje.getOrigen());
+        destino.putLong(mensaje.getIdMsb());
+        destino.putLong(mensaje.getIdLsb());
+        destino.putLong(mensaje.getSecuencia());
+        destino.putLong(mensaje.getMarcaTiempo());
+        destino.putLong(mensaje.getMarcaOrigen());
+        destino.putInt(mensaje.getEpoca());
+    }
+
+    /**
+     * Lee un mensaje a partir de la posición actual del buffer y la avanza TAMANO bytes.
+     *
+     * @throws IllegalArgumentException si la trama está incompleta, tiene otra versión o una instrucción desconocida
+     */
+    public static Mensaje decodificar(ByteBuffer origen) {
+        if (origen.remaining() < TAMANO) {
+            throw new IllegalArgumentException("Trama incompleta: " + origen.remaining() + " bytes");
+        }
+        byte version = origen.get();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Versión de trama no soportada: " + version);
+        }
+        int ordinal = origen.get();
+        if (ordinal < 0 || ordinal >= INSTRUCCIONES.length) {
+            throw new IllegalArgumentException("Instrucción desconocida: " + ordinal);
+        }
+        int nodo = Short.toUnsignedInt(origen.getShort());
+        long idMsb = origen.getLong();
+        long idLsb = origen.getLong();
+        long secuencia = origen.getLong();
+        long marcaTiempo = origen.getLong();
+        long marcaOrigen = origen.getLong();
+        int epoca = origen.getInt();
+        return new Mensaje(INSTRUCCIONES[ordinal], nodo, idMsb, idLsb, secuencia, marcaTiempo, marcaOrigen, epoca);
+    }
+
+    /**
+     * Comprueba que a partir de la posición actual del buffer hay una trama completa y válida,
+     * sin mover la posición. Tras validarla, los accesores estáticos pueden leer sus campos.
+     *
+     * @throws IllegalArgumentException si la trama está incompleta, tiene otra versión o una instrucción desconocida
+     */
+    public static void validar(ByteBuffer trama) {
+        if (trama.remaining() < TAMANO) {
+            throw new IllegalArgumentException("Trama incompleta: " + trama.remaining() + " bytes");
+        }
+        int inicio = trama.position();
+        byte version = trama.get(inicio);
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Versión de trama no soportada: " + version);
+        }
+        int ordinal = trama.get(inicio + OFFSET_INSTRUCCION);
+        if (ordinal < 0 || ordinal >= INSTRUCCIONES.length) {
+            throw new IllegalArgumentException("Instrucción desconocida: " + ordinal);
+        }
+    }
+
+    /**
+     * Comprueba que el contenido del buffer (de la posición al límite) es un lote de mensajes completos,
+     * sin mover la posición, y devuelve cuántos contiene. Cada mensaje se valida al recorrerlo.
+     *
+     * @throws IllegalArgumentException si el lote está vacío o termina con un mensaje incompleto
+     */
+    public static int validarLote(ByteBuffer lote) {
+        int bytes = lote.remaining();
+        if (bytes == 0 || bytes % TAMANO != 0) {
+            throw new IllegalArgumentException("Lote con tamaño inválido: " + bytes + " bytes");
+        }
+        return bytes / TAMANO;
+    }
+
+    /**
+     * Instrucción de la trama que empieza en la posición actual del buffer.
+     */
+    public static Instruccion instruccion(ByteBuffer trama) {
+        return INSTRUCCIONES[trama.get(trama.position() + OFFSET_INSTRUCCION)];
+    }
+
+    /**
+     * Filtro rápido por instrucción: lee solo el byte de la instrucción de la trama que empieza en la
+     * posición actual del buffer, sin validarla, y comprueba si su bit está en la máscara (un bit por
+     * ordinal, ver TemasSol.mascara). Una instrucción desconocida nunca está en la máscara.
+     */
+    public static boolean instruccionEn(ByteBuffer trama, int mascara) {
+        int ordinal = trama.get(trama.position() + OFFSET_INSTRUCCION);
+        return ordinal >= 0 && ordinal < Integer.SIZE && (mascara >>> ordinal & 1) != 0;
+    }
+
+    /**
+     * Nodo origen de la trama que empieza en la posición actual del buffer.
+     */
+    public static int origen(ByteBuffer trama) {
+        return Short.toUnsignedInt(trama.getShort(trama.position() + OFFSET_ORIGEN));
+    }
+
+    /**
+     * Mitad alta del UUID de la trama que empieza en la posición actual del buffer.
+     */
+    public static long idMsb(ByteBuffer trama) {
+        return trama.getLong(trama.position() + OFFSET_ID_MSB);
+    }
+
+    /**
+     * Mitad baja del UUID de la trama que empieza en la posición actual del buffer.
+     */
+    public static long idLsb(ByteBuffer trama) {
+        return trama.getLong(trama.position() + OFFSET_ID_LSB);
+    }
+
+    /**
+     * Número de secuencia de la trama que empieza en la posición actual del buffer.
+     */
+    public static long secuencia(ByteBuffer trama) {
+        return trama.getLong(trama.position() + OFFSET_SECUENCIA);
+    }
+
+    /**
+     * Marca de tiempo de la trama que empieza en la posición actual del buffer.
+     */
+    public static long marcaTiempo(ByteBuffer trama) {
+        return trama.getLong(trama.position() + OFFSET_MARCA_TIEMPO);
+    }
+
+    /**
+     * Marca de tiempo de la emisión original en el Sol de la trama que empieza en la posición actual del buffer.
+     */
+    public static long marcaOrigen(ByteBuffer trama) {
+        return trama.getLong(trama.position() + OFFSET_MARCA_ORIGEN);
+    }
+
+    /**
+     * Época del emisor de la trama que empieza en la posición actual del buffer.
+     */
+    public static int epoca(ByteBuffer trama) {
+        return trama.getInt(trama.position() + OFFSET_EPOCA);
+    }
+
+    /**
+     * Desplaza las dos marcas de tiempo de cada mensaje del lote (de la posición al límite) para que
+     * su envío sea el instante indicado, conservando la diferencia entre ambas. Así un mensaje grabado
+     * y reinyectado más tarde (ver Reproductor) mide latencias reales y no el tiempo desde la grabación.
+     */
+    public static void reestampar(ByteBuffer lote, long ahora) {
+        for (int inicio = lote.position(); inicio + TAMANO <= lote.limit(); inicio += TAMANO) {
+            long desplazamiento = ahora - lote.getLong(inicio + OFFSET_MARCA_TIEMPO);
+            lote.putLong(inicio + OFFSET_MARCA_TIEMPO, ahora);
+            lote.putLong(inicio + OFFSET_MARCA_ORIGEN, lote.getLong(inicio + OFFSET_MARCA_ORIGEN) + desplazamiento);
+        }
+    }
+
+    /**
+     * Cambia la época de cada mensaje del lote (de la posición al límite) por su combinación con la
+     * indicada. Épocas distintas siguen siendo distintas, así que un Reproductor que lo hace con una
+     * mezcla nueva en cada reproducción parece a los receptores un Sol recién arrancado, sin dejar de
+     * distinguir los arranques que se grabaron.
+     */
+    public static void mezclarEpoca(ByteBuffer lote, int mezcla) {
+        for (int inicio = lote.position(); inicio + TAMANO <= lote.limit(); inicio += TAMANO) {
+            lote.putInt(inicio + OFFSET_EPOCA, lote.getInt(inicio + OFFSET_EPOCA) ^ mezcla);
+        }
+    }
+
+    /**
+     * Cambia el UUID de cada mensaje del lote (de la posición al límite) combinando su mitad baja con la
+     * mezcla indicada. Como en mezclarEpoca, UUIDs distintos siguen siendo distintos, y los registros de
+     * duplicados (ver RegistroDuplicados) no descartan los mensajes de una reproducción por haber visto
+     * los originales o los de una reproducción anterior.
+     */
+    public static void mezclarId(ByteBuffer lote, long mezcla) {
+        for (int inicio = lote.position(); inicio + TAMANO <= lote.limit(); inicio += TAMANO) {
+            lote.putLong(inicio + OFFSET_ID_LSB, lote.getLong(inicio + OFFSET_ID_LSB) ^ mezcla);
+        }
+    }
+}
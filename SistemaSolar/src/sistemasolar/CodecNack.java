@@ -0,0 +1,73 @@
+package sistemasolar;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 📮 Formato binario de las solicitudes de retransmisión (NACK).
+ *
+ * Un receptor que detecta un hueco en la secuencia del Sol le envía por unicast, a la dirección desde
+ * la que emite, un datagrama de 20 bytes con el rango de secuencias que le faltan:
+ *
+ *   offset  tamaño  campo
+ *   0       1       versión del formato
+ *   1       1       reservado (0)
+ *   2       2       identificador numérico del nodo que pide
+ *   4       8       primera secuencia que falta
+ *   12      8       última secuencia que falta (incluida)
+ */
+public final class CodecNack {
+
+    public static final byte VERSION = 1;
+    public static final int TAMANO = 20;
+
+    // Máximo de secuencias que se piden (y se retransmiten) en un único NACK
+    public static final int MAX_RANGO = 256;
+
+    private static final int OFFSET_NODO = 2;
+    private static final int OFFSET_DESDE = 4;
+    private static final int OFFSET_HASTA = 12;
+
+    private CodecNack() {
+    }
+
+    /**
+     * Escribe un NACK en el buffer a partir de su posición actual y la avanza TAMANO bytes.
+     */
+    public static void codificar(int nodo, long desde, long hasta, ByteBuffer destino) {
+        destino.put(VERSION);
+        destino.put((byte) 0);
+        destino.putShort((short) nodo);
+        destino.putLong(desde);
+        destino.putLong(hasta);
+    }
+
+    /**
+     * Comprueba, sin mover la posición, que el buffer contiene exactamente un NACK válido.
+     *
+     * @throws IllegalArgumentException si el tamaño, la versión o el rango no son válidos
+     */
+    public static void validar(ByteBuffer nack) {
+        if (nack.remaining() != TAMANO) {
+            throw new IllegalArgumentException("NACK con tamaño inválido: " + nack.remaining() + " bytes");
+        }
+        byte version = nack.get(nack.position());
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Versión de NACK no soportada: " + version);
+        }
+        if (hasta(nack) < desde(nack)) {
+            throw new IllegalArgumentException("Rango de NACK vacío: " + desde(nack) + "-" + hasta(nack));
+        }
+    }
+
+    public static int nodo(ByteBuffer nack) {
+        return Short.toUnsignedInt(nack.getShort(nack.position() + OFFSET_NODO));
+    }
+
+    public static long desde(ByteBuffer nack) {
+        return nack.getLong(nack.position() + OFFSET_DESDE);
+    }
+
+    public static long hasta(ByteBuffer nack) {
+        return nack.getLong(nack.position() + OFFSET_HASTA);
+    }
+}
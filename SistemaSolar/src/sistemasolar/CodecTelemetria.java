@@ -0,0 +1,76 @@
+package sistemasolar;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 📡 Formato binario de las muestras de telemetría entre planetas (ver EmisorTelemetria).
+ *
+ * Cada datagrama lleva una muestra de 24 bytes, sin texto que formatear ni analizar:
+ *
+ *   offset  tamaño  campo
+ *   0       1       versión del formato
+ *   1       1       reservado (0)
+ *   2       2       identificador numérico del nodo emisor
+ *   4       4       temperatura (ºC)
+ *   8       8       número de secuencia de la muestra
+ *   16      8       instante de envío (System.nanoTime del emisor)
+ *
+ * El instante de envío solo es comparable dentro del reloj del emisor; el receptor lo usa para
+ * medir variaciones del retardo (jitter), que no dependen del desfase entre relojes.
+ */
+public final class CodecTelemetria {
+
+    public static final byte VERSION = 1;
+    public static final int TAMANO = 24;
+
+    private static final int OFFSET_NODO = 2;
+    private static final int OFFSET_TEMPERATURA = 4;
+    private static final int OFFSET_SECUENCIA = 8;
+    private static final int OFFSET_INSTANTE = 16;
+
+    private CodecTelemetria() {
+    }
+
+    /**
+     * Escribe una muestra a partir de la posición actual del buffer y la avanza TAMANO bytes.
+     */
+    public static void codificar(int nodo, int temperatura, long secuencia, long instante, ByteBuffer destino) {
+        destino.put(VERSION);
+        destino.put((byte) 0);
+        destino.putShort((short) nodo);
+        destino.putInt(temperatura);
+        destino.putLong(secuencia);
+        destino.putLong(instante);
+    }
+
+    /**
+     * Comprueba, sin mover la posición, que el buffer contiene exactamente una muestra válida.
+     *
+     * @throws IllegalArgumentException si el tamaño o la versión no son válidos
+     */
+    public static void validar(ByteBuffer muestra) {
+        if (muestra.remaining() != TAMANO) {
+            throw new IllegalArgumentException("Muestra de telemetría con tamaño inválido: " + muestra.remaining() + " bytes");
+        }
+        byte version = muestra.get(muestra.position());
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Versión de telemetría no soportada: " + version);
+        }
+    }
+
+    public static int nodo(ByteBuffer muestra) {
+        return Short.toUnsignedInt(muestra.getShort(muestra.position() + OFFSET_NODO));
+    }
+
+    public static int temperatura(ByteBuffer muestra) {
+        return muestra.getInt(muestra.position() + OFFSET_TEMPERATURA);
+    }
+
+    public static long secuencia(ByteBuffer muestra) {
+        return muestra.getLong(muestra.position() + OFFSET_SECUENCIA);
+    }
+
+    public static long instante(ByteBuffer muestra) {
+        return muestra.getLong(muestra.position() + OFFSET_INSTANTE);
+    }
+}
@@ -0,0 +1,298 @@
+package sistemasolar;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 🚰 Cola acotada de mensajes entre dos etapas de un pipeline (ver Tierra).
+ *
+ * Es un anillo de capacidad fija protegido por un cerrojo, como ArrayBlockingQueue, pero con una
+ * política configurable para cuando está llena:
+ * - DESCARTAR_ANTIGUO: se descarta el mensaje más antiguo para hacer sitio al nuevo; el productor nunca espera.
+ * - BLOQUEAR: el productor espera a que haya sitio (contrapresión hacia la etapa anterior).
+ * - DERRAMAR: los mensajes que no caben se escriben en un fichero temporal y se recuperan, en orden,
+ *   cuando el anillo se vacía; no se pierde nada mientras haya disco.
+ *
+ * Mide la profundidad (actual y máxima) y el tiempo que cada mensaje pasa en la cola, desde que entra
+ * hasta que lo toma el consumidor.
+ *
+ * Se usa un ReentrantLock y no synchronized para que productores y consumidores puedan ser hilos virtuales.
+ */
+public class ColaAcotada implements Closeable {
+
+    /**
+     * Qué hacer al ofrecer un mensaje con la cola llena.
+     */
+    public enum Desbordamiento {
+        DESCARTAR_ANTIGUO,
+        BLOQUEAR,
+        DERRAMAR
+    }
+
+    // Cada mensaje derramado ocupa su trama binaria más el instante en que entró en la cola
+    private static final int TAMANO_DERRAMADO = CodecMensaje.TAMANO + Long.BYTES;
+
+    private final String nombre;
+    private final Desbordamiento politica;
+
+    // Anillo de mensajes e instante (System.nanoTime) en que entró cada uno
+    private final Mensaje[] mensajes;
+    private final long[] entradas;
+    private int cabeza = 0;
+    private int tamano = 0;
+
+    private final ReentrantLock cerrojo = new ReentrantLock();
+    private final Condition noVacia = cerrojo.newCondition();
+    private final Condition noLlena = cerrojo.newCondition();
+    private boolean cerrada = false;
+
+    // Fichero de derrame (se crea la primera vez que hace falta) y posiciones de lectura y escritura
+    private Path rutaDerrame;
+    private FileChannel derrame;
+    private ByteBuffer bufferDerrame;
+    private long lecturaDerrame = 0;
+    private long escrituraDerrame = 0;
+
+    // Métricas consultables sin tomar el cerrojo
+    private volatile int profundidad = 0;
+    private volatile int profundidadMaxima = 0;
+    private final LongAdder encolados = new LongAdder();
+    private final LongAdder descartados = new LongAdder();
+    private final LongAdder derramados = new LongAdder();
+    private final HistogramaLatencia espera = new HistogramaLatencia();
+
+    public ColaAcotada(String nombre, int capacidad, Desbordamiento politica) {
+        if (capacidad <= 0) throw new IllegalArgumentException("La capacidad de la cola " + nombre + " debe ser positiva");
+        if (politica == null) throw new IllegalArgumentException("Falta la política de desbordamiento de " + nombre);
+        this.nombre = nombre;
+        this.politica = politica;
+        this.mensajes = new Mensaje[capacidad];
+        this.entradas = new long[capacidad];
+    }
+
+    /**
+     * Añade un mensaje según la política de desbordamiento.
+     *
+     * @return true si el mensaje quedó en la cola (en memoria o derramado); false si la cola está cerrada
+     *         o no se pudo derramar
+     * @throws InterruptedException si el productor se interrumpe mientras espera sitio (BLOQUEAR)
+     */
+    public boolean ofrecer(Mensaje mensaje) throws InterruptedException {
+        long ahora = System.nanoTime();
+        cerrojo.lock();
+        try {
+            if (cerrada) return false;
+            switch (politica) {
+                case BLOQUEAR -> {
+                    while (tamano == mensajes.length) {
+                        noLlena.await();
+                        if (cerrada) return false;
+                    }
+                }
+                case DESCARTAR_ANTIGUO -> {
+                    if (tamano == mensajes.length) {
+                        extraer();
+                        descartados.increment();
+                    }
+                }
+                case DERRAMAR -> {
+                    // Mientras quede algo derramado, lo nuevo va detrás en el fichero para conservar el orden
+                    if (tamano == mensajes.length || lecturaDerrame < escrituraDerrame) {
+                        return derramar(mensaje, ahora);
+                    }
+                }
+            }
+            insertar(mensaje, ahora);
+            encolados.increment();
+            noVacia.signal();
+            return true;
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    /**
+     * Espera a que haya un mensaje y lo saca de la cola.
+     *
+     * @return el mensaje más antiguo, o null si la cola se cerró
+     * @throws InterruptedException si el consumidor se interrumpe mientras espera
+     */
+    public Mensaje tomar() throws InterruptedException {
+        cerrojo.lock();
+        try {
+            while (tamano == 0) {
+                if (cerrada) return null;
+                if (lecturaDerrame < escrituraDerrame) {
+                    recuperarDerramados();
+                } else {
+                    noVacia.await();
+                }
+            }
+            long entrada = entradas[cabeza];
+            Mensaje mensaje = extraer();
+            espera.registrar(System.nanoTime() - entrada);
+            noLlena.signal();
+            return mensaje;
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    private void insertar(Mensaje mensaje, long entrada) {
+        int posicion = (cabeza + tamano) % mensajes.length;
+        mensajes[posicion] = mensaje;
+        entradas[posicion] = entrada;
+        tamano++;
+        profundidad = tamano;
+        if (tamano > profundidadMaxima) profundidadMaxima = tamano;
+    }
+
+    private Mensaje extraer() {
+        Mensaje mensaje = mensajes[cabeza];
+        mensajes[cabeza] = null;
+        cabeza = (cabeza + 1) % mensajes.length;
+        tamano--;
+        profundidad = tamano;
+        return mensaje;
+    }
+
+    // Escribe el mensaje al final del fichero de derrame; si el disco falla, el mensaje se descarta
+    private boolean derramar(Mensaje mensaje, long entrada) {
+        try {
+            if (derrame == null) abrirDerrame();
+            bufferDerrame.clear();
+            CodecMensaje.codificar(mensaje, bufferDerrame);
+            bufferDerrame.putLong(entrada);
+            bufferDerrame.flip();
+            while (bufferDerrame.hasRemaining()) {
+                escrituraDerrame += derrame.write(bufferDerrame, escrituraDerrame);
+            }
+            encolados.increment();
+            derramados.increment();
+            noVacia.signal();
+            return true;
+        } catch (IOException e) {
+            Consola.error("❌ [" + nombre + "] No se pudo derramar el mensaje a disco: " + e.getMessage());
+            descartados.increment();
+            return false;
+        }
+    }
+
+    // Vuelve a llenar el anillo vacío con los mensajes derramados más antiguos
+    private void recuperarDerramados() {
+        try {
+            long disponibles = (escrituraDerrame - lecturaDerrame) / TAMANO_DERRAMADO;
+            int cantidad = (int) Math.min(disponibles, mensajes.length);
+            ByteBuffer lectura = ByteBuffer.allocate(cantidad * TAMANO_DERRAMADO);
+            while (lectura.hasRemaining()) {
+                int leidos = derrame.read(lectura, lecturaDerrame + lectura.position());
+                if (leidos < 0) throw new IOException("Fichero de derrame truncado");
+            }
+            lectura.flip();
+            for (int i = 0; i < cantidad; i++) {
+                Mensaje mensaje = CodecMensaje.decodificar(lectura);
+                insertar(mensaje, lectura.getLong());
+            }
+            lecturaDerrame += (long) cantidad * TAMANO_DERRAMADO;
+
+            // Con todo recuperado, el fichero vuelve a empezar
+            if (lecturaDerrame == escrituraDerrame) {
+                derrame.truncate(0);
+                lecturaDerrame = 0;
+                escrituraDerrame = 0;
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            Consola.error("❌ [" + nombre + "] Mensajes derramados perdidos: " + e.getMessage());
+            descartados.add((escrituraDerrame - lecturaDerrame) / TAMANO_DERRAMADO);
+            lecturaDerrame = 0;
+            escrituraDerrame = 0;
+        }
+    }
+
+    private void abrirDerrame() throws IOException {
+        rutaDerrame = Files.createTempFile(nombre.toLowerCase().replace(' ', '-') + "-", ".derrame");
+        derrame = FileChannel.open(rutaDerrame, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                StandardOpenOption.DELETE_ON_CLOSE);
+        bufferDerrame = ByteBuffer.allocate(TAMANO_DERRAMADO);
+    }
+
+    /**
+     * Cierra la cola: despierta a productores y consumidores en espera y borra el fichero de derrame.
+     * Los mensajes que quedaban se pierden.
+     */
+    @Override
+    public void close() {
+        cerrojo.lock();
+        try {
+            cerrada = true;
+            noVacia.signalAll();
+            noLlena.signalAll();
+            if (derrame != null) derrame.close();
+        } catch (IOException e) {
+            Consola.error("❌ [" + nombre + "] No se pudo borrar " + rutaDerrame + ": " + e.getMessage());
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    /**
+     * Mensajes en memoria en este momento (sin contar los derramados).
+     */
+    public int getProfundidad() {
+        return profundidad;
+    }
+
+    public int getProfundidadMaxima() {
+        return profundidadMaxima;
+    }
+
+    public long getEncolados() {
+        return encolados.sum();
+    }
+
+    public long getDescartados() {
+        return descartados.sum();
+    }
+
+    public long getDerramados() {
+        return derramados.sum();
+    }
+
+    /**
+     * Tiempo que pasa cada mensaje en la cola hasta que lo toma el consumidor.
+     */
+    public HistogramaLatencia getEspera() {
+        return espera;
+    }
+
+    /**
+     * Expone la profundidad y los contadores de la cola, con su nombre como etiqueta "cola".
+     */
+    public void registrarMetricas(RegistroMetricas registro) {
+        registro.indicador("cola_profundidad", "Mensajes en memoria en la cola", this::getProfundidad, "cola", nombre);
+        registro.indicador("cola_profundidad_maxima", "Mayor profundidad alcanzada por la cola", this::getProfundidadMaxima, "cola", nombre);
+        registro.contador("cola_encolados_total", "Mensajes aceptados en la cola", this::getEncolados, "cola", nombre);
+        registro.contador("cola_descartados_total", "Mensajes descartados por la cola", this::getDescartados, "cola", nombre);
+        registro.contador("cola_derramados_total", "Mensajes derramados a disco", this::getDerramados, "cola", nombre);
+        registro.resumen("cola_espera_segundos", "Tiempo de cada mensaje en la cola", this::getEspera, "cola", nombre);
+    }
+
+    @Override
+    public String toString() {
+        return "cola=" + profundidad + " (máx " + profundidadMaxima + "), encolados=" + getEncolados()
+                + ", descartados=" + getDescartados()
+                + (politica == Desbordamiento.DERRAMAR ? ", derramados=" + getDerramados() : "");
+    }
+}
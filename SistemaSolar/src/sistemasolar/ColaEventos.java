@@ -0,0 +1,129 @@
+package sistemasolar;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * ⏳ Cola de prioridad de eventos ordenados por instante, para la simulación de eventos discretos.
+ *
+ * Es un montículo binario sobre arrays de long: cada evento es su instante, un número de orden y
+ * un long con sus datos (ver Simulacion). Programar y extraer no crean objetos, así que la cola
+ * aguanta millones de eventos por segundo sin trabajo para el recolector.
+ *
+ * Los eventos del mismo instante salen en el orden en que se programaron, de modo que con la misma
+ * semilla una simulación siempre se repite exactamente igual.
+ *
+ * No es segura entre hilos: la simulación es de un solo hilo.
+ */
+public final class ColaEventos {
+
+    private long[] instantes;
+    private long[] ordenes;
+    private long[] datos;
+    private int tamano = 0;
+
+    // Orden de llegada, para desempatar los eventos del mismo instante
+    private long siguienteOrden = 0;
+
+    public ColaEventos() {
+        this(1024);
+    }
+
+    /**
+     * @param capacidadInicial eventos que caben sin crecer (la cola crece si hace falta)
+     */
+    public ColaEventos(int capacidadInicial) {
+        if (capacidadInicial <= 0) throw new IllegalArgumentException("La capacidad debe ser positiva");
+        instantes = new long[capacidadInicial];
+        ordenes = new long[capacidadInicial];
+        datos = new long[capacidadInicial];
+    }
+
+    /**
+     * Programa un evento para el instante indicado (en nanosegundos de tiempo virtual).
+     */
+    public void programar(long instante, long dato) {
+        if (tamano == instantes.length) crecer();
+        long orden = siguienteOrden++;
+
+        // Sube el hueco desde el final mientras el padre vaya después
+        int i = tamano++;
+        while (i > 0) {
+            int padre = (i - 1) >>> 1;
+            if (!antes(instante, orden, instantes[padre], ordenes[padre])) break;
+            mover(padre, i);
+            i = padre;
+        }
+        instantes[i] = instante;
+        ordenes[i] = orden;
+        datos[i] = dato;
+    }
+
+    /**
+     * Saca el primer evento y devuelve sus datos; su instante es el que daba primerInstante().
+     *
+     * @throws NoSuchElementException si la cola está vacía
+     */
+    public long extraer() {
+        if (tamano == 0) throw new NoSuchElementException("No hay eventos programados");
+        long dato = datos[0];
+        int ultimo = --tamano;
+        if (ultimo == 0) return dato;
+
+        // Baja el último evento desde la raíz hasta su sitio
+        long instante = instantes[ultimo];
+        long orden = ordenes[ultimo];
+        long valor = datos[ultimo];
+        int i = 0;
+        int mitad = ultimo >>> 1;
+        while (i < mitad) {
+            int hijo = 2 * i + 1;
+            int derecho = hijo + 1;
+            if (derecho < ultimo && antes(instantes[derecho], ordenes[derecho], instantes[hijo], ordenes[hijo])) {
+                hijo = derecho;
+            }
+            if (!antes(instantes[hijo], ordenes[hijo], instante, orden)) break;
+            mover(hijo, i);
+            i = hijo;
+        }
+        instantes[i] = instante;
+        ordenes[i] = orden;
+        datos[i] = valor;
+        return dato;
+    }
+
+    private static boolean antes(long instante, long orden, long otroInstante, long otroOrden) {
+        return instante < otroInstante || (instante == otroInstante && orden < otroOrden);
+    }
+
+    private void mover(int desde, int hasta) {
+        instantes[hasta] = instantes[desde];
+        ordenes[hasta] = ordenes[desde];
+        datos[hasta] = datos[desde];
+    }
+
+    private void crecer() {
+        int capacidad = instantes.length * 2;
+        instantes = Arrays.copyOf(instantes, capacidad);
+        ordenes = Arrays.copyOf(ordenes, capacidad);
+        datos = Arrays.copyOf(datos, capacidad);
+    }
+
+    /**
+     * Instante del primer evento.
+     *
+     * @throws NoSuchElementException si la cola está vacía
+     */
+    public long primerInstante() {
+        if (tamano == 0) throw new NoSuchElementException("No hay eventos programados");
+        return instantes[0];
+    }
+
+    public boolean estaVacia() {
+        return tamano == 0;
+    }
+
+    public int getTamano() {
+        return tamano;
+    }
+}
@@ -0,0 +1,152 @@
+package sistemasolar;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * 🪐 Configuración de un planeta ejecutado por el motor genérico {@link Planeta}.
+ *
+ * Reúne todo lo que antes distinguía a Marte, Mercurio y Urano: temperaturas, efecto de cada
+ * instrucción, límites de explosión, a qué canales se suscribe y en qué puertos escucha o envía.
+ * Los tres planetas originales están disponibles como presets (MARTE, MERCURIO, URANO) y
+ * {@link #generado(int, int)} crea planetas adicionales para pruebas de escala.
+ *
+ * @param nombre                  nombre que aparece en la consola
+ * @param icono                   emoji del planeta en los mensajes de arranque
+ * @param nodo                    identificador de nodo que viaja en los mensajes (ver Constantes)
+ * @param tempReset               temperatura inicial y tras RESET
+ * @param deltaSubir              cambio de temperatura con SUBIR
+ * @param deltaBajar              cambio de temperatura con BAJAR (con signo, normalmente negativo)
+ * @param tempMinima              límite inferior; por debajo el planeta explota
+ * @param tempMaxima              límite superior; por encima el planeta explota
+ * @param modoSol                 qué hace el planeta con las instrucciones multicast del Sol
+ * @param suscripcionSol          instrucciones del Sol que recibe; las demás ni se cuentan ni se aplican (ver TemasSol)
+ * @param puertoTcp               puerto TCP en el que recibe los reenvíos de la Tierra
+ * @param puertoTemperaturaSalida puerto UDP local al que envía su telemetría, o SIN_PUERTO
+ * @param puertoTemperaturaEntrada puerto UDP en el que recibe la telemetría de otro planeta, o SIN_PUERTO
+ * @param periodoTelemetriaMicros cada cuánto envía una muestra de telemetría (si tiene puerto de salida)
+ * @param periodoEstadoMs         cada cuánto se muestra el estado del planeta
+ * @param capacidadDuplicados     UUID recordados por generación en el control de duplicados
+ */
+public record ConfiguracionPlaneta(
+        String nombre,
+        String icono,
+        int nodo,
+        int tempReset,
+        int deltaSubir,
+        int deltaBajar,
+        int tempMinima,
+        int tempMaxima,
+        ModoSol modoSol,
+        Set<Instruccion> suscripcionSol,
+        int puertoTcp,
+        int puertoTemperaturaSalida,
+        int puertoTemperaturaEntrada,
+        long periodoTelemetriaMicros,
+        long periodoEstadoMs,
+        int capacidadDuplicados) {
+
+    /**
+     * Tratamiento de las instrucciones que el Sol envía por multicast.
+     */
+    public enum ModoSol {
+        // No se une al grupo multicast
+        IGNORAR,
+        // Solo cuenta los mensajes recibidos del Sol
+        CONTAR,
+        // Cuenta y aplica las instrucciones sobre la temperatura
+        APLICAR
+    }
+
+    // Valor de los puertos de temperatura cuando el planeta no usa ese canal
+    public static final int SIN_PUERTO = 0;
+
+    // Periodo de la telemetría: 100 ms como el envío original, ajustable con -Dtelemetria.periodo (µs)
+    public static final long PERIODO_TELEMETRIA_MICROS = Long.getLong("telemetria.periodo", 100_000);
+
+    // Suscripción por defecto: todas las instrucciones del Sol
+    public static final Set<Instruccion> TODAS = Collections.unmodifiableSet(EnumSet.allOf(Instruccion.class));
+
+    // 🔴 Marte: aplica al Sol y envía su temperatura a Mercurio
+    public static final ConfiguracionPlaneta MARTE = new ConfiguracionPlaneta(
+            "Marte", "🔴", Constantes.NODO_MARTE, -63, 10, -40, -182, -33,
+            ModoSol.APLICAR, TODAS, Constantes.PUERTO_MARTE, Constantes.PUERTO_UDP_MARTE_MERCURIO, SIN_PUERTO, PERIODO_TELEMETRIA_MICROS, 2000, Constantes.DEDUP_CAPACIDAD);
+
+    // 🟣 Mercurio: cuenta los mensajes del Sol y recibe la temperatura de Marte
+    public static final ConfiguracionPlaneta MERCURIO = new ConfiguracionPlaneta(
+            "Mercurio", "🟣", Constantes.NODO_MERCURIO, 179, 50, -10, 148, 310,
+            ModoSol.CONTAR, TODAS, Constantes.PUERTO_MERCURIO, SIN_PUERTO, Constantes.PUERTO_UDP_MARTE_MERCURIO, PERIODO_TELEMETRIA_MICROS, 2500, Constantes.DEDUP_CAPACIDAD);
+
+    // 💠 Urano: solo escucha a la Tierra
+    public static final ConfiguracionPlaneta URANO = new ConfiguracionPlaneta(
+            "Urano", "💠", Constantes.NODO_URANO, -193, 5, -80, -374, -177,
+            ModoSol.IGNORAR, TODAS, Constantes.PUERTO_URANO, SIN_PUERTO, SIN_PUERTO, PERIODO_TELEMETRIA_MICROS, 4000, Constantes.DEDUP_CAPACIDAD);
+
+    // Primer identificador de nodo asignado a los planetas generados
+    public static final int NODO_PRIMER_GENERADO = 100;
+
+    // Los planetas generados reciben pocos reenvíos cada uno: un registro de duplicados pequeño
+    // (unos 64 KB frente a 4 MB) permite tener miles en el mismo proceso
+    public static final int CAPACIDAD_DUPLICADOS_GENERADO = 1024;
+
+    public ConfiguracionPlaneta {
+        if (nombre == null || nombre.isBlank()) {
+            throw new IllegalArgumentException("El planeta necesita un nombre");
+        }
+        if (tempMinima > tempMaxima || tempReset < tempMinima || tempReset > tempMaxima) {
+            throw new IllegalArgumentException("La temperatura de reset de " + nombre + " debe estar entre "
+                    + tempMinima + " y " + tempMaxima);
+        }
+        if (modoSol == null) {
+            throw new IllegalArgumentException("Falta el modo de escucha del Sol de " + nombre);
+        }
+        if (suscripcionSol == null || suscripcionSol.isEmpty()) {
+            throw new IllegalArgumentException("La suscripción al Sol de " + nombre + " no puede estar vacía");
+        }
+        suscripcionSol = Collections.unmodifiableSet(EnumSet.copyOf(suscripcionSol));
+        if (!puertoValido(puertoTcp) || puertoTcp == SIN_PUERTO
+                || !puertoValido(puertoTemperaturaSalida) || !puertoValido(puertoTemperaturaEntrada)) {
+            throw new IllegalArgumentException("Puertos no válidos para " + nombre);
+        }
+        if (periodoEstadoMs <= 0 || periodoTelemetriaMicros <= 0 || capacidadDuplicados <= 0) {
+            throw new IllegalArgumentException("Los periodos de estado y telemetría y la capacidad de duplicados de "
+                    + nombre + " deben ser positivos");
+        }
+    }
+
+    /**
+     * Devuelve el preset con ese nombre (sin distinguir mayúsculas), o null si no existe.
+     */
+    public static ConfiguracionPlaneta preset(String nombre) {
+        return switch (nombre.toLowerCase()) {
+            case "marte" -> MARTE;
+            case "mercurio" -> MERCURIO;
+            case "urano" -> URANO;
+            default -> null;
+        };
+    }
+
+    /**
+     * Crea el planeta número {@code indice} de una prueba de escala: escucha al Sol, recibe de la
+     * Tierra en {@code puertoBase + indice} y tiene márgenes amplios para que no explote enseguida.
+     */
+    public static ConfiguracionPlaneta generado(int indice, int puertoBase) {
+        return new ConfiguracionPlaneta(
+                "Planeta-" + indice, "🪐", NODO_PRIMER_GENERADO + indice, 0, 5, -5, -1000, 1000,
+                ModoSol.APLICAR, TODAS, puertoBase + indice, SIN_PUERTO, SIN_PUERTO, PERIODO_TELEMETRIA_MICROS, 5000, CAPACIDAD_DUPLICADOS_GENERADO);
+    }
+
+    /**
+     * Copia del planeta suscrita solo a las instrucciones del Sol indicadas.
+     */
+    public ConfiguracionPlaneta conSuscripcion(Set<Instruccion> instrucciones) {
+        return new ConfiguracionPlaneta(nombre, icono, nodo, tempReset, deltaSubir, deltaBajar, tempMinima, tempMaxima,
+                modoSol, instrucciones, puertoTcp, puertoTemperaturaSalida, puertoTemperaturaEntrada,
+                periodoTelemetriaMicros, periodoEstadoMs, capacidadDuplicados);
+    }
+
+    private static boolean puertoValido(int puerto) {
+        return puerto >= 0 && puerto <= 65_535;
+    }
+}
@@ -0,0 +1,158 @@
+package sistemasolar;
+
+import java.io.BufferedOutputStream;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 🖥️ Salida de consola asíncrona para todos los componentes.
+ *
+ * Los hilos que procesan mensajes no escriben en la terminal: dejan cada línea en un buffer circular
+ * acotado y un único hilo escritor las vuelca por lotes, vaciando la salida una vez por lote.
+ * Así una terminal lenta nunca frena la recepción ni el reenvío de mensajes.
+ *
+ * Configuración mediante propiedades del sistema:
+ * - consola.nivel:     nivel mínimo que se muestra (DEBUG, INFO, AVISO, ERROR). Por defecto INFO.
+ * - consola.politica:  qué hacer con el buffer lleno: DESCARTAR (por defecto) o BLOQUEAR.
+ * - consola.capacidad: número de líneas del buffer. Por defecto 16384.
+ * - consola.ansi:      false para desactivar los colores ANSI (ver FormatoConsola).
+ */
+public final class Consola {
+
+    public enum Nivel {DEBUG, INFO, AVISO, ERROR}
+
+    public enum Politica {DESCARTAR, BLOQUEAR}
+
+    // Línea pendiente de escribir junto con su nivel (ERROR va a la salida de errores)
+    private record Linea(Nivel nivel, String texto) {
+    }
+
+    // Número máximo de líneas que el escritor vuelca antes de vaciar la salida
+    private static final int MAX_LOTE = 512;
+
+    private static final Nivel NIVEL = Nivel.valueOf(System.getProperty("consola.nivel", "INFO").toUpperCase());
+    private static final Politica POLITICA = Politica.valueOf(System.getProperty("consola.politica", "DESCARTAR").toUpperCase());
+    private static final int CAPACIDAD = Integer.getInteger("consola.capacidad", 16_384);
+
+    private static final BlockingQueue<Linea> pendientes = new ArrayBlockingQueue<>(CAPACIDAD);
+    private static final LongAdder descartadas = new LongAdder();
+
+    // Salidas propias con buffer grande: System.out vacía en cada println
+    private static final PrintStream salida = new PrintStream(
+            new BufferedOutputStream(new FileOutputStream(FileDescriptor.out), 64 * 1024), false, StandardCharsets.UTF_8);
+    private static final PrintStream errores = new PrintStream(
+            new BufferedOutputStream(new FileOutputStream(FileDescriptor.err), 16 * 1024), false, StandardCharsets.UTF_8);
+
+    private static final Thread escritor = new Thread(Consola::escribir, "consola");
+
+    static {
+        escritor.setDaemon(true);
+        escritor.start();
+        // Al terminar el proceso se escribe lo que quede pendiente
+        Runtime.getRuntime().addShutdownHook(new Thread(Consola::vaciar, "consola-cierre"));
+    }
+
+    private Consola() {
+    }
+
+    /**
+     * Indica si las líneas del nivel dado se mostrarán. Permite no construir textos costosos
+     * en el camino caliente cuando van a descartarse.
+     */
+    public static boolean activo(Nivel nivel) {
+        return nivel.compareTo(NIVEL) >= 0;
+    }
+
+    public static void debug(String texto) {
+        registrar(Nivel.DEBUG, texto);
+    }
+
+    public static void info(String texto) {
+        registrar(Nivel.INFO, texto);
+    }
+
+    public static void aviso(String texto) {
+        registrar(Nivel.AVISO, texto);
+    }
+
+    public static void error(String texto) {
+        registrar(Nivel.ERROR, texto);
+    }
+
+    /**
+     * Número de líneas descartadas por encontrar el buffer lleno.
+     */
+    public static long getDescartadas() {
+        return descartadas.sum();
+    }
+
+    private static void registrar(Nivel nivel, String texto) {
+        if (!activo(nivel)) return;
+        Linea linea = new Linea(nivel, texto);
+
+        if (POLITICA == Politica.BLOQUEAR) {
+            try {
+                pendientes.put(linea);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        } else if (!pendientes.offer(linea)) {
+            descartadas.increment();
+        }
+    }
+
+    /**
+     * Bucle del hilo escritor: espera una línea, recoge las que haya detrás y las vuelca de una vez.
+     */
+    private static void escribir() {
+        List<Linea> lote = new ArrayList<>(MAX_LOTE);
+        long avisadas = 0;
+        while (true) {
+            try {
+                lote.add(pendientes.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            pendientes.drainTo(lote, MAX_LOTE - 1);
+            volcar(lote);
+            lote.clear();
+
+            long perdidas = descartadas.sum();
+            if (perdidas != avisadas) {
+                errores.println("⚠️ Consola saturada: " + (perdidas - avisadas) + " líneas descartadas");
+                errores.flush();
+                avisadas = perdidas;
+            }
+        }
+    }
+
+    private static synchronized void volcar(List<Linea> lote) {
+        boolean hayErrores = false;
+        for (Linea linea : lote) {
+            if (linea.nivel() == Nivel.ERROR) {
+                errores.println(linea.texto());
+                hayErrores = true;
+            } else {
+                salida.println(linea.texto());
+            }
+        }
+        salida.flush();
+        if (hayErrores) errores.flush();
+    }
+
+    /**
+     * Escribe inmediatamente todo lo pendiente. Se llama al cerrar el proceso.
+     */
+    public static void vaciar() {
+        List<Linea> resto = new ArrayList<>();
+        pendientes.drainTo(resto);
+        volcar(resto);
+    }
+}
@@ -1,3 +1,5 @@
+package sistemasolar;
+
 /**
  * Clase que contiene constantes compartidas por todos los componentes del sistema solar simulado.
  * Centraliza la configuración de IPs y puertos para facilitar mantenimiento, coherencia y legibilidad.
@@ -27,4 +29,34 @@ public class Constantes {
     // Puerto UDP que utiliza Marte para enviar su temperatura actual a Mercurio.
     // Se trata de una comunicación no crítica, por eso se elige UDP.
     public static final int PUERTO_UDP_MARTE_MERCURIO = 7001;
+
+    // Tamaño máximo de un datagrama del Sol: 1500 bytes de MTU Ethernet menos 28 de cabeceras IP y UDP.
+    // Los lotes de mensajes (ver EmisorLotes) nunca lo superan, así que no se fragmentan.
+    public static final int TAMANO_MAXIMO_DATAGRAMA = 1472;
+
+    // Control de duplicados: identificadores recordados por generación y vida máxima de cada generación.
+    // Cada UUID se recuerda al menos durante la ventana o las últimas DEDUP_CAPACIDAD inserciones.
+    public static final int DEDUP_CAPACIDAD = 65_536;
+    public static final long DEDUP_VENTANA_MS = 60_000;
+
+    // Identificadores numéricos de nodo que viajan en la cabecera binaria de cada mensaje (ver CodecMensaje).
+    public static final int NODO_SOL = 1;
+    public static final int NODO_TIERRA = 2;
+    public static final int NODO_MARTE = 3;
+    public static final int NODO_MERCURIO = 4;
+    public static final int NODO_URANO = 5;
+
+    /**
+     * Devuelve el nombre legible de un nodo a partir de su identificador numérico.
+     */
+    public static String nombreNodo(int nodo) {
+        return switch (nodo) {
+            case NODO_SOL -> "🌞 SOL";
+            case NODO_TIERRA -> "Tierra";
+            case NODO_MARTE -> "Marte";
+            case NODO_MERCURIO -> "Mercurio";
+            case NODO_URANO -> "Urano";
+            default -> "Nodo " + nodo;
+        };
+    }
 }
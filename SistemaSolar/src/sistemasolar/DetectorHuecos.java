@@ -0,0 +1,239 @@
+package sistemasolar;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 🕳️ Detector de huecos en la secuencia de un emisor multicast.
+ *
+ * El Sol numera sus mensajes con una secuencia monótona que empieza en 1. El receptor anota la mayor
+ * secuencia vista y, cuando llega una posterior a la siguiente esperada, apunta las intermedias como
+ * pendientes y pide su retransmisión con un NACK (ver CodecNack). Si una pendiente llega más tarde
+ * (retransmitida o simplemente desordenada) cuenta como recuperada; si tras MAX_INTENTOS rondas de
+ * NACK sigue sin llegar, se da por perdida definitivamente.
+ *
+ * Las rondas de NACK se hacen en revisar(), que el receptor llama tras cada datagrama: como mucho una
+ * cada REINTENTO, con todos los rangos pendientes agrupados. Así una ráfaga de pérdidas no provoca
+ * una ráfaga de NACK, y no hace falta ningún hilo ni temporizador aparte.
+ *
+ * Solo guarda las secuencias pendientes, como mucho MAX_PENDIENTES: en un flujo sin pérdidas no
+ * reserva memoria. Una secuencia anterior a la mayor vista que no está pendiente es siempre un
+ * duplicado: el Sol guarda miles de mensajes y reenvía por multicast cada retransmisión, así que
+ * llegan reparaciones atrasadas de cualquier antigüedad. Que el emisor se ha reiniciado solo lo
+ * indica un cambio de su época (ver CodecMensaje), y entonces el detector vuelve a empezar.
+ *
+ * No es seguro entre hilos: pertenece al hilo receptor. Los contadores sí pueden leerse desde otros hilos.
+ */
+public class DetectorHuecos {
+
+    /**
+     * Destino de las solicitudes de retransmisión de un rango de secuencias (ambos extremos incluidos).
+     */
+    @FunctionalInterface
+    public interface SolicitudNack {
+        void solicitar(long desde, long hasta) throws IOException;
+    }
+
+    // Secuencias pendientes como máximo; un hueco mayor se da por perdido en lo que exceda
+    static final int MAX_PENDIENTES = 1024;
+
+    // Rondas de NACK antes de abandonar una secuencia, y pausa mínima entre rondas
+    static final int MAX_INTENTOS = 5;
+    static final long REINTENTO_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    // NACK como máximo por ronda, para acotar lo que se pide de golpe al emisor
+    private static final int MAX_NACKS_RONDA = 8;
+
+    // Mayor secuencia recibida (0 = todavía ninguna) y época del emisor que la numeró
+    private long maximo = 0;
+    private int epoca;
+
+    // Secuencias pendientes y rondas de NACK que ya se han pedido para cada una
+    private final TreeMap<Long, Integer> pendientes = new TreeMap<>();
+    private long ultimaRonda;
+
+    // Métricas consultables desde otros hilos
+    private final LongAdder perdidos = new LongAdder();
+    private final LongAdder recuperados = new LongAdder();
+    private final LongAdder irrecuperables = new LongAdder();
+    private final LongAdder nacks = new LongAdder();
+    private final LongAdder reinicios = new LongAdder();
+    private final LongAdder duplicados = new LongAdder();
+
+    /**
+     * Anota la llegada de una secuencia.
+     *
+     * @param epoca época del emisor que la numeró (ver CodecMensaje.epoca)
+     * @return true si es nueva (hay que procesar el mensaje); false si ya se había recibido
+     *         o se había dado por perdida
+     */
+    public boolean registrar(long secuencia, int epoca) {
+        if (epoca != this.epoca) {
+            boolean reinicio = maximo > 0;
+            this.epoca = epoca;
+            if (reinicio) {
+                reiniciar(secuencia);
+                return true;
+            }
+        }
+        if (secuencia > maximo) {
+            if (maximo > 0) anotarHueco(maximo + 1, secuencia - 1);
+            maximo = secuencia;
+            return true;
+        }
+        if (pendientes.remove(secuencia) != null) {
+            recuperados.increment();
+            return true;
+        }
+        duplicados.increment();
+        return false;
+    }
+
+    // El emisor ha vuelto a arrancar: lo que faltaba del flujo anterior ya no llegará, y el nuevo
+    // empieza en 1, así que lo que falte hasta la primera secuencia recibida es un hueco más
+    private void reiniciar(long primera) {
+        irrecuperables.add(pendientes.size());
+        pendientes.clear();
+        reinicios.increment();
+        anotarHueco(1, primera - 1);
+        maximo = primera;
+    }
+
+    /**
+     * Continúa a partir de la mayor secuencia que el nodo ya había procesado antes de reiniciarse
+     * (ver PersistenciaEstado): las anteriores cuentan como duplicadas y las que se perdieron
+     * mientras estaba caído se piden por NACK como cualquier otro hueco. Si entretanto el emisor
+     * también ha vuelto a arrancar, su nueva época lo delata en el primer mensaje.
+     */
+    public void restaurar(long maximo, int epoca) {
+        if (maximo <= 0) return;
+        this.maximo = maximo;
+        this.epoca = epoca;
+    }
+
+    private void anotarHueco(long desde, long hasta) {
+        long tamano = hasta - desde + 1;
+        if (tamano <= 0) return;
+        perdidos.add(tamano);
+
+        // Del hueco solo se intentan recuperar las secuencias más recientes que caben
+        if (tamano > MAX_PENDIENTES) {
+            irrecuperables.add(tamano - MAX_PENDIENTES);
+            desde = hasta - MAX_PENDIENTES + 1;
+        }
+        for (long s = desde; s <= hasta; s++) {
+            pendientes.put(s, 0);
+        }
+        while (pendientes.size() > MAX_PENDIENTES) {
+            pendientes.pollFirstEntry();
+            irrecuperables.increment();
+        }
+    }
+
+    /**
+     * Hace una ronda de NACK si hay secuencias pendientes y ya pasó REINTENTO desde la anterior,
+     * y abandona las que agotaron sus intentos.
+     *
+     * @param ahora     instante actual según System.nanoTime
+     * @param solicitud a quién se piden los rangos pendientes
+     */
+    public void revisar(long ahora, SolicitudNack solicitud) throws IOException {
+        if (pendientes.isEmpty() || ahora - ultimaRonda < REINTENTO_NANOS) return;
+        ultimaRonda = ahora;
+
+        long desde = -1;
+        long hasta = -1;
+        int enviados = 0;
+        Iterator<Map.Entry<Long, Integer>> it = pendientes.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Long, Integer> pendiente = it.next();
+            if (pendiente.getValue() >= MAX_INTENTOS) {
+                it.remove();
+                irrecuperables.increment();
+                continue;
+            }
+            if (enviados == MAX_NACKS_RONDA) continue;
+
+            long s = pendiente.getKey();
+            pendiente.setValue(pendiente.getValue() + 1);
+            if (desde >= 0 && s == hasta + 1 && s - desde < CodecNack.MAX_RANGO) {
+                hasta = s;
+                continue;
+            }
+            if (desde >= 0) {
+                solicitar(solicitud, desde, hasta);
+                if (++enviados == MAX_NACKS_RONDA) {
+                    // Esta secuencia no llega a pedirse en esta ronda
+                    pendiente.setValue(pendiente.getValue() - 1);
+                    desde = -1;
+                    continue;
+                }
+            }
+            desde = s;
+            hasta = s;
+        }
+        if (desde >= 0) solicitar(solicitud, desde, hasta);
+    }
+
+    private void solicitar(SolicitudNack solicitud, long desde, long hasta) throws IOException {
+        nacks.increment();
+        solicitud.solicitar(desde, hasta);
+    }
+
+    /**
+     * Secuencias detectadas como ausentes al llegar una posterior.
+     */
+    public long getPerdidos() {
+        return perdidos.sum();
+    }
+
+    /**
+     * Secuencias pendientes que llegaron después (retransmitidas o desordenadas).
+     */
+    public long getRecuperados() {
+        return recuperados.sum();
+    }
+
+    /**
+     * Secuencias pendientes que se dieron por perdidas.
+     */
+    public long getIrrecuperables() {
+        return irrecuperables.sum();
+    }
+
+    public long getNacks() {
+        return nacks.sum();
+    }
+
+    public long getReinicios() {
+        return reinicios.sum();
+    }
+
+    /**
+     * Secuencias que ya se habían recibido o dado por perdidas (retransmisiones que llegaron tarde o repetidas).
+     */
+    public long getDuplicados() {
+        return duplicados.sum();
+    }
+
+    /**
+     * Expone los contadores de la secuencia del Sol con las etiquetas indicadas.
+     */
+    public void registrarMetricas(RegistroMetricas registro, String... etiquetas) {
+        registro.contador("secuencia_perdidos_total", "Mensajes del Sol detectados como ausentes", this::getPerdidos, etiquetas);
+        registro.contador("secuencia_recuperados_total", "Mensajes del Sol ausentes que llegaron después", this::getRecuperados, etiquetas);
+        registro.contador("secuencia_irrecuperables_total", "Mensajes del Sol dados por perdidos", this::getIrrecuperables, etiquetas);
+        registro.contador("secuencia_reinicios_total", "Reinicios detectados del Sol", this::getReinicios, etiquetas);
+        registro.contador("nacks_enviados_total", "NACK enviados al Sol", this::getNacks, etiquetas);
+    }
+
+    @Override
+    public String toString() {
+        return "perdidos=" + getPerdidos() + ", recuperados=" + getRecuperados()
+                + ", irrecuperables=" + getIrrecuperables() + ", nacks=" + getNacks();
+    }
+}
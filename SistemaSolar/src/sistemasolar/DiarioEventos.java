@@ -0,0 +1,338 @@
+package sistemasolar;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * 📒 Diario de eventos (write-ahead log) de un nodo, con instantáneas para acotar la recuperación.
+ *
+ * Cada instrucción que el nodo cuenta o aplica se anota como un registro binario de tamaño fijo en
+ * segmentos proyectados en memoria ("<primer índice>.diario"). Anotar es copiar 48 bytes en la
+ * proyección: no hay llamadas al sistema y, si el proceso muere, el sistema operativo conserva lo escrito.
+ *
+ * Registro (48 bytes):
+ *
+ *   0   8   índice del evento (1, 2, 3...)
+ *   8   1   tipo de evento (ordinal de Evento)
+ *   9   1   ordinal de la instrucción
+ *   10  2   tema del Sol por el que llegó el mensaje (ver TemasSol)
+ *   12  4   CRC32C del resto del registro
+ *   16  8   UUID del mensaje (bits más significativos)
+ *   24  8   UUID del mensaje (bits menos significativos)
+ *   32  8   secuencia del mensaje
+ *   40  4   época del emisor del mensaje
+ *   44  4   reservado
+ *
+ * De vez en cuando el nodo guarda una instantánea de su estado ("<índice>.instantanea", escrita en un
+ * fichero temporal y renombrada de forma atómica) y los segmentos que ya cubre se borran. Al arrancar,
+ * recuperar() carga la instantánea más reciente que sea válida y reproduce los eventos posteriores
+ * hasta el primero incompleto o corrupto, que marca el final del diario.
+ *
+ * No es seguro entre hilos: quien anota debe serializar las llamadas a anadir() (ver PersistenciaEstado).
+ * guardarInstantanea() sí puede ejecutarse a la vez que se anota, pero no a la vez que otra instantánea.
+ */
+public final class DiarioEventos implements Closeable {
+
+    /**
+     * Qué le pasó a la instrucción anotada.
+     */
+    public enum Evento {
+        // Instrucción del Sol aplicada a la temperatura
+        SOL_APLICADA,
+        // Instrucción del Sol solo contada (el nodo no aplica las del Sol)
+        SOL_CONTADA,
+        // Reenvío de la Tierra aplicado
+        TIERRA,
+        // El nodo volvió a arrancar tras explotar: la temperatura vuelve a la inicial
+        REVIVIR
+    }
+
+    /**
+     * Recibe cada evento reproducido durante la recuperación.
+     */
+    @FunctionalInterface
+    public interface Lector {
+        void leer(Evento evento, Instruccion instruccion, long idMsb, long idLsb, int tema, long secuencia, int epoca);
+    }
+
+    public static final int TAMANO_REGISTRO = 48;
+
+    private static final int OFFSET_TIPO = 8;
+    private static final int OFFSET_INSTRUCCION = 9;
+    private static final int OFFSET_TEMA = 10;
+    private static final int OFFSET_CRC = 12;
+    private static final int OFFSET_ID_MSB = 16;
+    private static final int OFFSET_ID_LSB = 24;
+    private static final int OFFSET_SECUENCIA = 32;
+    private static final int OFFSET_EPOCA = 40;
+
+    private static final String EXTENSION_SEGMENTO = ".diario";
+    private static final String EXTENSION_INSTANTANEA = ".instantanea";
+
+    private static final int MAGIA_INSTANTANEA = 0x534E4150; // "SNAP"
+    private static final int VERSION_INSTANTANEA = 2;
+    // Magia, versión, índice y longitud del estado; detrás van el estado y su CRC32C
+    private static final int CABECERA_INSTANTANEA = 4 + 4 + 8 + 4;
+
+    private static final Evento[] EVENTOS = Evento.values();
+    private static final Instruccion[] INSTRUCCIONES = Instruccion.values();
+
+    private final Path directorio;
+    private final int registrosPorSegmento;
+
+    // Segmento en el que se escribe y primer índice que contiene
+    private MappedByteBuffer segmento;
+    private long inicioSegmento;
+
+    // Índice del último evento anotado (0 = ninguno)
+    private long indice = 0;
+
+    // Registro en construcción y su suma de comprobación, reutilizados
+    private final ByteBuffer registro = ByteBuffer.allocate(TAMANO_REGISTRO);
+    private final CRC32C crc = new CRC32C();
+
+    private DiarioEventos(Path directorio, int registrosPorSegmento) {
+        this.directorio = directorio;
+        this.registrosPorSegmento = registrosPorSegmento;
+    }
+
+    /**
+     * Abre (creándolo si hace falta) el diario del directorio indicado. Antes de anotar nada hay que
+     * llamar a recuperar(), que deja el diario listo para continuar donde terminó.
+     *
+     * @param registrosPorSegmento eventos por fichero de segmento
+     */
+    public static DiarioEventos abrir(Path directorio, int registrosPorSegmento) throws IOException {
+        if (registrosPorSegmento <= 0) {
+            throw new IllegalArgumentException("Los segmentos deben tener al menos un registro");
+        }
+        Files.createDirectories(directorio);
+        return new DiarioEventos(directorio, registrosPorSegmento);
+    }
+
+    /**
+     * Carga la instantánea más reciente y reproduce los eventos posteriores.
+     *
+     * @param cargarInstantanea recibe el estado guardado en la instantánea (no se llama si no hay ninguna)
+     * @param lector            recibe cada evento posterior a la instantánea, en orden
+     * @return número de eventos reproducidos
+     */
+    public long recuperar(Consumer<ByteBuffer> cargarInstantanea, Lector lector) throws IOException {
+        long base = 0;
+        for (Path instantanea : listar(EXTENSION_INSTANTANEA).reversed()) {
+            ByteBuffer estado = leerInstantanea(instantanea);
+            if (estado == null) {
+                Consola.error("❌ Instantánea corrupta descartada: " + instantanea);
+                continue;
+            }
+            base = estado.getLong(8);
+            cargarInstantanea.accept(estado.position(CABECERA_INSTANTANEA).slice());
+            break;
+        }
+
+        // Reproduce desde el segmento que contiene el evento siguiente a la instantánea
+        long siguiente = base + 1;
+        long reproducidos = 0;
+        List<Path> segmentos = listar(EXTENSION_SEGMENTO);
+        for (int i = 0; i < segmentos.size(); i++) {
+            long inicio = inicioDe(segmentos.get(i));
+            boolean ultimo = i + 1 == segmentos.size();
+            if (!ultimo && inicioDe(segmentos.get(i + 1)) <= siguiente) continue;   // ya cubierto
+            if (inicio > siguiente) break;                                        // hueco: el diario termina aquí
+
+            MappedByteBuffer mapa = proyectar(inicio);
+            long fin = inicio + registrosPorSegmento;
+            while (siguiente < fin && leerRegistro(mapa, (int) (siguiente - inicio) * TAMANO_REGISTRO, siguiente, lector)) {
+                siguiente++;
+                reproducidos++;
+            }
+            segmento = mapa;
+            inicioSegmento = inicio;
+            if (siguiente < fin) break;   // registro incompleto o corrupto: final del diario
+        }
+        indice = siguiente - 1;
+
+        if (segmento == null || siguiente >= inicioSegmento + registrosPorSegmento) {
+            nuevoSegmento(siguiente);
+        } else {
+            // Tras un registro incompleto pueden quedar otros completos de antes de la caída: se borran
+            // para que no reaparezcan en la próxima recuperación si se vuelve a caer antes de pisarlos
+            for (int posicion = (int) (siguiente - inicioSegmento) * TAMANO_REGISTRO;
+                 posicion < segmento.capacity() && segmento.getLong(posicion) != 0; posicion += TAMANO_REGISTRO) {
+                segmento.put(posicion, new byte[TAMANO_REGISTRO]);
+            }
+        }
+        // Lo que haya después del final ya no vale
+        for (Path ruta : segmentos) {
+            if (inicioDe(ruta) > inicioSegmento) Files.deleteIfExists(ruta);
+        }
+        return reproducidos;
+    }
+
+    // Valida el registro de la posición indicada y, si es el esperado, se lo pasa al lector
+    private boolean leerRegistro(ByteBuffer mapa, int posicion, long esperado, Lector lector) {
+        if (mapa.getLong(posicion) != esperado) return false;
+        int tipo = mapa.get(posicion + OFFSET_TIPO);
+        int instruccion = mapa.get(posicion + OFFSET_INSTRUCCION);
+        if (tipo < 0 || tipo >= EVENTOS.length || instruccion < 0 || instruccion >= INSTRUCCIONES.length) return false;
+
+        crc.reset();
+        crc.update(mapa.slice(posicion, OFFSET_CRC));
+        crc.update(mapa.slice(posicion + OFFSET_ID_MSB, TAMANO_REGISTRO - OFFSET_ID_MSB));
+        if ((int) crc.getValue() != mapa.getInt(posicion + OFFSET_CRC)) return false;
+
+        lector.leer(EVENTOS[tipo], INSTRUCCIONES[instruccion], mapa.getLong(posicion + OFFSET_ID_MSB),
+                mapa.getLong(posicion + OFFSET_ID_LSB), Short.toUnsignedInt(mapa.getShort(posicion + OFFSET_TEMA)),
+                mapa.getLong(posicion + OFFSET_SECUENCIA), mapa.getInt(posicion + OFFSET_EPOCA));
+        return true;
+    }
+
+    /**
+     * Anota un evento al final del diario.
+     *
+     * @return el índice asignado al evento
+     */
+    public long anadir(Evento evento, Instruccion instruccion, long idMsb, long idLsb, int tema, long secuencia,
+                       int epoca) throws IOException {
+        long nuevo = indice + 1;
+        if (nuevo >= inicioSegmento + registrosPorSegmento) nuevoSegmento(nuevo);
+
+        registro.clear();
+        registro.putLong(nuevo)
+                .put((byte) evento.ordinal())
+                .put((byte) instruccion.ordinal())
+                .putShort((short) tema)
+                .putInt(0)
+                .putLong(idMsb)
+                .putLong(idLsb)
+                .putLong(secuencia)
+                .putInt(epoca)
+                .putInt(0);
+        crc.reset();
+        crc.update(registro.array(), 0, OFFSET_CRC);
+        crc.update(registro.array(), OFFSET_ID_MSB, TAMANO_REGISTRO - OFFSET_ID_MSB);
+        registro.putInt(OFFSET_CRC, (int) crc.getValue());
+
+        segmento.put((int) (nuevo - inicioSegmento) * TAMANO_REGISTRO, registro.array(), 0, TAMANO_REGISTRO);
+        indice = nuevo;
+        return nuevo;
+    }
+
+    private void nuevoSegmento(long inicio) throws IOException {
+        if (segmento != null) segmento.force();
+        Path ruta = rutaSegmento(inicio);
+        Files.deleteIfExists(ruta);
+        segmento = proyectar(inicio);
+        inicioSegmento = inicio;
+    }
+
+    private MappedByteBuffer proyectar(long inicio) throws IOException {
+        try (FileChannel canal = FileChannel.open(rutaSegmento(inicio), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return canal.map(FileChannel.MapMode.READ_WRITE, 0, (long) registrosPorSegmento * TAMANO_REGISTRO);
+        }
+    }
+
+    /**
+     * Guarda una instantánea del estado tal como estaba tras el evento 'hasta', y borra las
+     * instantáneas anteriores y los segmentos cuyos eventos ya cubre.
+     *
+     * @param estado contenido de la instantánea (de la posición al límite), con el formato que decida el nodo
+     */
+    public void guardarInstantanea(long hasta, ByteBuffer estado) throws IOException {
+        ByteBuffer contenido = ByteBuffer.allocate(CABECERA_INSTANTANEA + estado.remaining() + 4);
+        contenido.putInt(MAGIA_INSTANTANEA).putInt(VERSION_INSTANTANEA).putLong(hasta).putInt(estado.remaining());
+        contenido.put(estado);
+        CRC32C suma = new CRC32C();   // la del diario es del hilo que anota
+        suma.update(contenido.array(), 0, contenido.position());
+        contenido.putInt((int) suma.getValue());
+        contenido.flip();
+
+        Path definitiva = directorio.resolve(String.format("%020d", hasta) + EXTENSION_INSTANTANEA);
+        Path temporal = directorio.resolve(definitiva.getFileName() + ".tmp");
+        try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (contenido.hasRemaining()) canal.write(contenido);
+            canal.force(true);
+        }
+        Files.move(temporal, definitiva, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+        for (Path anterior : listar(EXTENSION_INSTANTANEA)) {
+            if (!anterior.equals(definitiva)) Files.deleteIfExists(anterior);
+        }
+        List<Path> segmentos = listar(EXTENSION_SEGMENTO);
+        for (int i = 0; i + 1 < segmentos.size(); i++) {
+            // Un segmento sobra si el siguiente ya empieza dentro de lo que cubre la instantánea
+            if (inicioDe(segmentos.get(i + 1)) <= hasta + 1) Files.deleteIfExists(segmentos.get(i));
+        }
+    }
+
+    // Devuelve el contenido completo de la instantánea si su cabecera y su CRC son válidos, o null
+    private ByteBuffer leerInstantanea(Path ruta) throws IOException {
+        ByteBuffer contenido = ByteBuffer.wrap(Files.readAllBytes(ruta));
+        if (contenido.remaining() < CABECERA_INSTANTANEA + 4
+                || contenido.getInt(0) != MAGIA_INSTANTANEA || contenido.getInt(4) != VERSION_INSTANTANEA) {
+            return null;
+        }
+        int longitud = contenido.getInt(16);
+        if (longitud < 0 || longitud != contenido.remaining() - CABECERA_INSTANTANEA - 4) return null;
+        crc.reset();
+        crc.update(contenido.array(), 0, CABECERA_INSTANTANEA + longitud);
+        if ((int) crc.getValue() != contenido.getInt(CABECERA_INSTANTANEA + longitud)) return null;
+        return contenido.limit(CABECERA_INSTANTANEA + longitud);
+    }
+
+    // Ficheros del directorio con la extensión indicada, ordenados por su índice
+    private List<Path> listar(String extension) throws IOException {
+        List<Path> rutas = new ArrayList<>();
+        try (DirectoryStream<Path> contenido = Files.newDirectoryStream(directorio, "*" + extension)) {
+            for (Path ruta : contenido) rutas.add(ruta);
+        }
+        rutas.sort(null);   // los nombres llevan el índice con ceros a la izquierda
+        return rutas;
+    }
+
+    private Path rutaSegmento(long inicio) {
+        return directorio.resolve(String.format("%020d", inicio) + EXTENSION_SEGMENTO);
+    }
+
+    private static long inicioDe(Path ruta) {
+        String nombre = ruta.getFileName().toString();
+        return Long.parseLong(nombre.substring(0, nombre.indexOf('.')));
+    }
+
+    /**
+     * Índice del último evento anotado.
+     */
+    public long getIndice() {
+        return indice;
+    }
+
+    public Path getDirectorio() {
+        return directorio;
+    }
+
+    /**
+     * Fuerza a disco lo anotado en el segmento actual (para sobrevivir también a una caída de la máquina).
+     */
+    public void sincronizar() {
+        if (segmento != null) segmento.force();
+    }
+
+    @Override
+    public void close() {
+        sincronizar();
+    }
+}
@@ -0,0 +1,156 @@
+package sistemasolar;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+
+/**
+ * 📦 Emisor multicast por lotes.
+ *
+ * Agrupa varios mensajes en un único datagrama para repartir el coste de cada envío (llamada al sistema
+ * y procesado del paquete en el núcleo) entre todos ellos. Como cada mensaje codificado mide exactamente
+ * CodecMensaje.TAMANO bytes, un lote es simplemente la concatenación de mensajes; un datagrama con un
+ * solo mensaje sigue siendo un lote válido, así que los receptores no distinguen ambos casos
+ * (ver CodecMensaje.validarLote).
+ *
+ * El lote pendiente se envía cuando:
+ * - se llena (maxMensajes, limitado para que el datagrama quepa en la MTU), o
+ * - el dueño llama a vencer() y el primer mensaje pendiente lleva esperando al menos la ventana
+ *   de espera; con una ventana de 0, vencer() envía lo que haya (por ejemplo, al final de una ráfaga).
+ *
+ * No es seguro entre hilos: cada hilo emisor usa su propio EmisorLotes.
+ */
+public final class EmisorLotes implements Publicador {
+
+    // Máximo de mensajes que caben en un datagrama sin fragmentarse en una red Ethernet
+    public static final int MAX_MENSAJES_DATAGRAMA = Constantes.TAMANO_MAXIMO_DATAGRAMA / CodecMensaje.TAMANO;
+
+    private final DatagramChannel canal;
+    private final InetSocketAddress destino;
+    private final ByteBuffer buffer;
+    private final int maxMensajes;
+    private final long esperaNanos;
+
+    // Mensajes del lote pendiente e instante (System.nanoTime) en que entró el primero
+    private int pendientes = 0;
+    private long inicioLote;
+
+    // Métricas del emisor
+    private long datagramas = 0;
+    private long mensajes = 0;
+    private final HistogramaLatencia duracionEnvio = new HistogramaLatencia();
+
+    /**
+     * @param ip          dirección (normalmente el grupo multicast) a la que se envían los lotes
+     * @param puerto      puerto de destino
+     * @param maxMensajes mensajes por datagrama, entre 1 y MAX_MENSAJES_DATAGRAMA
+     * @param esperaNanos tiempo máximo que un mensaje puede esperar a que se complete su lote (0 = sin espera)
+     */
+    public EmisorLotes(String ip, int puerto, int maxMensajes, long esperaNanos) throws IOException {
+        this(abrirCanal(maxMensajes, esperaNanos), ip, puerto, maxMensajes, esperaNanos);
+    }
+
+    /**
+     * Emisor que envía por un canal ya abierto, compartido con otros emisores (por ejemplo, para que las
+     * retransmisiones salgan del mismo puerto en el que se atienden los NACK). Cerrar cualquiera de
+     * ellos cierra el canal.
+     */
+    public EmisorLotes(DatagramChannel canal, String ip, int puerto, int maxMensajes, long esperaNanos) throws IOException {
+        validar(maxMensajes, esperaNanos);
+        this.canal = canal;
+        this.destino = new InetSocketAddress(InetAddress.getByName(ip), puerto);
+        this.buffer = ByteBuffer.allocateDirect(maxMensajes * CodecMensaje.TAMANO);
+        this.maxMensajes = maxMensajes;
+        this.esperaNanos = esperaNanos;
+    }
+
+    // Valida antes de abrir el canal, para no dejarlo abierto si los parámetros no son válidos
+    private static DatagramChannel abrirCanal(int maxMensajes, long esperaNanos) throws IOException {
+        validar(maxMensajes, esperaNanos);
+        return DatagramChannel.open();
+    }
+
+    private static void validar(int maxMensajes, long esperaNanos) {
+        if (maxMensajes < 1 || maxMensajes > MAX_MENSAJES_DATAGRAMA) {
+            throw new IllegalArgumentException("El lote debe tener entre 1 y " + MAX_MENSAJES_DATAGRAMA + " mensajes");
+        }
+        if (esperaNanos < 0) throw new IllegalArgumentException("La espera del lote no puede ser negativa");
+    }
+
+    /**
+     * Añade un mensaje al lote pendiente y lo envía si se llena.
+     */
+    @Override
+    public void anadir(Mensaje mensaje) throws IOException {
+        if (pendientes == 0) inicioLote = System.nanoTime();
+        CodecMensaje.codificar(mensaje, buffer);
+        pendientes++;
+        if (pendientes == maxMensajes) vaciar();
+    }
+
+    /**
+     * Envía el lote pendiente si su primer mensaje ya agotó la ventana de espera.
+     *
+     * @param ahora instante actual según System.nanoTime
+     */
+    @Override
+    public void vencer(long ahora) throws IOException {
+        if (pendientes > 0 && ahora - inicioLote >= esperaNanos) vaciar();
+    }
+
+    /**
+     * Instante (System.nanoTime) en que vence el lote pendiente, o Long.MAX_VALUE si no hay ninguno.
+     * Permite al hilo emisor dormir justo hasta entonces.
+     */
+    @Override
+    public long vencimiento() {
+        return pendientes > 0 ? inicioLote + esperaNanos : Long.MAX_VALUE;
+    }
+
+    /**
+     * Envía inmediatamente el lote pendiente, si lo hay.
+     */
+    public void vaciar() throws IOException {
+        if (pendientes == 0) return;
+        buffer.flip();
+        long antes = System.nanoTime();
+        try {
+            canal.send(buffer, destino);
+            datagramas++;
+            mensajes += pendientes;
+        } finally {
+            duracionEnvio.registrar(System.nanoTime() - antes);
+            buffer.clear();
+            pendientes = 0;
+        }
+    }
+
+    public long getDatagramas() {
+        return datagramas;
+    }
+
+    public long getMensajes() {
+        return mensajes;
+    }
+
+    /**
+     * Distribución de la duración de cada envío (una muestra por datagrama).
+     */
+    public HistogramaLatencia getDuracionEnvio() {
+        return duracionEnvio;
+    }
+
+    /**
+     * Envía lo pendiente y cierra el canal.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            vaciar();
+        } finally {
+            canal.close();
+        }
+    }
+}
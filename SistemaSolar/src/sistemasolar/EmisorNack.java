@@ -0,0 +1,47 @@
+package sistemasolar;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+
+/**
+ * 📮 Emisor de NACK por unicast.
+ *
+ * Lo usa un receptor multicast para pedir al emisor los mensajes que le faltan (ver DetectorHuecos).
+ * Los NACK van a la dirección y puerto desde los que llegó el último datagrama (ReceptorUdp.getRemitente),
+ * que es el canal en el que el Sol atiende las retransmisiones; así no hace falta ningún puerto fijo.
+ *
+ * Reutiliza su canal y su buffer en todos los envíos. No es seguro entre hilos.
+ */
+public final class EmisorNack implements Closeable {
+
+    private final DatagramChannel canal;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(CodecNack.TAMANO);
+    private final int nodo;
+
+    /**
+     * @param nodo identificador del nodo que pide las retransmisiones
+     */
+    public EmisorNack(int nodo) throws IOException {
+        this.canal = DatagramChannel.open();
+        this.nodo = nodo;
+    }
+
+    /**
+     * Pide al destino que retransmita las secuencias [desde, hasta]. Sin destino conocido no envía nada.
+     */
+    public void enviar(InetSocketAddress destino, long desde, long hasta) throws IOException {
+        if (destino == null) return;
+        buffer.clear();
+        CodecNack.codificar(nodo, desde, hasta, buffer);
+        buffer.flip();
+        canal.send(buffer, destino);
+    }
+
+    @Override
+    public void close() throws IOException {
+        canal.close();
+    }
+}
@@ -0,0 +1,53 @@
+package sistemasolar;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+
+/**
+ * 📡 Emisor de muestras de telemetría por UDP.
+ *
+ * Sustituye al envío de la temperatura como texto: cada muestra se codifica (ver CodecTelemetria)
+ * sobre un buffer directo reutilizado y sale por un DatagramChannel abierto una sola vez, así que
+ * enviar no reserva memoria y la frecuencia puede subir muy por encima de 10 Hz.
+ *
+ * No es seguro entre hilos: lo usa el hilo de telemetría del planeta.
+ */
+public final class EmisorTelemetria implements Closeable {
+
+    private final DatagramChannel canal;
+    private final InetSocketAddress destino;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(CodecTelemetria.TAMANO);
+    private final int nodo;
+
+    // Secuencia de la última muestra enviada (la primera es 1)
+    private long secuencia = 0;
+
+    public EmisorTelemetria(int nodo, String host, int puerto) throws IOException {
+        this.nodo = nodo;
+        this.destino = new InetSocketAddress(InetAddress.getByName(host), puerto);
+        this.canal = DatagramChannel.open();
+    }
+
+    /**
+     * Envía una muestra con la temperatura indicada, la siguiente secuencia y el instante actual.
+     */
+    public void enviar(int temperatura) throws IOException {
+        buffer.clear();
+        CodecTelemetria.codificar(nodo, temperatura, ++secuencia, System.nanoTime(), buffer);
+        buffer.flip();
+        canal.send(buffer, destino);
+    }
+
+    public long getEnviadas() {
+        return secuencia;
+    }
+
+    @Override
+    public void close() throws IOException {
+        canal.close();
+    }
+}
@@ -0,0 +1,19 @@
+package sistemasolar;
+
+import java.io.Closeable;
+
+/**
+ * 🔗 Enlace persistente de la Tierra con un planeta, sea cual sea el transporte (ver Transporte).
+ */
+public interface Enlace extends Closeable {
+
+    /**
+     * Envía un mensaje al planeta.
+     *
+     * @return true si el mensaje salió; false si el planeta no está disponible
+     */
+    boolean enviar(Mensaje mensaje);
+
+    @Override
+    void close();
+}
@@ -0,0 +1,193 @@
+package sistemasolar;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 🔗 Enlace TCP persistente entre la Tierra y un planeta.
+ *
+ * En lugar de abrir un socket (y un hilo) por cada mensaje reenviado, mantiene una única conexión
+ * abierta por la que viajan todos los mensajes como tramas con prefijo de longitud:
+ *
+ *   [int longitud][longitud bytes codificados con CodecMensaje]
+ *
+ * Si la conexión se pierde, se vuelve a abrir automáticamente en el siguiente envío, respetando
+ * una espera exponencial entre intentos para no saturar a un planeta caído.
+ *
+ * close() no toma el cerrojo: un escritor puede tenerlo retenido mientras bloquea en write contra un
+ * planeta que no lee, y cerrar el socket directamente es lo que lo despierta. Tras cerrarlo, el enlace
+ * ya no vuelve a conectar.
+ */
+public class EnlaceTcp implements Enlace {
+
+    // Tamaño del prefijo de longitud de cada trama
+    public static final int TAMANO_CABECERA = 4;
+
+    // Tiempo máximo para establecer la conexión
+    private static final int TIMEOUT_CONEXION_MS = 500;
+
+    // Esperas mínima y máxima entre intentos de reconexión
+    private static final long ESPERA_INICIAL_MS = 100;
+    private static final long ESPERA_MAXIMA_MS = 5000;
+
+    private final String nombre;
+    private final String host;
+    private final int puerto;
+
+    // Buffer reutilizado para componer cada trama antes de escribirla
+    private final ByteBuffer trama = ByteBuffer.allocate(TAMANO_CABECERA + CodecMensaje.TAMANO);
+
+    // Copia de las tramas ya codificadas que llegan en buffers directos (ver enviarTrama)
+    private byte[] copia = new byte[CodecMensaje.TAMANO];
+
+    // Cerrojo explícito en lugar de synchronized: un hilo virtual que bloquea en E/S dentro de un
+    // bloque synchronized retiene su hilo portador, y la Tierra puede ejecutarse sobre hilos virtuales
+    private final ReentrantLock cerrojo = new ReentrantLock();
+
+    // Volátiles para que close() los vea sin tomar el cerrojo
+    private volatile Socket socket;
+    private volatile boolean cerrado;
+    private OutputStream salida;
+
+    // Control de la espera exponencial entre reconexiones
+    private long esperaMs = ESPERA_INICIAL_MS;
+    private long proximoIntento = 0;
+
+    public EnlaceTcp(String nombre, String host, int puerto) {
+        this.nombre = nombre;
+        this.host = host;
+        this.puerto = puerto;
+    }
+
+    /**
+     * Envía un mensaje por el enlace, conectando si es necesario.
+     *
+     * @return true si el mensaje se escribió en el socket; false si el planeta no está disponible
+     */
+    @Override
+    public boolean enviar(Mensaje mensaje) {
+        cerrojo.lock();
+        try {
+            return escribir(mensaje);
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    /**
+     * Envía una trama ya codificada (de la posición al límite, sin moverla), con su prefijo de longitud.
+     * La usan el Grabador y el Reproductor para reenviar tramas capturadas sin decodificarlas.
+     *
+     * @return true si la trama se escribió en el socket; false si el planeta no está disponible
+     */
+    public boolean enviarTrama(ByteBuffer codificada) {
+        int longitud = codificada.remaining();
+        if (longitud <= 0 || longitud > ServidorTcpNio.TRAMA_MAXIMA) {
+            throw new IllegalArgumentException("Longitud de trama inválida: " + longitud);
+        }
+        cerrojo.lock();
+        try {
+            if (!conectar()) return false;
+            ByteBuffer cabecera = trama.clear().putInt(longitud);
+            try {
+                salida.write(cabecera.array(), 0, cabecera.position());
+                if (codificada.hasArray()) {
+                    salida.write(codificada.array(), codificada.arrayOffset() + codificada.position(), longitud);
+                } else {
+                    if (copia.length < longitud) copia = new byte[longitud];
+                    codificada.get(codificada.position(), copia, 0, longitud);
+                    salida.write(copia, 0, longitud);
+                }
+                salida.flush();
+                return true;
+            } catch (IOException e) {
+                return perdido(e);
+            }
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    private boolean escribir(Mensaje mensaje) {
+        if (!conectar()) return false;
+
+        trama.clear();
+        trama.putInt(CodecMensaje.TAMANO);
+        CodecMensaje.codificar(mensaje, trama);
+
+        try {
+            salida.write(trama.array(), 0, trama.position());
+            salida.flush();
+            return true;
+        } catch (IOException e) {
+            return perdido(e);
+        }
+    }
+
+    private boolean perdido(IOException e) {
+        if (!cerrado) Consola.error("❌ Enlace con " + nombre + " perdido: " + e.getMessage());
+        desconectar();
+        return false;
+    }
+
+    /**
+     * Abre la conexión si no lo está y ha vencido la espera de reconexión.
+     */
+    private boolean conectar() {
+        if (socket != null) return true;
+        if (cerrado) return false;
+
+        long ahora = System.currentTimeMillis();
+        if (ahora < proximoIntento) return false;
+
+        try {
+            Socket nuevo = new Socket();
+            nuevo.setTcpNoDelay(true);
+            nuevo.connect(new InetSocketAddress(host, puerto), TIMEOUT_CONEXION_MS);
+            salida = new BufferedOutputStream(nuevo.getOutputStream());
+            socket = nuevo;
+            // Un close() que no llegó a ver este socket ya dejó marcado el enlace
+            if (cerrado) {
+                desconectar();
+                return false;
+            }
+            esperaMs = ESPERA_INICIAL_MS;
+            Consola.info("🔗 Enlace con " + nombre + " establecido (puerto " + puerto + ")");
+            return true;
+        } catch (IOException e) {
+            Consola.error("❌ No se pudo contactar con " + nombre + ": " + e.getMessage()
+                    + " (reintento en " + esperaMs + " ms)");
+            proximoIntento = ahora + esperaMs;
+            esperaMs = Math.min(esperaMs * 2, ESPERA_MAXIMA_MS);
+            return false;
+        }
+    }
+
+    private void desconectar() {
+        cerrar(socket);
+        socket = null;
+        salida = null;
+    }
+
+    private static void cerrar(Socket socket) {
+        try {
+            if (socket != null) socket.close();
+        } catch (IOException ignorada) {
+            // El socket ya estaba roto; no hay nada más que hacer
+        }
+    }
+
+    /**
+     * Cierra el enlace sin esperar al cerrojo: un envío bloqueado en el socket falla y lo suelta.
+     */
+    @Override
+    public void close() {
+        cerrado = true;
+        cerrar(socket);
+    }
+}
@@ -0,0 +1,204 @@
+package sistemasolar;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntUnaryOperator;
+import java.util.random.RandomGenerator;
+
+/**
+ * 🧭 Elige a qué destino (de un conjunto cualquiera de planetas) se reenvía cada mensaje.
+ *
+ * Estrategias disponibles:
+ * - PONDERADA: al azar según pesos, con el método del alias (ver SelectorAlias). Los pesos se pueden
+ *   recargar en caliente: el selector es inmutable y se sustituye de una vez, sin bloquear a quien elige.
+ * - TURNO: por turnos, uno tras otro.
+ * - MENOR_COLA: el destino con menos mensajes pendientes en su cola de salida (los empates, al azar).
+ * - HASH: hash consistente sobre el UUID del mensaje, así que el mismo mensaje va siempre al mismo
+ *   planeta y añadir o quitar uno solo mueve la parte del anillo que le corresponde.
+ * - DIFUSION: a todos los destinos.
+ *
+ * Seguro entre hilos.
+ */
+public class Enrutador {
+
+    /**
+     * Estrategia de reparto de los mensajes entre destinos.
+     */
+    public enum Estrategia {
+        PONDERADA,
+        TURNO,
+        MENOR_COLA,
+        HASH,
+        DIFUSION
+    }
+
+    // Valor devuelto por elegir() cuando el mensaje va a todos los destinos
+    public static final int TODOS = -1;
+
+    // Puntos de cada destino en el anillo de hash consistente, para que el reparto sea uniforme
+    private static final int PUNTOS_POR_DESTINO = 128;
+
+    private final Estrategia estrategia;
+    private final String[] destinos;
+
+    // Pesos actuales de la estrategia PONDERADA
+    private volatile SelectorAlias selector;
+
+    // Siguiente turno de la estrategia TURNO
+    private final AtomicLong turno = new AtomicLong();
+
+    // Mensajes pendientes de cada destino, para MENOR_COLA
+    private final IntUnaryOperator profundidad;
+
+    // Anillo de hash consistente: posiciones ordenadas y el destino de cada una
+    private final long[] anillo;
+    private final int[] duenos;
+
+    /**
+     * @param estrategia  cómo repartir los mensajes
+     * @param destinos    nombres de los destinos (el índice de cada uno es lo que devuelve elegir())
+     * @param pesos       pesos para PONDERADA, uno por destino (se ignoran en el resto)
+     * @param profundidad mensajes pendientes del destino con ese índice, para MENOR_COLA
+     */
+    public Enrutador(Estrategia estrategia, String[] destinos, double[] pesos, IntUnaryOperator profundidad) {
+        if (destinos.length == 0) throw new IllegalArgumentException("El enrutador necesita al menos un destino");
+        this.estrategia = estrategia;
+        this.destinos = destinos.clone();
+        this.profundidad = profundidad;
+        this.selector = nuevoSelector(pesos);
+
+        this.anillo = new long[destinos.length * PUNTOS_POR_DESTINO];
+        this.duenos = new int[anillo.length];
+        construirAnillo();
+    }
+
+    private SelectorAlias nuevoSelector(double[] pesos) {
+        if (pesos.length != destinos.length) {
+            throw new IllegalArgumentException("Se esperaban " + destinos.length + " pesos y hay " + pesos.length);
+        }
+        return new SelectorAlias(pesos);
+    }
+
+    // Reparte los puntos de cada destino por el anillo según el hash de su nombre
+    private void construirAnillo() {
+        Integer[] orden = new Integer[anillo.length];
+        long[] puntos = new long[anillo.length];
+        for (int d = 0; d < destinos.length; d++) {
+            long base = (long) destinos[d].hashCode() << 32;
+            for (int i = 0; i < PUNTOS_POR_DESTINO; i++) {
+                int punto = d * PUNTOS_POR_DESTINO + i;
+                puntos[punto] = mezclar(base | i);
+                orden[punto] = punto;
+            }
+        }
+        Arrays.sort(orden, (x, y) -> Long.compare(puntos[x], puntos[y]));
+        for (int i = 0; i < orden.length; i++) {
+            anillo[i] = puntos[orden[i]];
+            duenos[i] = orden[i] / PUNTOS_POR_DESTINO;
+        }
+    }
+
+    /**
+     * Índice del destino del mensaje, o TODOS si va a todos.
+     */
+    public int elegir(Mensaje mensaje) {
+        return elegir(mensaje.getIdMsb(), mensaje.getIdLsb(), ThreadLocalRandom.current());
+    }
+
+    /**
+     * Igual que elegir(Mensaje), a partir del UUID del mensaje y con la fuente de aleatoriedad
+     * indicada, para repetir exactamente el mismo reparto con la misma semilla (ver Simulacion).
+     */
+    public int elegir(long idMsb, long idLsb, RandomGenerator random) {
+        return switch (estrategia) {
+            case PONDERADA -> selector.elegir(random);
+            case TURNO -> (int) Long.remainderUnsigned(turno.getAndIncrement(), destinos.length);
+            case MENOR_COLA -> menorCola(random);
+            case HASH -> porHash(idMsb ^ idLsb);
+            case DIFUSION -> TODOS;
+        };
+    }
+
+    private int menorCola(RandomGenerator random) {
+        int n = destinos.length;
+        int inicio = random.nextInt(n);
+        int mejor = inicio;
+        int menor = Integer.MAX_VALUE;
+        for (int k = 0; k < n; k++) {
+            int i = (inicio + k) % n;
+            int pendientes = profundidad.applyAsInt(i);
+            if (pendientes < menor) {
+                menor = pendientes;
+                mejor = i;
+            }
+        }
+        return mejor;
+    }
+
+    // Primer punto del anillo a partir del hash de la clave (volviendo al principio si se pasa)
+    private int porHash(long clave) {
+        long hash = mezclar(clave);
+        int posicion = Arrays.binarySearch(anillo, hash);
+        if (posicion < 0) posicion = -posicion - 1;
+        if (posicion == anillo.length) posicion = 0;
+        return duenos[posicion];
+    }
+
+    // Finalizador de SplitMix64: reparte bien los bits de claves parecidas
+    private static long mezclar(long x) {
+        x = (x ^ (x >>> 30)) * 0xBF58476D1CE4E5B9L;
+        x = (x ^ (x >>> 27)) * 0x94D049BB133111EBL;
+        return x ^ (x >>> 31);
+    }
+
+    /**
+     * Sustituye los pesos de la estrategia PONDERADA. Los mensajes en curso terminan con los anteriores.
+     *
+     * @throws IllegalArgumentException si no hay un peso válido por destino
+     */
+    public void recargarPesos(double[] pesos) {
+        selector = nuevoSelector(pesos);
+    }
+
+    /**
+     * Convierte una lista de pesos separados por comas ("60,10,30").
+     *
+     * @throws IllegalArgumentException si algún peso no es un número
+     */
+    public static double[] leerPesos(String texto) {
+        String[] partes = texto.trim().split("\\s*,\\s*");
+        double[] pesos = new double[partes.length];
+        for (int i = 0; i < partes.length; i++) {
+            try {
+                pesos[i] = Double.parseDouble(partes[i]);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Peso no válido: " + partes[i]);
+            }
+        }
+        return pesos;
+    }
+
+    public Estrategia getEstrategia() {
+        return estrategia;
+    }
+
+    public int getDestinos() {
+        return destinos.length;
+    }
+
+    public String getDestino(int indice) {
+        return destinos[indice];
+    }
+
+    public double[] getPesos() {
+        return selector.getPesos();
+    }
+
+    @Override
+    public String toString() {
+        return estrategia == Estrategia.PONDERADA
+                ? estrategia + " " + Arrays.toString(destinos) + " " + selector
+                : estrategia + " " + Arrays.toString(destinos);
+    }
+}
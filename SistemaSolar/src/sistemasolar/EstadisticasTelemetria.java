@@ -0,0 +1,98 @@
+package sistemasolar;
+
+/**
+ * 📶 Calidad de un flujo de telemetría visto por el receptor.
+ *
+ * - Pérdida: como en RTP, las muestras esperadas son las secuencias entre la primera y la mayor
+ *   recibidas; las perdidas son las esperadas que no llegaron (las desordenadas que llegan tarde
+ *   dejan de contar como perdidas).
+ * - Desorden: muestras que llegan con una secuencia menor que la mayor ya recibida.
+ * - Jitter: variación del retardo de ida entre muestras consecutivas, suavizada como en RFC 3550
+ *   (J += (|D| - J) / 16). Solo usa diferencias de retardo, así que no necesita relojes sincronizados.
+ *
+ * Lo actualiza un único hilo receptor; los valores publicados pueden leerse desde cualquier hilo.
+ */
+public class EstadisticasTelemetria {
+
+    // Un salto atrás mayor que este se interpreta como un emisor reiniciado
+    private static final long SALTO_REINICIO = 1000;
+
+    private volatile long primera = -1;
+    private long transitoAnterior;
+    private boolean hayTransito = false;
+
+    private volatile long maxima = 0;
+    private volatile long recibidas = 0;
+    private volatile long desordenadas = 0;
+    private volatile double jitterNanos = 0;
+
+    /**
+     * Registra una muestra.
+     *
+     * @param secuencia secuencia de la muestra
+     * @param enviada   instante de envío según el reloj del emisor
+     * @param llegada   instante de llegada según el reloj del receptor (System.nanoTime)
+     * @return true si es la muestra más reciente hasta ahora (su valor sustituye al anterior)
+     */
+    public boolean registrar(long secuencia, long enviada, long llegada) {
+        if (primera < 0 || secuencia == 1 && maxima > 1 || maxima - secuencia > SALTO_REINICIO) {
+            reiniciar(secuencia);
+        }
+        recibidas++;
+
+        long transito = llegada - enviada;
+        if (hayTransito) {
+            long variacion = Math.abs(transito - transitoAnterior);
+            jitterNanos += (variacion - jitterNanos) / 16.0;
+        }
+        transitoAnterior = transito;
+        hayTransito = true;
+
+        if (secuencia > maxima) {
+            maxima = secuencia;
+            return true;
+        }
+        desordenadas++;
+        return false;
+    }
+
+    private void reiniciar(long secuencia) {
+        primera = secuencia;
+        maxima = secuencia - 1;
+        recibidas = 0;
+        desordenadas = 0;
+        hayTransito = false;
+    }
+
+    public long getRecibidas() {
+        return recibidas;
+    }
+
+    public long getPerdidas() {
+        long esperadas = maxima - primera + 1;
+        return primera < 0 ? 0 : Math.max(0, esperadas - recibidas);
+    }
+
+    /**
+     * Porcentaje de muestras esperadas que no han llegado.
+     */
+    public double getTasaPerdida() {
+        long perdidas = getPerdidas();
+        long total = perdidas + recibidas;
+        return total == 0 ? 0 : 100.0 * perdidas / total;
+    }
+
+    public long getDesordenadas() {
+        return desordenadas;
+    }
+
+    public double getJitterNanos() {
+        return jitterNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("recibidas=%d, perdidas=%d (%.2f%%), desordenadas=%d, jitter=%.1fµs",
+                getRecibidas(), getPerdidas(), getTasaPerdida(), getDesordenadas(), getJitterNanos() / 1e3);
+    }
+}
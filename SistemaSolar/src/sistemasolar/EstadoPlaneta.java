@@ -0,0 +1,145 @@
+package sistemasolar;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 🌡️ Estado compartido de un planeta: temperatura, explosión y contadores.
+ *
+ * La temperatura y la marca de explosión se guardan juntas en un único AtomicLong, de modo que
+ * aplicar una instrucción y comprobar los límites ocurre en el mismo compareAndSet: dos hilos
+ * (multicast y TCP) nunca pierden actualizaciones ni pueden aplicar nada tras una explosión.
+ * Los contadores usan LongAdder para no competir entre hilos receptores.
+ *
+ * Codificación del AtomicLong: 32 bits bajos = temperatura; bit 32 = ha explotado.
+ */
+public class EstadoPlaneta {
+
+    /**
+     * Resultado de aplicar una instrucción.
+     */
+    public enum Efecto {
+        // La temperatura cambió y sigue dentro de los límites
+        APLICADA,
+        // La temperatura cambió y salió de los límites: el planeta acaba de explotar
+        EXPLOSION,
+        // El planeta ya había explotado; no se aplicó nada
+        IGNORADA
+    }
+
+    private static final long EXPLOTADO = 1L << 32;
+
+    private final int tempReset;
+    private final int deltaSubir;
+    private final int deltaBajar;
+    private final int tempMinima;
+    private final int tempMaxima;
+
+    private final AtomicLong estado;
+
+    private final LongAdder mensajesSol = new LongAdder();
+    private final LongAdder mensajesTierra = new LongAdder();
+    private final LongAdder instruccionesAplicadas = new LongAdder();
+
+    /**
+     * @param tempReset  temperatura inicial y tras un RESET
+     * @param deltaSubir variación aplicada por SUBIR (ej. +10)
+     * @param deltaBajar variación aplicada por BAJAR (ej. -40)
+     * @param tempMinima temperatura mínima segura (por debajo, explota)
+     * @param tempMaxima temperatura máxima segura (por encima, explota)
+     */
+    public EstadoPlaneta(int tempReset, int deltaSubir, int deltaBajar, int tempMinima, int tempMaxima) {
+        this.tempReset = tempReset;
+        this.deltaSubir = deltaSubir;
+        this.deltaBajar = deltaBajar;
+        this.tempMinima = tempMinima;
+        this.tempMaxima = tempMaxima;
+        this.estado = new AtomicLong(empaquetar(tempReset, false));
+    }
+
+    /**
+     * Aplica una instrucción con un bucle CAS y comprueba los límites en la misma operación atómica.
+     */
+    public Efecto aplicar(Instruccion instruccion) {
+        while (true) {
+            long actual = estado.get();
+            if ((actual & EXPLOTADO) != 0) return Efecto.IGNORADA;
+
+            int nueva = calcular((int) actual, instruccion);
+            boolean explota = nueva < tempMinima || nueva > tempMaxima;
+            if (estado.compareAndSet(actual, empaquetar(nueva, explota))) {
+                instruccionesAplicadas.increment();
+                return explota ? Efecto.EXPLOSION : Efecto.APLICADA;
+            }
+        }
+    }
+
+    /**
+     * Restaura el estado guardado en una instantánea (ver PersistenciaEstado). Solo antes de que
+     * empiecen a llegar mensajes.
+     */
+    public void restaurar(int temperatura, boolean explotado, long sol, long tierra, long aplicadas) {
+        estado.set(empaquetar(temperatura, explotado));
+        mensajesSol.reset();
+        mensajesSol.add(sol);
+        mensajesTierra.reset();
+        mensajesTierra.add(tierra);
+        instruccionesAplicadas.reset();
+        instruccionesAplicadas.add(aplicadas);
+    }
+
+    /**
+     * Vuelve a la temperatura inicial tras una explosión, conservando los contadores.
+     */
+    public void revivir() {
+        estado.set(empaquetar(tempReset, false));
+    }
+
+    private int calcular(int temperatura, Instruccion instruccion) {
+        return switch (instruccion) {
+            case SUBIR -> temperatura + deltaSubir;
+            case BAJAR -> temperatura + deltaBajar;
+            case RESET -> tempReset;
+        };
+    }
+
+    private static long empaquetar(int temperatura, boolean explotado) {
+        return (temperatura & 0xFFFFFFFFL) | (explotado ? EXPLOTADO : 0);
+    }
+
+    public int getTemperatura() {
+        return (int) estado.get();
+    }
+
+    public boolean haExplotado() {
+        return (estado.get() & EXPLOTADO) != 0;
+    }
+
+    public int getTempMinima() {
+        return tempMinima;
+    }
+
+    public int getTempMaxima() {
+        return tempMaxima;
+    }
+
+    public void contarMensajeSol() {
+        mensajesSol.increment();
+    }
+
+    public void contarMensajeTierra() {
+        mensajesTierra.increment();
+    }
+
+    public long getMensajesSol() {
+        return mensajesSol.sum();
+    }
+
+    public long getMensajesTierra() {
+        return mensajesTierra.sum();
+    }
+
+    public long getInstruccionesAplicadas() {
+        return instruccionesAplicadas.sum();
+    }
+}
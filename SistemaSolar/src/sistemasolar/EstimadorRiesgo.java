@@ -0,0 +1,437 @@
+package sistemasolar;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * 🎲 Estimador Monte Carlo del riesgo de explosión de Marte, Mercurio y Urano.
+ *
+ * Simula millones de trayectorias independientes del modelo de instrucciones: en cada paso el Sol
+ * elige una instrucción (50/30/20 por defecto, como Sol.elegirInstruccion), los planetas que aplican
+ * al Sol la aplican, y la Tierra la reenvía al planeta que elija un Enrutador con la estrategia y los
+ * pesos del escenario, que la aplica también. Cada planeta sigue las mismas reglas que EstadoPlaneta.
+ * De cada planeta se anota en qué paso explotó, con lo que se obtiene la distribución exacta del
+ * tiempo hasta la explosión y la curva de supervivencia, y se comparan varios escenarios.
+ *
+ * Las trayectorias se reparten en bloques que se ejecutan en paralelo en un ForkJoinPool con un hilo
+ * por núcleo. Cada bloque tiene su propio SplittableRandom (separado de la semilla antes de empezar)
+ * y sus propios arrays de contadores, que se suman al final: no se comparte nada mientras se simula,
+ * no se reserva memoria por paso y el resultado no depende del número de hilos ni del orden en que
+ * terminen los bloques.
+ *
+ * Uso: java sistemasolar.EstimadorRiesgo trayectorias=1000000 horizonte=10000 escenario=PONDERADA:60,10,30 escenario=TURNO
+ *      marte=-63,10,-40,-182,-33 (temperatura inicial, subida, bajada, mínima y máxima de un planeta)
+ */
+public final class EstimadorRiesgo {
+
+    /**
+     * Reparto de los reenvíos de la Tierra que se quiere evaluar.
+     *
+     * @param pesos pesos de Mercurio, Marte y Urano (solo para PONDERADA)
+     */
+    public record Escenario(Enrutador.Estrategia estrategia, double[] pesos) {
+
+        public static final Escenario POR_DEFECTO = new Escenario(Enrutador.Estrategia.PONDERADA, new double[]{60, 10, 30});
+
+        /**
+         * Lee un escenario como "ESTRATEGIA" o "ESTRATEGIA:p1,p2,p3".
+         *
+         * @throws IllegalArgumentException si la estrategia o los pesos no son válidos
+         */
+        public static Escenario leer(String texto) {
+            int dosPuntos = texto.indexOf(':');
+            Enrutador.Estrategia estrategia = Enrutador.Estrategia.valueOf(
+                    (dosPuntos < 0 ? texto : texto.substring(0, dosPuntos)).trim().toUpperCase());
+            double[] pesos = dosPuntos < 0 ? POR_DEFECTO.pesos() : Enrutador.leerPesos(texto.substring(dosPuntos + 1));
+            return new Escenario(estrategia, pesos);
+        }
+
+        @Override
+        public String toString() {
+            return estrategia == Enrutador.Estrategia.PONDERADA
+                    ? estrategia + " " + java.util.Arrays.toString(pesos)
+                    : estrategia.toString();
+        }
+    }
+
+    /**
+     * Parámetros de un planeta en el modelo (los de su ConfiguracionPlaneta, con los cambios que se quieran probar).
+     */
+    public record Modelo(String nombre, String icono, int tempReset, int deltaSubir, int deltaBajar,
+                         int tempMinima, int tempMaxima, boolean aplicaSol) {
+
+        public static Modelo de(ConfiguracionPlaneta config) {
+            return new Modelo(config.nombre(), config.icono(), config.tempReset(), config.deltaSubir(), config.deltaBajar(),
+                    config.tempMinima(), config.tempMaxima(), config.modoSol() == ConfiguracionPlaneta.ModoSol.APLICAR);
+        }
+
+        /**
+         * Copia con otros parámetros de temperatura, leídos como "inicial,subida,bajada,mínima,máxima".
+         */
+        public Modelo con(String parametros) {
+            String[] partes = parametros.split("\\s*,\\s*");
+            if (partes.length != 5) {
+                throw new IllegalArgumentException("Se esperaban inicial,subida,bajada,mínima,máxima: " + parametros);
+            }
+            int[] valores = new int[5];
+            for (int i = 0; i < 5; i++) valores[i] = Integer.parseInt(partes[i].trim());
+            if (valores[3] > valores[4]) throw new IllegalArgumentException("La mínima supera a la máxima: " + parametros);
+            return new Modelo(nombre, icono, valores[0], valores[1], valores[2], valores[3], valores[4], aplicaSol);
+        }
+    }
+
+    /**
+     * Resultado de un escenario: en qué paso explotó cada planeta en cada trayectoria.
+     */
+    public static final class Resultado {
+        private final Escenario escenario;
+        private final List<Modelo> modelos;
+        private final long trayectorias;
+        private final int horizonte;
+        // [planeta][paso]: trayectorias en las que el planeta explotó en ese paso (el 0, las que sobrevivieron)
+        private final long[][] explosiones;
+        private final long pasos;
+        private final long nanos;
+
+        private Resultado(Escenario escenario, List<Modelo> modelos, long trayectorias, int horizonte,
+                          Acumulado acumulado, long nanos) {
+            this.escenario = escenario;
+            this.modelos = modelos;
+            this.trayectorias = trayectorias;
+            this.horizonte = horizonte;
+            this.explosiones = acumulado.explosiones;
+            this.pasos = acumulado.pasos;
+            this.nanos = nanos;
+        }
+
+        /**
+         * Fracción de trayectorias en las que el planeta explota antes del horizonte.
+         */
+        public double probabilidadExplosion(int planeta) {
+            return 1.0 - (double) explosiones[planeta][0] / trayectorias;
+        }
+
+        /**
+         * Fracción de trayectorias en las que el planeta sigue entero tras el paso indicado.
+         */
+        public double supervivencia(int planeta, int paso) {
+            long explotadas = 0;
+            for (int k = 1; k <= Math.min(paso, horizonte); k++) explotadas += explosiones[planeta][k];
+            return 1.0 - (double) explotadas / trayectorias;
+        }
+
+        /**
+         * Paso en el que han explotado al menos la fracción q de todas las trayectorias, o -1 si no se
+         * alcanza dentro del horizonte.
+         */
+        public int percentil(int planeta, double q) {
+            long objetivo = (long) Math.ceil(q * trayectorias);
+            long explotadas = 0;
+            for (int k = 1; k <= horizonte; k++) {
+                explotadas += explosiones[planeta][k];
+                if (explotadas >= objetivo && explotadas > 0) return k;
+            }
+            return -1;
+        }
+
+        /**
+         * Paso medio de la explosión entre las trayectorias en que el planeta explota (NaN si nunca).
+         */
+        public double media(int planeta) {
+            long explotadas = 0;
+            double suma = 0;
+            for (int k = 1; k <= horizonte; k++) {
+                explotadas += explosiones[planeta][k];
+                suma += (double) k * explosiones[planeta][k];
+            }
+            return explotadas == 0 ? Double.NaN : suma / explotadas;
+        }
+
+        public Escenario getEscenario() {
+            return escenario;
+        }
+
+        public long getTrayectorias() {
+            return trayectorias;
+        }
+
+        public long getPasos() {
+            return pasos;
+        }
+
+        public long getNanos() {
+            return nanos;
+        }
+    }
+
+    // Trayectorias por bloque de trabajo: bloques pequeños reparten bien la carga entre hilos
+    private static final int TRAYECTORIAS_POR_BLOQUE = 16_384;
+
+    private static final Instruccion[] INSTRUCCIONES = Instruccion.values();
+
+    private final List<Modelo> modelos;
+    private final SelectorAlias instrucciones;
+    private final int horizonte;
+    private final long periodoSolMs;
+    private final long semilla;
+    private final int hilos;
+
+    /**
+     * @param modelos          planetas del modelo (la Tierra reenvía a los que se llamen Mercurio, Marte y Urano)
+     * @param pesosSol         pesos de SUBIR, BAJAR y RESET en las instrucciones del Sol
+     * @param horizonte        instrucciones del Sol que se simulan como máximo en cada trayectoria
+     * @param periodoSolMs     tiempo entre instrucciones del Sol, para expresar los pasos como tiempo
+     * @param semilla          semilla de la que se separan los generadores de todos los bloques
+     * @param hilos            hilos de la simulación (normalmente, uno por núcleo)
+     */
+    public EstimadorRiesgo(List<Modelo> modelos, double[] pesosSol, int horizonte, long periodoSolMs, long semilla, int hilos) {
+        if (modelos.isEmpty()) throw new IllegalArgumentException("Hace falta al menos un planeta");
+        if (pesosSol.length != INSTRUCCIONES.length) {
+            throw new IllegalArgumentException("Se esperaban " + INSTRUCCIONES.length + " pesos del Sol y hay " + pesosSol.length);
+        }
+        if (horizonte <= 0 || periodoSolMs <= 0 || hilos <= 0) {
+            throw new IllegalArgumentException("Horizonte, periodo e hilos deben ser positivos");
+        }
+        this.modelos = List.copyOf(modelos);
+        this.instrucciones = new SelectorAlias(pesosSol);
+        this.horizonte = horizonte;
+        this.periodoSolMs = periodoSolMs;
+        this.semilla = semilla;
+        this.hilos = hilos;
+    }
+
+    public static void main(String[] args) {
+        long trayectorias = 1_000_000;
+        int horizonte = 10_000;
+        long periodo = 5000;
+        long semilla = 42;
+        int hilos = Runtime.getRuntime().availableProcessors();
+        double[] pesosSol = {50, 30, 20};
+        List<Escenario> escenarios = new ArrayList<>();
+        List<Modelo> modelos = new ArrayList<>(List.of(
+                Modelo.de(ConfiguracionPlaneta.MARTE), Modelo.de(ConfiguracionPlaneta.MERCURIO), Modelo.de(ConfiguracionPlaneta.URANO)));
+
+        for (String arg : args) {
+            int igual = arg.indexOf('=');
+            if (igual < 0) throw new IllegalArgumentException("Se esperaba clave=valor: " + arg);
+            String clave = arg.substring(0, igual);
+            String valor = arg.substring(igual + 1);
+            switch (clave) {
+                case "trayectorias" -> trayectorias = Long.parseLong(valor);
+                case "horizonte" -> horizonte = Integer.parseInt(valor);
+                case "periodo" -> periodo = Long.parseLong(valor);
+                case "semilla" -> semilla = Long.parseLong(valor);
+                case "hilos" -> hilos = Integer.parseInt(valor);
+                case "sol" -> pesosSol = Enrutador.leerPesos(valor);
+                case "escenario" -> escenarios.add(Escenario.leer(valor));
+                default -> {
+                    int planeta = indice(modelos, clave);
+                    if (planeta < 0) throw new IllegalArgumentException("Parámetro desconocido: " + clave);
+                    modelos.set(planeta, modelos.get(planeta).con(valor));
+                }
+            }
+        }
+        if (trayectorias <= 0) throw new IllegalArgumentException("El número de trayectorias debe ser positivo");
+        if (escenarios.isEmpty()) escenarios.add(Escenario.POR_DEFECTO);
+
+        EstimadorRiesgo estimador = new EstimadorRiesgo(modelos, pesosSol, horizonte, periodo, semilla, hilos);
+        for (Escenario escenario : escenarios) {
+            estimador.mostrar(estimador.estimar(escenario, trayectorias));
+        }
+        Consola.vaciar();
+    }
+
+    private static int indice(List<Modelo> modelos, String nombre) {
+        for (int i = 0; i < modelos.size(); i++) {
+            if (modelos.get(i).nombre().equalsIgnoreCase(nombre)) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Simula el número de trayectorias indicado con el reparto del escenario, en paralelo.
+     */
+    public Resultado estimar(Escenario escenario, long trayectorias) {
+        int bloques = (int) Math.ceilDiv(trayectorias, TRAYECTORIAS_POR_BLOQUE);
+        // Los generadores se separan antes de repartir los bloques, así que cada bloque usa siempre el mismo
+        SplittableRandom raiz = new SplittableRandom(semilla);
+        SplittableRandom[] generadores = new SplittableRandom[bloques];
+        for (int b = 0; b < bloques; b++) generadores[b] = raiz.split();
+
+        long inicio = System.nanoTime();
+        ForkJoinPool grupo = new ForkJoinPool(hilos);
+        try {
+            Acumulado acumulado = grupo.submit(() -> IntStream.range(0, bloques).parallel()
+                    .mapToObj(b -> simularBloque(escenario, generadores[b],
+                            Math.min(TRAYECTORIAS_POR_BLOQUE, trayectorias - (long) b * TRAYECTORIAS_POR_BLOQUE)))
+                    .reduce(Acumulado::sumar)
+                    .orElseThrow()).join();
+            return new Resultado(escenario, modelos, trayectorias, horizonte, acumulado, System.nanoTime() - inicio);
+        } finally {
+            grupo.shutdown();
+        }
+    }
+
+    /**
+     * Contadores de un bloque de trayectorias.
+     */
+    private static final class Acumulado {
+        final long[][] explosiones;
+        long pasos;
+
+        Acumulado(int planetas, int horizonte) {
+            explosiones = new long[planetas][horizonte + 1];
+        }
+
+        Acumulado sumar(Acumulado otro) {
+            for (int p = 0; p < explosiones.length; p++) {
+                for (int k = 0; k < explosiones[p].length; k++) explosiones[p][k] += otro.explosiones[p][k];
+            }
+            pasos += otro.pasos;
+            return this;
+        }
+    }
+
+    private Acumulado simularBloque(Escenario escenario, SplittableRandom random, long trayectorias) {
+        int n = modelos.size();
+        Acumulado acumulado = new Acumulado(n, horizonte);
+
+        // Parámetros en arrays de primitivos para el bucle interno
+        int[] reset = new int[n];
+        int[] subir = new int[n];
+        int[] bajar = new int[n];
+        int[] minima = new int[n];
+        int[] maxima = new int[n];
+        int[] aplicanSol = modelos.stream().filter(Modelo::aplicaSol).mapToInt(modelos::indexOf).toArray();
+        for (int p = 0; p < n; p++) {
+            Modelo modelo = modelos.get(p);
+            reset[p] = modelo.tempReset();
+            subir[p] = modelo.deltaSubir();
+            bajar[p] = modelo.deltaBajar();
+            minima[p] = modelo.tempMinima();
+            maxima[p] = modelo.tempMaxima();
+        }
+        String[] destinos = Simulacion.DESTINOS_TIERRA;
+        int[] destinoPlaneta = new int[destinos.length];
+        boolean[] alcanzable = new boolean[n];
+        for (int p : aplicanSol) alcanzable[p] = true;
+        for (int d = 0; d < destinos.length; d++) {
+            destinoPlaneta[d] = indice(modelos, destinos[d]);
+            if (destinoPlaneta[d] >= 0) alcanzable[destinoPlaneta[d]] = true;
+        }
+
+        // Un enrutador por bloque: su estado (el turno de TURNO) no se comparte entre hilos
+        Enrutador enrutador = new Enrutador(escenario.estrategia(), destinos, escenario.pesos(), d -> 0);
+        boolean porHash = escenario.estrategia() == Enrutador.Estrategia.HASH;
+
+        int[] temperatura = new int[n];
+        boolean[] vivo = new boolean[n];
+        long pasos = 0;
+        for (long t = 0; t < trayectorias; t++) {
+            int vivos = 0;
+            for (int p = 0; p < n; p++) {
+                temperatura[p] = reset[p];
+                vivo[p] = true;
+                if (alcanzable[p]) vivos++;
+            }
+
+            int paso = 1;
+            for (; paso <= horizonte && vivos > 0; paso++) {
+                int instruccion = instrucciones.elegir(random);
+
+                // Primero llega el multicast del Sol y después el reenvío de la Tierra
+                for (int p : aplicanSol) {
+                    if (vivo[p] && aplicar(p, instruccion, temperatura, reset, subir, bajar, minima, maxima)) {
+                        vivo[p] = false;
+                        vivos--;
+                        acumulado.explosiones[p][paso]++;
+                    }
+                }
+                int elegido = porHash
+                        ? enrutador.elegir(random.nextLong(), random.nextLong(), random)
+                        : enrutador.elegir(0, 0, random);
+                for (int d = elegido == Enrutador.TODOS ? 0 : elegido;
+                     d < (elegido == Enrutador.TODOS ? destinos.length : elegido + 1); d++) {
+                    int p = destinoPlaneta[d];
+                    if (p >= 0 && vivo[p] && aplicar(p, instruccion, temperatura, reset, subir, bajar, minima, maxima)) {
+                        vivo[p] = false;
+                        vivos--;
+                        acumulado.explosiones[p][paso]++;
+                    }
+                }
+            }
+            pasos += paso - 1;
+            for (int p = 0; p < n; p++) {
+                if (vivo[p]) acumulado.explosiones[p][0]++;
+            }
+        }
+        acumulado.pasos = pasos;
+        return acumulado;
+    }
+
+    // Las mismas reglas que EstadoPlaneta.aplicar; devuelve true si el planeta explota
+    private static boolean aplicar(int p, int instruccion, int[] temperatura, int[] reset, int[] subir,
+                                   int[] bajar, int[] minima, int[] maxima) {
+        int nueva = switch (INSTRUCCIONES[instruccion]) {
+            case SUBIR -> temperatura[p] + subir[p];
+            case BAJAR -> temperatura[p] + bajar[p];
+            case RESET -> reset[p];
+        };
+        temperatura[p] = nueva;
+        return nueva < minima[p] || nueva > maxima[p];
+    }
+
+    /**
+     * Muestra, para cada planeta, la probabilidad de explotar, los percentiles del tiempo hasta la
+     * explosión y la curva de supervivencia.
+     */
+    public void mostrar(Resultado resultado) {
+        if (!Consola.activo(Consola.Nivel.INFO)) return;
+        Consola.info("------------------------------------------------------------------");
+        Consola.info(String.format(Locale.ROOT, "🎲 Escenario %s | Sol %s | %d trayectorias × hasta %d instrucciones (cada %d ms) en %.2f s: %.1f M instrucciones/s con %d hilos",
+                resultado.escenario, instrucciones, resultado.trayectorias, horizonte, periodoSolMs,
+                resultado.nanos / 1e9, resultado.pasos * 1e3 / resultado.nanos, hilos));
+        for (int p = 0; p < modelos.size(); p++) {
+            Modelo modelo = modelos.get(p);
+            StringBuilder linea = new StringBuilder(String.format(Locale.ROOT, "%s %s: explota en el %.3f%% | media %s",
+                    modelo.icono(), modelo.nombre(), resultado.probabilidadExplosion(p) * 100, duracion(resultado.media(p))));
+            for (double q : new double[]{0.1, 0.5, 0.9, 0.99}) {
+                int paso = resultado.percentil(p, q);
+                linea.append(String.format(Locale.ROOT, " | p%d %s", Math.round(q * 100), paso < 0 ? "> horizonte" : duracion(paso)));
+            }
+            Consola.info(linea.toString());
+
+            StringBuilder curva = new StringBuilder("   supervivencia:");
+            for (int paso : puntosCurva()) {
+                curva.append(String.format(Locale.ROOT, " %d→%.4f", paso, resultado.supervivencia(p, paso)));
+            }
+            Consola.info(curva.toString());
+        }
+    }
+
+    // Pasos 1, 2, 5, 10, 20, 50... hasta el horizonte (incluido)
+    private List<Integer> puntosCurva() {
+        List<Integer> puntos = new ArrayList<>();
+        for (long base = 1; base <= horizonte; base *= 10) {
+            for (int factor : new int[]{1, 2, 5}) {
+                if (base * factor < horizonte) puntos.add((int) (base * factor));
+            }
+        }
+        puntos.add(horizonte);
+        return puntos;
+    }
+
+    // Pasos como instrucciones y tiempo real equivalente
+    private String duracion(double pasos) {
+        if (Double.isNaN(pasos)) return "-";
+        double segundos = pasos * periodoSolMs / 1000.0;
+        String tiempo = segundos < 120 ? String.format(Locale.ROOT, "%.0f s", segundos)
+                : segundos < 7200 ? String.format(Locale.ROOT, "%.1f min", segundos / 60)
+                : String.format(Locale.ROOT, "%.1f h", segundos / 3600);
+        return String.format(Locale.ROOT, "%.1f instr (%s)", pasos, tiempo);
+    }
+}
@@ -1,11 +1,17 @@
+package sistemasolar;
+
 /**
  * 🖍️ Clase utilitaria para formatear salida por consola con colores.
  *
  * Utiliza códigos ANSI para aplicar color al texto mostrado en terminales compatibles.
  * Su propósito es hacer más visual y clara la salida de las instrucciones y eventos del sistema solar simulado.
+ * Con -Dconsola.ansi=false devuelve el texto sin códigos de color (útil al redirigir la salida a un fichero).
  */
 public class FormatoConsola {
 
+    // Si es false, no se añaden códigos de color
+    private static final boolean ANSI = !"false".equalsIgnoreCase(System.getProperty("consola.ansi"));
+
     // Código ANSI que restablece el color al valor por defecto del terminal
     private static final String RESET = "\u001B[0m";
 
@@ -29,6 +35,7 @@ public class FormatoConsola {
      * @return Texto con códigos ANSI aplicados que se verá coloreado en consola
      */
     public static String colorearPorInstruccion(Instruccion instruccion, String texto) {
+        if (!ANSI) return texto;
         return switch (instruccion) {
             case SUBIR -> ROJO + texto + RESET;        // Rojo para SUBIR temperatura
             case BAJAR -> AZUL_CLARO + texto + RESET;  // Azul claro para BAJAR temperatura
@@ -43,6 +50,7 @@ public class FormatoConsola {
      * @return Mensaje en rojo con emojis de explosión
      */
     public static String explosion(String nombrePlaneta) {
+        if (!ANSI) return "💥💥💥 ¡" + nombrePlaneta.toUpperCase() + " HA EXPLOTADO! 💥💥💥";
         return ROJO + "💥💥💥 ¡" + nombrePlaneta.toUpperCase() + " HA EXPLOTADO! 💥💥💥" + RESET;
     }
 }
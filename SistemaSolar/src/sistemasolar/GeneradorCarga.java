@@ -0,0 +1,264 @@
+package sistemasolar;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 🚀 Modo generador de carga del Sol.
+ *
+ * Envía instrucciones al grupo multicast de su tema (ver TemasSol) a una tasa objetivo repartida entre
+ * varios hilos emisores, con la secuencia de cada tema como el Sol.
+ * Cada hilo sigue un calendario absoluto (instante de la ráfaga n = inicio + n * intervalo), de modo
+ * que el retraso de una ráfaga no desplaza a las siguientes como ocurre al encadenar Thread.sleep.
+ *
+ * Con lote=N los mensajes se agrupan en datagramas de hasta N mensajes; espera=µs es el tiempo máximo
+ * que un lote incompleto aguarda a llenarse (con 0, cada ráfaga sale en cuanto se genera).
+ *
+ * Todos los hilos comparten el flujo de cada tema (ver Flujo): la secuencia se asigna al añadir al lote
+ * y el lote se envía bajo el mismo cerrojo, así que los datagramas de un tema salen en orden de secuencia
+ * como los del Sol. Con un flujo por hilo, los receptores tomarían el desorden entre hilos por pérdidas y
+ * pedirían por NACK unas retransmisiones que el generador no atiende.
+ *
+ * Al terminar muestra la tasa conseguida, los mensajes por datagrama y dos distribuciones de latencia:
+ * - la duración de cada envío de datagrama,
+ * - el retraso de cada ráfaga respecto al instante en que estaba programada.
+ *
+ * Uso: java sistemasolar.Sol --carga tasa=10000 rafaga=10 duracion=30 hilos=4 pesos=50,30,20 lote=20 espera=500
+ */
+public class GeneradorCarga {
+
+    // Mensajes por segundo en total (todos los hilos)
+    private final double tasa;
+    // Mensajes enviados seguidos en cada tic del calendario
+    private final int rafaga;
+    // Duración de la prueba en segundos
+    private final int duracion;
+    // Número de hilos emisores
+    private final int hilos;
+    // Umbrales acumulados de la distribución SUBIR/BAJAR/RESET sobre 100
+    private final int[] umbrales;
+    // Mensajes por datagrama como máximo y espera máxima de un lote incompleto (µs)
+    private final int lote;
+    private final long esperaMicros;
+
+    // Flujo de cada tema, compartido por todos los hilos
+    private final Flujo[] flujos = new Flujo[TemasSol.todos().size()];
+    private final AtomicLong enviados = new AtomicLong();
+    private final AtomicLong datagramas = new AtomicLong();
+    private final AtomicLong errores = new AtomicLong();
+    private final HistogramaLatencia duracionEnvio = new HistogramaLatencia();
+    private final HistogramaLatencia retrasoEnvio = new HistogramaLatencia();
+
+    public GeneradorCarga(double tasa, int rafaga, int duracion, int hilos, int[] pesos, int lote, long esperaMicros) {
+        if (tasa <= 0 || rafaga <= 0 || duracion <= 0 || hilos <= 0) {
+            throw new IllegalArgumentException("tasa, rafaga, duracion e hilos deben ser positivos");
+        }
+        if (lote < 1 || lote > EmisorLotes.MAX_MENSAJES_DATAGRAMA || esperaMicros < 0) {
+            throw new IllegalArgumentException("lote debe estar entre 1 y " + EmisorLotes.MAX_MENSAJES_DATAGRAMA
+                    + " y espera no puede ser negativa");
+        }
+        this.lote = lote;
+        this.esperaMicros = esperaMicros;
+        this.tasa = tasa;
+        this.rafaga = rafaga;
+        this.duracion = duracion;
+        this.hilos = hilos;
+        this.umbrales = umbralesAcumulados(pesos);
+    }
+
+    /**
+     * Crea el generador a partir de argumentos clave=valor; los que falten toman valores por defecto.
+     */
+    public static GeneradorCarga desdeArgumentos(String[] args) {
+        double tasa = 1000;
+        int rafaga = 1;
+        int duracion = 10;
+        int hilos = 1;
+        int[] pesos = {50, 30, 20};
+        int lote = 1;
+        long espera = 0;
+
+        for (String arg : args) {
+            int igual = arg.indexOf('=');
+            if (igual < 0) continue;
+            String clave = arg.substring(0, igual);
+            String valor = arg.substring(igual + 1);
+            switch (clave) {
+                case "tasa" -> tasa = Double.parseDouble(valor);
+                case "rafaga" -> rafaga = Integer.parseInt(valor);
+                case "duracion" -> duracion = Integer.parseInt(valor);
+                case "hilos" -> hilos = Integer.parseInt(valor);
+                case "pesos" -> {
+                    String[] partes = valor.split(",");
+                    if (partes.length != 3) throw new IllegalArgumentException("pesos necesita 3 valores: " + valor);
+                    pesos = new int[]{Integer.parseInt(partes[0]), Integer.parseInt(partes[1]), Integer.parseInt(partes[2])};
+                }
+                case "lote" -> lote = Integer.parseInt(valor);
+                case "espera" -> espera = Long.parseLong(valor);
+                default -> throw new IllegalArgumentException("Parámetro desconocido: " + clave);
+            }
+        }
+        return new GeneradorCarga(tasa, rafaga, duracion, hilos, pesos, lote, espera);
+    }
+
+    /**
+     * Lanza los hilos emisores, espera a que acaben y muestra el informe.
+     */
+    public void ejecutar() throws InterruptedException {
+        Consola.info("------------------------------------------------------------------");
+        Consola.info(String.format("🚀 Sol en modo carga: %.0f msg/s, ráfagas de %d, %d s, %d hilos, lotes de hasta %d (espera %d µs)",
+                tasa, rafaga, duracion, hilos, lote, esperaMicros));
+        Consola.info("------------------------------------------------------------------");
+
+        long inicio = System.nanoTime();
+        long fin = inicio + duracion * 1_000_000_000L;
+
+        try {
+            for (TemasSol.Tema tema : TemasSol.todos()) {
+                flujos[tema.indice()] = new Flujo(new EmisorLotes(tema.ip(), tema.puerto(), lote, esperaMicros * 1000));
+            }
+            List<Thread> emisores = new ArrayList<>();
+            for (int i = 0; i < hilos; i++) {
+                Thread hilo = new Thread(() -> emitir(inicio, fin), "sol-carga-" + i);
+                emisores.add(hilo);
+                hilo.start();
+            }
+            for (Thread hilo : emisores) {
+                hilo.join();
+            }
+        } catch (IOException e) {
+            Consola.error("❌ No se pudo abrir el emisor del generador de carga: " + e.getMessage());
+        } finally {
+            for (Flujo flujo : flujos) {
+                if (flujo != null) cerrar(flujo.emisor);
+            }
+        }
+
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        Consola.info("\n📊 Resultado de la prueba de carga");
+        Consola.info(String.format("   Enviados: %d en %.2f s → %.0f msg/s (objetivo %.0f)",
+                enviados.get(), segundos, enviados.get() / segundos, tasa));
+        Consola.info(String.format("   Datagramas: %d (%.1f mensajes por datagrama)",
+                datagramas.get(), datagramas.get() == 0 ? 0.0 : (double) enviados.get() / datagramas.get()));
+        Consola.info("   Errores de envío: " + errores.get());
+        Consola.info("   Duración de send():      " + duracionEnvio.resumen());
+        Consola.info("   Retraso sobre calendario: " + retrasoEnvio.resumen());
+    }
+
+    /**
+     * Bucle de un hilo emisor: genera una ráfaga en cada instante programado hasta el final de la prueba.
+     * El hilo despierta en el siguiente instante programado o cuando vence alguno de los lotes pendientes,
+     * lo que ocurra antes.
+     */
+    private void emitir(long inicio, long fin) {
+        // Cada hilo se encarga de una parte proporcional de la tasa total
+        long intervalo = Math.max(1, (long) (1e9 * rafaga * hilos / tasa));
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        long programado = inicio;
+        while (programado < fin) {
+            long espera = Math.min(programado, vencimiento()) - System.nanoTime();
+            if (espera > 0) LockSupport.parkNanos(espera);
+
+            long ahora = System.nanoTime();
+            if (ahora - programado >= 0) {
+                for (int i = 0; i < rafaga; i++) {
+                    Instruccion instruccion = elegirInstruccion(random.nextInt(100));
+                    flujos[TemasSol.de(instruccion).indice()].enviar(instruccion);
+                }
+                retrasoEnvio.registrar(System.nanoTime() - programado);
+
+                // El siguiente instante se calcula sobre el calendario, no sobre la hora actual
+                programado += intervalo;
+            }
+            for (Flujo flujo : flujos) flujo.vencer();
+        }
+    }
+
+    private long vencimiento() {
+        long vence = Long.MAX_VALUE;
+        for (Flujo flujo : flujos) vence = Math.min(vence, flujo.vencimiento());
+        return vence;
+    }
+
+    // Cierra el emisor (enviando lo que quede pendiente) y suma sus cifras al informe
+    private void cerrar(EmisorLotes emisor) {
+        try {
+            emisor.close();
+        } catch (IOException e) {
+            errores.incrementAndGet();
+        } finally {
+            enviados.addAndGet(emisor.getMensajes());
+            datagramas.addAndGet(emisor.getDatagramas());
+            duracionEnvio.sumar(emisor.getDuracionEnvio());
+        }
+    }
+
+    /**
+     * Secuencia y lote pendiente de un tema. El cerrojo cubre la numeración y el envío del lote, de modo
+     * que ningún hilo envía un datagrama con secuencias posteriores a las de otro que aún no ha salido.
+     * Los fallos de envío se cuentan sin detener al emisor: el lote fallido se descarta.
+     */
+    private final class Flujo {
+        final EmisorLotes emisor;
+        private final ReentrantLock cerrojo = new ReentrantLock();
+        private long secuencia = 0;
+
+        Flujo(EmisorLotes emisor) {
+            this.emisor = emisor;
+        }
+
+        void enviar(Instruccion instruccion) {
+            cerrojo.lock();
+            try {
+                emisor.anadir(new Mensaje(instruccion, Constantes.NODO_SOL, ++secuencia));
+            } catch (IOException e) {
+                errores.incrementAndGet();
+            } finally {
+                cerrojo.unlock();
+            }
+        }
+
+        void vencer() {
+            cerrojo.lock();
+            try {
+                emisor.vencer(System.nanoTime());
+            } catch (IOException e) {
+                errores.incrementAndGet();
+            } finally {
+                cerrojo.unlock();
+            }
+        }
+
+        long vencimiento() {
+            cerrojo.lock();
+            try {
+                return emisor.vencimiento();
+            } finally {
+                cerrojo.unlock();
+            }
+        }
+    }
+
+    private Instruccion elegirInstruccion(int numero) {
+        if (numero < umbrales[0]) return Instruccion.SUBIR;
+        else if (numero < umbrales[1]) return Instruccion.BAJAR;
+        else return Instruccion.RESET;
+    }
+
+    // Convierte pesos relativos (ej. 50,30,20) en umbrales acumulados sobre 100
+    private static int[] umbralesAcumulados(int[] pesos) {
+        int total = pesos[0] + pesos[1] + pesos[2];
+        if (total <= 0 || pesos[0] < 0 || pesos[1] < 0 || pesos[2] < 0) {
+            throw new IllegalArgumentException("Los pesos deben ser no negativos y sumar más de 0");
+        }
+        int subir = pesos[0] * 100 / total;
+        int bajar = subir + pesos[1] * 100 / total;
+        return new int[]{subir, bajar};
+    }
+}
@@ -0,0 +1,234 @@
+package sistemasolar;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 🎙️ Grabador de tráfico: guarda en un fichero de captura (ver Captura) todo lo que pasa por los grupos
+ * multicast del Sol y por los puertos TCP de los planetas, para reproducirlo después (ver Reproductor).
+ *
+ * - El multicast se graba uniéndose al grupo de cada tema del Sol (ver TemasSol) como un receptor más,
+ *   con un canal por tema: no interfiere con los demás nodos. Hay que usar el mismo -Dsol.temas que el Sol.
+ * - Para grabar los reenvíos de la Tierra, el grabador escucha en los puertos TCP de los planetas en
+ *   su lugar. Con tcp=PUERTO>DESTINO además reenvía cada trama al planeta, arrancado en DESTINO, de
+ *   modo que se graba sin cortar el tráfico.
+ *
+ * Se graba cada datagrama o trama tal como llega, sin validarlo, para poder reproducir también el
+ * tráfico defectuoso que provocó un incidente. Cada 5 segundos muestra lo grabado y lo vuelca a disco.
+ *
+ * Uso: java sistemasolar.Grabador fichero=captura.cap multicast=si tcp=6002,6003,6004 duracion=60
+ *      java sistemasolar.Grabador fichero=captura.cap tcp=6002>16002 (reenvía a un planeta en el puerto 16002)
+ */
+public class Grabador implements Closeable {
+
+    // Buffer de recepción del sistema para el multicast, para no perder ráfagas mientras se escribe
+    private static final int BUFFER_MULTICAST = 1 << 20;
+
+    // Datagrama UDP más grande posible: se graba completo incluso el tráfico anómalo
+    private static final int MAX_DATAGRAMA = 65_507;
+
+    private static final long PERIODO_ESTADO_MS = 5000;
+
+    /**
+     * Puerto TCP que se graba y, opcionalmente, puerto al que se reenvían sus tramas.
+     */
+    public record Escucha(int puerto, int reenvio) {
+
+        public static final int SIN_REENVIO = -1;
+
+        /**
+         * Lee "PUERTO" o "PUERTO>DESTINO".
+         */
+        public static Escucha leer(String texto) {
+            int flecha = texto.indexOf('>');
+            return flecha < 0
+                    ? new Escucha(Integer.parseInt(texto.trim()), SIN_REENVIO)
+                    : new Escucha(Integer.parseInt(texto.substring(0, flecha).trim()),
+                    Integer.parseInt(texto.substring(flecha + 1).trim()));
+        }
+    }
+
+    private final Path ruta;
+    private final Captura.Escritor escritor;
+    private final List<TemasSol.Tema> temas;
+    private final List<Escucha> tcp;
+
+    private final AtomicBoolean activo = new AtomicBoolean(true);
+
+    // Recursos abiertos, para poder detener el grabador (y despertar a sus hilos) desde fuera
+    private final List<Closeable> recursos = new ArrayList<>();
+    private RuedaTemporizadores.Temporizador temporizadorEstado;
+
+    /**
+     * Crea el fichero de captura con un canal por tema del Sol (si se graba el multicast) y uno por puerto TCP.
+     */
+    public Grabador(Path ruta, boolean multicast, List<Escucha> tcp) throws IOException {
+        this.temas = multicast ? TemasSol.todos() : List.of();
+        List<Captura.Canal> canales = new ArrayList<>();
+        for (TemasSol.Tema tema : temas) canales.add(Captura.Canal.multicast(tema));
+        for (Escucha escucha : tcp) canales.add(Captura.Canal.tcp(escucha.puerto()));
+        if (canales.isEmpty()) throw new IllegalArgumentException("No hay nada que grabar");
+
+        this.ruta = ruta;
+        this.tcp = List.copyOf(tcp);
+        this.escritor = Captura.Escritor.crear(ruta, canales);
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Path fichero = Path.of("captura.cap");
+        boolean multicast = true;
+        List<Escucha> tcp = new ArrayList<>();
+        int duracion = 0;
+
+        for (String arg : args) {
+            int igual = arg.indexOf('=');
+            if (igual < 0) throw new IllegalArgumentException("Se esperaba clave=valor: " + arg);
+            String clave = arg.substring(0, igual);
+            String valor = arg.substring(igual + 1);
+            switch (clave) {
+                case "fichero" -> fichero = Path.of(valor);
+                case "multicast" -> multicast = valor.equalsIgnoreCase("si");
+                case "tcp" -> {
+                    for (String puerto : valor.split(",")) {
+                        if (!puerto.isBlank()) tcp.add(Escucha.leer(puerto));
+                    }
+                }
+                case "duracion" -> duracion = Integer.parseInt(valor);
+                default -> throw new IllegalArgumentException("Parámetro desconocido: " + clave);
+            }
+        }
+
+        Grabador grabador = new Grabador(fichero, multicast, tcp);
+        CountDownLatch fin = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            grabador.close();
+            fin.countDown();
+        }, "grabador-cierre"));
+
+        grabador.iniciar();
+        if (duracion > 0) {
+            // Sin duración se graba hasta Ctrl+C; con ella el cierre lo hace este hilo
+            fin.await(duracion, TimeUnit.SECONDS);
+            grabador.close();
+            Consola.vaciar();
+            System.exit(0);
+        }
+    }
+
+    /**
+     * Lanza un hilo virtual por canal y la tarea periódica que muestra y vuelca lo grabado.
+     */
+    public void iniciar() {
+        Consola.info("------------------------------------------------------------------");
+        Consola.info("🎙️ Grabando en " + ruta + ": " + escritor.getCanales()
+                + (tcp.stream().anyMatch(e -> e.reenvio() != Escucha.SIN_REENVIO) ? " (con reenvío a los planetas)" : ""));
+        Consola.info("------------------------------------------------------------------");
+
+        int canal = 0;
+        for (TemasSol.Tema tema : temas) {
+            int multicastCanal = canal++;
+            lanzar("grabador-multicast-" + tema.nombre(), () -> grabarMulticast(multicastCanal, tema));
+        }
+        for (Escucha escucha : tcp) {
+            int tcpCanal = canal++;
+            lanzar("grabador-tcp-" + escucha.puerto(), () -> grabarTcp(tcpCanal, escucha));
+        }
+        synchronized (this) {
+            if (activo.get()) {
+                temporizadorEstado = RuedaTemporizadores.compartida().programarPeriodica(
+                        TimeUnit.MILLISECONDS.toNanos(PERIODO_ESTADO_MS), this::mostrarEstado);
+            }
+        }
+    }
+
+    private synchronized void lanzar(String nombre, Runnable cuerpo) {
+        if (!activo.get()) return;
+        Thread.ofVirtual().name(nombre).start(cuerpo);
+    }
+
+    // Registra un recurso para cerrarlo al detener el grabador; si ya se detuvo, lo cierra y devuelve false
+    private synchronized boolean registrar(Closeable recurso) throws IOException {
+        if (!activo.get()) {
+            recurso.close();
+            return false;
+        }
+        recursos.add(recurso);
+        return true;
+    }
+
+    private void grabarMulticast(int canal, TemasSol.Tema tema) {
+        try (ReceptorUdp receptor = ReceptorUdp.multicast(tema.ip(), tema.puerto(), MAX_DATAGRAMA)) {
+            if (!registrar(receptor)) return;
+            receptor.setBufferSistema(BUFFER_MULTICAST);
+            while (activo.get()) {
+                escritor.anotar(canal, receptor.recibir());
+            }
+        } catch (IOException e) {
+            if (activo.get()) Consola.error("❌ Error grabando el multicast de " + tema + ": " + e.getMessage());
+        }
+    }
+
+    private void grabarTcp(int canal, Escucha escucha) {
+        EnlaceTcp enlace = escucha.reenvio() == Escucha.SIN_REENVIO
+                ? null : new EnlaceTcp("puerto " + escucha.reenvio(), "localhost", escucha.reenvio());
+        ManejadorTrama manejador = trama -> {
+            try {
+                escritor.anotar(canal, trama);
+            } catch (IOException e) {
+                if (activo.get()) Consola.error("❌ Error grabando el puerto " + escucha.puerto() + ": " + e.getMessage());
+            }
+            if (enlace != null) enlace.enviarTrama(trama);
+        };
+        try (ServidorTcpVirtual servidor = new ServidorTcpVirtual("Grabador " + escucha.puerto(), escucha.puerto(), manejador)) {
+            if (!registrar(servidor)) return;
+            if (enlace != null) registrar(enlace);
+            servidor.ejecutar(activo::get);
+        } catch (IOException e) {
+            if (activo.get()) Consola.error("❌ Error escuchando en el puerto " + escucha.puerto() + ": " + e.getMessage());
+        } finally {
+            if (enlace != null) enlace.close();
+        }
+    }
+
+    private void mostrarEstado() {
+        try {
+            escritor.vaciar();
+        } catch (IOException e) {
+            Consola.error("❌ Error volcando la captura: " + e.getMessage());
+        }
+        Consola.info(String.format("🎙️ Grabados en %.0f s: %s", escritor.getDuracionNanos() / 1e9, escritor));
+    }
+
+    /**
+     * Detiene la grabación, cierra los canales y vuelca lo que quede al fichero. Puede llamarse más de una vez.
+     */
+    @Override
+    public void close() {
+        if (!activo.getAndSet(false)) return;
+        List<Closeable> abiertos;
+        synchronized (this) {
+            if (temporizadorEstado != null) temporizadorEstado.cancelar();
+            abiertos = new ArrayList<>(recursos);
+            recursos.clear();
+        }
+        for (Closeable recurso : abiertos) {
+            try {
+                recurso.close();
+            } catch (IOException ignorada) {
+                // Se está cerrando: no hay nada más que hacer con el error
+            }
+        }
+        try {
+            escritor.close();
+            Consola.info("🎙️ Captura cerrada: " + ruta + " | " + escritor);
+        } catch (IOException e) {
+            Consola.error("❌ Error cerrando la captura: " + e.getMessage());
+        }
+    }
+}
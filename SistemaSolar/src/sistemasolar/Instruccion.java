@@ -1,3 +1,5 @@
+package sistemasolar;
+
 /**
  * Enumeración que representa los tres tipos de instrucciones posibles que el Sol puede enviar a los planetas.
  *
@@ -0,0 +1,159 @@
+package sistemasolar;
+
+import java.io.IOException;
+import java.lang.invoke.VarHandle;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.AsynchronousCloseException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 🧠 Consumidor de un AnilloCompartido.
+ *
+ * Lleva su propia secuencia de lectura y copia cada mensaje a un buffer propio antes de devolverlo,
+ * comprobando el sello del hueco para descartar los que el productor sobrescribió durante la copia.
+ *
+ * Mientras no hay mensajes espera por escalones: primero activamente (la latencia queda por debajo del
+ * microsegundo), luego cediendo el procesador y por último durmiendo pausas crecientes hasta
+ * -Dtransporte.espera.max microsegundos, para no ocupar una CPU con un anillo inactivo.
+ *
+ * Si hay un hueco libre en la cabecera del anillo publica allí su secuencia, para que se vea desde
+ * fuera cuánto va retrasado. Los mensajes que se salta por quedarse atrás se suman a un contador que
+ * el nodo expone: los reenvíos de la Tierra no llevan secuencia, y sin él esas pérdidas no se verían.
+ * No es seguro entre hilos; close() puede llamarse desde cualquiera.
+ */
+public final class LectorAnillo implements Receptor {
+
+    // Escalones de espera sin mensajes
+    private static final int VUELTAS_ACTIVAS = 1000;
+    private static final int VUELTAS_CEDIENDO = 100;
+    private static final long PAUSA_MINIMA_NANOS = 1000;
+    private static final long PAUSA_MAXIMA_NANOS =
+            TimeUnit.MICROSECONDS.toNanos(Long.getLong("transporte.espera.max", 1000));
+
+    private final AnilloCompartido anillo;
+    private final MappedByteBuffer mapa;
+    private final ByteBuffer copia = ByteBuffer.allocateDirect(CodecMensaje.TAMANO);
+    private final byte[] intermedio = new byte[CodecMensaje.TAMANO];
+
+    // Siguiente secuencia que se espera leer
+    private long siguiente;
+
+    // Línea de la cabecera en la que se publica la secuencia, o -1 si no quedaba ninguna libre
+    private final int ranura;
+
+    // Mensajes perdidos; puede compartirlo con otros lectores del mismo canal (ver AnilloCompartido.lector)
+    private final LongAdder perdidos;
+    private volatile boolean cerrado = false;
+
+    LectorAnillo(AnilloCompartido anillo, LongAdder perdidos) {
+        this.anillo = anillo;
+        this.perdidos = perdidos;
+        this.mapa = anillo.getMapa();
+        this.siguiente = anillo.getCursor() + 1;
+        this.ranura = reservarRanura();
+    }
+
+    // Ocupa una línea de cursores marcándola con el pid; las de procesos que ya no existen se reutilizan
+    private int reservarRanura() {
+        long pid = ProcessHandle.current().pid();
+        for (int i = 0; i < AnilloCompartido.MAX_LECTORES; i++) {
+            int ranura = AnilloCompartido.OFFSET_LECTORES + i * AnilloCompartido.TAMANO_HUECO;
+            long dueno = (long) AnilloCompartido.LARGO.getAcquire(mapa, ranura);
+            boolean libre = dueno == 0 || dueno != pid && ProcessHandle.of(dueno).isEmpty();
+            if (libre && AnilloCompartido.LARGO.compareAndSet(mapa, ranura, dueno, pid)) {
+                AnilloCompartido.LARGO.setRelease(mapa, ranura + Long.BYTES, siguiente);
+                return ranura;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Espera al siguiente mensaje y lo devuelve copiado en un buffer propio.
+     *
+     * @return una vista reutilizada con un mensaje completo, válida hasta la siguiente llamada
+     * @throws AsynchronousCloseException si el lector se cierra mientras espera
+     */
+    @Override
+    public ByteBuffer recibir() throws IOException {
+        int esperas = 0;
+        long pausa = PAUSA_MINIMA_NANOS;
+        while (true) {
+            if (cerrado) throw new AsynchronousCloseException();
+
+            long publicado = anillo.getCursor();
+            if (publicado < siguiente) {
+                // Sin mensajes nuevos
+                esperas++;
+                if (esperas <= VUELTAS_ACTIVAS) {
+                    Thread.onSpinWait();
+                } else if (esperas <= VUELTAS_ACTIVAS + VUELTAS_CEDIENDO) {
+                    Thread.yield();
+                } else {
+                    LockSupport.parkNanos(pausa);
+                    pausa = Math.min(pausa * 2, PAUSA_MAXIMA_NANOS);
+                }
+                continue;
+            }
+
+            // Demasiado retrasado: lo más antiguo ya se sobrescribió
+            if (publicado - siguiente >= anillo.getCapacidad()) {
+                long nuevo = publicado - anillo.getCapacidad() + 1;
+                perdidos.add(nuevo - siguiente);
+                siguiente = nuevo;
+            }
+
+            long secuencia = siguiente++;
+            if (leer(secuencia)) {
+                if (ranura >= 0) AnilloCompartido.LARGO.setRelease(mapa, ranura + Long.BYTES, siguiente);
+                return copia;
+            }
+            perdidos.increment();
+        }
+    }
+
+    // Copia el mensaje de la secuencia indicada; false si el productor ya lo había sobrescrito
+    private boolean leer(long secuencia) {
+        int hueco = AnilloCompartido.OFFSET_DATOS + (int) (secuencia & anillo.getMascara()) * AnilloCompartido.TAMANO_HUECO;
+        if ((long) AnilloCompartido.LARGO.getAcquire(mapa, hueco) != secuencia) return false;
+
+        mapa.get(hueco + Long.BYTES, intermedio);
+        VarHandle.loadLoadFence();
+        if ((long) AnilloCompartido.LARGO.getAcquire(mapa, hueco) != secuencia) return false;
+
+        copia.clear();
+        copia.put(intermedio);
+        copia.flip();
+        return true;
+    }
+
+    /**
+     * Mensajes que se perdieron por quedarse el lector (o los que comparten su contador) demasiado atrás.
+     * Puede leerse desde cualquier hilo.
+     */
+    public long getPerdidos() {
+        return perdidos.sum();
+    }
+
+    /**
+     * El anillo no tiene remitente al que enviar NACK: las pérdidas solo ocurren por retraso del lector.
+     */
+    @Override
+    public InetSocketAddress getRemitente() {
+        return null;
+    }
+
+    /**
+     * Cierra el lector: libera su línea de cursor y hace que recibir() termine en su próxima comprobación.
+     */
+    @Override
+    public void close() {
+        if (cerrado) return;
+        cerrado = true;
+        if (ranura >= 0) AnilloCompartido.LARGO.setRelease(mapa, ranura, 0L);
+    }
+}
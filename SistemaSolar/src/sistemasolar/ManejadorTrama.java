@@ -0,0 +1,16 @@
+package sistemasolar;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Manejador de tramas recibidas por red.
+ *
+ * Recibe una vista del buffer de lectura cuya posición apunta al primer byte de la trama
+ * y cuyo límite marca su final. El buffer se reutiliza en cuanto el método retorna,
+ * así que el manejador no debe guardar referencias a él.
+ */
+@FunctionalInterface
+public interface ManejadorTrama {
+
+    void procesar(ByteBuffer trama);
+}
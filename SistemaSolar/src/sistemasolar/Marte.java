@@ -0,0 +1,21 @@
+package sistemasolar;
+
+/**
+ * 🔴 Clase MARTE
+ *
+ * Funcionalidades principales:
+ * - Recibe mensajes del Sol mediante Multicast (UDP) y aplica sus instrucciones.
+ * - Recibe instrucciones directas desde Tierra por TCP (fiable), procesando cada UUID una sola vez.
+ * - Muestra su temperatura y el nº de mensajes del Sol cada 2 segundos.
+ * - Envía su temperatura a Mercurio por UDP cada 100 ms como telemetría binaria (ajustable con -Dtelemetria.periodo).
+ * - Explota si su temperatura se sale del rango [-182, -33] °C.
+ *
+ * El comportamiento lo implementa el motor genérico {@link Planeta} con el preset
+ * {@link ConfiguracionPlaneta#MARTE}; esta clase solo conserva el punto de entrada de siempre.
+ */
+public class Marte {
+
+    public static void main(String[] args) {
+        new Planeta(ConfiguracionPlaneta.MARTE).iniciar();
+    }
+}
@@ -0,0 +1,167 @@
+package sistemasolar;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Representa un mensaje intercambiado entre el Sol, la Tierra y otros planetas.
+ * Se transmite por red con el formato binario fijo definido en CodecMensaje.
+ *
+ * Cada mensaje contiene:
+ * - Una instrucción (SUBIR, BAJAR o RESET) que indica qué acción debe realizar el receptor.
+ * - El identificador numérico del nodo origen (ver Constantes.NODO_*).
+ * - Un UUID único, guardado como dos long, que identifica cada instancia y evita duplicados.
+ * - Un número de secuencia monótono por emisor.
+ * - La marca de tiempo de emisión en nanosegundos (ver Reloj).
+ * - La marca de tiempo de la emisión original en el Sol, que se conserva al reenviarlo.
+ * - La época del emisor: un valor aleatorio por arranque del proceso, para que los receptores sepan
+ *   cuándo la secuencia vuelve a empezar (ver DetectorHuecos).
+ */
+public class Mensaje {
+
+    /**
+     * Época de los mensajes creados en este proceso: cambia en cada arranque.
+     */
+    public static final int EPOCA = ThreadLocalRandom.current().nextInt();
+
+    // Instrucción que contiene el mensaje, definida en la enumeración Instruccion
+    private final Instruccion instruccion;
+
+    // Identificador numérico del nodo que envió el mensaje (Sol o Tierra)
+    private final int origen;
+
+    // Identificador único del mensaje: mitades alta y baja del UUID
+    private final long idMsb;
+    private final long idLsb;
+
+    // Número de secuencia asignado por el emisor
+    private final long secuencia;
+
+    // Instante de emisión en nanosegundos desde la época Unix
+    private final long marcaTiempo;
+
+    // Instante en que el Sol emitió la instrucción original (el mismo que marcaTiempo si no es un reenvío)
+    private final long marcaOrigen;
+
+    // Época del proceso que creó el mensaje
+    private final int epoca;
+
+    /**
+     * Constructor que inicializa el mensaje con una instrucción, un origen y un número de secuencia.
+     * Se genera automáticamente un UUID único y se toma la marca de tiempo actual.
+     */
+    public Mensaje(Instruccion instruccion, int origen, long secuencia) {
+        UUID id = UUID.randomUUID();
+        this.instruccion = instruccion;
+        this.origen = origen;
+        this.idMsb = id.getMostSignificantBits();
+        this.idLsb = id.getLeastSignificantBits();
+        this.secuencia = secuencia;
+        this.marcaTiempo = Reloj.ahoraNanos();
+        this.marcaOrigen = marcaTiempo;
+        this.epoca = EPOCA;
+    }
+
+    /**
+     * Constructor para reenvíos: como el anterior, pero conserva el instante de emisión original.
+     */
+    public Mensaje(Instruccion instruccion, int origen, long secuencia, long marcaOrigen) {
+        UUID id = UUID.randomUUID();
+        this.instruccion = instruccion;
+        this.origen = origen;
+        this.idMsb = id.getMostSignificantBits();
+        this.idLsb = id.getLeastSignificantBits();
+        this.secuencia = secuencia;
+        this.marcaTiempo = Reloj.ahoraNanos();
+        this.marcaOrigen = marcaOrigen;
+        this.epoca = EPOCA;
+    }
+
+    /**
+     * Constructor completo, usado al decodificar un mensaje recibido por red.
+     */
+    public Mensaje(Instruccion instruccion, int origen, long idMsb, long idLsb, long secuencia,
+                   long marcaTiempo, long marcaOrigen, int epoca) {
+        this.instruccion = instruccion;
+        this.origen = origen;
+        this.idMsb = idMsb;
+        this.idLsb = idLsb;
+        this.secuencia = secuencia;
+        this.marcaTiempo = marcaTiempo;
+        this.marcaOrigen = marcaOrigen;
+        this.epoca = epoca;
+    }
+
+    /**
+     * Devuelve la instrucción del mensaje.
+     */
+    public Instruccion getInstruccion() {
+        return instruccion;
+    }
+
+    /**
+     * Devuelve el identificador numérico del nodo origen del mensaje.
+     */
+    public int getOrigen() {
+        return origen;
+    }
+
+    /**
+     * Devuelve el identificador único del mensaje (UUID).
+     * Este ID permite reconocer el mensaje de forma unívoca, incluso si su contenido se repite.
+     */
+    public UUID getId() {
+        return new UUID(idMsb, idLsb);
+    }
+
+    /**
+     * Devuelve la mitad alta del UUID, sin crear ningún objeto.
+     */
+    public long getIdMsb() {
+        return idMsb;
+    }
+
+    /**
+     * Devuelve la mitad baja del UUID, sin crear ningún objeto.
+     */
+    public long getIdLsb() {
+        return idLsb;
+    }
+
+    /**
+     * Devuelve el número de secuencia asignado por el emisor.
+     */
+    public long getSecuencia() {
+        return secuencia;
+    }
+
+    /**
+     * Devuelve el instante de emisión en nanosegundos desde la época Unix.
+     */
+    public long getMarcaTiempo() {
+        return marcaTiempo;
+    }
+
+    /**
+     * Devuelve el instante en que el Sol emitió la instrucción original, en nanosegundos desde la época Unix.
+     */
+    public long getMarcaOrigen() {
+        return marcaOrigen;
+    }
+
+    /**
+     * Devuelve la época del proceso que creó el mensaje.
+     */
+    public int getEpoca() {
+        return epoca;
+    }
+
+    /**
+     * Representación textual del mensaje, útil para depuración y salida por consola.
+     */
+    @Override
+    public String toString() {
+        return "[ID: " + getId() + ", Origen: " + Constantes.nombreNodo(origen) + ", Seq: " + secuencia
+                + ", Instrucción: " + instruccion + "]";
+    }
+}
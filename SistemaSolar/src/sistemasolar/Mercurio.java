@@ -0,0 +1,20 @@
+package sistemasolar;
+
+/**
+ * 🟣 Clase MERCURIO
+ *
+ * - Cuenta las instrucciones del Sol recibidas por UDP Multicast.
+ * - Recibe mensajes fiables desde la Tierra por TCP.
+ * - Lee temperatura enviada desde Marte vía UDP (no fiable) y mide pérdida, desorden y jitter del flujo.
+ * - Imprime su estado cada 2.5 segundos.
+ * - EXPLOTA si su temperatura sale del rango [148ºC, 310ºC].
+ *
+ * El comportamiento lo implementa el motor genérico {@link Planeta} con el preset
+ * {@link ConfiguracionPlaneta#MERCURIO}; esta clase solo conserva el punto de entrada de siempre.
+ */
+public class Mercurio {
+
+    public static void main(String[] args) {
+        new Planeta(ConfiguracionPlaneta.MERCURIO).iniciar();
+    }
+}
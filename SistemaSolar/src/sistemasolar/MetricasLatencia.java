@@ -0,0 +1,125 @@
+package sistemasolar;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * ⏱️ Latencias de los mensajes que recibe un nodo, por canal.
+ *
+ * Cada canal (por ejemplo "Sol → Marte (multicast)" o "Sol → Urano vía Tierra") tiene un Medidor que
+ * registra cuánto pasó desde la marca de tiempo que trae el mensaje (ver Reloj) hasta que el nodo lo
+ * aplica. Con la marca del último envío se mide un salto; con la de la emisión original en el Sol,
+ * la latencia de extremo a extremo.
+ *
+ * Los medidores se crean al arrancar el nodo y se guardan en campos, así que registrar una muestra
+ * no busca en ningún mapa ni reserva memoria. informe() muestra, para cada canal con muestras, los
+ * percentiles del último intervalo y los acumulados desde el arranque.
+ *
+ * Las marcas vienen de otros procesos: la latencia entre procesos solo es fiable en la misma
+ * máquina (o con relojes sincronizados), y una diferencia negativa se cuenta como 0.
+ */
+public final class MetricasLatencia {
+
+    /**
+     * Latencias de un canal: las del intervalo en curso y las acumuladas desde el arranque.
+     */
+    public static final class Medidor {
+        private final String canal;
+        private final HistogramaLatencia intervalo = new HistogramaLatencia();
+        private final HistogramaLatencia total = new HistogramaLatencia();
+
+        private Medidor(String canal) {
+            this.canal = canal;
+        }
+
+        /**
+         * Registra la latencia de un mensaje enviado en el instante indicado (nanosegundos desde la época Unix).
+         */
+        public void registrar(long marcaEnvio) {
+            long latencia = Reloj.ahoraNanos() - marcaEnvio;
+            intervalo.registrar(latencia);
+            total.registrar(latencia);
+        }
+
+        public String getCanal() {
+            return canal;
+        }
+
+        /**
+         * Cierra el intervalo en curso y devuelve sus latencias.
+         */
+        HistogramaLatencia cerrarIntervalo() {
+            return intervalo.extraerIntervalo();
+        }
+
+        /**
+         * Todas las latencias registradas desde el arranque (solo crece, como espera Prometheus).
+         */
+        public HistogramaLatencia getTotal() {
+            return total;
+        }
+    }
+
+    private final String nodo;
+    private final List<Medidor> medidores = new CopyOnWriteArrayList<>();
+
+    public MetricasLatencia(String nodo) {
+        this.nodo = nodo;
+    }
+
+    /**
+     * Crea el medidor de un canal. Se llama al arrancar el nodo, no por mensaje.
+     */
+    public Medidor canal(String canal) {
+        Medidor medidor = new Medidor(canal);
+        medidores.add(medidor);
+        return medidor;
+    }
+
+    public String getNodo() {
+        return nodo;
+    }
+
+    public List<Medidor> getMedidores() {
+        return medidores;
+    }
+
+    /**
+     * Expone las latencias acumuladas de cada canal con las etiquetas indicadas más la del canal.
+     */
+    public void registrarMetricas(RegistroMetricas registro, String... etiquetas) {
+        for (Medidor medidor : medidores) {
+            String[] conCanal = Arrays.copyOf(etiquetas, etiquetas.length + 2);
+            conCanal[etiquetas.length] = "canal";
+            conCanal[etiquetas.length + 1] = medidor.canal;
+            registro.resumen("latencia_segundos", "Latencia desde la emisión hasta aplicar la instrucción",
+                    medidor::getTotal, conCanal);
+        }
+    }
+
+    /**
+     * Cierra el intervalo de cada canal y devuelve una línea por canal con muestras.
+     */
+    public List<String> informe() {
+        List<String> lineas = new ArrayList<>();
+        for (Medidor medidor : medidores) {
+            HistogramaLatencia cerrado = medidor.cerrarIntervalo();
+            if (medidor.total.getCuenta() == 0) continue;
+            lineas.add("⏱️ [" + nodo + "] " + medidor.canal + " → intervalo: " + cerrado.resumen()
+                    + " | total: " + medidor.total.resumen());
+        }
+        return lineas;
+    }
+
+    /**
+     * Muestra el informe por consola (solo con el nivel INFO activo, para no cerrar intervalos en vano).
+     */
+    public void mostrar() {
+        if (!Consola.activo(Consola.Nivel.INFO)) return;
+        for (String linea : informe()) {
+            Consola.info(linea);
+        }
+    }
+}
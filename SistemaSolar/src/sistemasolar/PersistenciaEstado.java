@@ -0,0 +1,323 @@
+package sistemasolar;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 💾 Guarda el estado de un nodo en un DiarioEventos y lo recupera al volver a arrancar.
+ *
+ * Con -Ddiario.dir=DIR cada nodo anota en DIR/nombre del nodo cada instrucción que cuenta o aplica,
+ * en el mismo paso y bajo el mismo cerrojo en que la aplica, así que el orden del diario es el de
+ * aplicación y reproducirlo da exactamente la misma temperatura. Cada -Ddiario.instantanea eventos
+ * (100.000 por defecto) se guarda en un hilo virtual aparte una instantánea con la temperatura, los
+ * contadores, la última secuencia de cada tema del Sol con su época (ver TemasSol) y los identificadores
+ * recordados contra duplicados; al cerrar el nodo se guarda otra, de modo que tras un cierre limpio no hay
+ * nada que reproducir.
+ *
+ * Al crear el nodo, abrirSiConfigurado() carga la instantánea, reproduce el resto del diario y continúa
+ * el detector de huecos de cada tema desde su última secuencia. Los mensajes que ya se habían aplicado se
+ * descartan como duplicados y los que el Sol emitió mientras el nodo estaba caído se piden por NACK como
+ * cualquier otro hueco. Un planeta que había explotado vuelve a empezar
+ * desde su temperatura inicial, conservando contadores y duplicados. Cambiar el reparto de temas exige
+ * volver a arrancar el Sol, así que las secuencias guardadas con otro reparto nunca se toman por las del
+ * nuevo: o no encajan en sus temas y se descartan, o su época ya no coincide.
+ *
+ * Sin la propiedad, los nodos no usan esta clase y el camino caliente no cambia.
+ */
+public final class PersistenciaEstado implements Closeable {
+
+    // Directorio de los diarios de todos los nodos, o null si no se guarda el estado
+    private static final String DIRECTORIO = System.getProperty("diario.dir");
+
+    // Eventos por fichero de segmento (48 bytes cada uno) y eventos entre instantáneas
+    private static final int REGISTROS_SEGMENTO = Integer.getInteger("diario.segmento", 262_144);
+    private static final long EVENTOS_INSTANTANEA = Long.getLong("diario.instantanea", 100_000);
+
+    private final String nodo;
+    private final EstadoPlaneta estado;
+    private final DiarioEventos diario;
+
+    // Registros contra duplicados de cada canal (null si el nodo no los lleva por UUID)
+    private final RegistroDuplicados duplicadosSol;
+    private final RegistroDuplicados duplicadosTierra;
+
+    // Serializa aplicar y anotar, y la captura del estado para las instantáneas
+    private final ReentrantLock cerrojo = new ReentrantLock();
+    // Una sola instantánea a la vez (la periódica y la del cierre pueden coincidir)
+    private final ReentrantLock cerrojoInstantanea = new ReentrantLock();
+    // Hay una instantánea periódica encargada que aún no ha terminado
+    private final AtomicBoolean encargada = new AtomicBoolean();
+    // Tras cerrar ya no se guardan instantáneas (una encargada puede llegar tarde)
+    private boolean cerrada = false;
+
+    // Última secuencia del Sol aplicada o contada en cada tema y su época, con el mismo criterio de
+    // reinicio que DetectorHuecos
+    private final long[] secuenciasSol = new long[TemasSol.todos().size()];
+    private final int[] epocasSol = new int[secuenciasSol.length];
+
+    // Índice del último evento cubierto por una instantánea (lo escribe el hilo de la instantánea)
+    private volatile long indiceInstantanea = 0;
+
+    private final LongAdder instantaneas = new LongAdder();
+
+    private PersistenciaEstado(String nodo, EstadoPlaneta estado, DiarioEventos diario,
+                               RegistroDuplicados duplicadosSol, RegistroDuplicados duplicadosTierra) {
+        this.nodo = nodo;
+        this.estado = estado;
+        this.diario = diario;
+        this.duplicadosSol = duplicadosSol;
+        this.duplicadosTierra = duplicadosTierra;
+    }
+
+    /**
+     * Si se configuró -Ddiario.dir, abre el diario del nodo y recupera su estado; si no, devuelve null.
+     * Se llama al crear el nodo, antes de que lleguen mensajes.
+     *
+     * @param duplicadosSol    registro de UUID del Sol ya procesados, o null
+     * @param duplicadosTierra registro de UUID de la Tierra ya procesados, o null
+     * @param huecosSol        detectores de huecos del Sol indexados por tema (ver TemasSol.nuevosDetectores),
+     *                         que continúan desde la última secuencia recuperada de su tema
+     * @throws UncheckedIOException si no se puede abrir o leer el diario
+     */
+    public static PersistenciaEstado abrirSiConfigurado(String nodo, EstadoPlaneta estado, RegistroDuplicados duplicadosSol,
+                                                        RegistroDuplicados duplicadosTierra, DetectorHuecos[] huecosSol) {
+        if (DIRECTORIO == null) return null;
+        Path directorio = Path.of(DIRECTORIO, nodo.toLowerCase());
+        try {
+            return abrir(directorio, nodo, estado, duplicadosSol, duplicadosTierra, huecosSol);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo recuperar el diario de " + nodo + " en " + directorio, e);
+        }
+    }
+
+    /**
+     * Abre el diario del directorio indicado y recupera el estado (para pruebas y benchmarks).
+     */
+    static PersistenciaEstado abrir(Path directorio, String nodo, EstadoPlaneta estado, RegistroDuplicados duplicadosSol,
+                                    RegistroDuplicados duplicadosTierra, DetectorHuecos[] huecosSol) throws IOException {
+        PersistenciaEstado persistencia = new PersistenciaEstado(nodo, estado,
+                DiarioEventos.abrir(directorio, REGISTROS_SEGMENTO), duplicadosSol, duplicadosTierra);
+        persistencia.recuperar(huecosSol);
+        return persistencia;
+    }
+
+    private void recuperar(DetectorHuecos[] huecosSol) throws IOException {
+        long inicio = System.nanoTime();
+        long reproducidos = diario.recuperar(this::cargar, (evento, instruccion, msb, lsb, tema, secuencia, epoca) -> {
+            aplicarEvento(evento, instruccion, tema, secuencia, epoca);
+            recordar(evento, msb, lsb);
+        });
+        long nanos = System.nanoTime() - inicio;
+        indiceInstantanea = diario.getIndice() - reproducidos;
+        if (huecosSol != null) {
+            for (int tema = 0; tema < huecosSol.length; tema++) {
+                huecosSol[tema].restaurar(secuenciasSol[tema], epocasSol[tema]);
+            }
+        }
+
+        if (diario.getIndice() > 0) {
+            Consola.info(String.format("💾 [%s] Estado recuperado de %s: %d eventos reproducidos en %.1f ms (%.1f M eventos/s) | Temp: %dºC",
+                    nodo, diario.getDirectorio(), reproducidos, nanos / 1e6,
+                    reproducidos == 0 ? 0.0 : reproducidos * 1e3 / nanos, estado.getTemperatura()));
+        }
+        if (estado.haExplotado()) {
+            aplicar(DiarioEventos.Evento.REVIVIR, Instruccion.RESET, 0, 0, 0, 0);
+            Consola.aviso("🔁 [" + nodo + "] Había explotado: vuelve a empezar a " + estado.getTemperatura() + "ºC");
+        }
+    }
+
+    /**
+     * Anota el evento en el diario y lo aplica al estado, en un único paso respecto a los demás hilos.
+     * Cuenta también el mensaje, así que el nodo no debe contarlo aparte.
+     *
+     * @param secuencia secuencia del mensaje del Sol en el tema de su instrucción (se ignora en los demás eventos)
+     * @param epoca     época del Sol que numeró la secuencia (ídem)
+     * @return el efecto sobre la temperatura (IGNORADA si el evento no la cambia)
+     * @throws UncheckedIOException si no se puede crear el siguiente segmento del diario
+     */
+    public EstadoPlaneta.Efecto aplicar(DiarioEventos.Evento evento, Instruccion instruccion,
+                                        long idMsb, long idLsb, long secuencia, int epoca) {
+        int tema = TemasSol.de(instruccion).indice();
+        cerrojo.lock();
+        try {
+            diario.anadir(evento, instruccion, idMsb, idLsb, tema, secuencia, epoca);
+            return aplicarEvento(evento, instruccion, tema, secuencia, epoca);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo escribir el diario de " + nodo, e);
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    // Lo mismo en directo y al reproducir el diario, para que el resultado sea idéntico
+    private EstadoPlaneta.Efecto aplicarEvento(DiarioEventos.Evento evento, Instruccion instruccion,
+                                               int tema, long secuencia, int epoca) {
+        return switch (evento) {
+            case SOL_APLICADA -> {
+                contarSol(tema, secuencia, epoca);
+                yield estado.aplicar(instruccion);
+            }
+            case SOL_CONTADA -> {
+                contarSol(tema, secuencia, epoca);
+                yield EstadoPlaneta.Efecto.IGNORADA;
+            }
+            case TIERRA -> {
+                estado.contarMensajeTierra();
+                yield estado.aplicar(instruccion);
+            }
+            case REVIVIR -> {
+                estado.revivir();
+                yield EstadoPlaneta.Efecto.APLICADA;
+            }
+        };
+    }
+
+    private void contarSol(int tema, long secuencia, int epoca) {
+        estado.contarMensajeSol();
+        // Un tema fuera del reparto actual viene de un arranque con otro reparto: su secuencia no vale
+        if (tema >= secuenciasSol.length) return;
+        if (epoca != epocasSol[tema] || secuencia > secuenciasSol[tema]) {
+            secuenciasSol[tema] = secuencia;
+            epocasSol[tema] = epoca;
+        }
+    }
+
+    private void recordar(DiarioEventos.Evento evento, long msb, long lsb) {
+        RegistroDuplicados duplicados = switch (evento) {
+            case SOL_APLICADA, SOL_CONTADA -> duplicadosSol;
+            case TIERRA -> duplicadosTierra;
+            case REVIVIR -> null;
+        };
+        if (duplicados != null) duplicados.recordar(msb, lsb);
+    }
+
+    /**
+     * Encarga una instantánea a un hilo virtual si desde la anterior se anotaron al menos
+     * -Ddiario.instantanea eventos, y vuelve enseguida. La llama la tarea de estado del nodo desde la
+     * rueda de temporizadores, que no puede esperar a la escritura y el force de la instantánea.
+     */
+    public void guardarSiToca() {
+        long pendientes;
+        cerrojo.lock();
+        try {
+            pendientes = diario.getIndice() - indiceInstantanea;
+        } finally {
+            cerrojo.unlock();
+        }
+        if (pendientes < EVENTOS_INSTANTANEA || !encargada.compareAndSet(false, true)) return;
+        Thread.ofVirtual().name("instantanea-" + nodo.toLowerCase()).start(() -> {
+            try {
+                guardarInstantanea();
+            } finally {
+                encargada.set(false);
+            }
+        });
+    }
+
+    /**
+     * Guarda una instantánea del estado actual. Solo bloquea a quien aplica mientras se copia el
+     * estado; la escritura en disco ocurre fuera del cerrojo.
+     */
+    public void guardarInstantanea() {
+        cerrojoInstantanea.lock();
+        try {
+            if (cerrada) return;
+            long hasta;
+            ByteBuffer contenido;
+            cerrojo.lock();
+            try {
+                hasta = diario.getIndice();
+                if (hasta == indiceInstantanea) return;
+                contenido = capturar();
+            } finally {
+                cerrojo.unlock();
+            }
+            diario.guardarInstantanea(hasta, contenido);
+            indiceInstantanea = hasta;
+            instantaneas.increment();
+        } catch (IOException e) {
+            Consola.error("❌ [" + nodo + "] No se pudo guardar la instantánea: " + e.getMessage());
+        } finally {
+            cerrojoInstantanea.unlock();
+        }
+    }
+
+    // Estado: temperatura, explotado, contadores, número de temas con la secuencia y la época de cada
+    // uno, y los dos registros de duplicados
+    private ByteBuffer capturar() {
+        ByteBuffer sol = duplicadosSol != null ? duplicadosSol.volcar() : ByteBuffer.allocate(4);
+        ByteBuffer tierra = duplicadosTierra != null ? duplicadosTierra.volcar() : ByteBuffer.allocate(4);
+        ByteBuffer contenido = ByteBuffer.allocate(4 + 1 + 8 * 3 + 4 + secuenciasSol.length * (8 + 4)
+                + sol.remaining() + tierra.remaining());
+        contenido.putInt(estado.getTemperatura())
+                .put((byte) (estado.haExplotado() ? 1 : 0))
+                .putLong(estado.getMensajesSol())
+                .putLong(estado.getMensajesTierra())
+                .putLong(estado.getInstruccionesAplicadas())
+                .putInt(secuenciasSol.length);
+        for (int tema = 0; tema < secuenciasSol.length; tema++) {
+            contenido.putLong(secuenciasSol[tema]).putInt(epocasSol[tema]);
+        }
+        contenido.put(sol).put(tierra);
+        return contenido.flip();
+    }
+
+    private void cargar(ByteBuffer contenido) {
+        int temperatura = contenido.getInt();
+        boolean explotado = contenido.get() != 0;
+        estado.restaurar(temperatura, explotado, contenido.getLong(), contenido.getLong(), contenido.getLong());
+        int temas = contenido.getInt();
+        if (temas != secuenciasSol.length) {
+            Consola.aviso("⚠️ [" + nodo + "] La instantánea es de un reparto con " + temas + " temas del Sol y ahora hay "
+                    + secuenciasSol.length + ": sus secuencias se descartan");
+        }
+        for (int tema = 0; tema < temas; tema++) {
+            long secuencia = contenido.getLong();
+            int epoca = contenido.getInt();
+            if (temas == secuenciasSol.length) {
+                secuenciasSol[tema] = secuencia;
+                epocasSol[tema] = epoca;
+            }
+        }
+        cargarDuplicados(contenido, duplicadosSol);
+        cargarDuplicados(contenido, duplicadosTierra);
+    }
+
+    private static void cargarDuplicados(ByteBuffer contenido, RegistroDuplicados duplicados) {
+        if (duplicados != null) {
+            duplicados.recordar(contenido);
+        } else {
+            contenido.position(contenido.position() + 4 + contenido.getInt(contenido.position()) * 16);
+        }
+    }
+
+    /**
+     * Expone el número de eventos anotados y de instantáneas guardadas.
+     */
+    public void registrarMetricas(RegistroMetricas registro, String... etiquetas) {
+        registro.contador("diario_eventos_total", "Eventos anotados en el diario desde que se creó", diario::getIndice, etiquetas);
+        registro.contador("diario_instantaneas_total", "Instantáneas del estado guardadas", instantaneas::sum, etiquetas);
+    }
+
+    /**
+     * Guarda una última instantánea y fuerza el diario a disco. Los eventos que se anoten después
+     * (de hilos que aún no se han detenido) siguen llegando al diario y se reproducen al volver.
+     */
+    @Override
+    public void close() {
+        cerrojoInstantanea.lock();
+        try {
+            guardarInstantanea();
+            cerrada = true;
+            diario.close();
+        } finally {
+            cerrojoInstantanea.unlock();
+        }
+    }
+}
@@ -0,0 +1,647 @@
+package sistemasolar;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 🪐 Motor genérico de planeta.
+ *
+ * Un mismo código ejecuta cualquier planeta descrito por una {@link ConfiguracionPlaneta}:
+ * - Escucha (o no) las instrucciones multicast del Sol, según su modo.
+ * - Recibe por TCP los reenvíos de la Tierra, procesando cada UUID una sola vez.
+ * - Opcionalmente envía su temperatura como telemetría binaria por UDP o recibe la de otro planeta.
+ * - Muestra su estado periódicamente, con la latencia de cada canal por el que recibe (ver MetricasLatencia).
+ *   Las tareas periódicas (estado y telemetría) se programan en la rueda de temporizadores compartida
+ *   en lugar de ocupar cada una un hilo (ver RuedaTemporizadores).
+ * - Explota (y se detiene) si su temperatura sale del rango permitido.
+ * - Con -Dmetricas.puerto expone sus contadores para Prometheus (ver ServidorMetricas).
+ * - Con -Ddiario.dir anota cada instrucción en un diario y recupera su estado al volver a arrancar
+ *   (ver PersistenciaEstado).
+ *
+ * Solo recibe las instrucciones del Sol a las que está suscrito (ver ConfiguracionPlaneta.suscripcionSol):
+ * con -Dsol.temas se une únicamente a los grupos de esos temas, cada uno en su propio hilo y con su
+ * propia secuencia; con un único grupo descarta las demás mirando solo la cabecera (ver TemasSol).
+ *
+ * Con -Dtransporte=memoria recibe al Sol y a la Tierra por anillos en memoria compartida en lugar de
+ * multicast y TCP (ver Transporte).
+ *
+ * Cada instancia tiene su propio estado, así que pueden convivir muchos planetas en el mismo proceso.
+ *
+ * Uso:
+ *   java sistemasolar.Planeta marte mercurio urano     (presets)
+ *   java sistemasolar.Planeta cantidad=200 puerto=8000 (planetas generados en los puertos 8000..8199)
+ *   java sistemasolar.Planeta marte suscripcion=RESET  (todos los planetas del proceso, solo RESET del Sol)
+ */
+public class Planeta implements Closeable {
+
+    // Valor de la temperatura recibida mientras no haya llegado ninguna lectura
+    private static final int SIN_DATO = Integer.MIN_VALUE;
+
+    // Pausas de telemetría más cortas que esto se esperan activamente en lugar de dormir
+    // (solo con periodos menores que el tick de la rueda de temporizadores, que tienen hilo propio)
+    private static final long ESPERA_ACTIVA_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    // Buffer de recepción del sistema para la telemetría
+    private static final int BUFFER_TELEMETRIA = 1 << 20;
+
+    private final ConfiguracionPlaneta config;
+
+    // Temperatura, explosión y contadores, actualizados sin bloqueos desde todos los hilos
+    private final EstadoPlaneta estado;
+
+    // Control de ejecución de los hilos (se desactiva al explotar o al cerrar el planeta)
+    private final AtomicBoolean activo = new AtomicBoolean(true);
+
+    // Control de duplicados: solo para mensajes desde la Tierra
+    private final RegistroDuplicados mensajesTierraProcesados;
+
+    // Temas del Sol a los que se une y, por tema, los huecos en su secuencia; el detector también
+    // descarta las retransmisiones de lo ya recibido
+    private final List<TemasSol.Tema> temasSol;
+    private final DetectorHuecos[] huecosSol;
+
+    // Instrucciones del Sol a las que está suscrito (un bit por ordinal) y las descartadas por no estarlo
+    private final int mascaraSol;
+    private final LongAdder filtradosSol = new LongAdder();
+
+    // Mensajes que los lectores de los anillos del Sol y de la Tierra se saltaron por ir retrasados
+    // (-Dtransporte=memoria); los reenvíos de la Tierra no llevan secuencia y solo aquí se ven
+    private final LongAdder perdidosAnilloSol = new LongAdder();
+    private final LongAdder perdidosAnilloTierra = new LongAdder();
+
+    // Diario del estado del planeta, o null si no se guarda (-Ddiario.dir)
+    private final PersistenciaEstado persistencia;
+
+    // Última temperatura recibida de otro planeta por UDP y calidad de ese flujo de telemetría
+    private volatile int tempRecibida = SIN_DATO;
+    private final EstadisticasTelemetria telemetria = new EstadisticasTelemetria();
+
+    // Latencia hasta aplicar cada instrucción: del Sol directo, del último salto desde la Tierra y
+    // de extremo a extremo desde el Sol pasando por la Tierra
+    private final MetricasLatencia metricas;
+    private final MetricasLatencia.Medidor latenciaSol;
+    private final MetricasLatencia.Medidor latenciaTierra;
+    private final MetricasLatencia.Medidor latenciaSolViaTierra;
+
+    // Recursos abiertos por los hilos; se guardan para poder cerrarlos y desbloquear a sus dueños
+    private final List<Closeable> recursos = new ArrayList<>();
+    private final List<Thread> hilos = new ArrayList<>();
+
+    // Tareas periódicas programadas en la rueda de temporizadores compartida; se cancelan al cerrar
+    private final List<RuedaTemporizadores.Temporizador> temporizadores = new ArrayList<>();
+
+    public Planeta(ConfiguracionPlaneta config) {
+        this.config = config;
+        this.estado = new EstadoPlaneta(config.tempReset(), config.deltaSubir(), config.deltaBajar(),
+                config.tempMinima(), config.tempMaxima());
+        this.mensajesTierraProcesados = new RegistroDuplicados(config.capacidadDuplicados(), Constantes.DEDUP_VENTANA_MS);
+        this.metricas = new MetricasLatencia(config.nombre());
+        this.latenciaSol = metricas.canal("Sol → " + config.nombre() + " (" + Transporte.canalSol() + ")");
+        this.latenciaTierra = metricas.canal("Tierra → " + config.nombre() + " (" + Transporte.canalTierra() + ")");
+        this.latenciaSolViaTierra = metricas.canal("Sol → " + config.nombre() + " vía Tierra (extremo a extremo)");
+        this.temasSol = TemasSol.suscripcion(config.suscripcionSol());
+        this.mascaraSol = TemasSol.mascara(config.suscripcionSol());
+        this.huecosSol = TemasSol.nuevosDetectores();
+        this.persistencia = PersistenciaEstado.abrirSiConfigurado(config.nombre(), estado, null,
+                mensajesTierraProcesados, huecosSol);
+    }
+
+    public static void main(String[] args) {
+        List<ConfiguracionPlaneta> configuraciones = new ArrayList<>();
+        int cantidad = 0;
+        int puertoBase = 8000;
+        Set<Instruccion> suscripcion = null;
+
+        for (String arg : args) {
+            if (arg.startsWith("cantidad=")) {
+                cantidad = Integer.parseInt(arg.substring("cantidad=".length()));
+            } else if (arg.startsWith("puerto=")) {
+                puertoBase = Integer.parseInt(arg.substring("puerto=".length()));
+            } else if (arg.startsWith("suscripcion=")) {
+                suscripcion = TemasSol.leerInstrucciones(arg.substring("suscripcion=".length()));
+            } else {
+                ConfiguracionPlaneta preset = ConfiguracionPlaneta.preset(arg);
+                if (preset == null) throw new IllegalArgumentException("Planeta desconocido: " + arg);
+                configuraciones.add(preset);
+            }
+        }
+        for (int i = 0; i < cantidad; i++) {
+            configuraciones.add(ConfiguracionPlaneta.generado(i, puertoBase));
+        }
+        if (configuraciones.isEmpty()) {
+            Consola.error("❌ Uso: Planeta [marte] [mercurio] [urano] [cantidad=N puerto=P] [suscripcion=SUBIR,BAJAR,RESET]");
+            return;
+        }
+        if (suscripcion != null) {
+            Set<Instruccion> instrucciones = suscripcion;
+            configuraciones.replaceAll(config -> config.conSuscripcion(instrucciones));
+        }
+
+        // Con -Dmetricas.puerto, todos los planetas del proceso se exponen en el mismo endpoint
+        RegistroMetricas registro = new RegistroMetricas();
+        registro.registrarJvm();
+        RuedaTemporizadores.compartida().registrarMetricas(registro);
+        for (ConfiguracionPlaneta config : configuraciones) {
+            Planeta planeta = new Planeta(config);
+            planeta.registrarMetricas(registro);
+            planeta.iniciar();
+        }
+        ServidorMetricas.iniciarSiConfigurado(registro);
+    }
+
+    /**
+     * Lanza los hilos del planeta según su configuración, como hilos de plataforma.
+     */
+    public void iniciar() {
+        iniciar(Thread.ofPlatform().factory());
+    }
+
+    /**
+     * Lanza los hilos del planeta con la fábrica indicada (por ejemplo, hilos virtuales en Anfitrion).
+     */
+    public void iniciar(ThreadFactory fabrica) {
+        Consola.info("------------------------------------------------------------------");
+        Consola.info(config.icono() + " " + config.nombre() + " en funcionamiento...");
+        Consola.info("------------------------------------------------------------------");
+
+        if (config.modoSol() != ConfiguracionPlaneta.ModoSol.IGNORAR) {
+            for (TemasSol.Tema tema : temasSol) {
+                lanzar(fabrica, TemasSol.particionado() ? "multicast-" + tema.nombre() : "multicast",
+                        () -> escucharMulticastSol(tema));
+            }
+        }
+        lanzar(fabrica, "tcp", this::escucharTCPDesdeTierra);
+        if (config.puertoTemperaturaSalida() != ConfiguracionPlaneta.SIN_PUERTO) {
+            long periodo = TimeUnit.MICROSECONDS.toNanos(config.periodoTelemetriaMicros());
+            if (periodo >= RuedaTemporizadores.compartida().getTickNanos()) {
+                programarTelemetria(periodo);
+            } else {
+                lanzar(fabrica, "temperatura-salida", this::enviarTemperatura);
+            }
+        }
+        if (config.puertoTemperaturaEntrada() != ConfiguracionPlaneta.SIN_PUERTO) {
+            lanzar(fabrica, "temperatura-entrada", this::escucharTemperatura);
+        }
+        programar(TimeUnit.MILLISECONDS.toNanos(config.periodoEstadoMs()), this::mostrarEstado);
+    }
+
+    private synchronized void lanzar(ThreadFactory fabrica, String tarea, Runnable cuerpo) {
+        Thread hilo = fabrica.newThread(cuerpo);
+        hilo.setName(config.nombre().toLowerCase() + "-" + tarea);
+        hilos.add(hilo);
+        hilo.start();
+    }
+
+    // La primera ejecución va a una fase aleatoria del periodo: con muchos planetas en el proceso, sus
+    // tareas se reparten entre los ticks en lugar de coincidir todas en el mismo
+    private synchronized void programar(long periodoNanos, Runnable tarea) {
+        if (!activo.get()) return;
+        long fase = ThreadLocalRandom.current().nextLong(periodoNanos);
+        temporizadores.add(RuedaTemporizadores.compartida().programarPeriodica(fase, periodoNanos, tarea));
+    }
+
+    /**
+     * Detiene el planeta: desactiva los bucles y cierra los canales para despertar a los hilos bloqueados.
+     */
+    @Override
+    public void close() {
+        activo.set(false);
+        List<Closeable> abiertos;
+        List<Thread> lanzados;
+        synchronized (this) {
+            for (RuedaTemporizadores.Temporizador temporizador : temporizadores) temporizador.cancelar();
+            temporizadores.clear();
+            abiertos = new ArrayList<>(recursos);
+            recursos.clear();
+            lanzados = new ArrayList<>(hilos);
+        }
+        for (Closeable recurso : abiertos) {
+            try {
+                recurso.close();
+            } catch (IOException ignorada) {
+                // Se está cerrando: no hay nada más que hacer con el error
+            }
+        }
+        // Despierta a los hilos que estén en una pausa (envío de temperatura con periodos muy cortos)
+        for (Thread hilo : lanzados) {
+            if (hilo != Thread.currentThread()) hilo.interrupt();
+        }
+        if (persistencia != null) persistencia.close();
+    }
+
+    /**
+     * Espera a que terminen todos los hilos del planeta, como mucho hasta el instante indicado (System.nanoTime).
+     *
+     * @return true si todos terminaron a tiempo
+     */
+    public boolean esperar(long limiteNanos) throws InterruptedException {
+        List<Thread> copia;
+        synchronized (this) {
+            copia = new ArrayList<>(hilos);
+        }
+        for (Thread hilo : copia) {
+            long restante = limiteNanos - System.nanoTime();
+            if (restante <= 0 || !hilo.join(Duration.ofNanos(restante))) return false;
+        }
+        return true;
+    }
+
+    // Registra un recurso para close(); si el planeta ya se detuvo, lo cierra y devuelve false
+    private synchronized boolean registrar(Closeable recurso) throws IOException {
+        if (!activo.get()) {
+            recurso.close();
+            return false;
+        }
+        recursos.add(recurso);
+        return true;
+    }
+
+    /**
+     * Escucha mensajes de un tema del Sol vía Multicast.
+     * Cada vez que llega uno válido de una instrucción suscrita cuenta el mensaje y, en modo APLICAR,
+     * aplica la instrucción.
+     */
+    private void escucharMulticastSol(TemasSol.Tema tema) {
+        DetectorHuecos huecos = huecosSol[tema.indice()];
+        int mascara = tema.mascara() & mascaraSol;
+
+        // Se une al grupo multicast del tema (o lee del anillo del Sol); el receptor y su buffer se reutilizan en todo el bucle
+        try (Receptor receptor = Transporte.receptorSol(tema, perdidosAnilloSol);
+             EmisorNack emisorNack = new EmisorNack(config.nodo())) {
+            if (!registrar(receptor)) return;
+
+            // Los NACK se envían al puerto desde el que emite el Sol
+            DetectorHuecos.SolicitudNack alSol =
+                    (desde, hasta) -> emisorNack.enviar(receptor.getRemitente(), desde, hasta);
+
+            while (activo.get()) {
+                ByteBuffer lote = receptor.recibir();
+
+                int mensajes;
+                try {
+                    mensajes = CodecMensaje.validarLote(lote);
+                } catch (IllegalArgumentException e) {
+                    Consola.error("❌ [" + config.nombre() + "] Datagrama del Sol descartado: " + e.getMessage());
+                    continue;
+                }
+
+                // Recorre los mensajes del lote en orden; si el planeta explota, el resto ya no se aplica
+                int inicio = lote.position();
+                for (int i = 0; i < mensajes && activo.get(); i++) {
+                    lote.position(inicio + i * CodecMensaje.TAMANO);
+                    try {
+                        if (CodecMensaje.instruccionEn(lote, mascara)) {
+                            procesarMensajeSol(lote, huecos);
+                        } else {
+                            descartarMensajeSol(lote, huecos);
+                        }
+                    } catch (Exception e) {
+                        Consola.error("❌ [" + config.nombre() + "] Error leyendo mensaje del Sol: " + e.getMessage());
+                    }
+                }
+
+                try {
+                    huecos.revisar(System.nanoTime(), alSol);
+                } catch (IOException e) {
+                    Consola.error("❌ [" + config.nombre() + "] No se pudo enviar el NACK al Sol: " + e.getMessage());
+                }
+            }
+        } catch (Exception e) {
+            if (activo.get()) Consola.error("❌ [" + config.nombre() + "] Error en multicast: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Procesa el mensaje del Sol que empieza en la posición actual del buffer.
+     * Solo hace falta la cabecera: se valida y se lee en el sitio, sin decodificar el mensaje.
+     */
+    private void procesarMensajeSol(ByteBuffer trama, DetectorHuecos huecos) {
+        CodecMensaje.validar(trama);
+        if (CodecMensaje.origen(trama) != Constantes.NODO_SOL) return;
+        if (!huecos.registrar(CodecMensaje.secuencia(trama), CodecMensaje.epoca(trama))) return;
+
+        long enviado = CodecMensaje.marcaTiempo(trama);
+        Instruccion instruccion = CodecMensaje.instruccion(trama);
+        boolean aplicar = config.modoSol() == ConfiguracionPlaneta.ModoSol.APLICAR;
+        EstadoPlaneta.Efecto efecto = registrarSol(trama, instruccion, aplicar);
+        latenciaSol.registrar(enviado);
+        if (!aplicar) return;
+
+        if (Consola.activo(Consola.Nivel.INFO)) {
+            Consola.info(FormatoConsola.colorearPorInstruccion(
+                    instruccion,
+                    "☀️ [" + config.nombre() + "] Instrucción del Sol aplicada. Nueva temperatura: "
+                            + estado.getTemperatura() + "ºC"
+            ));
+        }
+
+        comprobarExplosion(efecto);
+    }
+
+    // Instrucción a la que el planeta no está suscrito (solo llegan con un único grupo para todas): se
+    // descarta sin medirla ni contarla, pero su secuencia se anota para no tomarla por un hueco
+    private void descartarMensajeSol(ByteBuffer trama, DetectorHuecos huecos) {
+        CodecMensaje.validar(trama);
+        if (CodecMensaje.origen(trama) != Constantes.NODO_SOL) return;
+        huecos.registrar(CodecMensaje.secuencia(trama), CodecMensaje.epoca(trama));
+        filtradosSol.increment();
+    }
+
+    // Cuenta el mensaje del Sol y, si el planeta las aplica, su instrucción; con diario, además lo anota
+    private EstadoPlaneta.Efecto registrarSol(ByteBuffer trama, Instruccion instruccion, boolean aplicar) {
+        if (persistencia != null) {
+            return persistencia.aplicar(aplicar ? DiarioEventos.Evento.SOL_APLICADA : DiarioEventos.Evento.SOL_CONTADA,
+                    instruccion, CodecMensaje.idMsb(trama), CodecMensaje.idLsb(trama), CodecMensaje.secuencia(trama),
+                    CodecMensaje.epoca(trama));
+        }
+        estado.contarMensajeSol();
+        return aplicar ? estado.aplicar(instruccion) : EstadoPlaneta.Efecto.IGNORADA;
+    }
+
+    /**
+     * Escucha mensajes TCP provenientes de la Tierra.
+     * En un hilo de plataforma, un único hilo atiende a todos los emisores mediante un servidor no
+     * bloqueante; en un hilo virtual se usa un hilo virtual por conexión (ver ServidorTcpVirtual).
+     * Cada trama completa se decodifica y procesa en cuanto llega.
+     */
+    private void escucharTCPDesdeTierra() {
+        ManejadorTrama manejador = trama -> procesarMensajeDeTierra(CodecMensaje.decodificar(trama));
+        try {
+            if (Transporte.MEMORIA) {
+                try (LectorAnillo lector = Transporte.anilloPlaneta(config.nombre()).lector(perdidosAnilloTierra)) {
+                    if (registrar(lector)) leerAnillo(lector, manejador);
+                }
+            } else if (Thread.currentThread().isVirtual()) {
+                try (ServidorTcpVirtual servidor = new ServidorTcpVirtual(config.nombre(), config.puertoTcp(), manejador)) {
+                    if (registrar(servidor)) servidor.ejecutar(activo::get);
+                }
+            } else {
+                try (ServidorTcpNio servidor = new ServidorTcpNio(config.nombre(), config.puertoTcp(), manejador)) {
+                    if (registrar(servidor)) servidor.ejecutar(activo::get);
+                }
+            }
+        } catch (IOException e) {
+            if (activo.get()) Consola.error("❌ [" + config.nombre() + "] Error en socket TCP: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Entrega al manejador cada mensaje del anillo de la Tierra hasta que se cierre el lector.
+     */
+    private void leerAnillo(LectorAnillo lector, ManejadorTrama manejador) throws IOException {
+        while (activo.get()) {
+            ByteBuffer trama = lector.recibir();
+            try {
+                manejador.procesar(trama);
+            } catch (RuntimeException e) {
+                Consola.error("❌ [" + config.nombre() + "] Mensaje de la Tierra descartado: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Procesa un mensaje recibido por TCP.
+     * Solo se aceptan mensajes de la Tierra y cada UUID se procesa una única vez.
+     */
+    private void procesarMensajeDeTierra(Mensaje mensaje) {
+        if (mensaje.getOrigen() != Constantes.NODO_TIERRA) {
+            Consola.info("📭 [" + config.nombre() + "] Mensaje ignorado (no proviene de Tierra): " + mensaje);
+            return;
+        }
+
+        // ✅ Evita duplicados por UUID
+        if (!mensajesTierraProcesados.registrar(mensaje)) {
+            return;
+        }
+
+        EstadoPlaneta.Efecto efecto;
+        if (persistencia != null) {
+            efecto = persistencia.aplicar(DiarioEventos.Evento.TIERRA, mensaje.getInstruccion(),
+                    mensaje.getIdMsb(), mensaje.getIdLsb(), mensaje.getSecuencia(), mensaje.getEpoca());
+        } else {
+            estado.contarMensajeTierra();
+            efecto = estado.aplicar(mensaje.getInstruccion());
+        }
+        latenciaTierra.registrar(mensaje.getMarcaTiempo());
+        latenciaSolViaTierra.registrar(mensaje.getMarcaOrigen());
+
+        // Mostrar en consola el mensaje recibido y su efecto (solo si el nivel INFO está activo)
+        if (Consola.activo(Consola.Nivel.INFO)) {
+            Consola.info("\n🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔");
+            Consola.info("MENSAJE RECIBIDO en " + config.nombre() + " de Tierra 🌍: " +
+                    FormatoConsola.colorearPorInstruccion(mensaje.getInstruccion(), mensaje.toString()));
+            Consola.info(FormatoConsola.colorearPorInstruccion(
+                    mensaje.getInstruccion(),
+                    "\n🌡️ Temperatura modificada a: " + estado.getTemperatura() + "ºC // LÍMITES: entre "
+                            + config.tempMaxima() + "ºC y " + config.tempMinima() + "ºC"));
+            Consola.info("🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔\n");
+        }
+
+        comprobarExplosion(efecto);
+    }
+
+    /**
+     * Envía su temperatura como telemetría binaria en cada periodo, desde la rueda de temporizadores.
+     */
+    private void programarTelemetria(long periodoNanos) {
+        try {
+            EmisorTelemetria emisor = new EmisorTelemetria(config.nodo(), "localhost", config.puertoTemperaturaSalida());
+            if (!registrar(emisor)) return;
+            programar(periodoNanos, () -> {
+                try {
+                    emisor.enviar(estado.getTemperatura());
+                } catch (IOException e) {
+                    if (activo.get()) Consola.error("❌ [" + config.nombre() + "] Error enviando telemetría: " + e.getMessage());
+                }
+            });
+        } catch (IOException e) {
+            Consola.error("❌ [" + config.nombre() + "] Error abriendo la telemetría: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Envía su temperatura como telemetría binaria cada periodoTelemetriaMicros (ver EmisorTelemetria),
+     * en un hilo propio, para periodos menores que el tick de la rueda de temporizadores.
+     * Las pausas se calculan sobre un calendario absoluto para no acumular deriva; por debajo de
+     * ESPERA_ACTIVA_NANOS se espera activamente, porque dormir tan poco tarda más de lo pedido.
+     */
+    private void enviarTemperatura() {
+        try (EmisorTelemetria emisor = new EmisorTelemetria(config.nodo(), "localhost", config.puertoTemperaturaSalida())) {
+            if (!registrar(emisor)) return;
+
+            long periodo = TimeUnit.MICROSECONDS.toNanos(config.periodoTelemetriaMicros());
+            long siguiente = System.nanoTime();
+            while (activo.get()) {
+                emisor.enviar(estado.getTemperatura());
+
+                siguiente += periodo;
+                long pausa = siguiente - System.nanoTime();
+                if (pausa < -periodo) {
+                    // Muy retrasado (por ejemplo, tras una pausa de GC): se retoma el ritmo sin ráfaga
+                    siguiente = System.nanoTime();
+                } else if (pausa >= ESPERA_ACTIVA_NANOS) {
+                    TimeUnit.NANOSECONDS.sleep(pausa);
+                } else {
+                    while (System.nanoTime() - siguiente < 0 && activo.get()) Thread.onSpinWait();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            if (activo.get()) Consola.error("❌ [" + config.nombre() + "] Error enviando telemetría: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Recibe la telemetría de otro planeta: guarda la temperatura de la muestra más reciente y
+     * mide pérdida, desorden y jitter del flujo.
+     */
+    private void escucharTemperatura() {
+        try (ReceptorUdp receptor = ReceptorUdp.unicast(config.puertoTemperaturaEntrada(), CodecTelemetria.TAMANO + 1)) {
+            if (!registrar(receptor)) return;
+            // Margen para ráfagas a frecuencias altas
+            receptor.setBufferSistema(BUFFER_TELEMETRIA);
+
+            while (activo.get()) {
+                ByteBuffer muestra = receptor.recibir();
+                long llegada = System.nanoTime();
+                try {
+                    CodecTelemetria.validar(muestra);
+                } catch (IllegalArgumentException e) {
+                    Consola.error("❌ [" + config.nombre() + "] Telemetría descartada: " + e.getMessage());
+                    continue;
+                }
+                if (telemetria.registrar(CodecTelemetria.secuencia(muestra), CodecTelemetria.instante(muestra), llegada)) {
+                    tempRecibida = CodecTelemetria.temperatura(muestra);
+                }
+            }
+        } catch (Exception e) {
+            if (activo.get()) Consola.error("❌ [" + config.nombre() + "] Error recibiendo telemetría por UDP: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Muestra el estado del planeta; se ejecuta en cada periodo configurado desde la rueda de temporizadores.
+     */
+    private void mostrarEstado() {
+        if (!activo.get()) return;
+        if (persistencia != null) persistencia.guardarSiToca();
+        if (!Consola.activo(Consola.Nivel.INFO)) return;
+
+        StringBuilder linea = new StringBuilder()
+                .append("📊 [").append(config.nombre()).append("] Temp: ").append(estado.getTemperatura()).append("ºC");
+        if (config.modoSol() != ConfiguracionPlaneta.ModoSol.IGNORAR) {
+            linea.append(" | Mensajes del Sol: ").append(estado.getMensajesSol());
+            if (!config.suscripcionSol().equals(ConfiguracionPlaneta.TODAS)) {
+                linea.append(" de ").append(config.suscripcionSol()).append(", filtrados ").append(filtradosSol.sum());
+            }
+            linea.append(" (").append(TemasSol.describirHuecos(temasSol, huecosSol)).append(')');
+        }
+        if (config.puertoTemperaturaEntrada() != ConfiguracionPlaneta.SIN_PUERTO) {
+            linea.append(" | Temp recibida: ").append(tempRecibida == SIN_DATO ? "???" : String.valueOf(tempRecibida))
+                    .append(" (").append(telemetria).append(')');
+        }
+        linea.append(" | Tierra: ").append(mensajesTierraProcesados);
+        if (Transporte.MEMORIA) {
+            linea.append(" | Perdidos en los anillos: sol=").append(perdidosAnilloSol.sum())
+                    .append(", tierra=").append(perdidosAnilloTierra.sum());
+        }
+        Consola.info(linea.toString());
+        metricas.mostrar();
+    }
+
+    /**
+     * Si la temperatura sale del rango permitido, el planeta explota y se detienen todos sus hilos.
+     */
+    private void comprobarExplosion(EstadoPlaneta.Efecto efecto) {
+        if (efecto == EstadoPlaneta.Efecto.EXPLOSION) {
+            Consola.aviso("💥💥💥💥💥💥 [" + config.nombre() + "] ¡EXPLOSIÓN! Temperatura fuera de rango: " + estado.getTemperatura());
+            close();
+        }
+    }
+
+    /**
+     * Expone las métricas del planeta con la etiqueta nodo=nombre. Solo se leen contadores que el
+     * planeta ya mantiene sin bloqueos, así que consultarlas no frena la recepción.
+     */
+    public void registrarMetricas(RegistroMetricas registro) {
+        String nodo = config.nombre();
+        registro.indicador("temperatura_celsius", "Temperatura actual", estado::getTemperatura, "nodo", nodo);
+        registro.indicador("explotado", "1 si el planeta ha explotado", () -> estado.haExplotado() ? 1 : 0, "nodo", nodo);
+        registro.contador("instrucciones_aplicadas_total", "Instrucciones aplicadas a la temperatura",
+                estado::getInstruccionesAplicadas, "nodo", nodo);
+
+        if (config.modoSol() != ConfiguracionPlaneta.ModoSol.IGNORAR) {
+            registro.contador("mensajes_recibidos_total", "Mensajes válidos recibidos, duplicados incluidos",
+                    () -> estado.getMensajesSol() + duplicadosSol(), "nodo", nodo, "canal", "sol");
+            registro.contador("mensajes_duplicados_total", "Mensajes descartados por duplicados",
+                    this::duplicadosSol, "nodo", nodo, "canal", "sol");
+            registro.contador("mensajes_aceptados_total", "Mensajes nuevos procesados",
+                    estado::getMensajesSol, "nodo", nodo, "canal", "sol");
+            registro.contador("mensajes_filtrados_total", "Mensajes de instrucciones no suscritas descartados por la cabecera",
+                    filtradosSol::sum, "nodo", nodo, "canal", "sol");
+            TemasSol.registrarHuecos(registro, temasSol, huecosSol, "nodo", nodo);
+        }
+        registro.contador("mensajes_recibidos_total", "Mensajes válidos recibidos, duplicados incluidos",
+                () -> mensajesTierraProcesados.getAciertos() + mensajesTierraProcesados.getFallos(), "nodo", nodo, "canal", "tierra");
+        registro.contador("mensajes_duplicados_total", "Mensajes descartados por duplicados",
+                mensajesTierraProcesados::getAciertos, "nodo", nodo, "canal", "tierra");
+        registro.contador("mensajes_aceptados_total", "Mensajes nuevos procesados",
+                estado::getMensajesTierra, "nodo", nodo, "canal", "tierra");
+        if (Transporte.MEMORIA) {
+            if (config.modoSol() != ConfiguracionPlaneta.ModoSol.IGNORAR) {
+                registro.contador("anillo_perdidos_total", "Mensajes que el lector del anillo se saltó por ir retrasado",
+                        perdidosAnilloSol::sum, "nodo", nodo, "canal", "sol");
+            }
+            registro.contador("anillo_perdidos_total", "Mensajes que el lector del anillo se saltó por ir retrasado",
+                    perdidosAnilloTierra::sum, "nodo", nodo, "canal", "tierra");
+        }
+
+        if (config.puertoTemperaturaEntrada() != ConfiguracionPlaneta.SIN_PUERTO) {
+            registro.contador("telemetria_recibidas_total", "Muestras de telemetría recibidas", telemetria::getRecibidas, "nodo", nodo);
+            registro.contador("telemetria_perdidas_total", "Muestras de telemetría perdidas", telemetria::getPerdidas, "nodo", nodo);
+            registro.contador("telemetria_desordenadas_total", "Muestras de telemetría desordenadas", telemetria::getDesordenadas, "nodo", nodo);
+            registro.indicador("telemetria_jitter_segundos", "Jitter entre llegadas de telemetría (RFC 3550)",
+                    () -> telemetria.getJitterNanos() / 1e9, "nodo", nodo);
+            registro.indicador("temperatura_recibida_celsius", "Última temperatura recibida de otro planeta",
+                    () -> tempRecibida == SIN_DATO ? Double.NaN : tempRecibida, "nodo", nodo);
+        }
+        metricas.registrarMetricas(registro, "nodo", nodo);
+        if (persistencia != null) persistencia.registrarMetricas(registro, "nodo", nodo);
+    }
+
+    private long duplicadosSol() {
+        long duplicados = 0;
+        for (TemasSol.Tema tema : temasSol) duplicados += huecosSol[tema.indice()].getDuplicados();
+        return duplicados;
+    }
+
+    /**
+     * Latencias hasta aplicar las instrucciones recibidas, por canal.
+     */
+    public MetricasLatencia getMetricas() {
+        return metricas;
+    }
+
+    public ConfiguracionPlaneta getConfiguracion() {
+        return config;
+    }
+
+    public EstadoPlaneta getEstado() {
+        return estado;
+    }
+
+    public boolean isActivo() {
+        return activo.get();
+    }
+}
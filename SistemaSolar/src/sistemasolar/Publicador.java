@@ -0,0 +1,28 @@
+package sistemasolar;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * 📤 Destino de los mensajes que emite el Sol, sea cual sea el transporte (ver Transporte).
+ *
+ * Sigue el modelo de EmisorLotes: los mensajes se añaden y el emisor decide cuándo salen; vencer()
+ * y vencimiento() permiten al Sol dormir hasta que deba enviar un lote pendiente. Un transporte
+ * sin lotes publica cada mensaje al añadirlo y nunca tiene nada pendiente.
+ */
+public interface Publicador extends Closeable {
+
+    void anadir(Mensaje mensaje) throws IOException;
+
+    /**
+     * Envía lo pendiente si ya venció su espera.
+     *
+     * @param ahora instante actual según System.nanoTime
+     */
+    void vencer(long ahora) throws IOException;
+
+    /**
+     * Instante (System.nanoTime) en que vence lo pendiente, o Long.MAX_VALUE si no hay nada.
+     */
+    long vencimiento();
+}
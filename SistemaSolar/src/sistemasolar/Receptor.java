@@ -0,0 +1,27 @@
+package sistemasolar;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+
+/**
+ * 📥 Origen de mensajes del Sol (o de la Tierra) del que lee un hilo receptor.
+ *
+ * Lo implementan ReceptorUdp (red) y LectorAnillo (memoria compartida), de modo que el bucle de
+ * recepción de la Tierra y los planetas no depende del transporte (ver Transporte).
+ */
+public interface Receptor extends Closeable {
+
+    /**
+     * Bloquea hasta que llega un datagrama o mensaje.
+     *
+     * @return una vista reutilizada con uno o más mensajes completos; solo es válida hasta la siguiente llamada
+     */
+    ByteBuffer recibir() throws IOException;
+
+    /**
+     * Dirección a la que responder al emisor del último datagrama (para NACK), o null si el transporte no la tiene.
+     */
+    InetSocketAddress getRemitente();
+}
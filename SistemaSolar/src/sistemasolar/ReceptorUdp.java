@@ -0,0 +1,124 @@
+package sistemasolar;
+
+import java.io.IOException;
+import java.net.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.Enumeration;
+
+/**
+ * 📥 Receptor UDP sin reservas de memoria por paquete.
+ *
+ * Cada hilo receptor crea un único ReceptorUdp y lo reutiliza en todo su bucle: el DatagramChannel
+ * y su ByteBuffer directo se crean una sola vez, y el canal reutiliza la dirección del emisor mientras
+ * no cambie. recibir() devuelve siempre la misma vista, ajustada al contenido del último datagrama,
+ * para decodificarlo en el sitio (ver CodecMensaje).
+ *
+ * No es seguro entre hilos: está pensado para ser confinado al hilo que lo creó.
+ * Cerrarlo desde otro hilo desbloquea una llamada a recibir() en curso.
+ */
+public final class ReceptorUdp implements Receptor {
+
+    private final DatagramChannel canal;
+    private final ByteBuffer buffer;
+
+    // Remitente del último datagrama (el canal reutiliza el objeto mientras no cambie)
+    private InetSocketAddress remitente;
+
+    private ReceptorUdp(DatagramChannel canal, int tamanoMaximo) {
+        this.canal = canal;
+        this.buffer = ByteBuffer.allocateDirect(tamanoMaximo);
+    }
+
+    /**
+     * Abre un receptor unido al grupo multicast indicado.
+     * Varios receptores de la misma máquina pueden compartir el puerto.
+     */
+    public static ReceptorUdp multicast(String ip, int puerto, int tamanoMaximo) throws IOException {
+        InetAddress grupo = InetAddress.getByName(ip);
+        DatagramChannel canal = DatagramChannel.open(StandardProtocolFamily.INET)
+                .setOption(StandardSocketOptions.SO_REUSEADDR, true)
+                .bind(new InetSocketAddress(puerto));
+        canal.join(grupo, interfazMulticast());
+        return new ReceptorUdp(canal, tamanoMaximo);
+    }
+
+    /**
+     * Abre un receptor unicast en el puerto indicado.
+     */
+    public static ReceptorUdp unicast(int puerto, int tamanoMaximo) throws IOException {
+        DatagramChannel canal = DatagramChannel.open(StandardProtocolFamily.INET)
+                .bind(new InetSocketAddress(puerto));
+        return new ReceptorUdp(canal, tamanoMaximo);
+    }
+
+    /**
+     * Bloquea hasta recibir un datagrama.
+     *
+     * @return la vista reutilizada, con posición 0 y límite igual a la longitud recibida;
+     *         solo es válida hasta la siguiente llamada
+     */
+    @Override
+    public ByteBuffer recibir() throws IOException {
+        buffer.clear();
+        remitente = (InetSocketAddress) canal.receive(buffer);
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Dirección desde la que se envió el último datagrama recibido (por ejemplo, para responderle).
+     */
+    @Override
+    public InetSocketAddress getRemitente() {
+        return remitente;
+    }
+
+    /**
+     * Puerto local en el que escucha el receptor.
+     */
+    public int getPuerto() throws IOException {
+        return ((InetSocketAddress) canal.getLocalAddress()).getPort();
+    }
+
+    /**
+     * Amplía el buffer de recepción del sistema operativo (útil bajo ráfagas de paquetes).
+     */
+    public void setBufferSistema(int bytes) throws IOException {
+        canal.setOption(StandardSocketOptions.SO_RCVBUF, bytes);
+    }
+
+    @Override
+    public void close() throws IOException {
+        canal.close();
+    }
+
+    /**
+     * Interfaz por la que unirse al grupo: la indicada en -Dmulticast.interfaz o, si no,
+     * la primera interfaz activa con multicast, dando preferencia a las que no son de loopback
+     * (es por donde sale el tráfico multicast del Sol con la ruta por defecto).
+     */
+    private static NetworkInterface interfazMulticast() throws IOException {
+        String nombre = System.getProperty("multicast.interfaz");
+        if (nombre != null) {
+            NetworkInterface elegida = NetworkInterface.getByName(nombre);
+            if (elegida == null) throw new SocketException("Interfaz multicast desconocida: " + nombre);
+            return elegida;
+        }
+
+        NetworkInterface loopback = null;
+        Enumeration<NetworkInterface> interfaces = NetworkInterface.getNetworkInterfaces();
+        while (interfaces.hasMoreElements()) {
+            NetworkInterface interfaz = interfaces.nextElement();
+            if (!interfaz.isUp() || !interfaz.supportsMulticast() || interfaz.isVirtual()) continue;
+            if (!interfaz.getInetAddresses().hasMoreElements()) continue;
+            if (interfaz.isLoopback()) {
+                loopback = interfaz;
+            } else {
+                return interfaz;
+            }
+        }
+        if (loopback != null) return loopback;
+        throw new SocketException("No hay ninguna interfaz con multicast disponible");
+    }
+}
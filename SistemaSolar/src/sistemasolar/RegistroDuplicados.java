@@ -0,0 +1,189 @@
+package sistemasolar;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 🧾 Registro acotado de mensajes ya procesados, para descartar duplicados.
+ *
+ * Sustituye a los conjuntos de UUID que crecían sin límite. Guarda los identificadores como pares de
+ * long primitivos en dos tablas de direccionamiento abierto que rotan: los nuevos identificadores entran
+ * en la generación actual y, cuando esta se llena o vence la ventana de tiempo, la generación anterior
+ * se descarta y la actual pasa a ser la anterior. Así la memoria es fija y cada identificador se
+ * recuerda, como mínimo, durante la ventana configurada o las últimas 'capacidad' inserciones.
+ *
+ * El par (0, 0) se usa como hueco vacío; un UUID aleatorio nunca lo produce.
+ */
+public class RegistroDuplicados {
+
+    private final int capacidad;
+    private final long ventanaNanos;
+
+    // Máscara para convertir un hash en índice de hueco (número de huecos potencia de dos)
+    private final int mascara;
+
+    // Tablas [msb0, lsb0, msb1, lsb1, ...] de la generación actual y la anterior
+    private long[] actual;
+    private long[] anterior;
+    private int ocupadosActual = 0;
+    private int ocupadosAnterior = 0;
+    private long inicioGeneracion = System.nanoTime();
+
+    // Métricas consultables sin bloquear a quien registra
+    private final LongAdder aciertos = new LongAdder();
+    private final LongAdder fallos = new LongAdder();
+    private final LongAdder desalojos = new LongAdder();
+
+    /**
+     * @param capacidad    número máximo de identificadores por generación
+     * @param ventanaMillis tiempo máximo de vida de una generación antes de rotar
+     */
+    public RegistroDuplicados(int capacidad, long ventanaMillis) {
+        if (capacidad <= 0 || ventanaMillis <= 0) {
+            throw new IllegalArgumentException("Capacidad y ventana deben ser positivas");
+        }
+        // Factor de carga máximo del 50% para que las búsquedas lineales sean cortas
+        int huecos = Integer.highestOneBit(Math.max(2, capacidad) * 2 - 1) << 1;
+        this.capacidad = capacidad;
+        this.ventanaNanos = ventanaMillis * 1_000_000L;
+        this.mascara = huecos - 1;
+        this.actual = new long[huecos * 2];
+        this.anterior = new long[huecos * 2];
+    }
+
+    /**
+     * Registra un identificador.
+     *
+     * @return true si es la primera vez que se ve (hay que procesarlo); false si es un duplicado
+     */
+    public synchronized boolean registrar(long msb, long lsb) {
+        if (contiene(actual, msb, lsb) || contiene(anterior, msb, lsb)) {
+            aciertos.increment();
+            return false;
+        }
+
+        long ahora = System.nanoTime();
+        if (ocupadosActual >= capacidad || ahora - inicioGeneracion >= ventanaNanos) {
+            rotar(ahora);
+        }
+
+        insertar(actual, msb, lsb);
+        ocupadosActual++;
+        fallos.increment();
+        return true;
+    }
+
+    /**
+     * Comodidad para registrar un mensaje a partir de su UUID.
+     */
+    public boolean registrar(Mensaje mensaje) {
+        return registrar(mensaje.getIdMsb(), mensaje.getIdLsb());
+    }
+
+    /**
+     * Vuelca los identificadores recordados (primero los de la generación anterior) como
+     * [int número][msb, lsb]..., para guardarlos en una instantánea.
+     */
+    public synchronized ByteBuffer volcar() {
+        ByteBuffer volcado = ByteBuffer.allocate(4 + (ocupadosAnterior + ocupadosActual) * 16);
+        volcado.putInt(ocupadosAnterior + ocupadosActual);
+        volcarTabla(anterior, volcado);
+        volcarTabla(actual, volcado);
+        return volcado.flip();
+    }
+
+    private static void volcarTabla(long[] tabla, ByteBuffer destino) {
+        for (int i = 0; i < tabla.length; i += 2) {
+            if (tabla[i] != 0 || tabla[i + 1] != 0) destino.putLong(tabla[i]).putLong(tabla[i + 1]);
+        }
+    }
+
+    /**
+     * Vuelve a recordar un identificador al recuperar el estado de un nodo, sin contarlo en las métricas.
+     */
+    public synchronized void recordar(long msb, long lsb) {
+        if (contiene(actual, msb, lsb) || contiene(anterior, msb, lsb)) return;
+        if (ocupadosActual >= capacidad) rotar(System.nanoTime());
+        insertar(actual, msb, lsb);
+        ocupadosActual++;
+    }
+
+    /**
+     * Recuerda los identificadores de un volcado (ver volcar()).
+     */
+    public void recordar(ByteBuffer volcado) {
+        int numero = volcado.getInt();
+        for (int i = 0; i < numero; i++) {
+            recordar(volcado.getLong(), volcado.getLong());
+        }
+    }
+
+    private void rotar(long ahora) {
+        desalojos.add(ocupadosAnterior);
+        long[] reciclada = anterior;
+        Arrays.fill(reciclada, 0L);
+        anterior = actual;
+        ocupadosAnterior = ocupadosActual;
+        actual = reciclada;
+        ocupadosActual = 0;
+        inicioGeneracion = ahora;
+    }
+
+    private boolean contiene(long[] tabla, long msb, long lsb) {
+        int hueco = indice(msb, lsb);
+        while (true) {
+            long m = tabla[hueco * 2];
+            long l = tabla[hueco * 2 + 1];
+            if (m == msb && l == lsb) return true;
+            if (m == 0 && l == 0) return false;
+            hueco = (hueco + 1) & mascara;
+        }
+    }
+
+    private void insertar(long[] tabla, long msb, long lsb) {
+        int hueco = indice(msb, lsb);
+        while (tabla[hueco * 2] != 0 || tabla[hueco * 2 + 1] != 0) {
+            hueco = (hueco + 1) & mascara;
+        }
+        tabla[hueco * 2] = msb;
+        tabla[hueco * 2 + 1] = lsb;
+    }
+
+    // Mezcla de bits (finalizador de MurmurHash3) para repartir bien los UUID en la tabla
+    private int indice(long msb, long lsb) {
+        long h = msb ^ Long.rotateLeft(lsb, 32);
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (int) h & mascara;
+    }
+
+    /**
+     * Número de duplicados detectados.
+     */
+    public long getAciertos() {
+        return aciertos.sum();
+    }
+
+    /**
+     * Número de identificadores nuevos registrados.
+     */
+    public long getFallos() {
+        return fallos.sum();
+    }
+
+    /**
+     * Número de identificadores olvidados al rotar generaciones.
+     */
+    public long getDesalojos() {
+        return desalojos.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "duplicados=" + getAciertos() + ", nuevos=" + getFallos() + ", desalojados=" + getDesalojos();
+    }
+}
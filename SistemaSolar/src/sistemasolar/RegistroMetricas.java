@@ -0,0 +1,164 @@
+package sistemasolar;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * 📡 Registro de métricas de uno o varios nodos, en el formato de texto de Prometheus.
+ *
+ * Cada serie se registra una sola vez al arrancar el nodo con la función que lee su valor (un
+ * LongAdder, un atómico o un campo volatile que el nodo ya mantiene). Al exponerlas solo se leen
+ * esos valores: el camino caliente no cambia ni comparte ningún cerrojo con quien consulta.
+ *
+ * Las series del mismo nombre forman una familia con una sola cabecera HELP/TYPE, así que varios
+ * planetas del mismo proceso comparten nombre y se distinguen por sus etiquetas.
+ */
+public final class RegistroMetricas {
+
+    // Prefijo común de todas las métricas del sistema
+    public static final String PREFIJO = "sistemasolar_";
+
+    // Cuantiles que se exponen de cada histograma de latencia
+    private static final double[] CUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private enum Tipo {
+        COUNTER, GAUGE, SUMMARY
+    }
+
+    // Serie: sus etiquetas ya formateadas ({a="b",c="d"} o vacío) y cómo leerla
+    private record Serie(String etiquetas, LongSupplier entero, DoubleSupplier decimal,
+                         Supplier<HistogramaLatencia> histograma) {
+    }
+
+    private record Familia(String nombre, String ayuda, Tipo tipo, List<Serie> series) {
+    }
+
+    private final Map<String, Familia> porNombre = new ConcurrentHashMap<>();
+    private final List<Familia> familias = new CopyOnWriteArrayList<>();
+
+    /**
+     * Registra un contador (valor que solo crece). Las etiquetas van por pares nombre, valor.
+     */
+    public void contador(String nombre, String ayuda, LongSupplier valor, String... etiquetas) {
+        familia(nombre, ayuda, Tipo.COUNTER).series.add(new Serie(etiquetas(etiquetas), valor, null, null));
+    }
+
+    /**
+     * Registra un indicador (valor que sube y baja).
+     */
+    public void indicador(String nombre, String ayuda, DoubleSupplier valor, String... etiquetas) {
+        familia(nombre, ayuda, Tipo.GAUGE).series.add(new Serie(etiquetas(etiquetas), null, valor, null));
+    }
+
+    /**
+     * Registra un histograma de latencias (en nanosegundos) como resumen con cuantiles, en segundos.
+     */
+    public void resumen(String nombre, String ayuda, Supplier<HistogramaLatencia> valor, String... etiquetas) {
+        familia(nombre, ayuda, Tipo.SUMMARY).series.add(new Serie(etiquetas(etiquetas), null, null, valor));
+    }
+
+    private synchronized Familia familia(String nombre, String ayuda, Tipo tipo) {
+        String completo = PREFIJO + nombre;
+        Familia familia = porNombre.get(completo);
+        if (familia == null) {
+            familia = new Familia(completo, ayuda, tipo, new CopyOnWriteArrayList<>());
+            porNombre.put(completo, familia);
+            familias.add(familia);
+        } else if (familia.tipo != tipo) {
+            throw new IllegalArgumentException("La métrica " + completo + " ya está registrada como " + familia.tipo);
+        }
+        return familia;
+    }
+
+    /**
+     * Añade las métricas de la JVM: hilos, memoria y recolecciones de basura.
+     */
+    public void registrarJvm() {
+        ThreadMXBean hilos = ManagementFactory.getThreadMXBean();
+        MemoryMXBean memoria = ManagementFactory.getMemoryMXBean();
+        indicador("jvm_hilos", "Hilos de plataforma vivos", hilos::getThreadCount);
+        indicador("jvm_hilos_daemon", "Hilos de plataforma daemon vivos", hilos::getDaemonThreadCount);
+        indicador("jvm_heap_usado_bytes", "Memoria de heap en uso",
+                () -> memoria.getHeapMemoryUsage().getUsed());
+        indicador("jvm_heap_reservado_bytes", "Memoria de heap reservada",
+                () -> memoria.getHeapMemoryUsage().getCommitted());
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            contador("jvm_gc_recolecciones_total", "Recolecciones de basura", gc::getCollectionCount, "gc", gc.getName());
+            indicador("jvm_gc_segundos_total", "Tiempo acumulado en recolecciones de basura",
+                    () -> gc.getCollectionTime() / 1e3, "gc", gc.getName());
+        }
+    }
+
+    /**
+     * Escribe todas las series en el formato de texto de Prometheus (versión 0.0.4).
+     */
+    public String exponer() {
+        StringBuilder texto = new StringBuilder(4096);
+        for (Familia familia : familias) {
+            texto.append("# HELP ").append(familia.nombre).append(' ').append(familia.ayuda).append('\n');
+            texto.append("# TYPE ").append(familia.nombre).append(' ')
+                    .append(familia.tipo.name().toLowerCase()).append('\n');
+            for (Serie serie : familia.series) {
+                switch (familia.tipo) {
+                    case COUNTER -> linea(texto, familia.nombre, serie.etiquetas, serie.entero.getAsLong());
+                    case GAUGE -> linea(texto, familia.nombre, serie.etiquetas, serie.decimal.getAsDouble());
+                    case SUMMARY -> resumen(texto, familia.nombre, serie.etiquetas, serie.histograma.get());
+                }
+            }
+        }
+        return texto.toString();
+    }
+
+    private static void resumen(StringBuilder texto, String nombre, String etiquetas, HistogramaLatencia histograma) {
+        for (double cuantil : CUANTILES) {
+            String conCuantil = etiquetas.isEmpty()
+                    ? "{quantile=\"" + cuantil + "\"}"
+                    : etiquetas.substring(0, etiquetas.length() - 1) + ",quantile=\"" + cuantil + "\"}";
+            linea(texto, nombre, conCuantil, histograma.percentil(cuantil * 100) / 1e9);
+        }
+        linea(texto, nombre + "_sum", etiquetas, histograma.getSuma() / 1e9);
+        linea(texto, nombre + "_count", etiquetas, histograma.getCuenta());
+    }
+
+    private static void linea(StringBuilder texto, String nombre, String etiquetas, long valor) {
+        texto.append(nombre).append(etiquetas).append(' ').append(valor).append('\n');
+    }
+
+    private static void linea(StringBuilder texto, String nombre, String etiquetas, double valor) {
+        texto.append(nombre).append(etiquetas).append(' ');
+        if (Double.isNaN(valor)) texto.append("NaN");
+        else if (Double.isInfinite(valor)) texto.append(valor > 0 ? "+Inf" : "-Inf");
+        else texto.append(valor);
+        texto.append('\n');
+    }
+
+    // Formatea los pares nombre, valor como {a="b",c="d"}, escapando los valores
+    private static String etiquetas(String... pares) {
+        if (pares.length % 2 != 0) throw new IllegalArgumentException("Las etiquetas van por pares nombre, valor");
+        if (pares.length == 0) return "";
+        StringBuilder texto = new StringBuilder("{");
+        for (int i = 0; i < pares.length; i += 2) {
+            if (i > 0) texto.append(',');
+            texto.append(pares[i]).append("=\"");
+            for (char c : pares[i + 1].toCharArray()) {
+                switch (c) {
+                    case '\\' -> texto.append("\\\\");
+                    case '"' -> texto.append("\\\"");
+                    case '\n' -> texto.append("\\n");
+                    default -> texto.append(c);
+                }
+            }
+            texto.append('"');
+        }
+        return texto.append('}').toString();
+    }
+}
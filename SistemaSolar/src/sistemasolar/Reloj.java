@@ -0,0 +1,35 @@
+package sistemasolar;
+
+import java.time.Instant;
+
+/**
+ * ⏱️ Reloj de alta resolución compartido por todos los nodos.
+ *
+ * Devuelve el instante actual en nanosegundos desde la época Unix, calibrado una única vez al arrancar
+ * y avanzado después con System.nanoTime(). Así las marcas de tiempo que viajan en los mensajes son
+ * comparables entre procesos de la misma máquina y no cuestan ninguna reserva de memoria.
+ */
+public final class Reloj {
+
+    // Instante de calibración expresado en nanosegundos desde la época Unix
+    private static final long BASE_EPOCH_NANOS;
+
+    // Valor de System.nanoTime() en el momento de la calibración
+    private static final long BASE_NANO_TIME;
+
+    static {
+        Instant ahora = Instant.now();
+        BASE_NANO_TIME = System.nanoTime();
+        BASE_EPOCH_NANOS = ahora.getEpochSecond() * 1_000_000_000L + ahora.getNano();
+    }
+
+    private Reloj() {
+    }
+
+    /**
+     * Devuelve el instante actual en nanosegundos desde la época Unix.
+     */
+    public static long ahoraNanos() {
+        return BASE_EPOCH_NANOS + (System.nanoTime() - BASE_NANO_TIME);
+    }
+}
@@ -0,0 +1,214 @@
+package sistemasolar;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * ⏯️ Reproductor de capturas: vuelve a inyectar en la red el tráfico grabado por el Grabador (ver Captura).
+ *
+ * Los datagramas de cada canal multicast se envían al grupo y puerto del tema del Sol en que se grabaron,
+ * y las tramas de cada canal TCP se envían por un enlace persistente a su puerto (o al que se indique con
+ * tcp=PUERTO>DESTINO). El ritmo
+ * se elige con velocidad:
+ * - velocidad=1 respeta los tiempos originales entre registros (calendario absoluto, sin deriva).
+ * - velocidad=N los reproduce N veces más deprisa.
+ * - velocidad=max los envía tan rápido como se pueda, para medir la capacidad de los receptores y
+ *   repetir pruebas de regresión con tráfico real.
+ *
+ * Con marcas=actuales (por defecto) las marcas de tiempo de cada mensaje se desplazan al instante del
+ * nuevo envío, para que los receptores midan latencias reales (ver CodecMensaje.reestampar). Además, su
+ * época y su UUID se mezclan con unos nuevos en cada reproducción: los detectores de huecos toman las
+ * secuencias ya vistas por un Sol recién arrancado y no por retransmisiones atrasadas, y los registros de
+ * duplicados de la Tierra y los planetas no las descartan (ver CodecMensaje.mezclarEpoca y mezclarId).
+ * Con marcas=originales se envían los bytes tal como se grabaron.
+ *
+ * Uso: java sistemasolar.Reproductor fichero=captura.cap velocidad=1|10|max tcp=6002>16002 marcas=actuales
+ */
+public class Reproductor {
+
+    // Por debajo de esto se espera activamente al siguiente registro en lugar de dormir
+    private static final long ESPERA_ACTIVA_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private static final long PERIODO_ESTADO_MS = 5000;
+
+    private final Path ruta;
+
+    // Factor de velocidad, o 0 para reproducir tan rápido como se pueda
+    private final double velocidad;
+
+    // Puerto de destino de cada puerto TCP grabado que no se reproduce en el mismo
+    private final Map<Integer, Integer> destinosTcp;
+    private final boolean reestampar;
+
+    // Mezclas de las épocas y los UUID de esta reproducción
+    private final int mezclaEpoca = ThreadLocalRandom.current().nextInt() | 1;
+    private final long mezclaId = ThreadLocalRandom.current().nextLong() | 1;
+
+    // Resultado de la reproducción
+    private final LongAdder registros = new LongAdder();
+    private long mensajes = 0;
+    private long[] enviadosPorCanal;
+    private long[] fallidosPorCanal;
+    private final HistogramaLatencia retraso = new HistogramaLatencia();
+
+    /**
+     * @param velocidad   factor sobre el ritmo original (1 = tiempo real), o 0 para la máxima velocidad
+     * @param destinosTcp puerto al que enviar cada puerto TCP grabado (los que falten, al mismo puerto)
+     * @param reestampar  si se ponen las marcas de tiempo de los mensajes al instante del envío
+     */
+    public Reproductor(Path ruta, double velocidad, Map<Integer, Integer> destinosTcp, boolean reestampar) {
+        if (velocidad < 0 || Double.isNaN(velocidad)) throw new IllegalArgumentException("La velocidad no puede ser negativa");
+        this.ruta = ruta;
+        this.velocidad = velocidad;
+        this.destinosTcp = Map.copyOf(destinosTcp);
+        this.reestampar = reestampar;
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path fichero = Path.of("captura.cap");
+        double velocidad = 1;
+        Map<Integer, Integer> destinos = new HashMap<>();
+        boolean reestampar = true;
+
+        for (String arg : args) {
+            int igual = arg.indexOf('=');
+            if (igual < 0) throw new IllegalArgumentException("Se esperaba clave=valor: " + arg);
+            String clave = arg.substring(0, igual);
+            String valor = arg.substring(igual + 1);
+            switch (clave) {
+                case "fichero" -> fichero = Path.of(valor);
+                case "velocidad" -> velocidad = valor.equalsIgnoreCase("max") ? 0 : Double.parseDouble(valor);
+                case "tcp" -> {
+                    for (String puerto : valor.split(",")) {
+                        if (puerto.isBlank()) continue;
+                        Grabador.Escucha escucha = Grabador.Escucha.leer(puerto);
+                        if (escucha.reenvio() == Grabador.Escucha.SIN_REENVIO) {
+                            throw new IllegalArgumentException("Se esperaba PUERTO>DESTINO: " + puerto);
+                        }
+                        destinos.put(escucha.puerto(), escucha.reenvio());
+                    }
+                }
+                case "marcas" -> reestampar = !valor.equalsIgnoreCase("originales");
+                default -> throw new IllegalArgumentException("Parámetro desconocido: " + clave);
+            }
+        }
+
+        new Reproductor(fichero, velocidad, destinos, reestampar).reproducir();
+        Consola.vaciar();
+    }
+
+    /**
+     * Reproduce la captura completa en el hilo que llama y muestra el resumen al terminar.
+     */
+    public void reproducir() throws IOException {
+        try (Captura.Lector lector = Captura.Lector.abrir(ruta);
+             DatagramChannel canalMulticast = DatagramChannel.open()) {
+
+            List<Captura.Canal> canales = lector.getCanales();
+            enviadosPorCanal = new long[canales.size()];
+            fallidosPorCanal = new long[canales.size()];
+            // Destino de cada canal: su grupo multicast o un enlace TCP
+            InetSocketAddress[] destinosMulticast = new InetSocketAddress[canales.size()];
+            EnlaceTcp[] enlaces = new EnlaceTcp[canales.size()];
+            for (int i = 0; i < canales.size(); i++) {
+                Captura.Canal canal = canales.get(i);
+                if (canal.tipo() == Captura.Tipo.TCP) {
+                    int destino = destinosTcp.getOrDefault(canal.puerto(), canal.puerto());
+                    enlaces[i] = new EnlaceTcp("puerto " + destino, canal.ip(), destino);
+                } else {
+                    destinosMulticast[i] = new InetSocketAddress(InetAddress.getByName(canal.ip()), canal.puerto());
+                }
+            }
+
+            Consola.info("------------------------------------------------------------------");
+            Consola.info("⏯️ Reproduciendo " + ruta + " (grabada el " + Instant.ofEpochSecond(0, lector.getInicioEpochNanos())
+                    + ") | canales " + canales + " | velocidad " + (velocidad == 0 ? "máxima" : velocidad + "×")
+                    + (reestampar ? "" : " | marcas originales"));
+            Consola.info("------------------------------------------------------------------");
+
+            RuedaTemporizadores.Temporizador progreso = RuedaTemporizadores.compartida().programarPeriodica(
+                    TimeUnit.MILLISECONDS.toNanos(PERIODO_ESTADO_MS),
+                    () -> Consola.info("⏯️ Registros reproducidos: " + registros.sum()));
+            long inicio = System.nanoTime();
+            long primero = -1;
+            long ultimo = 0;
+            try {
+                while (lector.siguiente()) {
+                    ultimo = lector.getInstante();
+                    if (primero < 0) primero = ultimo;
+                    if (velocidad > 0) {
+                        long objetivo = inicio + (long) ((ultimo - primero) / velocidad);
+                        esperarHasta(objetivo);
+                        retraso.registrar(System.nanoTime() - objetivo);
+                    }
+
+                    int canal = lector.getCanal();
+                    ByteBuffer carga = lector.getCarga();
+                    // Solo se tocan los lotes de mensajes completos; lo demás se reproduce tal cual se grabó
+                    boolean esLote = carga.remaining() % CodecMensaje.TAMANO == 0;
+                    if (esLote) mensajes += carga.remaining() / CodecMensaje.TAMANO;
+                    if (reestampar && esLote) renovar(carga, Reloj.ahoraNanos());
+
+                    boolean enviado = enlaces[canal] == null
+                            ? canalMulticast.send(carga, destinosMulticast[canal]) > 0
+                            : enlaces[canal].enviarTrama(carga);
+                    if (enviado) enviadosPorCanal[canal]++;
+                    else fallidosPorCanal[canal]++;
+                    registros.increment();
+                }
+            } finally {
+                progreso.cancelar();
+                for (EnlaceTcp enlace : enlaces) {
+                    if (enlace != null) enlace.close();
+                }
+            }
+            mostrarResumen(canales, System.nanoTime() - inicio, primero < 0 ? 0 : ultimo - primero);
+        }
+    }
+
+    /**
+     * Prepara un lote grabado para volver a enviarlo en el instante indicado: nuevas marcas de tiempo y
+     * la época y el UUID de cada mensaje mezclados con los de esta reproducción.
+     */
+    void renovar(ByteBuffer lote, long ahora) {
+        CodecMensaje.reestampar(lote, ahora);
+        CodecMensaje.mezclarEpoca(lote, mezclaEpoca);
+        CodecMensaje.mezclarId(lote, mezclaId);
+    }
+
+    // Duerme hasta poco antes del instante indicado y espera activamente el resto
+    private static void esperarHasta(long objetivo) {
+        long pausa;
+        while ((pausa = objetivo - System.nanoTime()) > 0) {
+            if (pausa > ESPERA_ACTIVA_NANOS) LockSupport.parkNanos(pausa - ESPERA_ACTIVA_NANOS);
+            else Thread.onSpinWait();
+        }
+    }
+
+    private void mostrarResumen(List<Captura.Canal> canales, long nanosReales, long nanosGrabados) {
+        long total = registros.sum();
+        Consola.info("------------------------------------------------------------------");
+        Consola.info(String.format(Locale.ROOT, "⏯️ Reproducidos %d registros (%d mensajes) en %.3f s de %.3f s grabados: %.0f registros/s, %.0f mensajes/s",
+                total, mensajes, nanosReales / 1e9, nanosGrabados / 1e9,
+                total * 1e9 / Math.max(1, nanosReales), mensajes * 1e9 / Math.max(1, nanosReales)));
+        for (int i = 0; i < canales.size(); i++) {
+            Consola.info("   " + canales.get(i) + ": enviados " + enviadosPorCanal[i]
+                    + (fallidosPorCanal[i] > 0 ? " | no entregados " + fallidosPorCanal[i] : ""));
+        }
+        if (velocidad > 0) Consola.info("   Retraso sobre el calendario: " + retraso.resumen());
+        Consola.info("------------------------------------------------------------------");
+    }
+}
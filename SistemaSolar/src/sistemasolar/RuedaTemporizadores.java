@@ -0,0 +1,376 @@
+package sistemasolar;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * ⏲️ Rueda jerárquica de temporizadores compartida por todas las tareas periódicas del proceso.
+ *
+ * En lugar de un hilo dormido en Thread.sleep por cada tarea (estado de cada planeta, telemetría,
+ * emisión del Sol...), todas se programan en esta rueda y las ejecuta un único hilo que avanza un
+ * tick cada TICK_NANOS (-Dtemporizador.tick, en µs; 1 ms por defecto).
+ *
+ * La rueda tiene NIVELES niveles de RANURAS ranuras: el primero cubre los próximos 256 ticks con una
+ * ranura por tick, y cada nivel siguiente cubre 256 veces más con ranuras 256 veces más anchas. Al
+ * empezar cada vuelta de un nivel, los temporizadores de la ranura que toca del nivel superior bajan
+ * al nivel que les corresponde. Cada ranura es una lista doblemente enlazada de los propios
+ * temporizadores, así que programar y cancelar son O(1) y no reservan memoria más allá del temporizador.
+ *
+ * Las tareas periódicas son de ritmo fijo: cada ejecución se programa sobre el instante teórico de la
+ * anterior más el periodo, no sobre cuándo se ejecutó de verdad, de modo que los retrasos de un tick
+ * no se acumulan. Si una tarea se queda más de un periodo atrás (por ejemplo, tras una pausa de GC) se
+ * saltan las ejecuciones perdidas en lugar de recuperarlas en ráfaga, y se cuentan como omitidas.
+ *
+ * Mide el retraso con que despierta cada tick y el de cada tarea respecto a su instante teórico
+ * (ver registrarMetricas). Las tareas se ejecutan en el hilo de la rueda, así que deben ser breves:
+ * una tarea lenta retrasa a todas las demás, y se verá en esas métricas.
+ */
+public final class RuedaTemporizadores implements AutoCloseable {
+
+    // Duración de un tick: la resolución de la rueda
+    public static final long TICK_NANOS = TimeUnit.MICROSECONDS.toNanos(Long.getLong("temporizador.tick", 1000));
+
+    private static final int BITS = 8;
+    private static final int RANURAS = 1 << BITS;
+    private static final int MASCARA = RANURAS - 1;
+    private static final int NIVELES = 4;
+
+    // Ticks que cubre la rueda completa (unos 50 días con ticks de 1 ms); lo más lejano espera en el último nivel
+    private static final long ALCANCE = 1L << (BITS * NIVELES);
+
+    /**
+     * Una tarea programada en la rueda. Se obtiene al programarla y sirve para cancelarla.
+     */
+    public final class Temporizador {
+        private final Runnable tarea;
+
+        // Periodo en nanosegundos, o 0 si se ejecuta una sola vez
+        private final long periodo;
+
+        // Instante teórico (System.nanoTime) de la próxima ejecución y tick en que vence
+        private long plazo;
+        private long vence;
+
+        // Posición en la rueda (nivel -1 si no está en ninguna ranura) y enlaces de la ranura
+        private int nivel = -1;
+        private int ranura;
+        private Temporizador previo;
+        private Temporizador proximo;
+
+        // Cancelado o, si es de una sola vez, ya ejecutado
+        private volatile boolean terminado;
+
+        private Temporizador(Runnable tarea, long plazo, long periodo) {
+            this.tarea = tarea;
+            this.plazo = plazo;
+            this.periodo = periodo;
+        }
+
+        /**
+         * Cancela las próximas ejecuciones; si la tarea se está ejecutando en este momento, termina la actual.
+         *
+         * @return false si ya estaba cancelado o, siendo de una sola vez, ya se había ejecutado
+         */
+        public boolean cancelar() {
+            cerrojo.lock();
+            try {
+                if (terminado) return false;
+                terminado = true;
+                if (nivel >= 0) quitar(this);
+                pendientes--;
+                return true;
+            } finally {
+                cerrojo.unlock();
+            }
+        }
+
+        public boolean isTerminado() {
+            return terminado;
+        }
+    }
+
+    // Instancia compartida, creada al usarla por primera vez
+    private static final class Compartida {
+        static final RuedaTemporizadores RUEDA = new RuedaTemporizadores(TICK_NANOS, "temporizadores");
+    }
+
+    private final long tickNanos;
+
+    // Instante (System.nanoTime) del tick 0
+    private final long inicio;
+
+    // Cabeza de la lista de cada ranura, por nivel
+    private final Temporizador[][] ranuras = new Temporizador[NIVELES][RANURAS];
+
+    // Protege las ranuras, el tick actual y los enlaces de los temporizadores
+    private final ReentrantLock cerrojo = new ReentrantLock();
+
+    // Último tick procesado
+    private long actual = 0;
+
+    // Temporizadores programados que no se han cancelado ni terminado
+    private int pendientes = 0;
+
+    private final Thread hilo;
+    private volatile boolean activa = true;
+
+    // Retraso al despertar en cada tick y de cada ejecución respecto a su instante teórico
+    private final HistogramaLatencia retrasoTick = new HistogramaLatencia();
+    private final HistogramaLatencia retrasoTareas = new HistogramaLatencia();
+    private final LongAdder ejecutadas = new LongAdder();
+    private final LongAdder omitidas = new LongAdder();
+
+    /**
+     * Crea una rueda con su propio hilo. Lo normal es usar la compartida (ver compartida()).
+     *
+     * @param tickNanos resolución de la rueda
+     * @param nombre    nombre del hilo que la avanza
+     */
+    public RuedaTemporizadores(long tickNanos, String nombre) {
+        if (tickNanos <= 0) throw new IllegalArgumentException("El tick debe ser positivo");
+        this.tickNanos = tickNanos;
+        this.inicio = System.nanoTime();
+        this.hilo = Thread.ofPlatform().daemon().name(nombre).start(this::girar);
+    }
+
+    /**
+     * Rueda compartida por todos los nodos del proceso.
+     */
+    public static RuedaTemporizadores compartida() {
+        return Compartida.RUEDA;
+    }
+
+    /**
+     * Ejecuta la tarea una vez, pasado el retraso indicado (redondeado al tick siguiente).
+     */
+    public Temporizador programar(long retrasoNanos, Runnable tarea) {
+        return anadir(new Temporizador(tarea, System.nanoTime() + Math.max(0, retrasoNanos), 0));
+    }
+
+    /**
+     * Ejecuta la tarea cada periodo a ritmo fijo, empezando un periodo después de ahora.
+     */
+    public Temporizador programarPeriodica(long periodoNanos, Runnable tarea) {
+        return programarPeriodica(periodoNanos, periodoNanos, tarea);
+    }
+
+    /**
+     * Ejecuta la tarea cada periodo a ritmo fijo, la primera vez pasado el retraso inicial.
+     * Un periodo menor que el tick se ejecuta como mucho una vez por tick (el resto cuenta como omitido).
+     */
+    public Temporizador programarPeriodica(long retrasoInicialNanos, long periodoNanos, Runnable tarea) {
+        if (periodoNanos <= 0) throw new IllegalArgumentException("El periodo debe ser positivo");
+        return anadir(new Temporizador(tarea, System.nanoTime() + Math.max(0, retrasoInicialNanos), periodoNanos));
+    }
+
+    private Temporizador anadir(Temporizador temporizador) {
+        cerrojo.lock();
+        try {
+            if (!activa) throw new IllegalStateException("La rueda de temporizadores está cerrada");
+            pendientes++;
+            colocar(temporizador);
+        } finally {
+            cerrojo.unlock();
+        }
+        return temporizador;
+    }
+
+    // Pone el temporizador en la ranura que le toca según su plazo (siempre en un tick futuro)
+    private void colocar(Temporizador t) {
+        t.vence = Math.max(actual + 1, Math.ceilDiv(t.plazo - inicio, tickNanos));
+        insertar(t);
+    }
+
+    // Inserta según t.vence, que puede ser el tick actual al bajar de nivel en plena vuelta
+    private void insertar(Temporizador t) {
+        long posicion = Math.min(t.vence, actual + ALCANCE - 1);
+        long distancia = posicion - actual;
+        int nivel = 0;
+        while (distancia >= 1L << (BITS * (nivel + 1))) nivel++;
+        int ranura = (int) ((posicion >>> (BITS * nivel)) & MASCARA);
+
+        Temporizador cabeza = ranuras[nivel][ranura];
+        t.nivel = nivel;
+        t.ranura = ranura;
+        t.previo = null;
+        t.proximo = cabeza;
+        if (cabeza != null) cabeza.previo = t;
+        ranuras[nivel][ranura] = t;
+    }
+
+    private void quitar(Temporizador t) {
+        if (t.previo != null) t.previo.proximo = t.proximo;
+        else ranuras[t.nivel][t.ranura] = t.proximo;
+        if (t.proximo != null) t.proximo.previo = t.previo;
+        t.previo = null;
+        t.proximo = null;
+        t.nivel = -1;
+    }
+
+    // Saca todos los temporizadores de una ranura y devuelve la lista (enlazada por proximo)
+    private Temporizador vaciarRanura(int nivel, int ranura) {
+        Temporizador lista = ranuras[nivel][ranura];
+        ranuras[nivel][ranura] = null;
+        for (Temporizador t = lista; t != null; t = t.proximo) t.nivel = -1;
+        return lista;
+    }
+
+    /**
+     * Bucle del hilo de la rueda: duerme hasta el siguiente tick y procesa todos los que hayan vencido.
+     */
+    private void girar() {
+        while (activa) {
+            long objetivo = inicio + (actual + 1) * tickNanos;
+            long espera = objetivo - System.nanoTime();
+            if (espera > 0) {
+                LockSupport.parkNanos(this, espera);
+                continue;
+            }
+            retrasoTick.registrar(-espera);
+
+            long ahora = System.nanoTime();
+            while (activa && inicio + (actual + 1) * tickNanos - ahora <= 0) {
+                Temporizador vencidos = avanzar(ahora);
+                ejecutar(vencidos);
+            }
+        }
+    }
+
+    // Avanza un tick y devuelve la lista de temporizadores que vencen en él
+    private Temporizador avanzar(long ahora) {
+        cerrojo.lock();
+        try {
+            if (pendientes == 0) {
+                // Rueda vacía: se salta directamente al tick actual sin recorrer ranuras
+                actual = Math.max(actual, (ahora - inicio) / tickNanos - 1);
+            }
+            actual++;
+
+            // Al empezar una vuelta de un nivel, baja la ranura que toca del nivel superior
+            for (int nivel = 1; nivel < NIVELES; nivel++) {
+                if ((actual & ((1L << (BITS * nivel)) - 1)) != 0) break;
+                Temporizador lista = vaciarRanura(nivel, (int) ((actual >>> (BITS * nivel)) & MASCARA));
+                while (lista != null) {
+                    Temporizador t = lista;
+                    lista = lista.proximo;
+                    insertar(t);
+                }
+            }
+
+            // Los del nivel 0 vencen ahora, salvo los que estaban más allá del alcance de la rueda
+            Temporizador lista = vaciarRanura(0, (int) (actual & MASCARA));
+            Temporizador vencidos = null;
+            while (lista != null) {
+                Temporizador t = lista;
+                lista = lista.proximo;
+                if (t.vence > actual) {
+                    insertar(t);
+                } else {
+                    t.proximo = vencidos;
+                    vencidos = t;
+                }
+            }
+            return vencidos;
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    // Ejecuta las tareas vencidas fuera del cerrojo y vuelve a programar las periódicas
+    private void ejecutar(Temporizador vencidos) {
+        while (vencidos != null) {
+            Temporizador t = vencidos;
+            vencidos = vencidos.proximo;
+            t.proximo = null;
+            if (t.terminado) continue;
+
+            long inicioTarea = System.nanoTime();
+            retrasoTareas.registrar(inicioTarea - t.plazo);
+            try {
+                t.tarea.run();
+            } catch (RuntimeException e) {
+                Consola.error("❌ Error en una tarea programada (" + hilo.getName() + "): " + e);
+            }
+            ejecutadas.increment();
+
+            cerrojo.lock();
+            try {
+                if (t.terminado) continue;
+                if (t.periodo == 0) {
+                    t.terminado = true;
+                    pendientes--;
+                    continue;
+                }
+                // Ritmo fijo sobre el instante teórico; lo que ya pasó de largo se salta
+                t.plazo += t.periodo;
+                long ahora = System.nanoTime();
+                if (t.plazo - ahora <= 0) {
+                    long perdidas = (ahora - t.plazo) / t.periodo + 1;
+                    t.plazo += perdidas * t.periodo;
+                    omitidas.add(perdidas);
+                }
+                colocar(t);
+            } finally {
+                cerrojo.unlock();
+            }
+        }
+    }
+
+    /**
+     * Expone los temporizadores pendientes, las ejecuciones y los retrasos de la rueda (una por proceso,
+     * como las métricas de la JVM, así que no lleva la etiqueta de ningún nodo).
+     */
+    public void registrarMetricas(RegistroMetricas registro) {
+        registro.indicador("temporizadores_pendientes", "Tareas programadas en la rueda de temporizadores", this::getPendientes);
+        registro.contador("temporizador_ejecuciones_total", "Tareas ejecutadas por la rueda de temporizadores", ejecutadas::sum);
+        registro.contador("temporizador_omitidas_total", "Ejecuciones periódicas saltadas por ir más de un periodo tarde",
+                omitidas::sum);
+        registro.resumen("temporizador_retraso_segundos", "Retraso al despertar en cada tick y de cada tarea",
+                () -> retrasoTick, "tipo", "tick");
+        registro.resumen("temporizador_retraso_segundos", "Retraso al despertar en cada tick y de cada tarea",
+                () -> retrasoTareas, "tipo", "tarea");
+    }
+
+    public int getPendientes() {
+        cerrojo.lock();
+        try {
+            return pendientes;
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    public long getTickNanos() {
+        return tickNanos;
+    }
+
+    public HistogramaLatencia getRetrasoTick() {
+        return retrasoTick;
+    }
+
+    public HistogramaLatencia getRetrasoTareas() {
+        return retrasoTareas;
+    }
+
+    public long getOmitidas() {
+        return omitidas.sum();
+    }
+
+    /**
+     * Detiene el hilo de la rueda; las tareas pendientes ya no se ejecutan.
+     */
+    @Override
+    public void close() {
+        activa = false;
+        LockSupport.unpark(hilo);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d pendientes | tick %.1f ms | retraso tick p99=%.2f ms | tareas p50=%.2f ms p99=%.2f ms max=%.2f ms | omitidas %d",
+                getPendientes(), tickNanos / 1e6, retrasoTick.percentil(99) / 1e6,
+                retrasoTareas.percentil(50) / 1e6, retrasoTareas.percentil(99) / 1e6, retrasoTareas.getMaximo() / 1e6, omitidas.sum());
+    }
+}
@@ -0,0 +1,100 @@
+package sistemasolar;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * 🎲 Selección aleatoria ponderada en tiempo constante (método del alias de Vose).
+ *
+ * Reparte los pesos en n columnas de altura 1: cada columna guarda la probabilidad de quedarse con
+ * su propio índice y, para el resto, el índice "alias" que la completa. Elegir cuesta un entero y un
+ * double aleatorios sea cual sea el número de opciones, frente a recorrer una cadena de if o una
+ * tabla de pesos acumulados.
+ *
+ * Es inmutable y usa ThreadLocalRandom, así que varios hilos pueden compartirlo sin contención.
+ */
+public final class SelectorAlias {
+
+    private final double[] probabilidad;
+    private final int[] alias;
+    private final double[] pesos;
+
+    /**
+     * @param pesos peso relativo de cada opción (no negativos y con suma positiva)
+     */
+    public SelectorAlias(double[] pesos) {
+        int n = pesos.length;
+        if (n == 0) throw new IllegalArgumentException("Hace falta al menos un peso");
+        double suma = 0;
+        for (double peso : pesos) {
+            if (!(peso >= 0) || Double.isInfinite(peso)) throw new IllegalArgumentException("Peso no válido: " + peso);
+            suma += peso;
+        }
+        if (suma <= 0) throw new IllegalArgumentException("La suma de los pesos debe ser positiva");
+
+        this.pesos = pesos.clone();
+        this.probabilidad = new double[n];
+        this.alias = new int[n];
+
+        // Alturas escaladas para que la media sea 1; se separan en columnas que sobran y que faltan
+        double[] altura = new double[n];
+        int[] pequenas = new int[n];
+        int[] grandes = new int[n];
+        int numPequenas = 0;
+        int numGrandes = 0;
+        for (int i = 0; i < n; i++) {
+            altura[i] = pesos[i] * n / suma;
+            if (altura[i] < 1.0) pequenas[numPequenas++] = i;
+            else grandes[numGrandes++] = i;
+        }
+
+        // Cada columna pequeña se completa con una grande, que cede lo que le falta
+        while (numPequenas > 0 && numGrandes > 0) {
+            int pequena = pequenas[--numPequenas];
+            int grande = grandes[numGrandes - 1];
+            probabilidad[pequena] = altura[pequena];
+            alias[pequena] = grande;
+            altura[grande] -= 1.0 - altura[pequena];
+            if (altura[grande] < 1.0) {
+                numGrandes--;
+                pequenas[numPequenas++] = grande;
+            }
+        }
+
+        // Las que quedan son 1 salvo errores de redondeo
+        while (numGrandes > 0) probabilidad[grandes[--numGrandes]] = 1.0;
+        while (numPequenas > 0) probabilidad[pequenas[--numPequenas]] = 1.0;
+    }
+
+    /**
+     * Índice elegido al azar con probabilidad proporcional a su peso.
+     */
+    public int elegir() {
+        return elegir(ThreadLocalRandom.current());
+    }
+
+    /**
+     * Igual que elegir(), con la fuente de aleatoriedad indicada (por ejemplo, una con semilla).
+     */
+    public int elegir(RandomGenerator random) {
+        int columna = random.nextInt(probabilidad.length);
+        return random.nextDouble() < probabilidad[columna] ? columna : alias[columna];
+    }
+
+    public int getOpciones() {
+        return probabilidad.length;
+    }
+
+    /**
+     * Copia de los pesos con los que se construyó.
+     */
+    public double[] getPesos() {
+        return pesos.clone();
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(pesos);
+    }
+}
@@ -0,0 +1,90 @@
+package sistemasolar;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 📡 Servidor HTTP embebido que expone un RegistroMetricas en /metrics para Prometheus.
+ *
+ * Usa el HttpServer del JDK, sin dependencias externas, con un único hilo daemon: las consultas se
+ * atienden de una en una y nunca compiten con los hilos del nodo por nada más que la CPU.
+ *
+ * Se activa con -Dmetricas.puerto=N en cualquier nodo (Sol, Tierra, Planeta o Anfitrion).
+ */
+public final class ServidorMetricas implements Closeable {
+
+    // Puerto configurado para las métricas, o 0 si no se exponen
+    public static final int PUERTO = Integer.getInteger("metricas.puerto", 0);
+
+    private static final String TIPO_CONTENIDO = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final HttpServer servidor;
+    private final ExecutorService ejecutor;
+
+    private ServidorMetricas(HttpServer servidor, ExecutorService ejecutor) {
+        this.servidor = servidor;
+        this.ejecutor = ejecutor;
+    }
+
+    /**
+     * Arranca el servidor en el puerto indicado (0 = uno libre cualquiera).
+     */
+    public static ServidorMetricas iniciar(int puerto, RegistroMetricas registro) throws IOException {
+        HttpServer servidor = HttpServer.create(new InetSocketAddress(puerto), 0);
+        ExecutorService ejecutor = Executors.newSingleThreadExecutor(
+                Thread.ofPlatform().daemon().name("metricas-http").factory());
+        servidor.setExecutor(ejecutor);
+        servidor.createContext("/metrics", intercambio -> atender(intercambio, registro));
+        servidor.start();
+        return new ServidorMetricas(servidor, ejecutor);
+    }
+
+    /**
+     * Arranca el servidor si se configuró -Dmetricas.puerto; si no, o si no se puede abrir el puerto, devuelve null.
+     */
+    public static ServidorMetricas iniciarSiConfigurado(RegistroMetricas registro) {
+        if (PUERTO <= 0) return null;
+        try {
+            ServidorMetricas servidor = iniciar(PUERTO, registro);
+            Consola.info("📡 Métricas disponibles en http://localhost:" + servidor.getPuerto() + "/metrics");
+            return servidor;
+        } catch (IOException e) {
+            Consola.error("❌ No se pudo abrir el puerto de métricas " + PUERTO + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static void atender(HttpExchange intercambio, RegistroMetricas registro) throws IOException {
+        try (intercambio) {
+            if (!"GET".equals(intercambio.getRequestMethod())) {
+                intercambio.getResponseHeaders().set("Allow", "GET");
+                intercambio.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] cuerpo = registro.exponer().getBytes(StandardCharsets.UTF_8);
+            intercambio.getResponseHeaders().set("Content-Type", TIPO_CONTENIDO);
+            intercambio.sendResponseHeaders(200, cuerpo.length);
+            try (OutputStream salida = intercambio.getResponseBody()) {
+                salida.write(cuerpo);
+            }
+        }
+    }
+
+    public int getPuerto() {
+        return servidor.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        servidor.stop(0);
+        ejecutor.shutdownNow();
+    }
+}
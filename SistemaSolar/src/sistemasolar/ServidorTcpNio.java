@@ -0,0 +1,174 @@
+package sistemasolar;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.*;
+import java.util.Iterator;
+import java.util.function.BooleanSupplier;
+
+/**
+ * 🛰️ Servidor TCP no bloqueante basado en Selector.
+ *
+ * Atiende en un único hilo a cualquier número de emisores simultáneos. Cada conexión tiene su propio
+ * buffer de lectura donde se acumulan los bytes hasta completar tramas con prefijo de longitud
+ * (el mismo formato que escribe EnlaceTcp). Cada trama completa se entrega al ManejadorTrama
+ * configurado, de modo que un emisor lento o bloqueado nunca retiene a los demás.
+ */
+public class ServidorTcpNio implements Closeable {
+
+    // Tamaño inicial del buffer de lectura de cada conexión
+    private static final int TAMANO_BUFFER = 8 * 1024;
+
+    // Tamaño máximo admitido para una trama (protege frente a longitudes corruptas)
+    public static final int TRAMA_MAXIMA = 64 * 1024;
+
+    // Espera máxima de select() antes de volver a comprobar si hay que seguir activo
+    private static final long ESPERA_SELECT_MS = 500;
+
+    private final String nombre;
+    private final ManejadorTrama manejador;
+    private final Selector selector;
+    private final ServerSocketChannel servidor;
+
+    private volatile boolean cerrado = false;
+    private volatile boolean enEjecucion = false;
+
+    /**
+     * Abre el puerto de escucha. Las conexiones no se atienden hasta llamar a ejecutar().
+     */
+    public ServidorTcpNio(String nombre, int puerto, ManejadorTrama manejador) throws IOException {
+        this.nombre = nombre;
+        this.manejador = manejador;
+        this.selector = Selector.open();
+        this.servidor = ServerSocketChannel.open();
+        servidor.bind(new InetSocketAddress(puerto));
+        servidor.configureBlocking(false);
+        servidor.register(selector, SelectionKey.OP_ACCEPT);
+    }
+
+    /**
+     * Bucle de eventos: acepta conexiones y lee tramas hasta que se cierra el servidor
+     * o la condición indicada deja de cumplirse.
+     */
+    public void ejecutar(BooleanSupplier activo) throws IOException {
+        enEjecucion = true;
+        try {
+            while (!cerrado && activo.getAsBoolean()) {
+                selector.select(ESPERA_SELECT_MS);
+
+                Iterator<SelectionKey> claves = selector.selectedKeys().iterator();
+                while (claves.hasNext()) {
+                    SelectionKey clave = claves.next();
+                    claves.remove();
+
+                    if (!clave.isValid()) continue;
+                    if (clave.isAcceptable()) {
+                        aceptar();
+                    } else if (clave.isReadable()) {
+                        leer(clave);
+                    }
+                }
+            }
+        } finally {
+            enEjecucion = false;
+            liberar();
+        }
+    }
+
+    private void aceptar() throws IOException {
+        SocketChannel cliente = servidor.accept();
+        if (cliente == null) return;
+        cliente.configureBlocking(false);
+        cliente.setOption(java.net.StandardSocketOptions.TCP_NODELAY, true);
+        cliente.register(selector, SelectionKey.OP_READ, ByteBuffer.allocate(TAMANO_BUFFER));
+    }
+
+    /**
+     * Lee lo disponible en la conexión y despacha todas las tramas completas.
+     * Los bytes de una trama incompleta se conservan hasta la siguiente lectura.
+     */
+    private void leer(SelectionKey clave) {
+        SocketChannel cliente = (SocketChannel) clave.channel();
+        ByteBuffer buffer = (ByteBuffer) clave.attachment();
+
+        try {
+            int leidos = cliente.read(buffer);
+            if (leidos < 0) {
+                cerrarConexion(clave);
+                return;
+            }
+
+            buffer.flip();
+            while (buffer.remaining() >= EnlaceTcp.TAMANO_CABECERA) {
+                int inicio = buffer.position();
+                int longitud = buffer.getInt(inicio);
+                if (longitud <= 0 || longitud > TRAMA_MAXIMA) {
+                    throw new IOException("Longitud de trama inválida: " + longitud);
+                }
+                if (buffer.remaining() < EnlaceTcp.TAMANO_CABECERA + longitud) {
+                    // Trama incompleta: si no cabe en el buffer, se amplía para la siguiente lectura
+                    if (buffer.capacity() < EnlaceTcp.TAMANO_CABECERA + longitud) {
+                        buffer = ampliar(clave, buffer, EnlaceTcp.TAMANO_CABECERA + longitud);
+                        buffer.flip();
+                    }
+                    break;
+                }
+
+                int fin = inicio + EnlaceTcp.TAMANO_CABECERA + longitud;
+                int limite = buffer.limit();
+                buffer.position(inicio + EnlaceTcp.TAMANO_CABECERA).limit(fin);
+                despachar(buffer);
+                buffer.limit(limite).position(fin);
+            }
+            buffer.compact();
+        } catch (IOException e) {
+            Consola.error("❌ [" + nombre + "] Conexión TCP cerrada: " + e.getMessage());
+            cerrarConexion(clave);
+        }
+    }
+
+    private void despachar(ByteBuffer trama) {
+        try {
+            manejador.procesar(trama);
+        } catch (RuntimeException e) {
+            Consola.error("❌ [" + nombre + "] Error procesando trama TCP: " + e.getMessage());
+        }
+    }
+
+    private static ByteBuffer ampliar(SelectionKey clave, ByteBuffer actual, int minimo) {
+        ByteBuffer nuevo = ByteBuffer.allocate(Math.max(minimo, actual.capacity() * 2));
+        nuevo.put(actual);
+        clave.attach(nuevo);
+        return nuevo;
+    }
+
+    private static void cerrarConexion(SelectionKey clave) {
+        clave.cancel();
+        try {
+            clave.channel().close();
+        } catch (IOException ignorada) {
+            // La conexión ya estaba rota
+        }
+    }
+
+    /**
+     * Detiene el bucle de eventos y cierra el puerto de escucha y todas las conexiones abiertas.
+     * Puede llamarse desde cualquier hilo.
+     */
+    @Override
+    public void close() throws IOException {
+        cerrado = true;
+        selector.wakeup();
+        if (!enEjecucion) liberar();
+    }
+
+    private synchronized void liberar() throws IOException {
+        if (!selector.isOpen()) return;
+        for (SelectionKey clave : selector.keys()) {
+            clave.channel().close();
+        }
+        selector.close();
+    }
+}
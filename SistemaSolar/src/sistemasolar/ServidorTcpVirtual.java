@@ -0,0 +1,120 @@
+package sistemasolar;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
+
+/**
+ * 🧵 Servidor TCP para hilos virtuales.
+ *
+ * Misma función que ServidorTcpNio (tramas con prefijo de longitud entregadas a un ManejadorTrama),
+ * pero con E/S bloqueante: accept() en el hilo que llama a ejecutar() y un hilo virtual por conexión.
+ * Un Selector ocupa un hilo portador mientras espera, así que miles de planetas con su propio
+ * Selector agotarían los portadores; las lecturas bloqueantes de socket, en cambio, liberan el
+ * portador mientras no hay datos.
+ *
+ * El manejador puede ser invocado desde varios hilos a la vez (uno por emisor conectado).
+ */
+public class ServidorTcpVirtual implements Closeable {
+
+    private final String nombre;
+    private final ManejadorTrama manejador;
+    private final ServerSocketChannel servidor;
+
+    // Conexiones abiertas, para cerrarlas (y desbloquear sus hilos) al detener el servidor
+    private final Set<SocketChannel> conexiones = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean cerrado = false;
+
+    /**
+     * Abre el puerto de escucha. Las conexiones no se atienden hasta llamar a ejecutar().
+     */
+    public ServidorTcpVirtual(String nombre, int puerto, ManejadorTrama manejador) throws IOException {
+        this.nombre = nombre;
+        this.manejador = manejador;
+        this.servidor = ServerSocketChannel.open();
+        servidor.bind(new InetSocketAddress(puerto));
+    }
+
+    /**
+     * Acepta conexiones hasta que se cierra el servidor o la condición indicada deja de cumplirse.
+     * Como accept() es bloqueante, para salir en cuanto la condición cambie hay que llamar a close().
+     */
+    public void ejecutar(BooleanSupplier activo) throws IOException {
+        try {
+            while (!cerrado && activo.getAsBoolean()) {
+                SocketChannel cliente = servidor.accept();
+                cliente.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                conexiones.add(cliente);
+                Thread.ofVirtual().name(nombre.toLowerCase() + "-conexion").start(() -> atender(cliente));
+            }
+        } catch (IOException e) {
+            if (!cerrado) throw e;
+        } finally {
+            close();
+        }
+    }
+
+    /**
+     * Lee tramas de una conexión hasta que el emisor la cierra o se detiene el servidor.
+     */
+    private void atender(SocketChannel cliente) {
+        byte[] datos = new byte[CodecMensaje.TAMANO];
+        ByteBuffer trama = ByteBuffer.wrap(datos);
+        InputStream flujo = new BufferedInputStream(Channels.newInputStream(cliente));
+
+        try (DataInputStream entrada = new DataInputStream(flujo)) {
+            while (!cerrado) {
+                int longitud = entrada.readInt();
+                if (longitud <= 0 || longitud > ServidorTcpNio.TRAMA_MAXIMA) {
+                    throw new IOException("Longitud de trama inválida: " + longitud);
+                }
+                if (longitud > datos.length) {
+                    datos = new byte[longitud];
+                    trama = ByteBuffer.wrap(datos);
+                }
+                entrada.readFully(datos, 0, longitud);
+                trama.clear().limit(longitud);
+                despachar(trama);
+            }
+        } catch (EOFException e) {
+            // El emisor cerró la conexión
+        } catch (IOException e) {
+            if (!cerrado) Consola.error("❌ [" + nombre + "] Conexión TCP cerrada: " + e.getMessage());
+        } finally {
+            conexiones.remove(cliente);
+        }
+    }
+
+    private void despachar(ByteBuffer trama) {
+        try {
+            manejador.procesar(trama);
+        } catch (RuntimeException e) {
+            Consola.error("❌ [" + nombre + "] Error procesando trama TCP: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Cierra el puerto de escucha y todas las conexiones abiertas. Puede llamarse desde cualquier hilo.
+     */
+    @Override
+    public void close() throws IOException {
+        cerrado = true;
+        servidor.close();
+        for (SocketChannel conexion : conexiones) {
+            conexion.close();
+        }
+    }
+}
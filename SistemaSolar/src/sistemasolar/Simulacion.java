@@ -0,0 +1,438 @@
+package sistemasolar;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ⏩ Simulación de eventos discretos del sistema solar en tiempo virtual.
+ *
+ * Ejecuta en un solo hilo y sin sockets la misma lógica que los nodos reales: el Sol elige sus
+ * instrucciones con el mismo reparto, la Tierra las aplica y las enruta con un Enrutador, y cada
+ * planeta las cuenta o aplica con su EstadoPlaneta y explota al salirse de sus límites. La telemetría
+ * entre planetas también se simula. Cada salto tarda una latencia virtual fija (ver Latencias).
+ *
+ * El reloj es virtual: en lugar de dormir, la simulación salta al instante del siguiente evento de
+ * una ColaEventos, así que una hora del sistema solar tarda lo que cueste procesar sus eventos.
+ * Toda la aleatoriedad sale de un SplittableRandom con semilla y los empates de la cola se resuelven
+ * por orden de programación: con la misma semilla y los mismos parámetros, el resultado (y su huella)
+ * es siempre idéntico, lo que permite usarla para pruebas de regresión.
+ *
+ * Uso: java sistemasolar.Simulacion duracion=86400 periodo=5000 semilla=42 planetas=1000 ruta=PONDERADA informe=3600
+ */
+public final class Simulacion {
+
+    /**
+     * Latencias virtuales de cada tipo de salto, en microsegundos.
+     *
+     * @param multicastMicros del Sol a la Tierra y a los planetas
+     * @param tcpMicros       de la Tierra a un planeta
+     * @param udpMicros       de la telemetría entre planetas
+     */
+    public record Latencias(long multicastMicros, long tcpMicros, long udpMicros) {
+
+        // Órdenes de magnitud de una red local
+        public static final Latencias LOCAL = new Latencias(200, 300, 200);
+
+        public Latencias {
+            if (multicastMicros < 0 || tcpMicros < 0 || udpMicros < 0) {
+                throw new IllegalArgumentException("Las latencias no pueden ser negativas");
+            }
+        }
+    }
+
+    // Tipos de evento (4 bits del dato del evento)
+    private static final int SOL_EMITE = 0;
+    private static final int SOL_LLEGA = 1;
+    private static final int TIERRA_LLEGA = 2;
+    private static final int TELEMETRIA_EMITE = 3;
+    private static final int TELEMETRIA_LLEGA = 4;
+    private static final int INFORME = 5;
+
+    // Destinos de la Tierra, en el mismo orden que en Tierra (también los usa EstimadorRiesgo)
+    static final String[] DESTINOS_TIERRA = {"Mercurio", "Marte", "Urano"};
+
+    private static final Instruccion[] INSTRUCCIONES = Instruccion.values();
+
+    private final List<ConfiguracionPlaneta> configuraciones;
+    private final EstadoPlaneta[] planetas;
+    private final EstadoPlaneta tierra = Tierra.nuevoEstado();
+    private final Enrutador enrutador;
+    private final SplittableRandom random;
+    private final long semilla;
+
+    private final long periodoSolNanos;
+    private final long latenciaMulticast;
+    private final long latenciaTcp;
+    private final long latenciaUdp;
+    private final long periodoInforme;
+
+    // Planetas que reciben al Sol, planeta de cada destino de la Tierra y receptor de la telemetría de cada planeta (-1 = ninguno)
+    private final int[] oyentesSol;
+    private final int[] destinosTierra;
+    // Instrucciones del Sol a las que está suscrito cada planeta, un bit por ordinal (ver TemasSol)
+    private final int[] suscripcionSol;
+    private final int[] receptorTelemetria;
+
+    private final ColaEventos cola = new ColaEventos();
+
+    // Reloj virtual: instante del evento en curso, en nanosegundos desde el inicio
+    private long ahora = 0;
+
+    private long eventos = 0;
+    private long entregas = 0;
+    private long emitidas = 0;
+    private final long[] reenvios = new long[DESTINOS_TIERRA.length];
+    private final long[] instanteExplosion;
+    private final int[] tempRecibida;
+
+    /**
+     * @param configuraciones planetas simulados (la Tierra reenvía a los que se llamen como sus destinos)
+     * @param periodoSolMs    cada cuánto emite el Sol, en tiempo virtual
+     * @param estrategia      cómo reparte la Tierra sus reenvíos
+     * @param pesos           pesos de Mercurio, Marte y Urano para la estrategia PONDERADA
+     * @param semilla         semilla de toda la aleatoriedad de la simulación
+     * @param latencias       duración virtual de cada salto
+     * @param informeSegundos cada cuánto tiempo virtual se muestra el estado (0 = solo al final)
+     */
+    public Simulacion(List<ConfiguracionPlaneta> configuraciones, long periodoSolMs, Enrutador.Estrategia estrategia,
+                      double[] pesos, long semilla, Latencias latencias, long informeSegundos) {
+        if (periodoSolMs <= 0) throw new IllegalArgumentException("El periodo del Sol debe ser positivo");
+        if (informeSegundos < 0) throw new IllegalArgumentException("El periodo de informe no puede ser negativo");
+        if (configuraciones.size() >= 1 << 24) throw new IllegalArgumentException("Demasiados planetas: " + configuraciones.size());
+
+        this.configuraciones = List.copyOf(configuraciones);
+        this.semilla = semilla;
+        this.random = new SplittableRandom(semilla);
+        this.enrutador = new Enrutador(estrategia, DESTINOS_TIERRA, pesos, destino -> 0);
+        this.periodoSolNanos = TimeUnit.MILLISECONDS.toNanos(periodoSolMs);
+        this.latenciaMulticast = TimeUnit.MICROSECONDS.toNanos(latencias.multicastMicros());
+        this.latenciaTcp = TimeUnit.MICROSECONDS.toNanos(latencias.tcpMicros());
+        this.latenciaUdp = TimeUnit.MICROSECONDS.toNanos(latencias.udpMicros());
+        this.periodoInforme = TimeUnit.SECONDS.toNanos(informeSegundos);
+
+        int n = this.configuraciones.size();
+        this.planetas = new EstadoPlaneta[n];
+        this.instanteExplosion = new long[n];
+        this.tempRecibida = new int[n];
+        this.receptorTelemetria = new int[n];
+        this.suscripcionSol = new int[n];
+        List<Integer> oyentes = new ArrayList<>();
+        for (int p = 0; p < n; p++) {
+            ConfiguracionPlaneta config = this.configuraciones.get(p);
+            planetas[p] = new EstadoPlaneta(config.tempReset(), config.deltaSubir(), config.deltaBajar(),
+                    config.tempMinima(), config.tempMaxima());
+            instanteExplosion[p] = -1;
+            tempRecibida[p] = Integer.MIN_VALUE;
+            receptorTelemetria[p] = buscarReceptorTelemetria(config);
+            suscripcionSol[p] = TemasSol.mascara(config.suscripcionSol());
+            if (config.modoSol() != ConfiguracionPlaneta.ModoSol.IGNORAR) oyentes.add(p);
+        }
+        this.oyentesSol = oyentes.stream().mapToInt(Integer::intValue).toArray();
+        this.destinosTierra = new int[DESTINOS_TIERRA.length];
+        for (int d = 0; d < DESTINOS_TIERRA.length; d++) {
+            destinosTierra[d] = buscar(DESTINOS_TIERRA[d]);
+        }
+
+        // Eventos iniciales: la primera instrucción del Sol, la telemetría y los informes
+        cola.programar(0, evento(SOL_EMITE, 0, 0, 0));
+        for (int p = 0; p < n; p++) {
+            if (receptorTelemetria[p] >= 0) cola.programar(0, evento(TELEMETRIA_EMITE, 0, p, 0));
+        }
+        if (periodoInforme > 0) cola.programar(periodoInforme, evento(INFORME, 0, 0, 0));
+    }
+
+    private int buscar(String nombre) {
+        for (int p = 0; p < configuraciones.size(); p++) {
+            if (configuraciones.get(p).nombre().equalsIgnoreCase(nombre)) return p;
+        }
+        return -1;
+    }
+
+    private int buscarReceptorTelemetria(ConfiguracionPlaneta emisor) {
+        if (emisor.puertoTemperaturaSalida() == ConfiguracionPlaneta.SIN_PUERTO) return -1;
+        for (int p = 0; p < configuraciones.size(); p++) {
+            if (configuraciones.get(p).puertoTemperaturaEntrada() == emisor.puertoTemperaturaSalida()) return p;
+        }
+        return -1;
+    }
+
+    public static void main(String[] args) {
+        long duracion = 3600;
+        long periodo = 5000;
+        long semilla = 42;
+        int planetas = 0;
+        int puertoBase = 8000;
+        boolean presets = true;
+        Enrutador.Estrategia estrategia = Enrutador.Estrategia.PONDERADA;
+        String pesos = "60,10,30";
+        long multicast = Latencias.LOCAL.multicastMicros();
+        long tcp = Latencias.LOCAL.tcpMicros();
+        long udp = Latencias.LOCAL.udpMicros();
+        long informe = 0;
+
+        for (String arg : args) {
+            int igual = arg.indexOf('=');
+            if (igual < 0) throw new IllegalArgumentException("Se esperaba clave=valor: " + arg);
+            String clave = arg.substring(0, igual);
+            String valor = arg.substring(igual + 1);
+            switch (clave) {
+                case "duracion" -> duracion = Long.parseLong(valor);
+                case "periodo" -> periodo = Long.parseLong(valor);
+                case "semilla" -> semilla = Long.parseLong(valor);
+                case "planetas" -> planetas = Integer.parseInt(valor);
+                case "puerto" -> puertoBase = Integer.parseInt(valor);
+                case "presets" -> presets = valor.equalsIgnoreCase("si");
+                case "ruta" -> estrategia = Enrutador.Estrategia.valueOf(valor.toUpperCase());
+                case "pesos" -> pesos = valor;
+                case "multicast" -> multicast = Long.parseLong(valor);
+                case "tcp" -> tcp = Long.parseLong(valor);
+                case "udp" -> udp = Long.parseLong(valor);
+                case "informe" -> informe = Long.parseLong(valor);
+                default -> throw new IllegalArgumentException("Parámetro desconocido: " + clave);
+            }
+        }
+        if (duracion <= 0) throw new IllegalArgumentException("La duración debe ser positiva");
+
+        List<ConfiguracionPlaneta> configuraciones = new ArrayList<>();
+        if (presets) {
+            configuraciones.add(ConfiguracionPlaneta.MARTE);
+            configuraciones.add(ConfiguracionPlaneta.MERCURIO);
+            configuraciones.add(ConfiguracionPlaneta.URANO);
+        }
+        for (int i = 0; i < planetas; i++) {
+            configuraciones.add(ConfiguracionPlaneta.generado(i, puertoBase));
+        }
+
+        Simulacion simulacion = new Simulacion(configuraciones, periodo, estrategia, Enrutador.leerPesos(pesos),
+                semilla, new Latencias(multicast, tcp, udp), informe);
+        long inicio = System.nanoTime();
+        simulacion.ejecutar(TimeUnit.SECONDS.toNanos(duracion));
+        simulacion.mostrarResumen(System.nanoTime() - inicio);
+        Consola.vaciar();
+    }
+
+    /**
+     * Procesa en orden todos los eventos hasta que el reloj virtual avance la duración indicada.
+     * Se puede llamar varias veces para continuar la misma simulación.
+     */
+    public void ejecutar(long duracionNanos) {
+        long fin = ahora + duracionNanos;
+        while (!cola.estaVacia() && cola.primerInstante() <= fin) {
+            ahora = cola.primerInstante();
+            long evento = cola.extraer();
+            eventos++;
+            int nodo = nodo(evento);
+            switch (tipo(evento)) {
+                case SOL_EMITE -> emitirSol();
+                case SOL_LLEGA -> llegaDelSol(INSTRUCCIONES[instruccion(evento)]);
+                case TIERRA_LLEGA -> llegaDeTierra(nodo, INSTRUCCIONES[instruccion(evento)]);
+                case TELEMETRIA_EMITE -> emitirTelemetria(nodo);
+                case TELEMETRIA_LLEGA -> {
+                    if (!planetas[nodo].haExplotado()) tempRecibida[nodo] = valor(evento);
+                }
+                case INFORME -> {
+                    mostrarEstado();
+                    cola.programar(ahora + periodoInforme, evento);
+                }
+                default -> throw new IllegalStateException("Evento desconocido: " + tipo(evento));
+            }
+        }
+        ahora = fin;
+    }
+
+    private void emitirSol() {
+        Instruccion instruccion = Sol.elegirInstruccion(random);
+        emitidas++;
+        // Un único evento entrega el multicast a la Tierra y a todos los planetas que escuchan
+        cola.programar(ahora + latenciaMulticast, evento(SOL_LLEGA, instruccion.ordinal(), 0, 0));
+        cola.programar(ahora + periodoSolNanos, evento(SOL_EMITE, 0, 0, 0));
+    }
+
+    private void llegaDelSol(Instruccion instruccion) {
+        // La Tierra aplica y enruta, como su etapa de proceso
+        entregas++;
+        tierra.contarMensajeSol();
+        tierra.aplicar(instruccion);
+        int elegido = enrutador.elegir(random.nextLong(), random.nextLong(), random);
+        if (elegido == Enrutador.TODOS) {
+            for (int d = 0; d < DESTINOS_TIERRA.length; d++) reenviar(d, instruccion);
+        } else {
+            reenviar(elegido, instruccion);
+        }
+
+        int bit = TemasSol.mascara(instruccion);
+        for (int p : oyentesSol) {
+            EstadoPlaneta estado = planetas[p];
+            if (estado.haExplotado() || (suscripcionSol[p] & bit) == 0) continue;
+            entregas++;
+            estado.contarMensajeSol();
+            if (configuraciones.get(p).modoSol() == ConfiguracionPlaneta.ModoSol.APLICAR) {
+                comprobarExplosion(p, estado.aplicar(instruccion));
+            }
+        }
+    }
+
+    private void reenviar(int destino, Instruccion instruccion) {
+        reenvios[destino]++;
+        int planeta = destinosTierra[destino];
+        if (planeta >= 0) cola.programar(ahora + latenciaTcp, evento(TIERRA_LLEGA, instruccion.ordinal(), planeta, 0));
+    }
+
+    private void llegaDeTierra(int planeta, Instruccion instruccion) {
+        EstadoPlaneta estado = planetas[planeta];
+        if (estado.haExplotado()) return;   // ya no acepta conexiones
+        entregas++;
+        estado.contarMensajeTierra();
+        comprobarExplosion(planeta, estado.aplicar(instruccion));
+    }
+
+    private void emitirTelemetria(int planeta) {
+        if (planetas[planeta].haExplotado()) return;   // deja de emitir
+        cola.programar(ahora + latenciaUdp,
+                evento(TELEMETRIA_LLEGA, 0, receptorTelemetria[planeta], planetas[planeta].getTemperatura()));
+        cola.programar(ahora + TimeUnit.MICROSECONDS.toNanos(configuraciones.get(planeta).periodoTelemetriaMicros()),
+                evento(TELEMETRIA_EMITE, 0, planeta, 0));
+    }
+
+    private void comprobarExplosion(int planeta, EstadoPlaneta.Efecto efecto) {
+        if (efecto != EstadoPlaneta.Efecto.EXPLOSION) return;
+        instanteExplosion[planeta] = ahora;
+        if (Consola.activo(Consola.Nivel.INFO)) {
+            Consola.info("💥 [" + configuraciones.get(planeta).nombre() + "] Explota a las " + formatear(ahora)
+                    + " con " + planetas[planeta].getTemperatura() + "ºC");
+        }
+    }
+
+    // Dato de un evento: tipo (4 bits) | instrucción (4 bits) | nodo (24 bits) | valor (32 bits)
+    private static long evento(int tipo, int instruccion, int nodo, int valor) {
+        return (long) tipo << 60 | (long) instruccion << 56 | (long) nodo << 32 | (valor & 0xFFFFFFFFL);
+    }
+
+    private static int tipo(long evento) {
+        return (int) (evento >>> 60);
+    }
+
+    private static int instruccion(long evento) {
+        return (int) (evento >>> 56) & 0xF;
+    }
+
+    private static int nodo(long evento) {
+        return (int) (evento >>> 32) & 0xFFFFFF;
+    }
+
+    private static int valor(long evento) {
+        return (int) evento;
+    }
+
+    /**
+     * Resumen del estado final de todos los nodos, con las mismas cifras siempre que se repita la semilla.
+     */
+    public long huella() {
+        long huella = mezclar(0xcbf29ce484222325L, emitidas);
+        huella = mezclar(huella, tierra.getTemperatura());
+        for (long reenviados : reenvios) huella = mezclar(huella, reenviados);
+        for (int p = 0; p < planetas.length; p++) {
+            huella = mezclar(huella, planetas[p].getTemperatura());
+            huella = mezclar(huella, planetas[p].getMensajesSol());
+            huella = mezclar(huella, planetas[p].getMensajesTierra());
+            huella = mezclar(huella, planetas[p].getInstruccionesAplicadas());
+            huella = mezclar(huella, instanteExplosion[p]);
+            huella = mezclar(huella, tempRecibida[p]);
+        }
+        return huella;
+    }
+
+    // Paso de FNV-1a sobre un long entero
+    private static long mezclar(long huella, long valor) {
+        return (huella ^ valor) * 0x100000001b3L;
+    }
+
+    /**
+     * Muestra una línea por nodo (o un agregado si hay muchos planetas) con el instante virtual actual.
+     */
+    public void mostrarEstado() {
+        if (!Consola.activo(Consola.Nivel.INFO)) return;
+        Consola.info("🕰️ " + formatear(ahora) + " | 🌞 Sol: " + emitidas + " instrucciones | 🌍 Tierra: "
+                + tierra.getTemperatura() + "ºC, reenvíos " + reenviosTexto());
+        if (planetas.length <= 20) {
+            for (int p = 0; p < planetas.length; p++) {
+                Consola.info("   " + estadoPlaneta(p));
+            }
+            return;
+        }
+        int explotados = 0;
+        long sumaTemperaturas = 0;
+        for (int p = 0; p < planetas.length; p++) {
+            if (planetas[p].haExplotado()) explotados++;
+            else sumaTemperaturas += planetas[p].getTemperatura();
+        }
+        int vivos = planetas.length - explotados;
+        Consola.info("   🪐 " + planetas.length + " planetas: " + explotados + " explotados, " + vivos + " vivos"
+                + (vivos > 0 ? String.format(" (temperatura media %.1fºC)", (double) sumaTemperaturas / vivos) : ""));
+    }
+
+    private String estadoPlaneta(int p) {
+        ConfiguracionPlaneta config = configuraciones.get(p);
+        EstadoPlaneta estado = planetas[p];
+        StringBuilder linea = new StringBuilder()
+                .append(config.icono()).append(' ').append(config.nombre()).append(": ").append(estado.getTemperatura()).append("ºC")
+                .append(" | Sol: ").append(estado.getMensajesSol())
+                .append(" | Tierra: ").append(estado.getMensajesTierra())
+                .append(" | aplicadas: ").append(estado.getInstruccionesAplicadas());
+        if (tempRecibida[p] != Integer.MIN_VALUE) linea.append(" | temp recibida: ").append(tempRecibida[p]).append("ºC");
+        if (instanteExplosion[p] >= 0) linea.append(" | 💥 a las ").append(formatear(instanteExplosion[p]));
+        return linea.toString();
+    }
+
+    private String reenviosTexto() {
+        StringBuilder texto = new StringBuilder();
+        for (int d = 0; d < DESTINOS_TIERRA.length; d++) {
+            if (d > 0) texto.append(", ");
+            texto.append(DESTINOS_TIERRA[d]).append('=').append(reenvios[d]);
+        }
+        return texto.toString();
+    }
+
+    /**
+     * Muestra el estado final, el rendimiento de la simulación y su huella.
+     *
+     * @param nanosReales tiempo real que tardó la simulación
+     */
+    public void mostrarResumen(long nanosReales) {
+        if (!Consola.activo(Consola.Nivel.INFO)) return;
+        Consola.info("------------------------------------------------------------------");
+        mostrarEstado();
+        Consola.info(String.format("⏩ %s virtuales en %.3f s reales (x%.0f): %d eventos (%.1f M/s), %d entregas (%.1f M/s) | semilla %d | huella %016x",
+                formatear(ahora), nanosReales / 1e9, (double) ahora / nanosReales, eventos, eventos * 1e3 / nanosReales,
+                entregas, entregas * 1e3 / nanosReales, semilla, huella()));
+        Consola.info("------------------------------------------------------------------");
+    }
+
+    // Instante virtual como hh:mm:ss.mmm (las horas no se reinician al pasar de 24)
+    private static String formatear(long nanos) {
+        long milis = TimeUnit.NANOSECONDS.toMillis(nanos);
+        return String.format("%02d:%02d:%02d.%03d", milis / 3_600_000, milis / 60_000 % 60, milis / 1000 % 60, milis % 1000);
+    }
+
+    public long getAhora() {
+        return ahora;
+    }
+
+    public long getEventos() {
+        return eventos;
+    }
+
+    public long getEntregas() {
+        return entregas;
+    }
+
+    public EstadoPlaneta getTierra() {
+        return tierra;
+    }
+
+    public EstadoPlaneta getPlaneta(int indice) {
+        return planetas[indice];
+    }
+}
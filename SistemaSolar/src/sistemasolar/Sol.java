@@ -0,0 +1,429 @@
+package sistemasolar;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.random.RandomGenerator;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Su función principal es enviar cada 5 segundos un mensaje multicast a todos los planetas.
+ * El mensaje contiene una instrucción (SUBIR, BAJAR o RESET) elegida aleatoriamente, con probabilidades concretas.
+ *
+ * Utiliza el protocolo UDP Multicast, que permite enviar mensajes a múltiples receptores simultáneamente
+ * (en este caso: Tierra, Marte, Mercurio y Urano), sin necesidad de gestionar una conexión punto a punto con cada uno.
+ *
+ * Cada instancia es independiente y se detiene con close(), de modo que puede ejecutarse dentro
+ * de otro proceso (ver Anfitrion).
+ *
+ * Con lote=N y espera=ms agrupa varias instrucciones en un mismo datagrama (ver EmisorLotes).
+ *
+ * Guarda las últimas instrucciones emitidas y, cuando un receptor detecta un hueco en la secuencia y
+ * envía un NACK al puerto del que salen los datagramas, las retransmite por multicast
+ * (ver DetectorHuecos y BufferRetransmision).
+ *
+ * Con -Dsol.temas reparte las instrucciones entre varios grupos multicast, uno por tema, cada uno con
+ * su propia secuencia y sus propias retransmisiones, para que cada nodo reciba solo lo que consume
+ * (ver TemasSol).
+ *
+ * Con -Dtransporte=memoria publica en un anillo de memoria compartida en lugar de por multicast,
+ * para nodos que se ejecutan en la misma máquina (ver Transporte).
+ *
+ * Con -Dmetricas.puerto expone sus contadores para Prometheus (ver ServidorMetricas).
+ *
+ * Las instrucciones se emiten desde la rueda de temporizadores compartida, a ritmo fijo y sin deriva
+ * (ver RuedaTemporizadores).
+ *
+ * Con el argumento --carga arranca en modo generador de carga para pruebas de capacidad (ver GeneradorCarga).
+ */
+public class Sol implements Closeable {
+
+    // Instrucciones recordadas para atender retransmisiones
+    private static final int CAPACIDAD_RETRANSMISION = 4096;
+
+    // Pausa entre dos instrucciones consecutivas
+    private final long periodoMs;
+
+    // Máximo de instrucciones por datagrama y tiempo máximo que una instrucción espera a su lote
+    private final int maxLote;
+    private final long esperaLoteMs;
+
+    // Control del bucle de envío (se desactiva al cerrar el Sol)
+    private final AtomicBoolean activo = new AtomicBoolean(true);
+
+    // Hilo que ejecuta el bucle de envío, para despertarlo de la pausa al cerrar
+    private volatile Thread hilo;
+
+    // Se abre al cerrar el Sol; el hilo de ejecutar() espera en él mientras la rueda de temporizadores emite
+    private final CountDownLatch cerrado = new CountDownLatch(1);
+
+    // Últimas instrucciones emitidas de cada tema, por si algún receptor pide que se retransmitan
+    private final BufferRetransmision[] historiales = new BufferRetransmision[TemasSol.todos().size()];
+
+    // Instrucciones emitidas (solo las escribe el bucle de envío)
+    private final LongAdder emitidas = new LongAdder();
+
+    public Sol(long periodoMs) {
+        this(periodoMs, 1, 0);
+    }
+
+    /**
+     * @param periodoMs    pausa entre instrucciones
+     * @param maxLote      instrucciones por datagrama como máximo (1 = sin lotes)
+     * @param esperaLoteMs tiempo máximo que una instrucción espera a que se complete su lote
+     */
+    public Sol(long periodoMs, int maxLote, long esperaLoteMs) {
+        if (periodoMs <= 0) throw new IllegalArgumentException("El periodo del Sol debe ser positivo");
+        if (esperaLoteMs < 0) throw new IllegalArgumentException("La espera del lote no puede ser negativa");
+        this.periodoMs = periodoMs;
+        this.maxLote = maxLote;
+        this.esperaLoteMs = esperaLoteMs;
+        for (int i = 0; i < historiales.length; i++) {
+            historiales[i] = new BufferRetransmision(CAPACIDAD_RETRANSMISION);
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+
+        // Modo generador de carga para pruebas de capacidad (ver GeneradorCarga)
+        if (args.length > 0 && args[0].equals("--carga")) {
+            GeneradorCarga.desdeArgumentos(Arrays.copyOfRange(args, 1, args.length)).ejecutar();
+            return;
+        }
+
+        long periodo = 5000;
+        int lote = 1;
+        long espera = 0;
+        for (String arg : args) {
+            int igual = arg.indexOf('=');
+            if (igual < 0) throw new IllegalArgumentException("Se esperaba clave=valor: " + arg);
+            String valor = arg.substring(igual + 1);
+            switch (arg.substring(0, igual)) {
+                case "periodo" -> periodo = Long.parseLong(valor);
+                case "lote" -> lote = Integer.parseInt(valor);
+                case "espera" -> espera = Long.parseLong(valor);
+                default -> throw new IllegalArgumentException("Parámetro desconocido: " + arg);
+            }
+        }
+
+        Sol sol = new Sol(periodo, lote, espera);
+        RegistroMetricas registro = new RegistroMetricas();
+        registro.registrarJvm();
+        RuedaTemporizadores.compartida().registrarMetricas(registro);
+        sol.registrarMetricas(registro);
+        ServidorMetricas.iniciarSiConfigurado(registro);
+        sol.ejecutar();
+    }
+
+    /**
+     * Genera una instrucción cada periodo hasta que se cierre el Sol. Bloquea el hilo que lo llama,
+     * aunque las instrucciones las emite la rueda de temporizadores compartida (ver RuedaTemporizadores).
+     * Las instrucciones se agrupan en lotes según maxLote y la ventana de espera (ver EmisorLotes).
+     */
+    public void ejecutar() {
+        hilo = Thread.currentThread();
+        try {
+            if (Transporte.MEMORIA) {
+                // Los nodos leen directamente del anillo: no hacen falta lotes ni retransmisiones
+                try (AnilloCompartido anillo = Transporte.anilloSol()) {
+                    bucle(anillo, false);
+                }
+            } else {
+                // Por cada tema, un emisor con un buffer directo reutilizado que agrupa sus instrucciones en
+                // datagramas multicast. Su canal es también el que atiende los NACK del tema: los receptores
+                // los envían al remitente de los datagramas
+                List<TemasSol.Tema> temas = TemasSol.todos();
+                try (PublicadorTemas emisor = new PublicadorTemas(temas.size())) {
+                    Thread.Builder constructor = Thread.currentThread().isVirtual()
+                            ? Thread.ofVirtual() : Thread.ofPlatform().daemon();
+                    for (TemasSol.Tema tema : temas) {
+                        DatagramChannel canal = DatagramChannel.open();
+                        try {
+                            emisor.emisores[tema.indice()] = new EmisorLotes(canal, tema.ip(), tema.puerto(),
+                                    maxLote, TimeUnit.MILLISECONDS.toNanos(esperaLoteMs));
+                        } catch (IOException | RuntimeException e) {
+                            canal.close();
+                            throw e;
+                        }
+                        constructor.name(TemasSol.particionado() ? "sol-nack-" + tema.nombre() : "sol-nack")
+                                .start(() -> atenderNacks(canal, tema));
+                    }
+
+                    bucle(emisor, true);
+                }
+            }
+        } catch (IOException e) {
+            if (activo.get()) Consola.error("❌ Error en el Sol: " + e.getMessage());
+        } catch (InterruptedException e) {
+            // Si no es un cierre ordenado, se conserva la interrupción para quien llamó
+            if (activo.get()) {
+                Consola.error("❌ Sol interrumpido: " + e.getMessage());
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Programa la emisión de una instrucción cada periodo en la rueda de temporizadores compartida y
+     * espera a que se cierre el Sol. Las instrucciones que quedan esperando a completar su lote se
+     * envían con otra tarea de la rueda cuando vence su espera (ver Emision).
+     *
+     * @param retransmisiones si se guarda lo emitido para atender NACK (solo en la red)
+     */
+    private void bucle(Publicador emisor, boolean retransmisiones) throws InterruptedException {
+        Consola.info("------------------------------------------------------------------");
+        Consola.info("🌞 Sol iniciado. Enviando instrucciones cada " + periodoMs / 1000.0 + " segundos"
+                + (maxLote > 1 && !Transporte.MEMORIA ? " en lotes de hasta " + maxLote + " (espera máxima " + esperaLoteMs + " ms)" : "")
+                + (Transporte.MEMORIA ? " por " + Transporte.descripcion() : "")
+                + (TemasSol.particionado() ? " por temas " + TemasSol.descripcion() : "")
+                + "...");
+        Consola.info("------------------------------------------------------------------");
+
+        Emision emision = new Emision(emisor, retransmisiones);
+        RuedaTemporizadores.Temporizador temporizador = RuedaTemporizadores.compartida()
+                .programarPeriodica(0, TimeUnit.MILLISECONDS.toNanos(periodoMs), emision::emitir);
+        try {
+            cerrado.await();
+        } finally {
+            // Después de detener la emisión ninguna tarea vuelve a usar el emisor, que se cierra al volver
+            temporizador.cancelar();
+            emision.detener();
+        }
+    }
+
+    /**
+     * Tareas de emisión del Sol, que se ejecutan en el hilo de la rueda de temporizadores. El cerrojo
+     * las excluye entre sí y con el cierre, porque el emisor no es seguro entre hilos.
+     */
+    private final class Emision {
+        private final Publicador emisor;
+        private final boolean retransmisiones;
+
+        // Generador aleatorio para escoger instrucciones con probabilidad
+        private final Random random = new Random();
+
+        private final ReentrantLock cerrojo = new ReentrantLock();
+
+        // Número de secuencia monótono de los mensajes emitidos por el Sol, uno por tema
+        private final long[] secuencias = new long[TemasSol.todos().size()];
+
+        // Envío programado del lote pendiente, si lo hay
+        private RuedaTemporizadores.Temporizador vencimientoLote;
+        private boolean detenida = false;
+
+        Emision(Publicador emisor, boolean retransmisiones) {
+            this.emisor = emisor;
+            this.retransmisiones = retransmisiones;
+        }
+
+        void emitir() {
+            cerrojo.lock();
+            try {
+                if (detenida) return;
+
+                // Se elige una instrucción aleatoria con probabilidad (ver método más abajo)
+                Instruccion instruccion = elegirInstruccion(random);
+
+                // Se crea el mensaje con la instrucción, el identificador de origen y la secuencia de su tema
+                int tema = TemasSol.de(instruccion).indice();
+                Mensaje mensaje = new Mensaje(instruccion, Constantes.NODO_SOL, ++secuencias[tema]);
+
+                // Se guarda para posibles retransmisiones y se añade al lote pendiente (que se envía si se llena)
+                if (retransmisiones) historiales[tema].guardar(mensaje);
+                emisor.anadir(mensaje);
+                emitidas.increment();
+
+                // Mostramos por consola el mensaje enviado con color según el tipo de instrucción
+                if (Consola.activo(Consola.Nivel.INFO)) {
+                    Consola.info("📤 Instrucción enviada: " + FormatoConsola.colorearPorInstruccion(instruccion, mensaje.toString()));
+                }
+
+                emisor.vencer(System.nanoTime());
+                programarVencimiento();
+            } catch (IOException e) {
+                fallo(e);
+            } finally {
+                cerrojo.unlock();
+            }
+        }
+
+        private void vencer() {
+            cerrojo.lock();
+            try {
+                if (detenida) return;
+                vencimientoLote = null;
+                emisor.vencer(System.nanoTime());
+                programarVencimiento();
+            } catch (IOException e) {
+                fallo(e);
+            } finally {
+                cerrojo.unlock();
+            }
+        }
+
+        // Si queda un lote esperando, programa su envío para cuando venza (uno adelantado solo vuelve a programarse)
+        private void programarVencimiento() {
+            long vence = emisor.vencimiento();
+            if (vence == Long.MAX_VALUE || vencimientoLote != null) return;
+            vencimientoLote = RuedaTemporizadores.compartida().programar(vence - System.nanoTime(), this::vencer);
+        }
+
+        private void fallo(IOException e) {
+            if (activo.get()) Consola.error("❌ Error en el Sol: " + e.getMessage());
+            close();
+        }
+
+        void detener() {
+            cerrojo.lock();
+            try {
+                detenida = true;
+                if (vencimientoLote != null) vencimientoLote.cancelar();
+            } finally {
+                cerrojo.unlock();
+            }
+        }
+    }
+
+    /**
+     * Reparte las instrucciones entre los emisores de cada tema (ver TemasSol); lo pendiente vence
+     * en cada uno por separado.
+     */
+    private static final class PublicadorTemas implements Publicador {
+        private final Publicador[] emisores;
+
+        PublicadorTemas(int temas) {
+            this.emisores = new Publicador[temas];
+        }
+
+        @Override
+        public void anadir(Mensaje mensaje) throws IOException {
+            emisores[TemasSol.de(mensaje.getInstruccion()).indice()].anadir(mensaje);
+        }
+
+        @Override
+        public void vencer(long ahora) throws IOException {
+            for (Publicador emisor : emisores) emisor.vencer(ahora);
+        }
+
+        @Override
+        public long vencimiento() {
+            long vence = Long.MAX_VALUE;
+            for (Publicador emisor : emisores) vence = Math.min(vence, emisor.vencimiento());
+            return vence;
+        }
+
+        /**
+         * Envía lo pendiente de cada tema y cierra sus canales, aunque alguno falle.
+         */
+        @Override
+        public void close() throws IOException {
+            IOException error = null;
+            for (Publicador emisor : emisores) {
+                if (emisor == null) continue;
+                try {
+                    emisor.close();
+                } catch (IOException e) {
+                    if (error == null) error = e;
+                }
+            }
+            if (error != null) throw error;
+        }
+    }
+
+    /**
+     * Atiende los NACK que llegan al canal de un tema hasta que este se cierra: retransmite por multicast
+     * las instrucciones pedidas que aún estén guardadas, agrupadas en lotes.
+     */
+    private void atenderNacks(DatagramChannel canal, TemasSol.Tema tema) {
+        BufferRetransmision historial = historiales[tema.indice()];
+        // Un byte de más para detectar datagramas mayores que un NACK
+        ByteBuffer nack = ByteBuffer.allocateDirect(CodecNack.TAMANO + 1);
+        try {
+            // Comparte el canal con el emisor principal; lo cierra el bucle de envío al terminar
+            EmisorLotes reparador = new EmisorLotes(canal, tema.ip(), tema.puerto(), EmisorLotes.MAX_MENSAJES_DATAGRAMA, 0);
+
+            while (activo.get()) {
+                nack.clear();
+                canal.receive(nack);
+                nack.flip();
+                try {
+                    CodecNack.validar(nack);
+                } catch (IllegalArgumentException e) {
+                    Consola.error("❌ NACK descartado: " + e.getMessage());
+                    continue;
+                }
+
+                long desde = CodecNack.desde(nack);
+                long hasta = Math.min(CodecNack.hasta(nack), desde + CodecNack.MAX_RANGO - 1);
+                long ahora = System.nanoTime();
+                int reenviados = 0;
+                for (long s = desde; s <= hasta; s++) {
+                    Mensaje mensaje = historial.reclamar(s, ahora);
+                    if (mensaje == null) continue;
+                    reparador.anadir(mensaje);
+                    reenviados++;
+                }
+                reparador.vaciar();
+
+                if (reenviados > 0 && Consola.activo(Consola.Nivel.INFO)) {
+                    Consola.info("🔁 Sol: " + reenviados + " instrucciones retransmitidas a petición de "
+                            + Constantes.nombreNodo(CodecNack.nodo(nack)) + " [" + (TemasSol.particionado() ? tema.nombre() + " " : "")
+                            + "Seq " + desde + "-" + hasta + "] | " + historial);
+                }
+            }
+        } catch (IOException e) {
+            if (activo.get() && canal.isOpen()) Consola.error("❌ Error atendiendo NACK en el Sol: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Expone las instrucciones emitidas y las retransmisiones atendidas, con la etiqueta nodo=Sol.
+     */
+    public void registrarMetricas(RegistroMetricas registro) {
+        registro.contador("instrucciones_emitidas_total", "Instrucciones emitidas por el Sol", emitidas::sum, "nodo", "Sol");
+        registro.contador("retransmitidas_total", "Instrucciones retransmitidas a petición de un NACK",
+                () -> Arrays.stream(historiales).mapToLong(BufferRetransmision::getRetransmitidos).sum(), "nodo", "Sol");
+        registro.contador("retransmisiones_no_disponibles_total", "Instrucciones pedidas que ya no se conservaban",
+                () -> Arrays.stream(historiales).mapToLong(BufferRetransmision::getNoDisponibles).sum(), "nodo", "Sol");
+    }
+
+    /**
+     * Detiene el bucle de envío, despertando al Sol si está en la pausa entre instrucciones.
+     */
+    @Override
+    public void close() {
+        activo.set(false);
+        cerrado.countDown();
+        Thread ejecutor = hilo;
+        if (ejecutor != null && ejecutor != Thread.currentThread()) ejecutor.interrupt();
+    }
+
+
+    // Codifica un Mensaje sobre el buffer reutilizado del paquete, necesario para su envío por UDP.
+    static void serializarMensaje(Mensaje mensaje, ByteBuffer buffer) {
+        buffer.clear();
+        CodecMensaje.codificar(mensaje, buffer);
+    }
+
+    /**
+     * Escoge aleatoriamente una instrucción con las siguientes probabilidades:
+     * - SUBIR: 50%
+     * - BAJAR: 30%
+     * - RESET: 20%
+     */
+    static Instruccion elegirInstruccion(RandomGenerator rand) {
+        int numero = rand.nextInt(100); // genera un número aleatorio entre 0 y 99
+
+        if (numero < 50) return Instruccion.SUBIR;       // 0 - 49: 50%
+        else if (numero < 80) return Instruccion.BAJAR;  // 50 - 79: 30%
+        else return Instruccion.RESET;                   // 80 - 99: 20%
+    }
+}
@@ -0,0 +1,198 @@
+package sistemasolar;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 🏷️ Reparto por temas de las instrucciones que el Sol publica por multicast.
+ *
+ * Con -Dsol.temas el Sol publica cada tema en su propio grupo y puerto multicast, con su propia
+ * secuencia, su propio historial de retransmisiones y su propio canal de NACK, de modo que cada tema
+ * es un flujo independiente. Cada nodo se une solo a los grupos de los temas a los que está suscrito
+ * (ver ConfiguracionPlaneta.suscripcionSol): lo que no consume ni siquiera se lo entrega el kernel.
+ *
+ * - UNICO (por defecto): un solo tema con todas las instrucciones en MULTICAST_IP:MULTICAST_PORT,
+ *   como siempre. Un nodo suscrito solo a algunas instrucciones descarta las demás mirando el byte
+ *   de la instrucción en la cabecera, sin decodificarlas (ver CodecMensaje.instruccionEn).
+ * - PRIORIDAD: RESET, que devuelve la temperatura a su valor inicial, va por su propio tema
+ *   ("reset"), separado de los ajustes SUBIR y BAJAR ("ajustes").
+ * - INSTRUCCION: un tema por instrucción.
+ *
+ * Los temas con reparto se numeran a partir de MULTICAST_IP_TEMAS y MULTICAST_PORT_TEMAS: grupo y puerto
+ * distintos por tema, porque Linux entrega a un socket los datagramas de cualquier grupo del mismo puerto
+ * al que se haya unido algún otro socket de la máquina. Todos los nodos deben usar el mismo reparto.
+ *
+ * Con -Dtransporte=memoria no hay grupos: el anillo del Sol lleva todas las instrucciones y el reparto es UNICO.
+ */
+public final class TemasSol {
+
+    /**
+     * Cómo se reparten las instrucciones entre temas.
+     */
+    public enum Reparto {UNICO, PRIORIDAD, INSTRUCCION}
+
+    public static final Reparto REPARTO = Transporte.MEMORIA ? Reparto.UNICO
+            : Reparto.valueOf(System.getProperty("sol.temas", "UNICO").toUpperCase());
+
+    // Primer grupo y primer puerto de los temas con reparto; el tema i usa grupo .(1 + i) y puerto + i
+    private static final String MULTICAST_IP_TEMAS = "239.1.2.";
+    private static final int MULTICAST_PORT_TEMAS = 5001;
+
+    /**
+     * Un tema: su posición en la lista de temas, dónde se publica y qué instrucciones lleva.
+     *
+     * @param mascara instrucciones del tema, un bit por ordinal (ver CodecMensaje.instruccionEn)
+     */
+    public record Tema(int indice, String nombre, String ip, int puerto, int mascara) {
+
+        public boolean contiene(Instruccion instruccion) {
+            return (mascara & TemasSol.mascara(instruccion)) != 0;
+        }
+
+        @Override
+        public String toString() {
+            return nombre + "@" + ip + ":" + puerto;
+        }
+    }
+
+    private static final List<Tema> TEMAS = crear(REPARTO);
+
+    // Tema de cada instrucción, por ordinal
+    private static final Tema[] TEMA_DE = new Tema[Instruccion.values().length];
+
+    static {
+        for (Instruccion instruccion : Instruccion.values()) {
+            for (Tema tema : TEMAS) {
+                if (tema.contiene(instruccion)) TEMA_DE[instruccion.ordinal()] = tema;
+            }
+        }
+    }
+
+    private TemasSol() {
+    }
+
+    private static List<Tema> crear(Reparto reparto) {
+        return switch (reparto) {
+            case UNICO -> List.of(new Tema(0, "todas", Constantes.MULTICAST_IP, Constantes.MULTICAST_PORT,
+                    mascara(EnumSet.allOf(Instruccion.class))));
+            case PRIORIDAD -> List.of(
+                    tema(0, "ajustes", EnumSet.of(Instruccion.SUBIR, Instruccion.BAJAR)),
+                    tema(1, "reset", EnumSet.of(Instruccion.RESET)));
+            case INSTRUCCION -> {
+                List<Tema> temas = new ArrayList<>();
+                for (Instruccion instruccion : Instruccion.values()) {
+                    temas.add(tema(instruccion.ordinal(), instruccion.name().toLowerCase(), EnumSet.of(instruccion)));
+                }
+                yield List.copyOf(temas);
+            }
+        };
+    }
+
+    private static Tema tema(int indice, String nombre, Set<Instruccion> instrucciones) {
+        return new Tema(indice, nombre, MULTICAST_IP_TEMAS + (1 + indice), MULTICAST_PORT_TEMAS + indice,
+                mascara(instrucciones));
+    }
+
+    /**
+     * Todos los temas del reparto configurado, en orden de índice.
+     */
+    public static List<Tema> todos() {
+        return TEMAS;
+    }
+
+    /**
+     * Tema por el que se publica la instrucción.
+     */
+    public static Tema de(Instruccion instruccion) {
+        return TEMA_DE[instruccion.ordinal()];
+    }
+
+    /**
+     * Temas a los que hay que unirse para recibir las instrucciones indicadas.
+     */
+    public static List<Tema> suscripcion(Set<Instruccion> instrucciones) {
+        int buscada = mascara(instrucciones);
+        List<Tema> temas = new ArrayList<>();
+        for (Tema tema : TEMAS) {
+            if ((tema.mascara() & buscada) != 0) temas.add(tema);
+        }
+        return temas;
+    }
+
+    /**
+     * true si hay más de un tema (cada uno con su propia secuencia).
+     */
+    public static boolean particionado() {
+        return TEMAS.size() > 1;
+    }
+
+    public static int mascara(Instruccion instruccion) {
+        return 1 << instruccion.ordinal();
+    }
+
+    public static int mascara(Set<Instruccion> instrucciones) {
+        int mascara = 0;
+        for (Instruccion instruccion : instrucciones) mascara |= mascara(instruccion);
+        return mascara;
+    }
+
+    /**
+     * Lee una lista de instrucciones separadas por comas ("SUBIR,RESET"), o "TODAS".
+     *
+     * @throws IllegalArgumentException si alguna no existe o la lista está vacía
+     */
+    public static Set<Instruccion> leerInstrucciones(String texto) {
+        if (texto.trim().equalsIgnoreCase("TODAS")) return EnumSet.allOf(Instruccion.class);
+        EnumSet<Instruccion> instrucciones = EnumSet.noneOf(Instruccion.class);
+        for (String nombre : texto.split(",")) {
+            if (!nombre.isBlank()) instrucciones.add(Instruccion.valueOf(nombre.trim().toUpperCase()));
+        }
+        if (instrucciones.isEmpty()) throw new IllegalArgumentException("Suscripción vacía: " + texto);
+        return instrucciones;
+    }
+
+    /**
+     * Huecos de la secuencia de cada tema, indexados por tema, para mostrar el estado de un nodo.
+     */
+    static String describirHuecos(List<Tema> temas, DetectorHuecos[] huecos) {
+        if (!particionado()) return huecos[0].toString();
+        StringBuilder texto = new StringBuilder();
+        for (Tema tema : temas) {
+            if (!texto.isEmpty()) texto.append(" | ");
+            texto.append(tema.nombre()).append(": ").append(huecos[tema.indice()]);
+        }
+        return texto.toString();
+    }
+
+    /**
+     * Expone los contadores de la secuencia de cada tema, con la etiqueta tema si hay más de uno.
+     */
+    static void registrarHuecos(RegistroMetricas registro, List<Tema> temas, DetectorHuecos[] huecos, String... etiquetas) {
+        for (Tema tema : temas) {
+            if (particionado()) {
+                String[] conTema = Arrays.copyOf(etiquetas, etiquetas.length + 2);
+                conTema[etiquetas.length] = "tema";
+                conTema[etiquetas.length + 1] = tema.nombre();
+                huecos[tema.indice()].registrarMetricas(registro, conTema);
+            } else {
+                huecos[tema.indice()].registrarMetricas(registro, etiquetas);
+            }
+        }
+    }
+
+    /**
+     * Un detector de huecos por tema del reparto configurado, indexados por tema.
+     */
+    static DetectorHuecos[] nuevosDetectores() {
+        DetectorHuecos[] huecos = new DetectorHuecos[TEMAS.size()];
+        for (int i = 0; i < huecos.length; i++) huecos[i] = new DetectorHuecos();
+        return huecos;
+    }
+
+    public static String descripcion() {
+        return REPARTO == Reparto.UNICO ? "un solo grupo" : REPARTO + " " + TEMAS;
+    }
+}
@@ -0,0 +1,647 @@
+package sistemasolar;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 🌍 Clase TIERRA
+ * - Recibe instrucciones del Sol vía Multicast.
+ * - Aplica efecto sobre su temperatura.
+ * - Reenvía CADA mensaje recibido una sola vez a otro planeta por TCP (con probabilidad),
+ *   usando un enlace persistente por planeta.
+ * - Muestra temperatura cada 3 segundos, junto a la latencia desde el Sol (ver MetricasLatencia),
+ *   con una tarea de la rueda de temporizadores compartida (ver RuedaTemporizadores).
+ * - No puede explotar.
+ * - Con -Dmetricas.puerto expone sus contadores para Prometheus (ver ServidorMetricas).
+ * - Se detiene con close(), lo que permite ejecutarla dentro de otro proceso (ver Anfitrion).
+ *
+ * Funciona como un pipeline de etapas unidas por colas acotadas (ver ColaAcotada):
+ *
+ *   recepción (recibe, decodifica, descarta duplicados)
+ *     → [cola de proceso] → proceso (aplica la instrucción y elige destino)
+ *     → [una cola por planeta] → envío (un hilo por planeta escribe en su enlace TCP)
+ *
+ * Así un planeta caído o lento solo llena su propia cola y no frena la recepción del Sol ni los
+ * reenvíos a los demás. Qué se hace con una cola llena se configura con -Dtierra.desbordamiento
+ * (DESCARTAR_ANTIGUO, BLOQUEAR o DERRAMAR) y su tamaño con -Dtierra.capacidad.
+ *
+ * Los planetas destino se configuran con -Dtierra.destinos=nombre:puerto,... (Mercurio, Marte y Urano
+ * en sus puertos por defecto; en memoria compartida el nombre elige el anillo). El planeta de cada
+ * reenvío lo decide un Enrutador: -Dtierra.ruta elige la estrategia (PONDERADA por defecto, TURNO,
+ * MENOR_COLA, HASH o DIFUSION) y -Dtierra.pesos sus pesos, uno por destino en el orden de la lista
+ * (60,10,30 con los tres de siempre; iguales si la lista es otra). Con -Dtierra.pesos.fichero los pesos
+ * se leen de un fichero y se recargan al modificarlo.
+ *
+ * Con -Ddiario.dir anota cada instrucción aplicada en un diario y al volver a arrancar recupera la
+ * temperatura, los contadores y los mensajes ya procesados (ver PersistenciaEstado).
+ *
+ * Con -Dsol.temas se une a los grupos de todos los temas del Sol, cada uno en su propio hilo de
+ * recepción y con su propia secuencia (ver TemasSol).
+ *
+ * Con -Dtransporte=memoria lee al Sol y escribe a cada planeta por anillos en memoria compartida
+ * en lugar de multicast y TCP (ver Transporte).
+ */
+public class Tierra implements Closeable {
+
+    // Temperatura base de la Tierra
+    private static final int TEMP_RESET = 15;
+    // Temperatura actual (segura en multihilo); la Tierra no tiene límites, así que nunca explota
+    private final EstadoPlaneta estado = nuevoEstado();
+
+    // Configuración por defecto de las colas entre etapas
+    private static final int CAPACIDAD_COLAS = Integer.getInteger("tierra.capacidad", 1024);
+    private static final ColaAcotada.Desbordamiento DESBORDAMIENTO = ColaAcotada.Desbordamiento.valueOf(
+            System.getProperty("tierra.desbordamiento", "DESCARTAR_ANTIGUO").toUpperCase());
+
+    // Reparto por defecto de los reenvíos
+    private static final Enrutador.Estrategia ESTRATEGIA = Enrutador.Estrategia.valueOf(
+            System.getProperty("tierra.ruta", "PONDERADA").toUpperCase());
+    private static final String PESOS = System.getProperty("tierra.pesos");
+    private static final String PESOS_PRESETS = "60,10,30";
+    private static final String SALIDAS = System.getProperty("tierra.destinos");
+    private static final String FICHERO_PESOS = System.getProperty("tierra.pesos.fichero");
+
+    // Planetas destino de los reenvíos, cada uno con su enlace persistente y su cola de salida
+    private final List<Destino> destinos;
+
+    // Elige el destino de cada reenvío
+    private final Enrutador enrutador;
+
+    // Fichero de pesos vigilado y fecha de la última versión cargada
+    private final Path ficheroPesos;
+    private FileTime versionPesos;
+
+    // Mensajes ya decodificados pendientes de aplicar y enrutar
+    private final ColaAcotada colaProceso;
+
+    // Tiempo de servicio de las etapas de recepción (por datagrama) y proceso (por mensaje)
+    private final HistogramaLatencia servicioRecepcion = new HistogramaLatencia();
+    private final HistogramaLatencia servicioProceso = new HistogramaLatencia();
+
+    // Latencia desde que el Sol emite cada instrucción hasta que la Tierra la aplica
+    private final MetricasLatencia metricas = new MetricasLatencia("TIERRA");
+    private final MetricasLatencia.Medidor latenciaSol =
+            metricas.canal("Sol → Tierra (" + Transporte.canalSol() + ")");
+
+    // Número de secuencia de los mensajes reenviados por la Tierra
+    private final AtomicLong secuenciaReenvios = new AtomicLong(0);
+
+    // Para evitar reenviar múltiples veces el mismo mensaje recibido por Multicast
+    private final RegistroDuplicados mensajesProcesados =
+            new RegistroDuplicados(Constantes.DEDUP_CAPACIDAD, Constantes.DEDUP_VENTANA_MS);
+
+    // Huecos en la secuencia de cada tema del Sol, que se piden de nuevo con NACK
+    private final DetectorHuecos[] huecosSol = TemasSol.nuevosDetectores();
+
+    // Mensajes que los lectores del anillo del Sol se saltaron por ir retrasados (-Dtransporte=memoria)
+    private final LongAdder perdidosAnilloSol = new LongAdder();
+
+    // Diario del estado de la Tierra, o null si no se guarda (-Ddiario.dir)
+    private final PersistenciaEstado persistencia;
+
+    // Control de ejecución de los hilos (se desactiva al cerrar la Tierra)
+    private final AtomicBoolean activo = new AtomicBoolean(true);
+
+    // Recursos abiertos e hilos lanzados, para poder detener la Tierra desde fuera
+    private final List<Closeable> recursos = new ArrayList<>();
+    private final List<Thread> hilos = new ArrayList<>();
+
+    // Muestra el estado cada 3 segundos desde la rueda de temporizadores compartida
+    private RuedaTemporizadores.Temporizador temporizadorEstado;
+
+    /**
+     * Planeta configurado como destino de los reenvíos y puerto en el que los recibe.
+     */
+    public record Salida(String nombre, int puerto) {
+
+        // Los tres planetas de siempre, en el orden de los pesos por defecto
+        public static final List<Salida> PRESETS = List.of(
+                new Salida("Mercurio", Constantes.PUERTO_MERCURIO),
+                new Salida("Marte", Constantes.PUERTO_MARTE),
+                new Salida("Urano", Constantes.PUERTO_URANO));
+
+        public Salida {
+            if (nombre == null || nombre.isBlank()) {
+                throw new IllegalArgumentException("El destino necesita un nombre");
+            }
+            if (puerto < 0 || puerto > 65_535) {
+                throw new IllegalArgumentException("Puerto no válido para " + nombre + ": " + puerto);
+            }
+        }
+
+        /**
+         * Los destinos de -Dtierra.destinos o, si no se indica, los dados.
+         */
+        public static List<Salida> configuradas(List<Salida> porDefecto) {
+            return SALIDAS == null ? porDefecto : leerLista(SALIDAS);
+        }
+
+        /**
+         * Lee una lista "nombre:puerto,nombre:puerto,...".
+         */
+        public static List<Salida> leerLista(String texto) {
+            List<Salida> salidas = new ArrayList<>();
+            for (String parte : texto.split(",")) {
+                if (parte.isBlank()) continue;
+                int dos = parte.lastIndexOf(':');
+                if (dos < 0) throw new IllegalArgumentException("Se esperaba nombre:puerto: " + parte);
+                try {
+                    salidas.add(new Salida(parte.substring(0, dos).trim(),
+                            Integer.parseInt(parte.substring(dos + 1).trim())));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Puerto no válido: " + parte);
+                }
+            }
+            if (salidas.isEmpty()) throw new IllegalArgumentException("La lista de destinos está vacía");
+            return List.copyOf(salidas);
+        }
+
+        /**
+         * Pesos de -Dtierra.pesos o, si no se indican, los de siempre para los tres presets e iguales
+         * para otra lista.
+         */
+        static double[] pesosPorDefecto(List<Salida> salidas) {
+            if (PESOS != null) return Enrutador.leerPesos(PESOS);
+            if (salidas.equals(PRESETS)) return Enrutador.leerPesos(PESOS_PRESETS);
+            double[] iguales = new double[salidas.size()];
+            Arrays.fill(iguales, 1);
+            return iguales;
+        }
+    }
+
+    /**
+     * Planeta al que reenvía la Tierra: su enlace, su cola de salida y sus métricas.
+     */
+    private static final class Destino {
+        final String nombre;
+        final Enlace enlace;
+        final ColaAcotada cola;
+        // Lo que llegó al enlace y lo que este rechazó por estar el planeta caído; lo enrutado y lo
+        // descartado antes de salir lo cuenta la propia cola
+        final AtomicInteger enviados = new AtomicInteger(0);
+        final AtomicInteger fallidos = new AtomicInteger(0);
+        final HistogramaLatencia servicio = new HistogramaLatencia();
+
+        Destino(String nombre, int puerto, int capacidad, ColaAcotada.Desbordamiento desbordamiento) {
+            this.nombre = nombre;
+            this.enlace = Transporte.enlace(nombre, puerto);
+            this.cola = new ColaAcotada("tierra-" + nombre.toLowerCase(), capacidad, desbordamiento);
+        }
+    }
+
+    /**
+     * Estado inicial de la Tierra (también lo usa Simulacion).
+     */
+    static EstadoPlaneta nuevoEstado() {
+        return new EstadoPlaneta(TEMP_RESET, 5, -5, Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Tierra con los destinos de -Dtierra.destinos (o los tres presets) y el resto de la configuración
+     * de las propiedades del sistema.
+     */
+    public Tierra() {
+        this(Salida.configuradas(Salida.PRESETS));
+    }
+
+    /**
+     * Tierra que reenvía a los destinos indicados, con el resto de la configuración de las propiedades del sistema.
+     */
+    public Tierra(List<Salida> salidas) {
+        this(salidas, CAPACIDAD_COLAS, DESBORDAMIENTO, ESTRATEGIA, Salida.pesosPorDefecto(salidas),
+                FICHERO_PESOS == null ? null : Path.of(FICHERO_PESOS));
+    }
+
+    /**
+     * @param salidas        planetas a los que se reenvía
+     * @param capacidad      mensajes que caben en cada cola entre etapas
+     * @param desbordamiento qué hacer cuando una cola está llena
+     * @param estrategia     cómo se reparten los reenvíos entre los planetas
+     * @param pesos          pesos de cada planeta, en el orden de salidas, para la estrategia PONDERADA
+     * @param ficheroPesos   fichero del que recargar los pesos cuando cambie, o null
+     */
+    public Tierra(List<Salida> salidas, int capacidad, ColaAcotada.Desbordamiento desbordamiento,
+                  Enrutador.Estrategia estrategia, double[] pesos, Path ficheroPesos) {
+        this.colaProceso = new ColaAcotada("tierra-proceso", capacidad, desbordamiento);
+        // El nombre identifica la cola, las métricas y, en memoria compartida, el anillo de cada destino
+        Set<String> vistos = new HashSet<>();
+        for (Salida salida : salidas) {
+            if (!vistos.add(salida.nombre().toLowerCase())) {
+                throw new IllegalArgumentException("Destino repetido: " + salida.nombre());
+            }
+        }
+        List<Destino> destinos = new ArrayList<>(salidas.size());
+        for (Salida salida : salidas) {
+            destinos.add(new Destino(salida.nombre(), salida.puerto(), capacidad, desbordamiento));
+        }
+        this.destinos = List.copyOf(destinos);
+
+        String[] nombres = new String[destinos.size()];
+        for (int i = 0; i < nombres.length; i++) {
+            nombres[i] = destinos.get(i).nombre;
+        }
+        this.enrutador = new Enrutador(estrategia, nombres, pesos, i -> destinos.get(i).cola.getProfundidad());
+        this.ficheroPesos = ficheroPesos;
+        this.persistencia = PersistenciaEstado.abrirSiConfigurado("Tierra", estado, mensajesProcesados, null, huecosSol);
+    }
+
+    public static void main(String[] args) {
+        Tierra tierra = new Tierra();
+        RegistroMetricas registro = new RegistroMetricas();
+        registro.registrarJvm();
+        RuedaTemporizadores.compartida().registrarMetricas(registro);
+        tierra.registrarMetricas(registro);
+        tierra.iniciar(Thread.ofPlatform().factory());
+        ServidorMetricas.iniciarSiConfigurado(registro);
+    }
+
+    /**
+     * Expone las métricas de la Tierra con la etiqueta nodo=Tierra: mensajes del Sol, colas del
+     * pipeline, reenvíos por planeta y latencias. Solo se leen contadores que ya se mantienen sin
+     * bloqueos, así que consultarlas no frena el pipeline.
+     */
+    public void registrarMetricas(RegistroMetricas registro) {
+        String nodo = "Tierra";
+        registro.indicador("temperatura_celsius", "Temperatura actual", estado::getTemperatura, "nodo", nodo);
+        registro.contador("instrucciones_aplicadas_total", "Instrucciones aplicadas a la temperatura",
+                estado::getInstruccionesAplicadas, "nodo", nodo);
+
+        registro.contador("mensajes_recibidos_total", "Mensajes válidos recibidos, duplicados incluidos",
+                () -> mensajesProcesados.getAciertos() + mensajesProcesados.getFallos(), "nodo", nodo, "canal", "sol");
+        registro.contador("mensajes_duplicados_total", "Mensajes descartados por duplicados",
+                () -> mensajesProcesados.getAciertos() + duplicadosSol(), "nodo", nodo, "canal", "sol");
+        registro.contador("mensajes_aceptados_total", "Mensajes nuevos procesados",
+                estado::getMensajesSol, "nodo", nodo, "canal", "sol");
+        TemasSol.registrarHuecos(registro, TemasSol.todos(), huecosSol, "nodo", nodo);
+        if (Transporte.MEMORIA) {
+            registro.contador("anillo_perdidos_total", "Mensajes que el lector del anillo se saltó por ir retrasado",
+                    perdidosAnilloSol::sum, "nodo", nodo, "canal", "sol");
+        }
+
+        colaProceso.registrarMetricas(registro);
+        for (Destino destino : destinos) {
+            registro.contador("reenvios_total", "Mensajes reenviados por la Tierra a cada planeta",
+                    destino.enviados::get, "nodo", nodo, "destino", destino.nombre);
+            registro.contador("reenvios_fallidos_total", "Reenvíos que el enlace no pudo entregar por estar el planeta caído",
+                    destino.fallidos::get, "nodo", nodo, "destino", destino.nombre);
+            destino.cola.registrarMetricas(registro);
+        }
+        registro.resumen("etapa_servicio_segundos", "Tiempo de servicio de cada etapa del pipeline",
+                () -> servicioRecepcion, "nodo", nodo, "etapa", "recepcion");
+        registro.resumen("etapa_servicio_segundos", "Tiempo de servicio de cada etapa del pipeline",
+                () -> servicioProceso, "nodo", nodo, "etapa", "proceso");
+        metricas.registrarMetricas(registro, "nodo", nodo);
+        if (persistencia != null) persistencia.registrarMetricas(registro, "nodo", nodo);
+    }
+
+    /**
+     * Lanza los hilos de la Tierra con la fábrica indicada (hilos de plataforma o virtuales).
+     */
+    public void iniciar(ThreadFactory fabrica) {
+        Consola.info("------------------------------------------------------------------");
+        Consola.info("🌍 Tierra en funcionamiento... Reenvíos: " + enrutador + " | Transporte: " + Transporte.descripcion());
+        Consola.info("------------------------------------------------------------------\n");
+        recargarPesos();
+
+        // Etapas del pipeline, de la última a la primera para que cada una encuentre a su consumidor listo
+        for (Destino destino : destinos) {
+            lanzar(fabrica, "tierra-envio-" + destino.nombre.toLowerCase(), () -> enviarA(destino));
+        }
+        lanzar(fabrica, "tierra-proceso", this::procesarMensajes);
+
+        // Hilos que escuchan instrucciones multicast del Sol, uno por tema
+        for (TemasSol.Tema tema : TemasSol.todos()) {
+            lanzar(fabrica, TemasSol.particionado() ? "tierra-multicast-" + tema.nombre() : "tierra-multicast",
+                    () -> escucharSol(tema));
+        }
+
+        // Tarea que muestra la temperatura de la Tierra y el estado del pipeline cada 3 segundos
+        synchronized (this) {
+            if (activo.get()) {
+                temporizadorEstado = RuedaTemporizadores.compartida().programarPeriodica(
+                        TimeUnit.SECONDS.toNanos(3), this::mostrarEstado);
+            }
+        }
+    }
+
+    private void mostrarEstado() {
+        if (!activo.get()) return;
+        recargarPesos();
+        if (persistencia != null) persistencia.guardarSiToca();
+        Consola.info("\n🌍 [TIERRA] Temperatura actual: " + estado.getTemperatura() + "ºC | Sol: " + mensajesProcesados
+                + " | Secuencia: " + TemasSol.describirHuecos(TemasSol.todos(), huecosSol)
+                + (Transporte.MEMORIA ? " | Perdidos en el anillo: " + perdidosAnilloSol.sum() : ""));
+        if (Consola.activo(Consola.Nivel.INFO)) {
+            mostrarEtapas();
+            Consola.info("⏲️ [TIERRA] Temporizadores: " + RuedaTemporizadores.compartida());
+        }
+        metricas.mostrar();
+    }
+
+    /**
+     * Vuelve a leer los pesos de reenvío si el fichero de pesos cambió desde la última lectura.
+     * Un fichero que no se puede leer o con pesos no válidos deja los anteriores.
+     */
+    private void recargarPesos() {
+        if (ficheroPesos == null) return;
+        try {
+            FileTime version = Files.getLastModifiedTime(ficheroPesos);
+            if (version.equals(versionPesos)) return;
+            versionPesos = version;
+            enrutador.recargarPesos(Enrutador.leerPesos(Files.readString(ficheroPesos)));
+            Consola.info("⚖️ [TIERRA] Pesos de reenvío cargados de " + ficheroPesos + ": " + enrutador);
+        } catch (IOException | IllegalArgumentException e) {
+            Consola.error("❌ [TIERRA] No se pudieron cargar los pesos de " + ficheroPesos + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Muestra la profundidad de cada cola, el tiempo de espera en ella y el tiempo de servicio de cada etapa.
+     */
+    private void mostrarEtapas() {
+        Consola.info("📈 [TIERRA] Recepción → servicio: " + servicioRecepcion.resumen());
+        Consola.info("📈 [TIERRA] Proceso → " + colaProceso + " | espera: " + colaProceso.getEspera().resumen()
+                + " | servicio: " + servicioProceso.resumen());
+        for (Destino destino : destinos) {
+            Consola.info("📈 [TIERRA] Envío a " + destino.nombre + " → " + destino.cola
+                    + " | espera: " + destino.cola.getEspera().resumen() + " | servicio: " + destino.servicio.resumen());
+        }
+    }
+
+    private synchronized void lanzar(ThreadFactory fabrica, String nombre, Runnable cuerpo) {
+        Thread hilo = fabrica.newThread(cuerpo);
+        hilo.setName(nombre);
+        hilos.add(hilo);
+        hilo.start();
+    }
+
+    /**
+     * Detiene la Tierra: cierra el canal multicast, las colas y los enlaces con los planetas y despierta a sus hilos.
+     * Los mensajes que quedaban en las colas se descartan.
+     */
+    @Override
+    public void close() {
+        activo.set(false);
+        List<Closeable> abiertos;
+        List<Thread> lanzados;
+        synchronized (this) {
+            if (temporizadorEstado != null) temporizadorEstado.cancelar();
+            abiertos = new ArrayList<>(recursos);
+            recursos.clear();
+            lanzados = new ArrayList<>(hilos);
+        }
+        for (Closeable recurso : abiertos) {
+            try {
+                recurso.close();
+            } catch (IOException ignorada) {
+                // Se está cerrando: no hay nada más que hacer con el error
+            }
+        }
+        for (Thread hilo : lanzados) {
+            if (hilo != Thread.currentThread()) hilo.interrupt();
+        }
+        colaProceso.close();
+        for (Destino destino : destinos) {
+            destino.cola.close();
+            destino.enlace.close();
+        }
+        if (persistencia != null) persistencia.close();
+    }
+
+    /**
+     * Espera a que terminen todos los hilos de la Tierra, como mucho hasta el instante indicado (System.nanoTime).
+     *
+     * @return true si todos terminaron a tiempo
+     */
+    public boolean esperar(long limiteNanos) throws InterruptedException {
+        List<Thread> copia;
+        synchronized (this) {
+            copia = new ArrayList<>(hilos);
+        }
+        for (Thread hilo : copia) {
+            long restante = limiteNanos - System.nanoTime();
+            if (restante <= 0 || !hilo.join(Duration.ofNanos(restante))) return false;
+        }
+        return true;
+    }
+
+    // Registra un recurso para close(); si la Tierra ya se detuvo, lo cierra y devuelve false
+    private synchronized boolean registrar(Closeable recurso) throws IOException {
+        if (!activo.get()) {
+            recurso.close();
+            return false;
+        }
+        recursos.add(recurso);
+        return true;
+    }
+
+    /**
+     * Etapa de recepción de un tema: escucha sus mensajes multicast del Sol, descarta duplicados y pasa
+     * cada mensaje nuevo, ya decodificado, a la etapa de proceso.
+     */
+    private void escucharSol(TemasSol.Tema tema) {
+        DetectorHuecos huecos = huecosSol[tema.indice()];
+
+        // Se une al grupo multicast del tema (o lee del anillo del Sol); el receptor y su buffer se reutilizan en todo el bucle
+        try (Receptor receptor = Transporte.receptorSol(tema, perdidosAnilloSol);
+             EmisorNack emisorNack = new EmisorNack(Constantes.NODO_TIERRA)) {
+            if (!registrar(receptor)) return;
+
+            // Los NACK se envían al puerto desde el que emite el Sol (en memoria compartida no hay a quién)
+            DetectorHuecos.SolicitudNack alSol =
+                    (desde, hasta) -> emisorNack.enviar(receptor.getRemitente(), desde, hasta);
+
+            while (activo.get()) {
+                // Espera y recibe paquete UDP (un lote de uno o más mensajes)
+                ByteBuffer lote = receptor.recibir();
+                long inicioServicio = System.nanoTime();
+
+                int mensajes;
+                try {
+                    mensajes = CodecMensaje.validarLote(lote);
+                } catch (IllegalArgumentException e) {
+                    Consola.error("❌ Datagrama del Sol descartado: " + e.getMessage());
+                    continue;
+                }
+
+                // Recorre los mensajes del lote en el orden en que los emitió el Sol
+                int inicio = lote.position();
+                for (int i = 0; i < mensajes; i++) {
+                    lote.position(inicio + i * CodecMensaje.TAMANO);
+                    try {
+                        recibirMensajeSol(lote, huecos);
+                    } catch (IllegalArgumentException e) {
+                        Consola.error("❌ Error procesando mensaje recibido: " + e.getMessage());
+                    }
+                }
+
+                // Pide de nuevo lo que falte de la secuencia del Sol
+                try {
+                    huecos.revisar(System.nanoTime(), alSol);
+                } catch (IOException e) {
+                    Consola.error("❌ No se pudo enviar el NACK al Sol: " + e.getMessage());
+                }
+                servicioRecepcion.registrar(System.nanoTime() - inicioServicio);
+            }
+
+        } catch (IOException e) {
+            if (activo.get()) Consola.error("❌ Error en Tierra (Multicast): " + e.getMessage());
+        } catch (InterruptedException e) {
+            // Cierre mientras esperaba sitio en la cola de proceso
+        }
+    }
+
+    /**
+     * Lee la cabecera del mensaje que empieza en la posición actual del buffer sin crear objetos y,
+     * si es la primera vez que se recibe, lo decodifica y lo encola para la etapa de proceso.
+     */
+    private void recibirMensajeSol(ByteBuffer trama, DetectorHuecos huecos) throws InterruptedException {
+        CodecMensaje.validar(trama);
+
+        // Ignora si el mensaje no viene del Sol
+        if (CodecMensaje.origen(trama) != Constantes.NODO_SOL) return;
+
+        // Evita procesar el mismo mensaje dos veces usando su UUID como clave única
+        if (!mensajesProcesados.registrar(CodecMensaje.idMsb(trama), CodecMensaje.idLsb(trama))) return; // ya procesado
+
+        // Anota la secuencia para detectar huecos (y descarta la que ya se dio por perdida)
+        if (!huecos.registrar(CodecMensaje.secuencia(trama), CodecMensaje.epoca(trama))) return;
+
+        colaProceso.ofrecer(CodecMensaje.decodificar(trama));
+    }
+
+    private long duplicadosSol() {
+        long duplicados = 0;
+        for (DetectorHuecos huecos : huecosSol) duplicados += huecos.getDuplicados();
+        return duplicados;
+    }
+
+    /**
+     * Etapa de proceso: aplica cada instrucción sobre la temperatura y la reenvía a un planeta.
+     */
+    private void procesarMensajes() {
+        try {
+            Mensaje mensaje;
+            while ((mensaje = colaProceso.tomar()) != null) {
+                long inicio = System.nanoTime();
+                procesarMensajeSol(mensaje);
+                servicioProceso.registrar(System.nanoTime() - inicio);
+            }
+        } catch (InterruptedException e) {
+            // Cierre de la Tierra
+        }
+    }
+
+    private void procesarMensajeSol(Mensaje mensaje) throws InterruptedException {
+        Instruccion instruccion = mensaje.getInstruccion();
+
+        procesarInstruccion(mensaje);
+        latenciaSol.registrar(mensaje.getMarcaTiempo());
+
+        // Mostrar recepción del mensaje (el texto solo se construye si el nivel INFO está activo)
+        if (Consola.activo(Consola.Nivel.INFO)) {
+            Consola.info("\n🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔");
+            Consola.info("MENSAJE RECIBIDO!!! del Sol 🌞: " +
+                    FormatoConsola.colorearPorInstruccion(instruccion, "[Seq: " + mensaje.getSecuencia() + ", Instrucción: " + instruccion + "]"));
+            Consola.info("\n🌡️ Temperatura modificada: " + estado.getTemperatura() + "ºC");
+            Consola.info("🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔🔔\n");
+        }
+
+        // Reenvía el mensaje al planeta que elija el enrutador (solo una vez)
+        reenviarMensaje(mensaje);
+    }
+
+    /**
+     * Cuenta el mensaje y aplica el efecto de su instrucción sobre la temperatura de la Tierra
+     * (anotándola antes en el diario, si lo hay).
+     */
+    private void procesarInstruccion(Mensaje mensaje) {
+        if (persistencia != null) {
+            persistencia.aplicar(DiarioEventos.Evento.SOL_APLICADA, mensaje.getInstruccion(),
+                    mensaje.getIdMsb(), mensaje.getIdLsb(), mensaje.getSecuencia(), mensaje.getEpoca());
+            return;
+        }
+        estado.contarMensajeSol();
+        estado.aplicar(mensaje.getInstruccion());
+    }
+
+    /**
+     * Encola una copia del mensaje, con origen Tierra, para el planeta que elija el enrutador
+     * (o para todos, con la estrategia DIFUSION).
+     */
+    private void reenviarMensaje(Mensaje recibido) throws InterruptedException {
+        int elegido = enrutador.elegir(recibido);
+
+        // Creamos una nueva instancia de Mensaje con nuevo UUID y origen Tierra; conserva el instante
+        // de emisión del Sol para que el planeta mida la latencia de extremo a extremo
+        Mensaje reenviado = new Mensaje(recibido.getInstruccion(), Constantes.NODO_TIERRA,
+                secuenciaReenvios.incrementAndGet(), recibido.getMarcaOrigen());
+
+        // Lo deja en la cola del planeta; su hilo de envío lo escribirá en el enlace
+        if (elegido == Enrutador.TODOS) {
+            for (Destino destino : destinos) {
+                destino.cola.ofrecer(reenviado);
+            }
+        } else {
+            destinos.get(elegido).cola.ofrecer(reenviado);
+        }
+    }
+
+    /**
+     * Etapa de envío de un planeta: vacía su cola escribiendo cada mensaje en el enlace persistente.
+     * Si el planeta está caído, solo se retrasa (o se descarta, según la política) lo que va a él.
+     */
+    private void enviarA(Destino destino) {
+        try {
+            Mensaje reenviado;
+            while ((reenviado = destino.cola.tomar()) != null) {
+                long inicio = System.nanoTime();
+                boolean enviado = destino.enlace.enviar(reenviado);
+                destino.servicio.registrar(System.nanoTime() - inicio);
+                if (enviado) {
+                    destino.enviados.incrementAndGet();
+                    mostrarReenvio(destino, reenviado);
+                } else {
+                    destino.fallidos.incrementAndGet();
+                }
+            }
+        } catch (InterruptedException e) {
+            // Cierre de la Tierra
+        }
+    }
+
+    /**
+     * Muestra por consola un reenvío completado y las estadísticas de reenvíos acumulados.
+     */
+    private void mostrarReenvio(Destino destino, Mensaje reenviado) {
+        if (!Consola.activo(Consola.Nivel.INFO)) return;
+        Consola.info("\n➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️");
+        Consola.info("REENVIANDO MENSAJE A " + destino.nombre + ": " +
+                FormatoConsola.colorearPorInstruccion(reenviado.getInstruccion(), reenviado.toString()));
+
+        // Muestra estadísticas de reenvíos acumulados
+        StringBuilder acumulados = new StringBuilder("\n📊 Reenvíos acumulados → ");
+        for (int i = 0; i < destinos.size(); i++) {
+            if (i > 0) acumulados.append(", ");
+            acumulados.append(destinos.get(i).nombre).append(": ").append(destinos.get(i).enviados.get());
+        }
+        Consola.info(acumulados.toString());
+        Consola.info("➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️➡️\n");
+    }
+}
@@ -0,0 +1,92 @@
+package sistemasolar;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 🚚 Elige el transporte entre nodos: red (multicast UDP y TCP) o memoria compartida.
+ *
+ * Con -Dtransporte=memoria todos los nodos deben ejecutarse en la misma máquina y se comunican por
+ * anillos en memoria compartida (ver AnilloCompartido): uno para las instrucciones del Sol y uno por
+ * planeta para los reenvíos de la Tierra. Los anillos se crean en /dev/shm/sistemasolar (o en el
+ * directorio temporal si no hay /dev/shm) con -Dtransporte.capacidad huecos cada uno.
+ *
+ * Sin la propiedad, o con -Dtransporte=red, se usa la red como siempre.
+ */
+public final class Transporte {
+
+    // true si los nodos se comunican por memoria compartida
+    public static final boolean MEMORIA = "memoria".equalsIgnoreCase(System.getProperty("transporte", "red"));
+
+    // Huecos de cada anillo que se cree (potencia de dos)
+    private static final int CAPACIDAD = Integer.getInteger("transporte.capacidad", 65_536);
+
+    // Directorio de los ficheros de los anillos
+    private static final Path DIRECTORIO = Files.isDirectory(Path.of("/dev/shm"))
+            ? Path.of("/dev/shm", "sistemasolar")
+            : Path.of(System.getProperty("java.io.tmpdir"), "sistemasolar");
+
+    private Transporte() {
+    }
+
+    /**
+     * Anillo por el que el Sol publica sus instrucciones.
+     */
+    public static AnilloCompartido anilloSol() throws IOException {
+        return AnilloCompartido.abrir(DIRECTORIO.resolve("sol.anillo"), CAPACIDAD);
+    }
+
+    /**
+     * Anillo por el que la Tierra reenvía mensajes al planeta indicado.
+     */
+    public static AnilloCompartido anilloPlaneta(String nombre) throws IOException {
+        return AnilloCompartido.abrir(DIRECTORIO.resolve("tierra-" + nombre.toLowerCase() + ".anillo"), CAPACIDAD);
+    }
+
+    /**
+     * Receptor de las instrucciones del Sol de un tema: su grupo multicast o un lector del anillo del
+     * Sol (que lleva todos los temas, ver TemasSol).
+     *
+     * @param perdidosAnillo contador de los mensajes que el lector del anillo se salta por ir retrasado
+     */
+    public static Receptor receptorSol(TemasSol.Tema tema, LongAdder perdidosAnillo) throws IOException {
+        return MEMORIA
+                ? anilloSol().lector(perdidosAnillo)
+                : ReceptorUdp.multicast(tema.ip(), tema.puerto(), Constantes.TAMANO_MAXIMO_DATAGRAMA);
+    }
+
+    /**
+     * Enlace de la Tierra con un planeta: TCP a su puerto o el anillo del planeta.
+     *
+     * @throws UncheckedIOException si no se puede abrir el anillo
+     */
+    public static Enlace enlace(String nombre, int puerto) {
+        if (!MEMORIA) return new EnlaceTcp(nombre, "localhost", puerto);
+        try {
+            return anilloPlaneta(nombre);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo abrir el anillo de " + nombre, e);
+        }
+    }
+
+    /**
+     * Nombre del canal por el que llegan las instrucciones del Sol, para métricas y trazas.
+     */
+    public static String canalSol() {
+        return MEMORIA ? "memoria" : "multicast";
+    }
+
+    /**
+     * Nombre del canal por el que llegan los reenvíos de la Tierra, para métricas y trazas.
+     */
+    public static String canalTierra() {
+        return MEMORIA ? "memoria" : "tcp";
+    }
+
+    public static String descripcion() {
+        return MEMORIA ? "memoria compartida en " + DIRECTORIO : "red";
+    }
+}
@@ -0,0 +1,19 @@
+package sistemasolar;
+
+/**
+ * 💠 Planeta Urano
+ *
+ * - Recibe solo instrucciones por TCP desde la Tierra (ignora al Sol), por una conexión persistente.
+ * - Procesa cada mensaje recibido una sola vez (usando su UUID).
+ * - Muestra su temperatura actual cada 4 segundos.
+ * - EXPLOTA si su temperatura se sale del rango permitido: entre -374°C y -177°C.
+ *
+ * El comportamiento lo implementa el motor genérico {@link Planeta} con el preset
+ * {@link ConfiguracionPlaneta#URANO}; esta clase solo conserva el punto de entrada de siempre.
+ */
+public class Urano {
+
+    public static void main(String[] args) {
+        new Planeta(ConfiguracionPlaneta.URANO).iniciar();
+    }
+}
@@ -0,0 +1,74 @@
+package sistemasolar;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 🧠 Benchmark del transporte en memoria compartida frente a UDP por loopback.
+ *
+ * Cada invocación publica un mensaje y lo recibe al otro lado, por un AnilloCompartido o por un
+ * datagrama a un ReceptorUdp local. Mide el coste de un salto entre nodos de la misma máquina sin
+ * contar la espera del consumidor: en el anillo no hay ninguna llamada al sistema.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BenchmarkAnillo {
+
+    private Path directorio;
+    private AnilloCompartido anillo;
+    private LectorAnillo lector;
+
+    private ReceptorUdp receptor;
+    private DatagramChannel emisor;
+    private final ByteBuffer datagrama = ByteBuffer.allocateDirect(CodecMensaje.TAMANO);
+
+    private Mensaje mensaje;
+
+    @Setup
+    public void preparar() throws IOException {
+        directorio = Files.createTempDirectory("benchmark-anillo");
+        anillo = AnilloCompartido.abrir(directorio.resolve("sol.anillo"), 1024);
+        lector = anillo.lector();
+
+        receptor = ReceptorUdp.unicast(0, CodecMensaje.TAMANO + 1);
+        emisor = DatagramChannel.open();
+        emisor.connect(new InetSocketAddress(InetAddress.getLoopbackAddress(), receptor.getPuerto()));
+
+        mensaje = new Mensaje(Instruccion.SUBIR, Constantes.NODO_SOL, 1);
+        CodecMensaje.codificar(mensaje, datagrama);
+    }
+
+    @TearDown
+    public void cerrar() throws IOException {
+        lector.close();
+        receptor.close();
+        emisor.close();
+        Files.deleteIfExists(anillo.getRuta());
+        Files.deleteIfExists(directorio);
+    }
+
+    @Benchmark
+    public long memoriaCompartida() throws IOException {
+        anillo.publicar(mensaje);
+        return CodecMensaje.secuencia(lector.recibir());
+    }
+
+    @Benchmark
+    public long udpLoopback() throws IOException {
+        datagrama.clear();
+        emisor.write(datagrama);
+        return CodecMensaje.secuencia(receptor.recibir());
+    }
+}
@@ -0,0 +1,89 @@
+package sistemasolar;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 🎞️ Benchmark del fichero de captura: anotar un mensaje del Sol (lo que hace el Grabador por cada
+ * datagrama) y leerlo de vuelta (lo que hace el Reproductor con velocidad=max).
+ *
+ * Cada registro cuesta una copia al buffer directo del escritor y, cada megabyte, una escritura al
+ * fichero; la lectura devuelve una vista reutilizada, así que ninguna de las dos reserva memoria.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BenchmarkCaptura {
+
+    // Registros de la captura que se lee; al acabarse se vuelve a abrir
+    private static final int REGISTROS_LECTURA = 1_000_000;
+
+    private static final List<Captura.Canal> CANALES = List.of(
+            Captura.Canal.multicast(TemasSol.todos().getFirst()),
+            Captura.Canal.tcp(6002));
+
+    private Path directorio;
+    private Path rutaLectura;
+    private Captura.Escritor escritor;
+    private Captura.Lector lector;
+    private final ByteBuffer mensaje = ByteBuffer.allocate(CodecMensaje.TAMANO);
+
+    @Setup
+    public void preparar() throws IOException {
+        CodecMensaje.codificar(new Mensaje(Instruccion.SUBIR, Constantes.NODO_SOL, 1), mensaje);
+        mensaje.flip();
+
+        directorio = Files.createTempDirectory("benchmark-captura");
+
+        rutaLectura = directorio.resolve("lectura.cap");
+        try (Captura.Escritor previo = Captura.Escritor.crear(rutaLectura, CANALES)) {
+            for (int i = 0; i < REGISTROS_LECTURA; i++) previo.anotar(i & 1, mensaje);
+        }
+        lector = Captura.Lector.abrir(rutaLectura);
+    }
+
+    // A diez millones de registros por segundo el fichero crece medio giga por iteración: se rehace en cada una
+    @Setup(Level.Iteration)
+    public void abrirEscritura() throws IOException {
+        escritor = Captura.Escritor.crear(directorio.resolve("escritura.cap"), CANALES);
+    }
+
+    @TearDown(Level.Iteration)
+    public void cerrarEscritura() throws IOException {
+        escritor.close();
+        Files.delete(directorio.resolve("escritura.cap"));
+    }
+
+    @TearDown
+    public void cerrar() throws IOException {
+        lector.close();
+        try (var ficheros = Files.list(directorio)) {
+            for (Path fichero : ficheros.toList()) Files.delete(fichero);
+        }
+        Files.delete(directorio);
+    }
+
+    @Benchmark
+    public void anotar() throws IOException {
+        escritor.anotar(0, mensaje);
+    }
+
+    @Benchmark
+    public int leer() throws IOException {
+        if (!lector.siguiente()) {
+            lector.close();
+            lector = Captura.Lector.abrir(rutaLectura);
+            lector.siguiente();
+        }
+        return lector.getCarga().remaining();
+    }
+}
@@ -0,0 +1,66 @@
+package sistemasolar;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 📏 Benchmark de la codificación y decodificación de mensajes.
+ *
+ * - serializarMensaje: lo que hace el Sol antes de cada envío multicast.
+ * - decodificarDatagrama: lo que hacen Tierra, Marte y Mercurio con cada paquete recibido.
+ * - decodificarTramaTcp: lo que hacen los planetas con cada trama recibida desde la Tierra.
+ * - filtrarPorInstruccion: lo que cuesta a un planeta descartar por la cabecera una instrucción a la
+ *   que no está suscrito (ver TemasSol).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BenchmarkCodec {
+
+    private Mensaje mensaje;
+    private ByteBuffer bufferEnvio;
+    private byte[] datagrama;
+    private ByteBuffer tramaTcp;
+    private final int suscripcion = TemasSol.mascara(Instruccion.RESET);
+
+    @Setup
+    public void preparar() {
+        mensaje = new Mensaje(Instruccion.SUBIR, Constantes.NODO_SOL, 1);
+        bufferEnvio = ByteBuffer.allocate(CodecMensaje.TAMANO);
+
+        // Datagrama tal y como llega al buffer de recepción de 1024 bytes
+        datagrama = new byte[1024];
+        CodecMensaje.codificar(mensaje, ByteBuffer.wrap(datagrama));
+
+        tramaTcp = ByteBuffer.allocate(CodecMensaje.TAMANO);
+        CodecMensaje.codificar(mensaje, tramaTcp);
+    }
+
+    @Benchmark
+    public ByteBuffer serializarMensaje() {
+        Sol.serializarMensaje(mensaje, bufferEnvio);
+        return bufferEnvio;
+    }
+
+    @Benchmark
+    public Mensaje decodificarDatagrama() {
+        return CodecMensaje.decodificar(ByteBuffer.wrap(datagrama, 0, CodecMensaje.TAMANO));
+    }
+
+    @Benchmark
+    public Mensaje decodificarTramaTcp() {
+        tramaTcp.rewind();
+        return CodecMensaje.decodificar(tramaTcp);
+    }
+
+    @Benchmark
+    public boolean filtrarPorInstruccion() {
+        tramaTcp.rewind();
+        return CodecMensaje.instruccionEn(tramaTcp, suscripcion);
+    }
+}
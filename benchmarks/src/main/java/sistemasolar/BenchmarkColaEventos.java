@@ -0,0 +1,65 @@
+package sistemasolar;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ⏳ Benchmark de la cola de eventos de la simulación (modelo "hold").
+ *
+ * Cada invocación saca el primer evento y programa otro un poco más adelante, con la cola siempre
+ * con el mismo número de eventos pendientes, que es lo que hace la simulación en régimen estable.
+ * Se compara ColaEventos (montículo sobre arrays de long) con PriorityQueue de objetos.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BenchmarkColaEventos {
+
+    private record Evento(long instante, long orden, long dato) implements Comparable<Evento> {
+        @Override
+        public int compareTo(Evento otro) {
+            int porInstante = Long.compare(instante, otro.instante);
+            return porInstante != 0 ? porInstante : Long.compare(orden, otro.orden);
+        }
+    }
+
+    @Param({"64", "4096", "262144"})
+    private int pendientes;
+
+    private ColaEventos cola;
+    private PriorityQueue<Evento> prioridad;
+    private long orden;
+    private final SplittableRandom random = new SplittableRandom(42);
+
+    @Setup
+    public void preparar() {
+        cola = new ColaEventos();
+        prioridad = new PriorityQueue<>();
+        for (int i = 0; i < pendientes; i++) {
+            long instante = random.nextLong(1_000_000);
+            cola.programar(instante, i);
+            prioridad.add(new Evento(instante, orden++, i));
+        }
+    }
+
+    @Benchmark
+    public long colaEventos() {
+        long instante = cola.primerInstante();
+        long dato = cola.extraer();
+        cola.programar(instante + random.nextLong(1_000_000), dato);
+        return dato;
+    }
+
+    @Benchmark
+    public long priorityQueue() {
+        Evento evento = prioridad.poll();
+        prioridad.add(new Evento(evento.instante + random.nextLong(1_000_000), orden++, evento.dato));
+        return evento.dato;
+    }
+}
@@ -0,0 +1,93 @@
+package sistemasolar;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * 💾 Benchmark del diario de eventos y de la recuperación del estado.
+ *
+ * - anotar: aplicar una instrucción anotándola antes en el diario (lo que hace un nodo con -Ddiario.dir).
+ *   Cada millón de eventos se guarda una instantánea para que los segmentos antiguos se borren.
+ * - recuperar: reproducir un diario de un millón de eventos sobre un estado vacío, como al arrancar
+ *   un nodo sin instantánea. El resultado está en eventos por segundo.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BenchmarkDiario {
+
+    private static final int EVENTOS_DIARIO = 1_000_000;
+    private static final Instruccion[] INSTRUCCIONES = {Instruccion.SUBIR, Instruccion.BAJAR};
+
+    private Path directorioAnotar;
+    private Path directorioRecuperar;
+    private PersistenciaEstado persistencia;
+    private long secuencia = 0;
+
+    @Setup
+    public void preparar() throws IOException {
+        directorioAnotar = Files.createTempDirectory("benchmark-diario");
+        persistencia = PersistenciaEstado.abrir(directorioAnotar, "Benchmark", nuevoEstado(),
+                nuevosDuplicados(), null, null);
+
+        // Diario ya escrito, sin instantánea, para reproducirlo entero en cada invocación
+        directorioRecuperar = Files.createTempDirectory("benchmark-diario-recuperar");
+        try (DiarioEventos diario = DiarioEventos.abrir(directorioRecuperar, 262_144)) {
+            diario.recuperar(estado -> { }, (evento, instruccion, msb, lsb, tema, secuencia, epoca) -> { });
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 1; i <= EVENTOS_DIARIO; i++) {
+                diario.anadir(DiarioEventos.Evento.SOL_APLICADA, INSTRUCCIONES[i & 1], random.nextLong() | 1, random.nextLong(), 0, i,
+                        Mensaje.EPOCA);
+            }
+        }
+    }
+
+    @TearDown
+    public void cerrar() throws IOException {
+        borrar(directorioAnotar);
+        borrar(directorioRecuperar);
+    }
+
+    @Benchmark
+    public EstadoPlaneta.Efecto anotar() {
+        long s = ++secuencia;
+        if (s % EVENTOS_DIARIO == 0) persistencia.guardarInstantanea();
+        return persistencia.aplicar(DiarioEventos.Evento.SOL_APLICADA, INSTRUCCIONES[(int) s & 1], s | 1, s, s,
+                Mensaje.EPOCA);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EVENTOS_DIARIO)
+    public long recuperar() throws IOException {
+        EstadoPlaneta estado = nuevoEstado();
+        PersistenciaEstado.abrir(directorioRecuperar, "Benchmark", estado, nuevosDuplicados(), null, null);
+        return estado.getMensajesSol();
+    }
+
+    // Como la Tierra: sin límites de temperatura, así que nunca explota
+    private static EstadoPlaneta nuevoEstado() {
+        return new EstadoPlaneta(15, 5, -5, Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    private static RegistroDuplicados nuevosDuplicados() {
+        return new RegistroDuplicados(Constantes.DEDUP_CAPACIDAD, Constantes.DEDUP_VENTANA_MS);
+    }
+
+    private static void borrar(Path directorio) throws IOException {
+        try (Stream<Path> rutas = Files.walk(directorio)) {
+            for (Path ruta : rutas.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(ruta);
+            }
+        }
+    }
+}
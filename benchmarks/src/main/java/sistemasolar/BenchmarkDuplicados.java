@@ -0,0 +1,52 @@
+package sistemasolar;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 📏 Benchmark del control de duplicados.
+ *
+ * - registrarNuevo: camino habitual, cada mensaje trae un UUID que no se había visto.
+ * - registrarDuplicado: un mensaje repetido que debe descartarse.
+ * - registrarNuevoConcurrente: varios hilos receptores compartiendo el mismo registro.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkDuplicados {
+
+    private RegistroDuplicados registro;
+    private long msbRepetido;
+    private long lsbRepetido;
+
+    @Setup
+    public void preparar() {
+        registro = new RegistroDuplicados(Constantes.DEDUP_CAPACIDAD, Constantes.DEDUP_VENTANA_MS);
+        msbRepetido = ThreadLocalRandom.current().nextLong() | 1;
+        lsbRepetido = ThreadLocalRandom.current().nextLong();
+        registro.registrar(msbRepetido, lsbRepetido);
+    }
+
+    @Benchmark
+    public boolean registrarNuevo() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return registro.registrar(random.nextLong() | 1, random.nextLong());
+    }
+
+    @Benchmark
+    public boolean registrarDuplicado() {
+        return registro.registrar(msbRepetido, lsbRepetido);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean registrarNuevoConcurrente() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return registro.registrar(random.nextLong() | 1, random.nextLong());
+    }
+}
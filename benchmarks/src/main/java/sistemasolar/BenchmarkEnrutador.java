@@ -0,0 +1,60 @@
+package sistemasolar;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 🧭 Benchmark de la elección de destino de los reenvíos de la Tierra.
+ *
+ * Compara la cadena de if sobre un Random compartido que usaba la Tierra (60/10/30) con cada estrategia
+ * del Enrutador sobre 'destinos' planetas. Con 4 hilos se ve la contención del Random compartido frente
+ * a ThreadLocalRandom, y con muchos destinos que el método del alias sigue siendo O(1).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class BenchmarkEnrutador {
+
+    @Param({"3", "1000"})
+    public int destinos;
+
+    @Param({"PONDERADA", "TURNO", "MENOR_COLA", "HASH"})
+    public Enrutador.Estrategia estrategia;
+
+    private final Random compartido = new Random();
+    private Enrutador enrutador;
+    private Mensaje mensaje;
+
+    @Setup
+    public void preparar() {
+        String[] nombres = new String[destinos];
+        double[] pesos = new double[destinos];
+        int[] profundidades = new int[destinos];
+        for (int i = 0; i < destinos; i++) {
+            nombres[i] = "Planeta-" + i;
+            pesos[i] = 1 + i % 7;
+            profundidades[i] = i % 5;
+        }
+        enrutador = new Enrutador(estrategia, nombres, pesos, i -> profundidades[i]);
+        mensaje = new Mensaje(Instruccion.SUBIR, Constantes.NODO_SOL, 1);
+    }
+
+    @Benchmark
+    public int cadenaIfRandomCompartido() {
+        int prob = compartido.nextInt(100);
+        if (prob < 60) return 0;
+        else if (prob < 70) return 1;
+        else return 2;
+    }
+
+    @Benchmark
+    public int enrutador() {
+        return enrutador.elegir(mensaje);
+    }
+}
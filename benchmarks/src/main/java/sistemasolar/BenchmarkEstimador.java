@@ -0,0 +1,50 @@
+package sistemasolar;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 🎲 Benchmark del estimador Monte Carlo del riesgo de explosión.
+ *
+ * Cada invocación simula un lote de trayectorias de los tres planetas originales con la estrategia de
+ * reparto indicada, en un hilo o en uno por núcleo, para ver cuánto escala el reparto en bloques.
+ * Las trayectorias por segundo son el lote dividido entre el tiempo medio.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkEstimador {
+
+    private static final long TRAYECTORIAS = 65_536;
+
+    @Param({"PONDERADA", "TURNO", "HASH"})
+    private Enrutador.Estrategia estrategia;
+
+    @Param({"1", "0"})
+    private int hilos;
+
+    private EstimadorRiesgo estimador;
+    private EstimadorRiesgo.Escenario escenario;
+
+    @Setup
+    public void preparar() {
+        // 0 hilos significa uno por núcleo
+        int n = hilos == 0 ? Runtime.getRuntime().availableProcessors() : hilos;
+        estimador = new EstimadorRiesgo(List.of(
+                EstimadorRiesgo.Modelo.de(ConfiguracionPlaneta.MARTE),
+                EstimadorRiesgo.Modelo.de(ConfiguracionPlaneta.MERCURIO),
+                EstimadorRiesgo.Modelo.de(ConfiguracionPlaneta.URANO)),
+                new double[]{50, 30, 20}, 10_000, 5000, 42, n);
+        escenario = new EstimadorRiesgo.Escenario(estrategia, EstimadorRiesgo.Escenario.POR_DEFECTO.pesos());
+    }
+
+    @Benchmark
+    public long estimar() {
+        return estimador.estimar(escenario, TRAYECTORIAS).getPasos();
+    }
+}
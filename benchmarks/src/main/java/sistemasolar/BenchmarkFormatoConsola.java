@@ -0,0 +1,39 @@
+package sistemasolar;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 📏 Benchmark de la construcción de las líneas de consola.
+ *
+ * Mide lo que cuesta, por cada mensaje recibido, montar el texto coloreado con FormatoConsola
+ * (incluida la conversión del mensaje a texto), sin contar la escritura en la terminal.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BenchmarkFormatoConsola {
+
+    private Mensaje mensaje;
+    private int temperatura = -63;
+
+    @Setup
+    public void preparar() {
+        mensaje = new Mensaje(Instruccion.RESET, Constantes.NODO_SOL, 1);
+    }
+
+    @Benchmark
+    public String colorearMensaje() {
+        return FormatoConsola.colorearPorInstruccion(mensaje.getInstruccion(), mensaje.toString());
+    }
+
+    @Benchmark
+    public String colorearTemperatura() {
+        return FormatoConsola.colorearPorInstruccion(Instruccion.SUBIR,
+                "☀️ Instrucción del Sol aplicada. Nueva temperatura: " + temperatura + "ºC");
+    }
+}
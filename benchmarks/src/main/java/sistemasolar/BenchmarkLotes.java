@@ -0,0 +1,48 @@
+package sistemasolar;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 📏 Benchmark del envío por lotes del Sol.
+ *
+ * Cada invocación añade un mensaje al EmisorLotes, que envía un datagrama cada vez que se llena el lote.
+ * El resultado (mensajes por segundo) muestra cuánto se reparte el coste de cada envío al agrupar:
+ * con lote=1 hay una llamada al sistema por mensaje, con lote=40 una por cada 40 mensajes.
+ * Los datagramas van a un socket de loopback que nunca se lee (el núcleo los descarta al llenarse).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BenchmarkLotes {
+
+    @Param({"1", "10", "40"})
+    public int lote;
+
+    private ReceptorUdp sumidero;
+    private EmisorLotes emisor;
+    private Mensaje mensaje;
+
+    @Setup
+    public void preparar() throws IOException {
+        sumidero = ReceptorUdp.unicast(0, Constantes.TAMANO_MAXIMO_DATAGRAMA);
+        emisor = new EmisorLotes("127.0.0.1", sumidero.getPuerto(), lote, 0);
+        mensaje = new Mensaje(Instruccion.SUBIR, Constantes.NODO_SOL, 1);
+    }
+
+    @Benchmark
+    public void anadirMensaje() throws IOException {
+        emisor.anadir(mensaje);
+    }
+
+    @TearDown
+    public void liberar() throws IOException {
+        emisor.close();
+        sumidero.close();
+    }
+}
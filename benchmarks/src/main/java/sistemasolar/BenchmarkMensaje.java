@@ -0,0 +1,34 @@
+package sistemasolar;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 📏 Benchmark de la construcción de mensajes.
+ *
+ * Cada Mensaje nuevo genera un UUID con UUID.randomUUID(), que se apoya en SecureRandom;
+ * este benchmark mide cuánto cuesta en el Sol y en cada reenvío de la Tierra.
+ * Con varios hilos muestra además la contención sobre el generador compartido.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BenchmarkMensaje {
+
+    private long secuencia = 0;
+
+    @Benchmark
+    public Mensaje construirMensaje() {
+        return new Mensaje(Instruccion.BAJAR, Constantes.NODO_SOL, ++secuencia);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Mensaje construirMensajeConcurrente() {
+        return new Mensaje(Instruccion.BAJAR, Constantes.NODO_TIERRA, ++secuencia);
+    }
+}
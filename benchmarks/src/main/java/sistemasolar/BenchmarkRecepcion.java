@@ -0,0 +1,87 @@
+package sistemasolar;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.net.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 📏 Benchmark del bucle de recepción UDP bajo carga.
+ *
+ * Un hilo generador envía sin pausa (y sin reservar memoria) datagramas ya codificados a un socket de loopback, y cada
+ * invocación del benchmark recibe uno con ReceptorUdp y lee su cabecera en el sitio, igual que
+ * hacen Tierra, Marte y Mercurio. Con -prof gc, gc.alloc.rate.norm debe quedarse cerca de 0 B/op:
+ * cualquier reserva por mensaje en el camino de recepción aparece aquí.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BenchmarkRecepcion {
+
+    private ReceptorUdp receptor;
+    private int puerto;
+    private RegistroDuplicados registro;
+    private Thread generador;
+    private volatile boolean generando;
+
+    @Setup
+    public void preparar() throws IOException {
+        receptor = ReceptorUdp.unicast(0, 1024);
+        receptor.setBufferSistema(4 * 1024 * 1024);
+        puerto = receptor.getPuerto();
+        registro = new RegistroDuplicados(Constantes.DEDUP_CAPACIDAD, Constantes.DEDUP_VENTANA_MS);
+
+        generando = true;
+        generador = new Thread(this::generarCarga, "generador-carga");
+        generador.setDaemon(true);
+        generador.start();
+    }
+
+    /**
+     * Envía continuamente el mismo buffer reutilizado por un canal conectado, cambiando solo el UUID
+     * en el sitio para que el control de duplicados siga el camino de mensaje nuevo.
+     */
+    private void generarCarga() {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(CodecMensaje.TAMANO);
+        CodecMensaje.codificar(new Mensaje(Instruccion.SUBIR, Constantes.NODO_SOL, 0), buffer);
+
+        try (DatagramChannel canal = DatagramChannel.open()) {
+            canal.connect(new InetSocketAddress(InetAddress.getLoopbackAddress(), puerto));
+            long contador = 0;
+            while (generando) {
+                contador++;
+                buffer.putLong(4, contador | 1);   // UUID (msb)
+                buffer.putLong(20, contador);      // secuencia
+                buffer.clear();
+                canal.write(buffer);
+            }
+        } catch (IOException e) {
+            if (generando) throw new IllegalStateException(e);
+        }
+    }
+
+    @Benchmark
+    public void recibirYProcesar(Blackhole bh) throws IOException {
+        ByteBuffer trama = receptor.recibir();
+        CodecMensaje.validar(trama);
+        if (CodecMensaje.origen(trama) == Constantes.NODO_SOL
+                && registro.registrar(CodecMensaje.idMsb(trama), CodecMensaje.idLsb(trama))) {
+            bh.consume(CodecMensaje.instruccion(trama));
+            bh.consume(CodecMensaje.secuencia(trama));
+        }
+    }
+
+    @TearDown
+    public void liberar() throws IOException, InterruptedException {
+        generando = false;
+        receptor.close();
+        generador.join(1000);
+    }
+}
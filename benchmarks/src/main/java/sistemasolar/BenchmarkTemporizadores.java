@@ -0,0 +1,67 @@
+package sistemasolar;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ⏲️ Benchmark de programar y cancelar un temporizador con muchos otros pendientes.
+ *
+ * Es lo que hace cada planeta al arrancar y al cerrarse. Se compara la rueda de temporizadores
+ * (O(1) en las dos operaciones) con ScheduledThreadPoolExecutor, cuyo montículo es O(log n) y que
+ * además reserva un objeto de tarea por cada programación.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BenchmarkTemporizadores {
+
+    private static final Runnable NADA = () -> {
+    };
+
+    @Param({"1000", "100000"})
+    private int pendientes;
+
+    private RuedaTemporizadores rueda;
+    private ScheduledThreadPoolExecutor ejecutor;
+    private final List<ScheduledFuture<?>> futuros = new ArrayList<>();
+    private long retraso;
+
+    @Setup
+    public void preparar() {
+        rueda = new RuedaTemporizadores(TimeUnit.MILLISECONDS.toNanos(1), "benchmark-temporizadores");
+        ejecutor = new ScheduledThreadPoolExecutor(1);
+        ejecutor.setRemoveOnCancelPolicy(true);
+        // Pendientes repartidos entre uno y cien segundos, para que no venza ninguno durante la medida
+        for (int i = 0; i < pendientes; i++) {
+            long nanos = TimeUnit.SECONDS.toNanos(1 + i % 100);
+            rueda.programarPeriodica(nanos, NADA);
+            futuros.add(ejecutor.scheduleAtFixedRate(NADA, nanos, nanos, TimeUnit.NANOSECONDS));
+        }
+    }
+
+    @TearDown
+    public void cerrar() {
+        rueda.close();
+        ejecutor.shutdownNow();
+    }
+
+    @Benchmark
+    public boolean rueda() {
+        retraso = (retraso + 7_919_000) % TimeUnit.SECONDS.toNanos(60);
+        return rueda.programar(TimeUnit.SECONDS.toNanos(1) + retraso, NADA).cancelar();
+    }
+
+    @Benchmark
+    public boolean scheduledExecutor() {
+        retraso = (retraso + 7_919_000) % TimeUnit.SECONDS.toNanos(60);
+        return ejecutor.schedule(NADA, TimeUnit.SECONDS.toNanos(1) + retraso, TimeUnit.NANOSECONDS).cancel(false);
+    }
+}
@@ -0,0 +1,100 @@
+package sistemasolar;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 🕳️ Pruebas del detector de huecos: sobre todo, que una retransmisión atrasada nunca se tome
+ * por un reinicio del Sol y se vuelva a aplicar.
+ */
+class DetectorHuecosTest {
+
+    private static final int EPOCA = 0x5011;
+    private static final int OTRA_EPOCA = 0x5012;
+
+    @Test
+    void retransmisionAtrasadaEsSiempreDuplicado() {
+        DetectorHuecos huecos = new DetectorHuecos();
+        long maximo = 4 * DetectorHuecos.MAX_PENDIENTES;
+        for (long s = 1; s <= maximo; s++) assertTrue(huecos.registrar(s, EPOCA));
+
+        // La primera secuencia y una más antigua que MAX_PENDIENTES eran las que se tomaban por reinicios
+        assertFalse(huecos.registrar(1, EPOCA));
+        assertFalse(huecos.registrar(maximo - DetectorHuecos.MAX_PENDIENTES, EPOCA));
+        assertFalse(huecos.registrar(maximo - 1, EPOCA));
+        assertFalse(huecos.registrar(maximo, EPOCA));
+
+        assertEquals(0, huecos.getReinicios());
+        assertEquals(4, huecos.getDuplicados());
+        assertTrue(huecos.registrar(maximo + 1, EPOCA));
+        assertEquals(0, huecos.getPerdidos());
+    }
+
+    @Test
+    void pendienteSeRecuperaUnaSolaVez() throws Exception {
+        DetectorHuecos huecos = new DetectorHuecos();
+        huecos.registrar(1, EPOCA);
+        huecos.registrar(5, EPOCA);
+        assertEquals(3, huecos.getPerdidos());
+        assertEquals(List.of("2-4"), pedir(huecos));
+
+        assertTrue(huecos.registrar(3, EPOCA));
+        assertFalse(huecos.registrar(3, EPOCA));
+        assertEquals(1, huecos.getRecuperados());
+        assertEquals(1, huecos.getDuplicados());
+    }
+
+    @Test
+    void cambioDeEpocaEsReinicio() throws Exception {
+        DetectorHuecos huecos = new DetectorHuecos();
+        for (long s = 1; s <= 100; s++) huecos.registrar(s, EPOCA);
+        huecos.registrar(103, EPOCA);
+
+        // El Sol vuelve a arrancar y su primer mensaje se pierde: el 2 es nuevo y el 1 se pide por NACK
+        assertTrue(huecos.registrar(2, OTRA_EPOCA));
+        assertEquals(1, huecos.getReinicios());
+        assertEquals(2, huecos.getIrrecuperables());
+        assertEquals(List.of("1-1"), pedir(huecos));
+        assertTrue(huecos.registrar(1, OTRA_EPOCA));
+        assertFalse(huecos.registrar(2, OTRA_EPOCA));
+        assertEquals(1, huecos.getReinicios());
+    }
+
+    @Test
+    void primerMensajeNoEsReinicioNiHueco() {
+        DetectorHuecos huecos = new DetectorHuecos();
+        assertTrue(huecos.registrar(1000, EPOCA));
+        assertEquals(0, huecos.getReinicios());
+        assertEquals(0, huecos.getPerdidos());
+    }
+
+    @Test
+    void restaurarContinuaLaMismaEpoca() throws Exception {
+        DetectorHuecos huecos = new DetectorHuecos();
+        huecos.restaurar(500, EPOCA);
+
+        assertFalse(huecos.registrar(1, EPOCA));
+        assertFalse(huecos.registrar(500, EPOCA));
+        assertTrue(huecos.registrar(503, EPOCA));
+        assertEquals(List.of("501-502"), pedir(huecos));
+
+        // Si el Sol arrancó de nuevo mientras el nodo estaba caído, su primer mensaje lo delata
+        DetectorHuecos tras = new DetectorHuecos();
+        tras.restaurar(500, EPOCA);
+        assertTrue(tras.registrar(1, OTRA_EPOCA));
+        assertEquals(1, tras.getReinicios());
+    }
+
+    // Rangos que el detector pide en una ronda de NACK
+    private static List<String> pedir(DetectorHuecos huecos) throws Exception {
+        List<String> rangos = new ArrayList<>();
+        huecos.revisar(System.nanoTime(), (desde, hasta) -> rangos.add(desde + "-" + hasta));
+        return rangos;
+    }
+}
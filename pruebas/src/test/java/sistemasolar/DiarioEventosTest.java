@@ -0,0 +1,197 @@
+package sistemasolar;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * 📒 Pruebas de la recuperación del diario: segmentos truncados o corruptos por una caída e
+ * instantáneas que caen justo en el borde de un segmento.
+ */
+class DiarioEventosTest {
+
+    // Segmentos pequeños para cruzar bordes con pocos eventos
+    private static final int REGISTROS_SEGMENTO = 4;
+
+    private static final int EPOCA = 0x5011;
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    void diarioCompletoSeReproduceEntero() throws IOException {
+        escribir(10);
+        assertEquals(secuencias(1, 10), recuperar().eventos);
+    }
+
+    @Test
+    void segmentoTruncadoTerminaEnElUltimoRegistroCompleto() throws IOException {
+        escribir(7);
+        // El segmento 5..8 se corta a mitad del registro 7, como si la caída llegara antes de escribirlo entero
+        try (RandomAccessFile fichero = new RandomAccessFile(segmento(5).toFile(), "rw")) {
+            fichero.setLength(2L * DiarioEventos.TAMANO_REGISTRO + 20);
+        }
+
+        Recuperacion recuperacion = recuperar();
+        assertEquals(secuencias(1, 6), recuperacion.eventos);
+        assertEquals(6, recuperacion.diario.getIndice());
+
+        // Sigue justo después, y lo nuevo se reproduce tras lo recuperado
+        recuperacion.diario.anadir(DiarioEventos.Evento.SOL_APLICADA, Instruccion.SUBIR, 1, 100, 0, 100, EPOCA);
+        recuperacion.diario.close();
+        List<Long> tras = secuencias(1, 6);
+        tras.add(100L);
+        assertEquals(tras, recuperar().eventos);
+    }
+
+    @Test
+    void registroCorruptoMarcaElFinalYSeBorraLoPosterior() throws IOException {
+        escribir(10);
+        // Un byte cambiado en el UUID del evento 6 invalida su CRC
+        try (RandomAccessFile fichero = new RandomAccessFile(segmento(5).toFile(), "rw")) {
+            long posicion = DiarioEventos.TAMANO_REGISTRO + 20;
+            fichero.seek(posicion);
+            int original = fichero.read();
+            fichero.seek(posicion);
+            fichero.write(original ^ 0xFF);
+        }
+
+        Recuperacion recuperacion = recuperar();
+        assertEquals(secuencias(1, 5), recuperacion.eventos);
+        assertEquals(5, recuperacion.diario.getIndice());
+        // El segmento 9..12 ya no vale, y los eventos 7 y 8 tampoco
+        assertFalse(Files.exists(segmento(9)));
+        recuperacion.diario.close();
+
+        // Otra caída antes de anotar nada no resucita lo que había detrás del registro corrupto
+        assertEquals(secuencias(1, 5), recuperar().eventos);
+    }
+
+    @Test
+    void instantaneaEnElBordeDeUnSegmento() throws IOException {
+        // La instantánea cubre el último evento del segmento 5..8, antes de que exista el siguiente
+        DiarioEventos diario = abrir();
+        diario.recuperar(estado -> { }, (evento, instruccion, msb, lsb, tema, secuencia, epoca) -> { });
+        anadir(diario, 1, 8);
+        diario.guardarInstantanea(8, estado(8));
+        assertEquals(List.of(segmento(5)), segmentos());
+        diario.close();
+
+        Recuperacion recuperacion = recuperar();
+        assertEquals(8L, recuperacion.instantanea);
+        assertEquals(List.of(), recuperacion.eventos);
+        assertEquals(8, recuperacion.diario.getIndice());
+
+        anadir(recuperacion.diario, 9, 10);
+        recuperacion.diario.close();
+        recuperacion = recuperar();
+        assertEquals(8L, recuperacion.instantanea);
+        assertEquals(secuencias(9, 10), recuperacion.eventos);
+    }
+
+    @Test
+    void instantaneaEnElBordeConElSiguienteSegmentoEmpezado() throws IOException {
+        // Igual, pero el evento 9 ya abrió el segmento 9..12 cuando se guarda la instantánea del 8:
+        // ese segmento empieza justo detrás de lo cubierto, así que el 5..8 sobra
+        DiarioEventos diario = abrir();
+        diario.recuperar(estado -> { }, (evento, instruccion, msb, lsb, tema, secuencia, epoca) -> { });
+        anadir(diario, 1, 9);
+        diario.guardarInstantanea(8, estado(8));
+        assertEquals(List.of(segmento(9)), segmentos());
+        diario.close();
+
+        Recuperacion recuperacion = recuperar();
+        assertEquals(8L, recuperacion.instantanea);
+        assertEquals(secuencias(9, 9), recuperacion.eventos);
+        assertEquals(9, recuperacion.diario.getIndice());
+    }
+
+    @Test
+    void instantaneaCorruptaSeDescarta() throws IOException {
+        DiarioEventos diario = abrir();
+        diario.recuperar(estado -> { }, (evento, instruccion, msb, lsb, tema, secuencia, epoca) -> { });
+        anadir(diario, 1, 3);
+        diario.guardarInstantanea(3, estado(3));
+        diario.close();
+        Path instantanea;
+        try (Stream<Path> ficheros = Files.list(directorio)) {
+            instantanea = ficheros.filter(f -> f.toString().endsWith(".instantanea")).findFirst().orElseThrow();
+        }
+        byte[] contenido = Files.readAllBytes(instantanea);
+        contenido[contenido.length - 1] ^= 0xFF;
+        Files.write(instantanea, contenido);
+
+        // Sin instantánea válida se reproduce el diario desde el principio
+        Recuperacion recuperacion = recuperar();
+        assertNull(recuperacion.instantanea);
+        assertEquals(secuencias(1, 3), recuperacion.eventos);
+    }
+
+    private DiarioEventos abrir() throws IOException {
+        return DiarioEventos.abrir(directorio, REGISTROS_SEGMENTO);
+    }
+
+    // Escribe los eventos 1..n sin cerrar el diario, como si el proceso muriera a continuación
+    private void escribir(int n) throws IOException {
+        DiarioEventos diario = abrir();
+        diario.recuperar(estado -> { }, (evento, instruccion, msb, lsb, tema, secuencia, epoca) -> { });
+        anadir(diario, 1, n);
+    }
+
+    // Anota los eventos desde..hasta, cada uno con su índice como secuencia
+    private static void anadir(DiarioEventos diario, long desde, long hasta) throws IOException {
+        for (long i = desde; i <= hasta; i++) {
+            assertEquals(i, diario.anadir(DiarioEventos.Evento.SOL_APLICADA, Instruccion.values()[(int) (i % 3)],
+                    i | 1, i, 0, i, EPOCA));
+        }
+    }
+
+    private static ByteBuffer estado(long hasta) {
+        return ByteBuffer.allocate(Long.BYTES).putLong(0, hasta);
+    }
+
+    private Recuperacion recuperar() throws IOException {
+        Recuperacion recuperacion = new Recuperacion();
+        recuperacion.diario = abrir();
+        recuperacion.diario.recuperar(estado -> recuperacion.instantanea = estado.getLong(),
+                (evento, instruccion, msb, lsb, tema, secuencia, epoca) -> {
+                    assertEquals(EPOCA, epoca);
+                    recuperacion.eventos.add(secuencia);
+                });
+        return recuperacion;
+    }
+
+    private static final class Recuperacion {
+        DiarioEventos diario;
+        Long instantanea;
+        final List<Long> eventos = new ArrayList<>();
+    }
+
+    private static List<Long> secuencias(long desde, long hasta) {
+        List<Long> secuencias = new ArrayList<>();
+        for (long s = desde; s <= hasta; s++) secuencias.add(s);
+        return secuencias;
+    }
+
+    private Path segmento(long inicio) {
+        return directorio.resolve(String.format("%020d", inicio) + ".diario");
+    }
+
+    private List<Path> segmentos() throws IOException {
+        try (Stream<Path> ficheros = Files.list(directorio)) {
+            return ficheros.filter(f -> f.toString().endsWith(".diario")).sorted().toList();
+        }
+    }
+}
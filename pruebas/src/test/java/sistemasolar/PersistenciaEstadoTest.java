@@ -0,0 +1,113 @@
+package sistemasolar;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 💾 Pruebas de la recuperación del estado de un nodo tras una caída: instantánea más diario, con el
+ * último registro dañado, debe dar la misma temperatura, contadores, duplicados y secuencia de cada
+ * tema del Sol que había tras el último evento completo.
+ *
+ * El reparto de temas se fija al cargar TemasSol, así que el pom las ejecuta también con -Dsol.temas=INSTRUCCION.
+ */
+class PersistenciaEstadoTest {
+
+    private static final int EPOCA = 0x5011;
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    void recuperaHastaElUltimoEventoCompleto() throws IOException {
+        EstadoPlaneta estado = nuevoEstado();
+        RegistroDuplicados tierra = nuevosDuplicados();
+        PersistenciaEstado persistencia = abrir(estado, tierra, TemasSol.nuevosDetectores());
+
+        // 80 eventos con una instantánea tras el 50; el 70 es un reenvío de la Tierra. Cada tema numera
+        // sus mensajes por separado, y se guarda su secuencia tras el último evento que sobrevive
+        int[] temperaturas = new int[81];
+        long[] secuencias = new long[TemasSol.todos().size()];
+        long[] recuperadas = null;
+        for (int i = 1; i <= 80; i++) {
+            Instruccion instruccion = Instruccion.values()[i % 3];
+            if (i == 70) {
+                persistencia.aplicar(DiarioEventos.Evento.TIERRA, instruccion, i | 1, i, i, Mensaje.EPOCA);
+            } else {
+                long secuencia = ++secuencias[TemasSol.de(instruccion).indice()];
+                persistencia.aplicar(DiarioEventos.Evento.SOL_APLICADA, instruccion, i | 1, i, secuencia, EPOCA);
+            }
+            temperaturas[i] = estado.getTemperatura();
+            if (i == 50) persistencia.guardarInstantanea();
+            if (i == 75) recuperadas = secuencias.clone();
+        }
+
+        // Caída a mitad del evento 76: sin cerrar, y con su registro a medias
+        corromper(76);
+
+        EstadoPlaneta recuperado = nuevoEstado();
+        RegistroDuplicados tierraRecuperada = nuevosDuplicados();
+        DetectorHuecos[] huecos = TemasSol.nuevosDetectores();
+        abrir(recuperado, tierraRecuperada, huecos);
+
+        assertEquals(temperaturas[75], recuperado.getTemperatura());
+        assertEquals(74, recuperado.getMensajesSol());
+        assertEquals(1, recuperado.getMensajesTierra());
+        assertFalse(tierraRecuperada.registrar(70 | 1, 70));
+
+        // Cada tema continúa donde se quedó: lo aplicado es duplicado y lo que faltó se vuelve a aceptar
+        for (TemasSol.Tema tema : TemasSol.todos()) {
+            long ultima = recuperadas[tema.indice()];
+            assertFalse(huecos[tema.indice()].registrar(ultima, EPOCA), tema.toString());
+            assertFalse(huecos[tema.indice()].registrar(1, EPOCA), tema.toString());
+            assertTrue(huecos[tema.indice()].registrar(ultima + 1, EPOCA), tema.toString());
+            assertEquals(0, huecos[tema.indice()].getReinicios(), tema.toString());
+        }
+    }
+
+    @Test
+    void cierreLimpioNoReproduceNada() throws IOException {
+        EstadoPlaneta estado = nuevoEstado();
+        PersistenciaEstado persistencia = abrir(estado, nuevosDuplicados(), TemasSol.nuevosDetectores());
+        for (int i = 1; i <= 10; i++) {
+            persistencia.aplicar(DiarioEventos.Evento.SOL_APLICADA, Instruccion.SUBIR, i | 1, i, i, EPOCA);
+        }
+        persistencia.close();
+
+        EstadoPlaneta recuperado = nuevoEstado();
+        DetectorHuecos[] huecos = TemasSol.nuevosDetectores();
+        abrir(recuperado, nuevosDuplicados(), huecos).close();
+        assertEquals(estado.getTemperatura(), recuperado.getTemperatura());
+        assertEquals(10, recuperado.getMensajesSol());
+        assertFalse(huecos[TemasSol.de(Instruccion.SUBIR).indice()].registrar(10, EPOCA));
+    }
+
+    private PersistenciaEstado abrir(EstadoPlaneta estado, RegistroDuplicados tierra, DetectorHuecos[] huecos)
+            throws IOException {
+        return PersistenciaEstado.abrir(directorio, "Prueba", estado, null, tierra, huecos);
+    }
+
+    // Deja a medias el registro del evento indicado, que está en el primer segmento
+    private void corromper(long evento) throws IOException {
+        Path segmento = directorio.resolve(String.format("%020d", 1) + ".diario");
+        try (RandomAccessFile fichero = new RandomAccessFile(segmento.toFile(), "rw")) {
+            fichero.seek((evento - 1) * DiarioEventos.TAMANO_REGISTRO + 16);
+            fichero.write(new byte[DiarioEventos.TAMANO_REGISTRO - 16]);
+        }
+    }
+
+    private static EstadoPlaneta nuevoEstado() {
+        return new EstadoPlaneta(0, 10, -40, -10_000, 10_000);
+    }
+
+    private static RegistroDuplicados nuevosDuplicados() {
+        return new RegistroDuplicados(1024, 60_000);
+    }
+}
@@ -0,0 +1,72 @@
+package sistemasolar;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * ⏯️ Pruebas de la preparación de los lotes reproducidos: los receptores que ya vieron el tráfico grabado,
+ * o una reproducción anterior, deben aceptar cada mensaje de la siguiente como nuevo.
+ */
+class ReproductorTest {
+
+    private static final int MENSAJES = 30;
+
+    @Test
+    void reproducirDosVecesNoDaDuplicados() {
+        ByteBuffer grabado = lote();
+        RegistroDuplicados duplicados = new RegistroDuplicados(1024, 60_000);
+        DetectorHuecos huecos = new DetectorHuecos();
+
+        // Los receptores ya vieron el tráfico original
+        assertEquals(MENSAJES, aceptados(grabado.duplicate(), duplicados, huecos));
+
+        for (int reproduccion = 1; reproduccion <= 2; reproduccion++) {
+            ByteBuffer carga = copia(grabado);
+            new Reproductor(Path.of("captura.cap"), 0, Map.of(), true).renovar(carga, Reloj.ahoraNanos());
+            assertEquals(MENSAJES, aceptados(carga, duplicados, huecos), "reproducción " + reproduccion);
+            assertEquals(reproduccion, huecos.getReinicios());
+        }
+        assertEquals(0, huecos.getDuplicados());
+    }
+
+    @Test
+    void marcasOriginalesSiguenSiendoDuplicados() {
+        ByteBuffer grabado = lote();
+        RegistroDuplicados duplicados = new RegistroDuplicados(1024, 60_000);
+        DetectorHuecos huecos = new DetectorHuecos();
+        aceptados(grabado.duplicate(), duplicados, huecos);
+
+        // Sin renovar, los bytes grabados se descartan tal como antes
+        assertEquals(0, aceptados(copia(grabado), duplicados, huecos));
+    }
+
+    // Un datagrama del Sol con las secuencias 1..MENSAJES
+    private static ByteBuffer lote() {
+        ByteBuffer lote = ByteBuffer.allocate(MENSAJES * CodecMensaje.TAMANO);
+        for (int i = 1; i <= MENSAJES; i++) {
+            CodecMensaje.codificar(new Mensaje(Instruccion.values()[i % 3], 0, i), lote);
+        }
+        return lote.flip();
+    }
+
+    private static ByteBuffer copia(ByteBuffer lote) {
+        return ByteBuffer.allocate(lote.remaining()).put(lote.duplicate()).flip();
+    }
+
+    // Mensajes del lote que aceptan a la vez el registro de duplicados y el detector de huecos
+    private static int aceptados(ByteBuffer lote, RegistroDuplicados duplicados, DetectorHuecos huecos) {
+        int aceptados = 0;
+        for (int inicio = lote.position(); inicio < lote.limit(); inicio += CodecMensaje.TAMANO) {
+            ByteBuffer trama = lote.duplicate().position(inicio);
+            CodecMensaje.validar(trama);
+            boolean nuevo = duplicados.registrar(CodecMensaje.idMsb(trama), CodecMensaje.idLsb(trama));
+            if (huecos.registrar(CodecMensaje.secuencia(trama), CodecMensaje.epoca(trama)) && nuevo) aceptados++;
+        }
+        return aceptados;
+    }
+}